@@ -0,0 +1,374 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+package com.microfocus.application.automation.tools.common;
+
+import hudson.ProxyConfiguration;
+import jenkins.model.Jenkins;
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
+import org.apache.http.protocol.HttpContext;
+
+import javax.net.ssl.HttpsURLConnection;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP client shared by the ALM, Mobile Center and Performance Center integrations. Connections are kept alive in
+ * a pool per server, so consecutive REST calls skip the TCP and TLS handshakes, responses are requested gzipped and
+ * every request has connect and read timeouts. The latency of the requests is kept per endpoint.
+ * Cookies are not managed by the transport, the callers send the cookies of their own session.
+ * Requests without a proxy in their context go through the JVM proxy selector, so the {@code http(s).proxyHost}
+ * system properties apply as they did to {@link java.net.URL#openConnection()}.
+ * <p>
+ * The pool is shared by all the builds of the instance. Up to {@code HttpTransport.MaxPerServer} (100) connections
+ * are open to a server and {@code HttpTransport.MaxTotal} (500) overall; a request that finds the pool exhausted
+ * waits up to {@code HttpTransport.LeaseTimeout} (10 minutes) for a connection to be released before it fails,
+ * so a burst of concurrent builds is queued rather than failed.
+ */
+public final class HttpTransport {
+    
+    private static final Logger LOG = Logger.getLogger(HttpTransport.class.getName());
+    private static final int CONNECT_TIMEOUT = Integer.getInteger("HttpTransport.ConnectTimeout", 30000);
+    private static final int READ_TIMEOUT = Integer.getInteger("HttpTransport.ReadTimeout", 300000);
+    private static final int LEASE_TIMEOUT = Integer.getInteger("HttpTransport.LeaseTimeout", 600000);
+    private static final int MAX_PER_SERVER = Integer.getInteger("HttpTransport.MaxPerServer", 100);
+    private static final int MAX_TOTAL = Integer.getInteger("HttpTransport.MaxTotal", 500);
+    private static final long IDLE_TIMEOUT = Long.getLong("HttpTransport.IdleTimeout", 60000L);
+    private static final String LEGAL_URI_CHARS =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-_.!~*'();/?:@&=+$,#";
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final HttpTransport INSTANCE = new HttpTransport();
+    
+    private final CloseableHttpClient client;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    
+    private HttpTransport() {
+        
+        PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", new DefaultTlsSocketFactory())
+                        .build());
+        connections.setDefaultMaxPerRoute(MAX_PER_SERVER);
+        connections.setMaxTotal(Math.max(MAX_TOTAL, MAX_PER_SERVER));
+        client = HttpClientBuilder.create()
+                .setConnectionManager(connections)
+                .setRoutePlanner(new SystemDefaultRoutePlanner(null))
+                .setDefaultRequestConfig(createConfig().build())
+                .disableCookieManagement()
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_TIMEOUT, TimeUnit.MILLISECONDS)
+                .build();
+    }
+    
+    public static HttpTransport getInstance() {
+        
+        return INSTANCE;
+    }
+    
+    /**
+     * Sends the request through the pool. The response, including its body, has to be consumed by the handler:
+     * the connection goes back to the pool once the handler returns.
+     * 
+     * @param context context of the request, see {@link #createContext(String, String, String, String)}
+     */
+    public <T> T execute(HttpUriRequest request, HttpClientContext context, ResponseHandler<T> handler)
+            throws IOException {
+        
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T ret = client.execute(request, handler, context);
+            failed = false;
+            return ret;
+        } finally {
+            record(request.getMethod(), request.getURI(), System.nanoTime() - start, failed);
+        }
+    }
+    
+    /**
+     * Records the latency of a request that was sent by another client.
+     */
+    public void record(String method, URI uri, long nanos, boolean failed) {
+        
+        String endpoint = getEndpoint(method, uri);
+        stats.computeIfAbsent(endpoint, key -> new Stats()).add(nanos, failed);
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine(String.format(
+                    "%s took %d ms%s",
+                    endpoint,
+                    TimeUnit.NANOSECONDS.toMillis(nanos),
+                    failed ? " and failed" : ""));
+        }
+    }
+    
+    /**
+     * @return latency of the requests sent so far, by method, server and path with the numeric ids masked
+     */
+    public Map<String, Stats> getStats() {
+        
+        return Collections.unmodifiableMap(new TreeMap<>(stats));
+    }
+    
+    /**
+     * Context of a request sent through the given proxy.
+     * 
+     * @param proxyHost no proxy is used when empty
+     * @param proxyUser the proxy is not authenticated when empty
+     */
+    public static HttpClientContext createContext(String proxyHost, String proxyPort, String proxyUser, String proxyPassword) {
+        
+        HttpClientContext ret = HttpClientContext.create();
+        if (StringUtils.isEmpty(proxyHost)) {
+            return ret;
+        }
+        
+        HttpHost proxy = new HttpHost(proxyHost.trim(), Integer.parseInt(proxyPort.trim()));
+        ret.setRequestConfig(createConfig().setProxy(proxy).build());
+        if (StringUtils.isNotEmpty(proxyUser)) {
+            CredentialsProvider credentials = new BasicCredentialsProvider();
+            credentials.setCredentials(
+                    new AuthScope(proxy),
+                    new UsernamePasswordCredentials(proxyUser, StringUtils.defaultString(proxyPassword)));
+            ret.setCredentialsProvider(credentials);
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Context of a request to the given host, through the proxy configured in Jenkins unless the host is excluded.
+     */
+    public static HttpClientContext createJenkinsProxyContext(String host) {
+        
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        ProxyConfiguration proxy = jenkins == null ? null : jenkins.proxy;
+        if (proxy == null || StringUtils.isEmpty(proxy.name)) {
+            return HttpClientContext.create();
+        }
+        for (Pattern pattern : proxy.getNoProxyHostPatterns()) {
+            if (pattern.matcher(host).matches()) {
+                return HttpClientContext.create();
+            }
+        }
+        
+        return createContext(proxy.name, String.valueOf(proxy.port), proxy.getUserName(), proxy.getPassword());
+    }
+    
+    /**
+     * Parses the URL as leniently as {@link java.net.URL}: the characters that are not legal in a URI, like the braces
+     * and the quotes of the ALM queries, are percent encoded while the existing escapes are kept. A percent sign that
+     * does not start an escape is encoded as well.
+     */
+    public static URI toUri(String url) {
+        
+        StringBuilder ret = null;
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if ((c < 128 && LEGAL_URI_CHARS.indexOf(c) >= 0) || isEscape(url, i)) {
+                if (ret != null) {
+                    ret.append(c);
+                }
+                continue;
+            }
+            if (ret == null) {
+                ret = new StringBuilder(url.length() + 16).append(url, 0, i);
+            }
+            int end = Character.isHighSurrogate(c) && i + 1 < url.length() ? i + 2 : i + 1;
+            for (byte b : url.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                ret.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+            i = end - 1;
+        }
+        
+        return URI.create(ret == null ? url : ret.toString());
+    }
+    
+    private static boolean isEscape(String url, int index) {
+        
+        return url.charAt(index) == '%'
+                && index + 2 < url.length()
+                && Character.digit(url.charAt(index + 1), 16) >= 0
+                && Character.digit(url.charAt(index + 2), 16) >= 0;
+    }
+    
+    /**
+     * @return the headers of the response, by case insensitive name
+     */
+    public static Map<String, List<String>> getHeaders(HttpResponse response) {
+        
+        Map<String, List<String>> ret = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : response.getAllHeaders()) {
+            ret.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+        }
+        
+        return ret;
+    }
+    
+    private static RequestConfig.Builder createConfig() {
+        
+        return RequestConfig.custom()
+                .setConnectTimeout(CONNECT_TIMEOUT)
+                .setConnectionRequestTimeout(LEASE_TIMEOUT)
+                .setSocketTimeout(READ_TIMEOUT);
+    }
+    
+    private static String getEndpoint(String method, URI uri) {
+        
+        String path = uri.getRawPath() == null ? "" : ID_SEGMENT.matcher(uri.getRawPath()).replaceAll("/{id}");
+        
+        return String.format("%s %s://%s%s", method, uri.getScheme(), uri.getRawAuthority(), path);
+    }
+    
+    /**
+     * Latency of the requests of an endpoint.
+     */
+    public static final class Stats {
+        
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        
+        void add(long nanos, boolean failed) {
+            
+            count.increment();
+            if (failed) {
+                failures.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+        
+        public long getCount() {
+            
+            return count.sum();
+        }
+        
+        /**
+         * @return requests that got no response, error status codes are not failures of the transport
+         */
+        public long getFailures() {
+            
+            return failures.sum();
+        }
+        
+        public long getAverageMillis() {
+            
+            long requests = count.sum();
+            return requests == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / requests);
+        }
+        
+        public long getMaxMillis() {
+            
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+        
+        @Override
+        public String toString() {
+            
+            return String.format(
+                    "%d requests, %d failed, avg %d ms, max %d ms",
+                    getCount(),
+                    getFailures(),
+                    getAverageMillis(),
+                    getMaxMillis());
+        }
+    }
+    
+    /**
+     * TLS with the default SSL socket factory and hostname verifier of {@link HttpsURLConnection}, read on every
+     * connection like the connections the transport replaces. The SSL sessions are cached by the SSL context of
+     * the factory, so new connections to a server resume the session instead of a full handshake.
+     */
+    private static final class DefaultTlsSocketFactory implements LayeredConnectionSocketFactory {
+        
+        private static SSLConnectionSocketFactory current() {
+            
+            return new SSLConnectionSocketFactory(
+                    HttpsURLConnection.getDefaultSSLSocketFactory(),
+                    HttpsURLConnection.getDefaultHostnameVerifier());
+        }
+        
+        @Override
+        public Socket createSocket(HttpContext context) throws IOException {
+            
+            return current().createSocket(context);
+        }
+        
+        @Override
+        public Socket connectSocket(
+                int connectTimeout,
+                Socket socket,
+                HttpHost host,
+                InetSocketAddress remoteAddress,
+                InetSocketAddress localAddress,
+                HttpContext context) throws IOException {
+            
+            return current().connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+        }
+        
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+                throws IOException {
+            
+            return current().createLayeredSocket(socket, target, port, context);
+        }
+    }
+}
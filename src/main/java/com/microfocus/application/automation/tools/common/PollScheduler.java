@@ -0,0 +1,237 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.common;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Multiplexes the polling of all in-flight ALM and Performance Center runs.
+ * Every run is a {@link Poll} that is invoked until it completes its result future, the delay between two polls
+ * is driven by a {@link Backoff}. A small timer pool only keeps the delays, the polls themselves do blocking
+ * REST calls and run on a separate pool, so a slow server does not hold back the polls of the other runs.
+ * Note that builders waiting for a run with {@link #await} still hold their executor thread until the run ends.
+ */
+public final class PollScheduler {
+    
+    private static final int THREADS = Integer.getInteger("PollScheduler.Threads", 1);
+    private static final int IO_THREADS = Integer.getInteger("PollScheduler.IoThreads", 16);
+    private static final long MAX_INTERVAL = Long.getLong("PollScheduler.MaxInterval", 30000L);
+    private static final PollScheduler INSTANCE = new PollScheduler();
+    
+    private final ScheduledThreadPoolExecutor timer;
+    private final ThreadPoolExecutor io;
+    
+    private PollScheduler() {
+        
+        timer = new ScheduledThreadPoolExecutor(THREADS, daemonThreads("PollScheduler-"));
+        timer.setRemoveOnCancelPolicy(true);
+        io = new ThreadPoolExecutor(IO_THREADS, IO_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("PollScheduler-io-"));
+        io.allowCoreThreadTimeOut(true);
+    }
+    
+    private static ThreadFactory daemonThreads(String prefix) {
+        
+        AtomicInteger threadsCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadsCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    public static PollScheduler getInstance() {
+        
+        return INSTANCE;
+    }
+    
+    /**
+     * Starts polling right away.
+     * 
+     * @return future completed by the poll, cancelling it stops the polling
+     */
+    public <T> CompletableFuture<T> submit(Poll<T> poll, Backoff backoff) {
+        
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<Future<?>> nextTick = new AtomicReference<>();
+        result.whenComplete((value, failure) -> {
+            Future<?> tick = nextTick.get();
+            if (tick != null) {
+                tick.cancel(false);
+            }
+        });
+        schedule(poll, backoff, result, nextTick, 0);
+        
+        return result;
+    }
+    
+    /**
+     * Waits for a submitted poll, the poll is cancelled if the waiting thread is interrupted.
+     */
+    public static <T> T await(CompletableFuture<T> result) throws InterruptedException, ExecutionException {
+        
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            result.cancel(false);
+            throw ex;
+        }
+    }
+    
+    private <T> void schedule(
+            Poll<T> poll,
+            Backoff backoff,
+            CompletableFuture<T> result,
+            AtomicReference<Future<?>> nextTick,
+            long delay) {
+        
+        try {
+            nextTick.set(timer.schedule(
+                    () -> execute(poll, backoff, result, nextTick),
+                    delay,
+                    TimeUnit.MILLISECONDS));
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+    
+    private <T> void execute(
+            Poll<T> poll,
+            Backoff backoff,
+            CompletableFuture<T> result,
+            AtomicReference<Future<?>> nextTick) {
+        
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            nextTick.set(io.submit(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    poll.poll(result, backoff);
+                } catch (Throwable cause) {
+                    result.completeExceptionally(cause);
+                }
+                if (!result.isDone()) {
+                    schedule(poll, backoff, result, nextTick, backoff.next());
+                }
+            }));
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+    
+    /**
+     * A single poll of a run, invoked on the poll pool until it completes the result.
+     * Polls of the same run never overlap.
+     */
+    @FunctionalInterface
+    public interface Poll<T> {
+        
+        void poll(CompletableFuture<T> result, Backoff backoff) throws Exception;
+    }
+    
+    /**
+     * Delay between two polls of the same run. The delay grows while the run state does not change,
+     * goes back to the minimum as soon as the poll reports a new state, and never passes the ETA of the run.
+     * Used by a single poll at a time, hence not thread safe.
+     */
+    public static final class Backoff {
+        
+        private final long _min;
+        private final long _max;
+        private long _current;
+        private long _once = -1;
+        private long _eta = Long.MAX_VALUE;
+        
+        public Backoff(long min, long max) {
+            
+            _min = Math.max(0, min);
+            _max = Math.max(_min, max);
+            _current = _min;
+        }
+        
+        /**
+         * Starts at the given interval and backs off up to PollScheduler.MaxInterval.
+         */
+        public static Backoff adaptive(long interval) {
+            
+            return new Backoff(interval, Math.max(interval, MAX_INTERVAL));
+        }
+        
+        public static Backoff fixed(long interval) {
+            
+            return new Backoff(interval, interval);
+        }
+        
+        /**
+         * The run state has changed, poll it again soon.
+         */
+        public void reset() {
+            
+            _current = _min;
+        }
+        
+        /**
+         * Uses the given delay for the next poll only.
+         */
+        public void once(long delay) {
+            
+            _once = Math.max(0, delay);
+        }
+        
+        /**
+         * Expected time ({@link System#currentTimeMillis()}) the run reaches its next state, ignored once passed.
+         */
+        public void setEta(long eta) {
+            
+            _eta = eta;
+        }
+        
+        long next() {
+            
+            long delay;
+            if (_once >= 0) {
+                delay = _once;
+                _once = -1;
+            } else {
+                delay = _current;
+                _current = Math.min(_max, _current + _current / 2);
+            }
+            
+            long untilEta = _eta - System.currentTimeMillis();
+            
+            return untilEta > 0 ? Math.min(delay, untilEta) : delay;
+        }
+    }
+}
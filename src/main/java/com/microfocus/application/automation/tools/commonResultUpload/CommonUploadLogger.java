@@ -42,6 +42,8 @@ public class CommonUploadLogger implements Logger {
 
     private List<String> failedMessages;
     private PrintStream printStream;
+    private int cacheHits;
+    private int cacheMisses;
 
     public CommonUploadLogger(PrintStream printStream) {
         this.printStream = printStream;
@@ -75,4 +77,20 @@ public class CommonUploadLogger implements Logger {
         return failedMessages;
     }
 
+    public void countCacheHit() {
+        cacheHits++;
+    }
+
+    public void countCacheMiss() {
+        cacheMisses++;
+    }
+
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    public int getCacheMisses() {
+        return cacheMisses;
+    }
+
 }
@@ -32,7 +32,6 @@ import com.microfocus.adm.performancecenter.plugins.common.rest.RESTConstants;
 import com.microfocus.application.automation.tools.commonResultUpload.CommonUploadLogger;
 import com.microfocus.application.automation.tools.rest.RestClient;
 import com.microfocus.application.automation.tools.sse.common.RestXmlUtils;
-import com.microfocus.application.automation.tools.sse.common.XPathUtils;
 import com.microfocus.application.automation.tools.sse.sdk.Response;
 import org.apache.commons.lang3.StringEscapeUtils;
 
@@ -89,8 +88,8 @@ public abstract class BasicPostEntityRequest {
     }
 
     protected Map<String, String> handleResult(Response response, Map<String, String> valueMap, String restPrefix) {
-        if (response.isOk() && !response.toString().equals("")) {
-            Map<String, String> result = XPathUtils.toEntities(response.toString()).get(0);
+        if (response.isOk() && response.hasData()) {
+            Map<String, String> result = response.getEntities().get(0);
             logger.info(String.format("%s entity success. %s(%s)", operation, restPrefix,
                     getResultNameAndId(result)));
             return result;
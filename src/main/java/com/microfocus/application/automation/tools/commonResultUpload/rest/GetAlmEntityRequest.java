@@ -30,7 +30,6 @@ package com.microfocus.application.automation.tools.commonResultUpload.rest;
 
 import com.microfocus.application.automation.tools.commonResultUpload.CommonUploadLogger;
 import com.microfocus.application.automation.tools.rest.RestClient;
-import com.microfocus.application.automation.tools.sse.common.XPathUtils;
 import com.microfocus.application.automation.tools.sse.sdk.ResourceAccessLevel;
 import com.microfocus.application.automation.tools.sse.sdk.Response;
 import org.apache.commons.lang.StringUtils;
@@ -55,8 +54,8 @@ public class GetAlmEntityRequest extends BaseGetEntityRequest {
                 queryString,
                 getHeaders(),
                 ResourceAccessLevel.PROTECTED);
-        if (response.isOk() && !response.toString().equals("")) {
-            List<Map<String, String>> results = XPathUtils.toEntities(response.toString());
+        if (response.isOk() && response.hasData()) {
+            List<Map<String, String>> results = response.getEntities();
             return results;
         } else {
             logger.error("Get entities failed from: " + url);
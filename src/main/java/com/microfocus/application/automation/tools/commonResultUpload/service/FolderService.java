@@ -28,40 +28,70 @@
 
 package com.microfocus.application.automation.tools.commonResultUpload.service;
 
+import com.microfocus.application.automation.tools.commonResultUpload.CommonUploadLogger;
 import com.microfocus.application.automation.tools.results.service.AlmRestTool;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmCommonProperties;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.StringTokenizer;
 
+/**
+ * Finds and creates folders and the entities inside them.
+ * <p>
+ * An instance lives for one upload and caches what it learned from the server: resolved folder paths,
+ * folder children and, for name based lookups, an index of the entities of each visited folder.
+ * Entities created or updated during the upload must be reported with {@link #rememberEntity} so the
+ * index stays accurate.
+ */
 public class FolderService {
 
     private static final String FOLDER_SEPERATOR = "\\";
+    private static final int PAGE_SIZE = 2000;
     private RestService restService;
+    private CommonUploadLogger logger;
+
+    private final Map<String, Map<String, String>> folderPaths = new HashMap<>();
+    private final Map<String, Map<String, String>> folders = new HashMap<>();
+    private final Map<String, List<Map<String, String>>> subFolders = new HashMap<>();
+    private final Map<String, Map<String, List<Map<String, String>>>> entityIndexes = new HashMap<>();
 
-    public FolderService(RestService restService) {
+    public FolderService(RestService restService, CommonUploadLogger logger) {
         this.restService = restService;
+        this.logger = logger;
+    }
+
+    private static String cacheKey(String prefix, String parentId, String name) {
+        return prefix + "|" + parentId + "|" + name;
     }
 
     public Map<String, String> createOrFindPath(String prefix, String parentId, String path) {
-        List<Map<String, String>> folders = new ArrayList<Map<String, String>>();
+        String pathKey = cacheKey(prefix, parentId, path);
+        if (folderPaths.containsKey(pathKey)) {
+            logger.countCacheHit();
+            return folderPaths.get(pathKey);
+        }
+        logger.countCacheMiss();
+
+        List<Map<String, String>> pathFolders = new ArrayList<Map<String, String>>();
         StringTokenizer tokenizer = new StringTokenizer(path, FOLDER_SEPERATOR);
         while (tokenizer.hasMoreTokens()) {
             String itemString = tokenizer.nextToken();
             Map<String, String> folder = createFolder(prefix, parentId, itemString);
             if (folder != null) {
-                folders.add(folder);
+                pathFolders.add(folder);
                 parentId = folder.get("id");
             }
         }
-        if (folders.size() > 0) {
-            return folders.get(folders.size() - 1);
-        } else  {
-            return null;
+        Map<String, String> folder = pathFolders.size() > 0 ? pathFolders.get(pathFolders.size() - 1) : null;
+        if (folder != null) {
+            folderPaths.put(pathKey, folder);
         }
+        return folder;
     }
 
     public Map<String, String> createFolder(String prefix, String parentId, String folderName) {
@@ -70,18 +100,34 @@ public class FolderService {
             existsFolder = new HashMap<>();
             existsFolder.put(AlmCommonProperties.PARENT_ID, parentId);
             existsFolder.put(AlmCommonProperties.NAME, folderName);
-            return restService.create(prefix, existsFolder);
+            Map<String, String> newFolder = restService.create(prefix, existsFolder);
+            if (newFolder != null) {
+                folders.put(cacheKey(prefix, parentId, folderName), newFolder);
+                List<Map<String, String>> siblings = subFolders.get(cacheKey(prefix, parentId, ""));
+                if (siblings != null) {
+                    siblings.add(newFolder);
+                }
+            }
+            return newFolder;
         } else {
             return existsFolder;
         }
     }
 
     public Map<String, String> checkFolderExits(String prefix, String parentId, String folderName) {
+        String folderKey = cacheKey(prefix, parentId, folderName);
+        if (folders.containsKey(folderKey)) {
+            logger.countCacheHit();
+            return folders.get(folderKey);
+        }
+        logger.countCacheMiss();
+
         String query = String.format("fields=id,name&query={parent-id[%s];name[%s]}",
                 parentId,
                 AlmRestTool.getEncodedString(folderName));
         List<Map<String, String>> entities = restService.get(null, prefix, query);
-        if (entities.size() > 0) {
+        if (entities != null && entities.size() > 0) {
+            folders.put(folderKey, entities.get(0));
             return entities.get(0);
         } else {
             return null;
@@ -89,8 +135,19 @@ public class FolderService {
     }
 
     public List<Map<String, String>> getSubFolders(String prefix, String parentFolderId) {
+        String subFoldersKey = cacheKey(prefix, parentFolderId, "");
+        if (subFolders.containsKey(subFoldersKey)) {
+            logger.countCacheHit();
+            return subFolders.get(subFoldersKey);
+        }
+        logger.countCacheMiss();
+
         String query = String.format("fields=id,name&query={parent-id[%s]}", parentFolderId);
-        return restService.get(null, prefix, query);
+        List<Map<String, String>> result = restService.get(null, prefix, query);
+        if (result != null) {
+            subFolders.put(subFoldersKey, result);
+        }
+        return result;
     }
 
     public Map<String, String> findEntityInFolder(
@@ -117,19 +174,53 @@ public class FolderService {
         return foundTests.size() > 0 ? foundTests.get(0) : null;
     }
 
+    /**
+     * Records an entity created or updated during the upload in the index of its folder.
+     */
+    public void rememberEntity(String entityPrefix, Map<String, String> entity) {
+        if (entity == null) {
+            return;
+        }
+        String parentId = entity.get(AlmCommonProperties.PARENT_ID);
+        if (parentId == null) {
+            // don't know which folder changed, rebuild the indexes on demand
+            Iterator<String> keys = entityIndexes.keySet().iterator();
+            while (keys.hasNext()) {
+                if (keys.next().startsWith(entityPrefix + "|")) {
+                    keys.remove();
+                }
+            }
+            return;
+        }
+
+        Map<String, List<Map<String, String>>> index = entityIndexes.get(cacheKey(entityPrefix, parentId, ""));
+        if (index == null) {
+            return;
+        }
+        for (List<Map<String, String>> sameName : index.values()) {
+            Iterator<Map<String, String>> entities = sameName.iterator();
+            while (entities.hasNext()) {
+                String id = entities.next().get(AlmCommonProperties.ID);
+                if (id != null && id.equals(entity.get(AlmCommonProperties.ID))) {
+                    entities.remove();
+                }
+            }
+        }
+        addToIndex(index, new HashMap<>(entity));
+    }
+
     private void findEntityInFolderAndSub(List<Map<String, String>> foundTests,
                                           Map<String, String> test, String entityPrefix,
                                           String folderPrefix, String[] queryFields) {
-        List<Map<String, String>> existTests = restService.get(null,
-                entityPrefix, CriteriaTranslator.getCriteriaString(queryFields, test));
+        List<Map<String, String>> existTests = findEntities(test, entityPrefix, queryFields);
 
         if (existTests == null || existTests.size() == 0) {
             // Not in current folder, find in sub folders
-            List<Map<String, String>> subFolders =
+            List<Map<String, String>> subFolderList =
                     getSubFolders(folderPrefix, test.get(AlmCommonProperties.PARENT_ID));
 
-            if (subFolders != null) {
-                for (Map<String, String> subfolder : subFolders) {
+            if (subFolderList != null) {
+                for (Map<String, String> subfolder : subFolderList) {
                     // Make criteria fields.
                     test.put(CriteriaTranslator.CRITERIA_PREFIX + AlmCommonProperties.PARENT_ID,
                             subfolder.get(AlmCommonProperties.ID));
@@ -142,4 +233,100 @@ public class FolderService {
             foundTests.addAll(existTests);
         }
     }
+
+    /**
+     * Finds the entities matching the criteria of the given entity. Lookups by folder and name are answered
+     * from the folder's entity index, other criteria are sent to the server.
+     * Like {@link CriteriaTranslator#getCriteriaString}, this turns the criteria into plain fields of the entity.
+     */
+    private List<Map<String, String>> findEntities(Map<String, String> test, String entityPrefix,
+                                                   String[] queryFields) {
+        String parentCriteria = CriteriaTranslator.CRITERIA_PREFIX + AlmCommonProperties.PARENT_ID;
+        String nameCriteria = CriteriaTranslator.CRITERIA_PREFIX + AlmCommonProperties.NAME;
+        for (String key : test.keySet()) {
+            if (key.startsWith(CriteriaTranslator.CRITERIA_PREFIX)
+                    && !key.equals(parentCriteria) && !key.equals(nameCriteria)) {
+                return restService.get(null, entityPrefix, CriteriaTranslator.getCriteriaString(queryFields, test));
+            }
+        }
+        String parentId = test.get(parentCriteria);
+        String name = test.get(nameCriteria);
+        if (parentId == null || name == null) {
+            return restService.get(null, entityPrefix, CriteriaTranslator.getCriteriaString(queryFields, test));
+        }
+
+        Map<String, List<Map<String, String>>> index = getEntityIndex(entityPrefix, parentId, queryFields);
+        if (index == null) {
+            return restService.get(null, entityPrefix, CriteriaTranslator.getCriteriaString(queryFields, test));
+        }
+
+        test.remove(parentCriteria);
+        test.remove(nameCriteria);
+        test.put(AlmCommonProperties.PARENT_ID, parentId);
+        test.put(AlmCommonProperties.NAME, name);
+
+        List<Map<String, String>> result = new ArrayList<>();
+        List<Map<String, String>> sameName = index.get(name.toLowerCase(Locale.ROOT));
+        if (sameName != null) {
+            for (Map<String, String> entity : sameName) {
+                Map<String, String> copy = new HashMap<>();
+                for (String field : queryFields) {
+                    if (entity.containsKey(field)) {
+                        copy.put(field, entity.get(field));
+                    }
+                }
+                result.add(copy);
+            }
+        }
+        return result;
+    }
+
+    private Map<String, List<Map<String, String>>> getEntityIndex(String entityPrefix, String parentId,
+                                                                  String[] queryFields) {
+        String indexKey = cacheKey(entityPrefix, parentId, "");
+        Map<String, List<Map<String, String>>> index = entityIndexes.get(indexKey);
+        if (index != null) {
+            logger.countCacheHit();
+            return index;
+        }
+        logger.countCacheMiss();
+
+        StringBuilder fields = new StringBuilder(AlmCommonProperties.PARENT_ID);
+        for (String field : queryFields) {
+            fields.append(',').append(field);
+        }
+        index = new HashMap<>();
+        int startIndex = 1;
+        while (true) {
+            String query = String.format("fields=%s&query={parent-id[%s]}&page-size=%d&start-index=%d",
+                    fields, parentId, PAGE_SIZE, startIndex);
+            List<Map<String, String>> page = restService.get(null, entityPrefix, query);
+            if (page == null) {
+                return null;
+            }
+            for (Map<String, String> entity : page) {
+                addToIndex(index, entity);
+            }
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            startIndex += page.size();
+        }
+        entityIndexes.put(indexKey, index);
+        return index;
+    }
+
+    private static void addToIndex(Map<String, List<Map<String, String>>> index, Map<String, String> entity) {
+        String name = entity.get(AlmCommonProperties.NAME);
+        if (name == null) {
+            return;
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        List<Map<String, String>> sameName = index.get(key);
+        if (sameName == null) {
+            sameName = new ArrayList<>();
+            index.put(key, sameName);
+        }
+        sameName.add(entity);
+    }
 }
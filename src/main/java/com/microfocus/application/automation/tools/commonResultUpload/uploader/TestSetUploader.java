@@ -92,6 +92,7 @@ public class TestSetUploader {
             attachemnt = testset.get("attachment");
             testset.remove("attachment");
             newTestset =  restService.create(TEST_SET_REST_PREFIX, testset);
+            folderService.rememberEntity(TEST_SET_REST_PREFIX, newTestset);
         }
 
         if (newTestset == null) {
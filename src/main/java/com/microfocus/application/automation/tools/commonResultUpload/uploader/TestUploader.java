@@ -100,6 +100,7 @@ public class TestUploader {
                     // If exists, update the test.
                     existsTest.putAll(test);
                     newTest = restService.update(TEST_REST_PREFIX, existsTest);
+                    folderService.rememberEntity(TEST_REST_PREFIX, newTest);
                 } else {
                     logger.log("Test not found by criteria:");
                     for (Map.Entry<String, String> entry : test.entrySet()) {
@@ -112,6 +113,7 @@ public class TestUploader {
                     test.put(AlmCommonProperties.PARENT_ID, folder.get(AlmCommonProperties.ID));
                     if (params.get(CREATE_NEW_TEST).equals("true")) {
                         newTest = restService.create(TEST_REST_PREFIX, test);
+                        folderService.rememberEntity(TEST_REST_PREFIX, newTest);
                     } else {
                         newTest = null;
                         logger.log("Test not found and not created: " + test.toString());
@@ -134,6 +136,7 @@ public class TestUploader {
                 // upload test instance
                 getVersionNumberForVC(newTest);
                 test.putAll(newTest);
+                folderService.rememberEntity(TEST_REST_PREFIX, newTest);
                 testInstanceUploader.upload(testset, xmlResultEntity, attachment);
             }
         }
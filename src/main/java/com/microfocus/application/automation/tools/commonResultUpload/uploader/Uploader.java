@@ -102,6 +102,8 @@ public class Uploader {
             AlmRestTool almRestTool = new AlmRestTool(restClient, logger);
             params.put(ACTUAL_USER, almRestTool.getActualUsername());
             testSetUploader.upload(xmlResultEntities);
+            logger.info(String.format("Folder lookups: %d cache hits, %d cache misses.",
+                    logger.getCacheHits(), logger.getCacheMisses()));
         } else {
             logger.error("Login failed.");
         }
@@ -112,7 +114,7 @@ public class Uploader {
         vs = new VersionControlService(restClient, logger);
         udt = new UDFTranslator(cs, logger);
         rs = new RestService(restClient, logger, udt);
-        fs = new FolderService(rs);
+        fs = new FolderService(rs, logger);
         AttachmentUploadService.init(run, workspace, restClient, logger);
     }
 
@@ -0,0 +1,382 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.commonResultUpload.xmlreader;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+import com.microfocus.application.automation.tools.commonResultUpload.xmlreader.model.EntitiesFieldMap;
+import com.microfocus.application.automation.tools.commonResultUpload.xmlreader.model.XmlResultEntity;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reads test sets, tests and runs in a single StAX pass, without building a DOM of the result file.
+ * <p>
+ * Only field mappings made of plain child paths are supported, e.g. {@code x:/result/suites/suite} or
+ * {@code x:.} as root and {@code x:name}, {@code x:info/duration} or {@code x:@name} as values. Use {@link #isSupported} to check
+ * a mapping first; anything else is left to {@link TestSetReader}'s XPath evaluation. The values are the
+ * XPath string values: the text of the first matching element, or the first matching attribute value.
+ * <p>
+ * Like the XPath evaluation on the document, which is not namespace aware, element and attribute names of the file
+ * are matched by their local name and prefixed names in the mapping are not supported.
+ */
+public class StreamingTestSetReader {
+
+    private static final String ROOT = "root";
+    private static final String NAME = "[A-Za-z_][\\w.\\-]*";
+    private static final Pattern ELEMENT_PATH = Pattern.compile(NAME + "(/" + NAME + ")*");
+    private static final Pattern VALUE_PATH = Pattern.compile("((" + NAME + "/)*" + NAME + "|(" + NAME + "/)*@" + NAME + ")");
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final List<Level> levels = new ArrayList<>();
+
+    public StreamingTestSetReader(EntitiesFieldMap entitiesFieldMap) {
+        for (Map<String, String> configMap : getConfigMaps(entitiesFieldMap)) {
+            levels.add(new Level(configMap, levels.isEmpty()));
+        }
+    }
+
+    /**
+     * @return true if all the roots and values of the mapping can be read by this reader
+     */
+    public static boolean isSupported(EntitiesFieldMap entitiesFieldMap) {
+        boolean first = true;
+        for (Map<String, String> configMap : getConfigMaps(entitiesFieldMap)) {
+            String root = configMap.get(ROOT);
+            if (root == null || !root.startsWith("x:")) {
+                return false;
+            }
+            root = root.substring(2).trim();
+            if (first && root.startsWith("/") && !root.startsWith("//")) {
+                root = root.substring(1);
+            }
+            if (!(ELEMENT_PATH.matcher(root).matches() || (!first && ".".equals(root)))) {
+                return false;
+            }
+            for (Map.Entry<String, String> entry : configMap.entrySet()) {
+                if (ROOT.equals(entry.getKey())) {
+                    continue;
+                }
+                for (String unit : entry.getValue().split("\\|")) {
+                    if (unit.length() < 2) {
+                        return false;
+                    }
+                    String valuePath = unit.substring(2).trim();
+                    if (unit.startsWith("x:") && !".".equals(valuePath) && !VALUE_PATH.matcher(valuePath).matches()) {
+                        return false;
+                    }
+                }
+            }
+            first = false;
+        }
+        return !first;
+    }
+
+    private static List<Map<String, String>> getConfigMaps(EntitiesFieldMap entitiesFieldMap) {
+        List<Map<String, String>> configMaps = new ArrayList<>();
+        for (Map<String, String> configMap : Arrays.asList(
+                entitiesFieldMap.getTestset(), entitiesFieldMap.getTest(), entitiesFieldMap.getRun())) {
+            if (configMap == null) {
+                break;
+            }
+            configMaps.add(configMap);
+        }
+        return configMaps;
+    }
+
+    public List<XmlResultEntity> readTestsets(InputStream is) throws IOException {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(is);
+            try {
+                return read(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to read test result file: " + e.getMessage(), e);
+        } finally {
+            is.close();
+        }
+    }
+
+    private List<XmlResultEntity> read(XMLStreamReader reader) throws XMLStreamException {
+        List<XmlResultEntity> testsets = new ArrayList<>();
+        // names of the open elements, index 0 is the document
+        List<String> path = new ArrayList<>();
+        path.add("");
+        List<OpenEntity> openEntities = new ArrayList<>();
+        List<Capture> captures = new ArrayList<>();
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                path.add(localName(reader.getLocalName()));
+                int depth = path.size() - 1;
+
+                for (OpenEntity openEntity : openEntities) {
+                    openEntity.startElement(reader, path, depth, captures);
+                }
+
+                // a "." root opens the next level on the same element
+                boolean opened = true;
+                while (opened && openEntities.size() < levels.size()) {
+                    int levelIndex = openEntities.size();
+                    Level level = levels.get(levelIndex);
+                    int parentDepth = levelIndex == 0 ? 0 : openEntities.get(levelIndex - 1).depth;
+                    opened = matches(level.root, path, parentDepth, depth);
+                    if (opened) {
+                        OpenEntity openEntity = new OpenEntity(level, depth, levelIndex + 1 < levels.size());
+                        if (levelIndex == 0) {
+                            testsets.add(openEntity.entity);
+                        } else {
+                            openEntities.get(levelIndex - 1).entity.getSubEntities().add(openEntity.entity);
+                        }
+                        openEntities.add(openEntity);
+                        openEntity.startElement(reader, path, depth, captures);
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                int depth = path.size() - 1;
+                for (int i = captures.size() - 1; i >= 0; i--) {
+                    if (captures.get(i).depth == depth) {
+                        captures.remove(i).finish();
+                    }
+                }
+                while (!openEntities.isEmpty() && openEntities.get(openEntities.size() - 1).depth == depth) {
+                    openEntities.remove(openEntities.size() - 1).finish();
+                }
+                path.remove(depth);
+            } else if (!captures.isEmpty() && (event == XMLStreamConstants.CHARACTERS
+                    || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE)) {
+                String text = reader.getText();
+                for (Capture capture : captures) {
+                    capture.text.append(text);
+                }
+            }
+        }
+        return testsets;
+    }
+
+    /**
+     * @return true if the open elements from below {@code fromDepth} to {@code toDepth} are the given steps
+     */
+    private static boolean matches(String[] steps, List<String> path, int fromDepth, int toDepth) {
+        if (toDepth - fromDepth != steps.length) {
+            return false;
+        }
+        for (int i = 0; i < steps.length; i++) {
+            if (!steps[i].equals(path.get(fromDepth + 1 + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String localName(String name) {
+        // without namespace support the reader may report the prefix as part of the name
+        return name.substring(name.lastIndexOf(':') + 1);
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlFactory = new WstxInputFactory();
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        return xmlFactory;
+    }
+
+    /**
+     * The parsed mapping of one entity type.
+     */
+    private static final class Level {
+
+        private final String[] root;
+        private final Map<String, Object[]> fields = new HashMap<>();
+        private final List<ValuePath> valuePaths = new ArrayList<>();
+
+        private Level(Map<String, String> configMap, boolean fromDocument) {
+            String rootPath = configMap.get(ROOT).substring(2).trim();
+            if (fromDocument && rootPath.startsWith("/")) {
+                rootPath = rootPath.substring(1);
+            }
+            root = ".".equals(rootPath) ? new String[0] : rootPath.split("/");
+
+            Map<String, ValuePath> paths = new HashMap<>();
+            for (Map.Entry<String, String> entry : configMap.entrySet()) {
+                if (ROOT.equals(entry.getKey())) {
+                    continue;
+                }
+                String[] units = entry.getValue().split("\\|");
+                Object[] parts = new Object[units.length];
+                for (int i = 0; i < units.length; i++) {
+                    String unit = units[i];
+                    if (unit.startsWith("v:")) {
+                        parts[i] = unit.substring(2);
+                    } else if (unit.startsWith("x:")) {
+                        String valuePath = unit.substring(2).trim();
+                        ValuePath parsed = paths.get(valuePath);
+                        if (parsed == null) {
+                            parsed = new ValuePath(valuePaths.size(), valuePath);
+                            paths.put(valuePath, parsed);
+                            valuePaths.add(parsed);
+                        }
+                        parts[i] = parsed;
+                    } else {
+                        parts[i] = unit;
+                    }
+                }
+                fields.put(entry.getKey(), parts);
+            }
+        }
+    }
+
+    /**
+     * A value path relative to the entity node: element steps, optionally followed by an attribute.
+     */
+    private static final class ValuePath {
+
+        private final int index;
+        private final String[] steps;
+        private final String attribute;
+
+        private ValuePath(int index, String path) {
+            this.index = index;
+            int at = path.indexOf('@');
+            attribute = at < 0 ? null : path.substring(at + 1);
+            String elementPath = at < 0 ? path : path.substring(0, Math.max(0, at - 1));
+            steps = elementPath.isEmpty() || ".".equals(elementPath) ? new String[0] : elementPath.split("/");
+        }
+    }
+
+    /**
+     * An entity whose root element is open, collecting the values of its paths.
+     */
+    private static final class OpenEntity {
+
+        private final Level level;
+        private final int depth;
+        private final XmlResultEntity entity = new XmlResultEntity();
+        private final String[] values;
+
+        private OpenEntity(Level level, int depth, boolean hasSubEntities) {
+            this.level = level;
+            this.depth = depth;
+            this.values = new String[level.valuePaths.size()];
+            if (hasSubEntities) {
+                entity.setSubEntities(new ArrayList<XmlResultEntity>());
+            }
+        }
+
+        private void startElement(XMLStreamReader reader, List<String> path, int elementDepth,
+                                  List<Capture> captures) {
+            for (ValuePath valuePath : level.valuePaths) {
+                if (values[valuePath.index] != null || !matches(valuePath.steps, path, depth, elementDepth)) {
+                    continue;
+                }
+                if (valuePath.attribute == null) {
+                    // the first matching element is the value, even if it turns out to be empty
+                    values[valuePath.index] = "";
+                    captures.add(new Capture(this, valuePath.index, elementDepth));
+                } else {
+                    String value = getAttribute(reader, valuePath.attribute);
+                    if (value != null) {
+                        values[valuePath.index] = value;
+                    }
+                }
+            }
+        }
+
+        private static String getAttribute(XMLStreamReader reader, String name) {
+            // the DOM keeps attributes sorted by name, so XPath returns the first one in that order
+            String firstName = null;
+            String value = null;
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                String attributeName = reader.getAttributeLocalName(i);
+                String prefix = reader.getAttributePrefix(i);
+                if (prefix != null && !prefix.isEmpty()) {
+                    attributeName = prefix + ":" + attributeName;
+                }
+                if (name.equals(localName(attributeName))
+                        && (firstName == null || attributeName.compareTo(firstName) < 0)) {
+                    firstName = attributeName;
+                    value = reader.getAttributeValue(i);
+                }
+            }
+            return value;
+        }
+
+        private void finish() {
+            Map<String, String> fieldsMap = new HashMap<>();
+            for (Map.Entry<String, Object[]> field : level.fields.entrySet()) {
+                StringBuilder sb = new StringBuilder();
+                for (Object part : field.getValue()) {
+                    if (part instanceof ValuePath) {
+                        String value = values[((ValuePath) part).index];
+                        sb.append(value == null ? "" : value);
+                    } else {
+                        sb.append((String) part);
+                    }
+                }
+                fieldsMap.put(field.getKey(), sb.toString());
+            }
+            entity.setValueMap(fieldsMap);
+        }
+    }
+
+    /**
+     * Collects the text content of an element matched by a value path.
+     */
+    private static final class Capture {
+
+        private final OpenEntity owner;
+        private final int index;
+        private final int depth;
+        private final StringBuilder text = new StringBuilder();
+
+        private Capture(OpenEntity owner, int index, int depth) {
+            this.owner = owner;
+            this.index = index;
+            this.depth = depth;
+        }
+
+        private void finish() {
+            owner.values[index] = text.toString();
+        }
+    }
+}
@@ -37,7 +37,11 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathExpressionException;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -48,23 +52,36 @@ public class TestSetReader {
     private XpathReader xr;
     private ValueTranslator translator;
     private EntitiesFieldMap entitiesFieldMap;
+    private FilePath filePath;
+    private String resultPath;
     private static final String ROOT = "root";
 
-    public TestSetReader(FilePath filePath, EntitiesFieldMap entitiesFieldMap)
-            throws IOException, ParserConfigurationException, InterruptedException, SAXException {
-        xr = new XpathReader(filePath);
-        translator = new ValueTranslator(xr);
+    public TestSetReader(FilePath filePath, EntitiesFieldMap entitiesFieldMap) {
+        this.filePath = filePath;
         this.entitiesFieldMap = entitiesFieldMap;
     }
 
-    public TestSetReader(String resultPath, EntitiesFieldMap entitiesFieldMap)
-            throws IOException, SAXException, ParserConfigurationException {
-        xr = new XpathReader(resultPath);
-        translator = new ValueTranslator(xr);
+    public TestSetReader(String resultPath, EntitiesFieldMap entitiesFieldMap) {
+        this.resultPath = resultPath;
         this.entitiesFieldMap = entitiesFieldMap;
     }
 
-    public List<XmlResultEntity> readTestsets() throws XPathExpressionException {
+    public List<XmlResultEntity> readTestsets() throws XPathExpressionException, IOException, InterruptedException,
+            ParserConfigurationException, SAXException {
+        if (StreamingTestSetReader.isSupported(entitiesFieldMap)) {
+            // plain child paths only, no need to hold the whole document
+            InputStream is = filePath != null
+                    ? filePath.read()
+                    : Files.newInputStream(Paths.get(resultPath));
+            return new StreamingTestSetReader(entitiesFieldMap).readTestsets(new BufferedInputStream(is));
+        }
+        return readTestsetsWithXpath();
+    }
+
+    List<XmlResultEntity> readTestsetsWithXpath() throws XPathExpressionException, IOException,
+            InterruptedException, ParserConfigurationException, SAXException {
+        xr = filePath != null ? new XpathReader(filePath) : new XpathReader(resultPath);
+        translator = new ValueTranslator(xr);
         List<XmlResultEntity> testsets = readEntities(entitiesFieldMap.getTestset(), xr.getDoc());
         return testsets;
     }
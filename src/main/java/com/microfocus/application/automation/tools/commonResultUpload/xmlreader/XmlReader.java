@@ -40,9 +40,17 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class XmlReader {
 
+    private static final int READER_THREADS = Integer.getInteger("XmlReader.Threads",
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
+
     private CommonUploadLogger logger;
     private Run<?, ?> run;
     private FilePath workspace;
@@ -86,33 +94,69 @@ public class XmlReader {
     }
 
     private List<XmlResultEntity> readWorkspace(List<FilePath> files, EntitiesFieldMap entitiesFieldMap) {
-        List<XmlResultEntity> xmlResultEntities = new ArrayList<>();
+        List<TestSetReader> readers = new ArrayList<>();
         for (FilePath file : files) {
-            try {
-                TestSetReader tr = new TestSetReader(file, entitiesFieldMap);
-                xmlResultEntities.addAll(tr.readTestsets());
-            } catch (Exception e) {
-                logger.error(e.getMessage());
-                e.printStackTrace();
-                run.setResult(Result.FAILURE);
-            }
+            readers.add(new TestSetReader(file, entitiesFieldMap));
         }
-        return xmlResultEntities;
+        return read(readers);
     }
 
     private List<XmlResultEntity> readBuildPath(String[] files, EntitiesFieldMap entitiesFieldMap) {
-        List<XmlResultEntity> xmlResultEntities = new ArrayList<>();
+        List<TestSetReader> readers = new ArrayList<>();
         for (String fileName : files) {
             String fullpath = run.getRootDir().getAbsolutePath() + File.separator + fileName;
-            try {
-                TestSetReader tr = new TestSetReader(fullpath, entitiesFieldMap);
-                xmlResultEntities.addAll(tr.readTestsets());
-            } catch (Exception e) {
-                logger.error(e.getMessage());
-                e.printStackTrace();
-                run.setResult(Result.FAILURE);
+            readers.add(new TestSetReader(fullpath, entitiesFieldMap));
+        }
+        return read(readers);
+    }
+
+    /**
+     * Reads the result files concurrently, keeping the entities in file order.
+     */
+    private List<XmlResultEntity> read(List<TestSetReader> readers) {
+        List<XmlResultEntity> xmlResultEntities = new ArrayList<>();
+        int threads = Math.min(readers.size(), READER_THREADS);
+        if (threads <= 1) {
+            for (TestSetReader reader : readers) {
+                try {
+                    xmlResultEntities.addAll(reader.readTestsets());
+                } catch (Exception e) {
+                    readFailed(e);
+                }
             }
+            return xmlResultEntities;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<XmlResultEntity>>> results = new ArrayList<>();
+            for (final TestSetReader reader : readers) {
+                results.add(executor.submit(new Callable<List<XmlResultEntity>>() {
+                    @Override
+                    public List<XmlResultEntity> call() throws Exception {
+                        return reader.readTestsets();
+                    }
+                }));
+            }
+            for (Future<List<XmlResultEntity>> result : results) {
+                try {
+                    xmlResultEntities.addAll(result.get());
+                } catch (ExecutionException e) {
+                    readFailed(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            readFailed(e);
+        } finally {
+            executor.shutdownNow();
         }
         return xmlResultEntities;
     }
+
+    private void readFailed(Exception e) {
+        logger.error(e.getMessage());
+        e.printStackTrace();
+        run.setResult(Result.FAILURE);
+    }
 }
@@ -39,15 +39,19 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 public class XpathReader {
 
     private XPath xPath;
     private Document doc;
+    private final Map<String, XPathExpression> expressions = new HashMap<>();
 
     public XpathReader(FilePath filePath) throws IOException, InterruptedException, ParserConfigurationException,
             SAXException {
@@ -79,10 +83,20 @@ public class XpathReader {
     }
 
     public NodeList getNodeListFromNode(String xpath, Node node) throws XPathExpressionException {
-        return (NodeList) xPath.compile(xpath).evaluate(node, XPathConstants.NODESET);
+        return (NodeList) compile(xpath).evaluate(node, XPathConstants.NODESET);
     }
 
     public String getValueFromNode(String xpath, Node node) throws XPathExpressionException {
-        return (String) xPath.compile(xpath).evaluate(node, XPathConstants.STRING);
+        return (String) compile(xpath).evaluate(node, XPathConstants.STRING);
+    }
+
+    private XPathExpression compile(String xpath) throws XPathExpressionException {
+        // the same few expressions are evaluated for every node of the report
+        XPathExpression expression = expressions.get(xpath);
+        if (expression == null) {
+            expression = xPath.compile(xpath);
+            expressions.put(xpath, expression);
+        }
+        return expression;
     }
 }
@@ -37,6 +37,7 @@ public class HttpResponse {
 
     private Map<String, List<String>> headers;
     private JSONObject jsonObject;
+    private int responseCode;
 
     public HttpResponse() {
 
@@ -55,6 +56,10 @@ public class HttpResponse {
         this.jsonObject = jsonObject;
     }
 
+    public void setResponseCode(int responseCode) {
+        this.responseCode = responseCode;
+    }
+
     public Map<String, List<String>> getHeaders() {
         return headers;
     }
@@ -62,4 +67,8 @@ public class HttpResponse {
     public JSONObject getJsonObject() {
         return jsonObject;
     }
+
+    public int getResponseCode() {
+        return responseCode;
+    }
 }
@@ -28,12 +28,21 @@
 
 package com.microfocus.application.automation.tools.mc;
 
+import com.microfocus.application.automation.tools.common.HttpTransport;
 import net.minidev.json.JSONObject;
 import net.minidev.json.JSONValue;
 import org.apache.commons.lang.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
 
 import java.io.*;
-import java.net.*;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -50,7 +59,21 @@ public class HttpUtils {
 
         HttpResponse response = null;
         try {
-            response = doHttp(proxyInfo, POST, url, null, headers, data);
+            response = doHttp(proxyInfo, POST, url, null, headers, data == null ? null : new ByteArrayEntity(data));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return response;
+    }
+
+    /**
+     * Posts the file between the given prefix and suffix, streamed from disk with a fixed content length
+     */
+    public static HttpResponse doPostFile(ProxyInfo proxyInfo, String url, Map<String, String> headers, byte[] prefix, File file, byte[] suffix) {
+
+        HttpResponse response = null;
+        try {
+            response = doHttp(proxyInfo, POST, url, null, headers, new FileBody(prefix, file, suffix));
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -69,96 +92,63 @@ public class HttpUtils {
     }
 
 
-    private static HttpResponse doHttp(ProxyInfo proxyInfo, String requestMethod, String connectionUrl, String queryString, Map<String, String> headers, byte[] data) throws IOException {
-        HttpResponse response = new HttpResponse();
+    private static HttpResponse doHttp(ProxyInfo proxyInfo, String requestMethod, String connectionUrl, String queryString, Map<String, String> headers, HttpEntity body) throws IOException {
 
         if ((queryString != null) && !queryString.isEmpty()) {
             connectionUrl += "?" + queryString;
         }
+        final String requestUrl = connectionUrl;
 
-        URL url = new URL(connectionUrl);
-
-
-        HttpURLConnection connection = (HttpURLConnection) openConnection(proxyInfo, url);
-
-        connection.setRequestMethod(requestMethod);
-
-        setConnectionHeaders(connection, headers);
-
-        if (data != null && data.length > 0) {
-            connection.setDoOutput(true);
-            try {
-                OutputStream out = connection.getOutputStream();
-                out.write(data);
-                out.flush();
-                out.close();
-            } catch (Throwable cause) {
-                cause.printStackTrace();
-            }
+        RequestBuilder builder = RequestBuilder.create(requestMethod).setUri(HttpTransport.toUri(requestUrl));
+        if (body != null && body.getContentLength() > 0) {
+            builder.setEntity(body);
         }
-
-        connection.connect();
-
-        int responseCode = connection.getResponseCode();
-
-        if (responseCode == HttpURLConnection.HTTP_OK) {
-            InputStream inputStream = connection.getInputStream();
-            JSONObject jsonObject = convertStreamToJSONObject(inputStream);
-            response.setHeaders(connection.getHeaderFields());
-            if (null == jsonObject) {
-                System.out.println(requestMethod + " " + connectionUrl + " return is null.");
+        setRequestHeaders(builder, headers);
+
+        return HttpTransport.getInstance().execute(builder.build(), createContext(proxyInfo), httpResponse -> {
+            HttpResponse response = new HttpResponse();
+            int responseCode = httpResponse.getStatusLine().getStatusCode();
+            response.setResponseCode(responseCode);
+
+            HttpEntity entity = httpResponse.getEntity();
+            if (responseCode == HttpURLConnection.HTTP_OK) {
+                JSONObject jsonObject = convertStreamToJSONObject(entity == null ? null : entity.getContent());
+                response.setHeaders(HttpTransport.getHeaders(httpResponse));
+                if (null == jsonObject) {
+                    System.out.println(requestMethod + " " + requestUrl + " return is null.");
+                } else {
+                    response.setJsonObject(jsonObject);
+                }
             } else {
-                response.setJsonObject(jsonObject);
+                System.out.println(requestMethod + " " + requestUrl + " failed with response code:" + responseCode);
             }
-        } else {
-            System.out.println(requestMethod + " " + connectionUrl + " failed with response code:" + responseCode);
-        }
-        connection.disconnect();
+            EntityUtils.consume(entity);
 
-        return response;
+            return response;
+        });
     }
 
-    private static URLConnection openConnection(final ProxyInfo proxyInfo, URL _url) throws IOException {
-
-        Proxy proxy = null;
+    private static HttpClientContext createContext(ProxyInfo proxyInfo) {
 
         if (proxyInfo != null && !proxyInfo.isEmpty()) {
             try {
-                int port = Integer.parseInt(proxyInfo.port.trim());
-                proxy = new Proxy(Proxy.Type.HTTP, new InetSocketAddress(proxyInfo.host, port));
+                return HttpTransport.createContext(proxyInfo.host, proxyInfo.port, proxyInfo.userName, proxyInfo.password);
             } catch (Exception e) {
                 e.printStackTrace();
             }
-
         }
 
-        if (proxy != null && !proxyInfo.isEmpty()) {
-            Authenticator authenticator = new Authenticator() {
-                @Override
-                protected PasswordAuthentication getPasswordAuthentication() {
-                    return new PasswordAuthentication(proxyInfo.userName, proxyInfo.password.toCharArray());    //To change body of overridden methods use File | Settings | File Templates.
-                }
-            };
-
-            Authenticator.setDefault(authenticator);
-        }
-
-        if (proxy == null) {
-            return _url.openConnection();
-        }
-
-
-        return _url.openConnection(proxy);
+        return HttpClientContext.create();
     }
 
 
-    private static void setConnectionHeaders(HttpURLConnection connection, Map<String, String> headers) {
+    private static void setRequestHeaders(RequestBuilder builder, Map<String, String> headers) {
 
-        if (connection != null && headers != null && headers.size() != 0) {
+        if (headers != null && headers.size() != 0) {
             Iterator<Map.Entry<String, String>> headersIterator = headers.entrySet().iterator();
             while (headersIterator.hasNext()) {
                 Map.Entry<String, String> header = headersIterator.next();
-                connection.setRequestProperty(header.getKey(), header.getValue());
+                builder.setHeader(header.getKey(), header.getValue());
             }
         }
 
@@ -225,6 +215,59 @@ public class HttpUtils {
         return proxyInfo;
     }
 
+    /**
+     * The file between a prefix and a suffix, streamed from disk with a fixed content length
+     */
+    private static class FileBody extends AbstractHttpEntity {
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final byte[] prefix;
+        private final File file;
+        private final byte[] suffix;
+
+        FileBody(byte[] prefix, File file, byte[] suffix) {
+            this.prefix = prefix;
+            this.file = file;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return prefix.length + file.length() + suffix.length;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new SequenceInputStream(Collections.enumeration(Arrays.asList(
+                    new ByteArrayInputStream(prefix),
+                    new FileInputStream(file),
+                    new ByteArrayInputStream(suffix))));
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(prefix);
+            try (InputStream in = new FileInputStream(file)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            out.write(suffix);
+        }
+    }
+
     static class ProxyInfo {
         String host;
         String port;
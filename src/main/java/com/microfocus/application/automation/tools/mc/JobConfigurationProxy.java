@@ -31,31 +31,56 @@ package com.microfocus.application.automation.tools.mc;
 import com.microfocus.application.automation.tools.model.AuthModel;
 import com.microfocus.application.automation.tools.model.ProxySettings;
 import com.microfocus.application.automation.tools.sse.common.StringUtils;
+import hudson.Util;
 import net.minidev.json.JSONArray;
 import net.minidev.json.JSONObject;
 import net.minidev.json.JSONValue;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 /**
  * communicate with MC servers, login to MC, upload application to MC server, create job, get job details.
  */
 public class JobConfigurationProxy {
 
+    private static final Logger LOG = Logger.getLogger(JobConfigurationProxy.class.getName());
     private static final String TOKEN = "token";
     private static final String EXTRA_APPS = "extraApps";
     private static final String INSTRUMENTED = "instrumented";
     private static final String PACKAGED = "Packaged";
     private static final String NOT_PACKAGED = "Not Packaged";
+    private static final long SESSION_TTL = TimeUnit.MINUTES.toMillis(Long.getLong("JobConfigurationProxy.SessionTtlMinutes", 10));
+    private static final boolean SKIP_IDENTICAL_UPLOADS = Boolean.getBoolean("JobConfigurationProxy.SkipIdenticalUploads");
+    private static final int UPLOADED_APPS_SIZE = 100;
     private static JobConfigurationProxy instance = null;
 
+    //login sessions for uploads, by server, credentials and proxy
+    private static final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    //upload responses, by server, file name and content hash
+    private static final Map<String, JSONObject> uploadedApps = Collections.synchronizedMap(new LinkedHashMap<String, JSONObject>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JSONObject> eldest) {
+            return size() > UPLOADED_APPS_SIZE;
+        }
+    });
+
     private JobConfigurationProxy() {
     }
 
@@ -150,36 +175,73 @@ public class JobConfigurationProxy {
     //upload app to MC
     public JSONObject upload(String mcUrl, AuthModel authModel, ProxySettings proxy, String appPath) throws IOException {
         File appFile = new File(appPath);
+        if (!appFile.isFile()) {
+            throw new FileNotFoundException(appPath);
+        }
 
-        String uploadUrl = mcUrl + Constants.APP_UPLOAD;
+        //the same binary was already uploaded to this server, the server would only replace it with itself
+        String uploadedKey = null;
+        if (SKIP_IDENTICAL_UPLOADS) {
+            uploadedKey = mcUrl + '|' + appFile.getName() + '|' + sha256(appFile);
+            JSONObject uploaded = uploadedApps.get(uploadedKey);
+            if (uploaded != null) {
+                LOG.info(appFile.getName() + " is identical to an uploaded app, upload is skipped.");
+                return uploaded;
+            }
+        }
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        String uploadUrl = mcUrl + Constants.APP_UPLOAD;
 
         StringBuilder content = new StringBuilder();
         content.append("\r\n").append("------").append(Constants.BOUNDARYSTR).append("\r\n");
         content.append("Content-Disposition: form-data; name=\"file\"; filename=\"" + appFile.getName() + "\"\r\n");
         content.append("Content-Type: application/octet-stream\r\n\r\n");
 
-        outputStream.write(content.toString().getBytes());
+        byte[] prefix = content.toString().getBytes();
+        byte[] suffix = ("\r\n------" + Constants.BOUNDARYSTR + "--\r\n").getBytes();
 
-        try (FileInputStream in = new FileInputStream(appFile)) {
-            byte[] b = new byte[1024];
-            int i = 0;
-            while ((i = in.read(b)) != -1) {
-                outputStream.write(b, 0, i);
-            }
+        if (null == proxy) {
+            proxy = new ProxySettings();
         }
+        HttpUtils.ProxyInfo proxyInfo = HttpUtils.setProxyCfg(proxy.getFsProxyAddress(), proxy.getFsProxyUserName(), proxy.getFsProxyPassword());
 
-        outputStream.write(("\r\n------" + Constants.BOUNDARYSTR + "--\r\n").getBytes());
+        String sessionKey = getSessionKey(mcUrl, authModel, proxy);
+        Session session = sessions.get(sessionKey);
+        boolean cachedSession = session != null && !session.isExpired();
+        if (!cachedSession) {
+            session = login(sessionKey, mcUrl, authModel, proxy);
+        }
+        HttpResponse response = HttpUtils.doPostFile(proxyInfo, uploadUrl, getUploadHeaders(session, authModel, appFile), prefix, appFile, suffix);
+        if (cachedSession && response != null && isUnauthorized(response.getResponseCode())) {
+            //the server ended the session before it expired here
+            session = login(sessionKey, mcUrl, authModel, proxy);
+            response = HttpUtils.doPostFile(proxyInfo, uploadUrl, getUploadHeaders(session, authModel, appFile), prefix, appFile, suffix);
+        }
 
-        byte[] bytes = outputStream.toByteArray();
+        if (response != null && response.getJsonObject() != null) {
+            JSONObject app = response.getJsonObject();
+            if (uploadedKey != null && !Boolean.TRUE.equals(app.get("error"))) {
+                uploadedApps.put(uploadedKey, app);
+            }
+            return app;
+        }
+        sessions.remove(sessionKey);
+        return null;
+    }
 
-        outputStream.close();
-        if (null == proxy) {
-            proxy = new ProxySettings();
+    private Session login(String sessionKey, String mcUrl, AuthModel authModel, ProxySettings proxy) {
+        Session session = new Session(loginToMC(mcUrl, authModel, proxy));
+        if (session.loginJson != null && !StringUtils.isNullOrEmpty((String) session.loginJson.get(Constants.JSESSIONID))) {
+            sessions.put(sessionKey, session);
+        } else {
+            sessions.remove(sessionKey);
         }
+        return session;
+    }
+
+    private Map<String, String> getUploadHeaders(Session session, AuthModel authModel, File appFile) {
         Map<String, String> headers = new HashMap<>();
-        JSONObject loginJson = loginToMC(mcUrl, authModel, proxy);
+        JSONObject loginJson = session.loginJson;
         if (loginJson != null) {
             String hp4mSecret = (String) loginJson.get(Constants.LOGIN_SECRET);
             String jsessionId = (String) loginJson.get(Constants.JSESSIONID);
@@ -198,14 +260,42 @@ public class JobConfigurationProxy {
 
         headers.put(Constants.CONTENT_TYPE, Constants.CONTENT_TYPE_DOWNLOAD_VALUE + Constants.BOUNDARYSTR);
         headers.put(Constants.FILENAME, appFile.getName());
+        return headers;
+    }
 
-        HttpUtils.ProxyInfo proxyInfo = HttpUtils.setProxyCfg(proxy.getFsProxyAddress(), proxy.getFsProxyUserName(), proxy.getFsProxyPassword());
-        HttpResponse response = HttpUtils.doPost(proxyInfo, uploadUrl, headers, bytes);
+    private static boolean isUnauthorized(int responseCode) {
+        return responseCode == HttpURLConnection.HTTP_UNAUTHORIZED || responseCode == HttpURLConnection.HTTP_FORBIDDEN;
+    }
 
-        if (response != null && response.getJsonObject() != null) {
-            return response.getJsonObject();
+    private static String getSessionKey(String mcUrl, AuthModel authModel, ProxySettings proxy) {
+        //secrets are part of the key only as a hash
+        String secrets = authModel.getMcPassword() + '\n' + authModel.getMcExecToken() + '\n' + proxy.getFsProxyPassword();
+        return mcUrl + '|' + authModel.getValue() + '|' + authModel.getMcUserName() + '|' + authModel.getMcTenantId() + '|'
+                + proxy.getFsProxyAddress() + '|' + proxy.getFsProxyUserName() + '|' + sha256(secrets.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(File file) throws IOException {
+        MessageDigest md = newSha256();
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                md.update(buffer, 0, read);
+            }
+        }
+        return Util.toHexString(md.digest());
+    }
+
+    private static String sha256(byte[] data) {
+        return Util.toHexString(newSha256().digest(data));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return null;
     }
 
     //create one temp job
@@ -479,4 +569,17 @@ public class JobConfigurationProxy {
         if (thereIsNoArgumentNullOrEmpty(key, value) && null != returnObject)
             returnObject.put(key, value);
     }
+
+    private static class Session {
+        private final JSONObject loginJson;
+        private final long created = System.currentTimeMillis();
+
+        Session(JSONObject loginJson) {
+            this.loginJson = loginJson;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - created > SESSION_TTL;
+        }
+    }
 }
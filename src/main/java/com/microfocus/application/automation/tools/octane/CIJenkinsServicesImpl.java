@@ -59,6 +59,7 @@ import com.hp.octane.integrations.services.configurationparameters.FortifySSCTok
 import com.hp.octane.integrations.services.configurationparameters.UftTestRunnerFolderParameter;
 import com.hp.octane.integrations.services.configurationparameters.factory.ConfigurationParameterFactory;
 import com.microfocus.application.automation.tools.model.OctaneServerSettingsModel;
+import com.microfocus.application.automation.tools.octane.actions.coverage.CoverageService;
 import com.microfocus.application.automation.tools.octane.configuration.*;
 import com.microfocus.application.automation.tools.octane.executor.ExecutorConnectivityService;
 import com.microfocus.application.automation.tools.octane.executor.TestExecutionJobCreatorService;
@@ -175,26 +176,27 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
         Map<String, PipelineNode> jobsMap = new HashMap<>();
 
         try {
-            Collection<String> jobNames = Jenkins.get().getJobNames();
-            for (String jobName : jobNames) {
-                String tempJobName = jobName;
+            //the snapshot lists all jobs, resolving each of them by name under impersonation filters out the ones the user can't read
+            for (JobsListCache.Entry entry : JobsListCache.getInstance().getEntries()) {
+                String tempJobName = entry.getName();
                 try {
-                    Job tmpJob = (Job) Jenkins.get().getItemByFullName(tempJobName);
+                    Item tmpItem = Jenkins.get().getItemByFullName(tempJobName);
+                    Job tmpJob = tmpItem instanceof Job ? (Job) tmpItem : null;
 
                     if (!isJobIsRelevantForPipelineModule(tmpJob)) {
                         continue;
                     }
 
                     PipelineNode tmpConfig;
-                    if (tmpJob != null && JobProcessorFactory.WORKFLOW_MULTI_BRANCH_JOB_NAME.equals(tmpJob.getParent().getClass().getName())) {
-                        tempJobName = tmpJob.getParent().getFullName();
+                    if (entry.getMultiBranchParentName() != null) {
+                        tempJobName = entry.getMultiBranchParentName();
                         WorkflowMultiBranchProject parentItem = (WorkflowMultiBranchProject) Jenkins.get().getItem(tempJobName);
                         if( (parentItem != null && parentItem.isDisabled()) || jobsMap.containsKey(tempJobName)){
                             continue; //skip redundant creation config for multibranch job
                         }
                         tmpConfig = createPipelineNodeFromJobName(tempJobName);
                     } else {
-                        tmpConfig = createPipelineNode(tempJobName, tmpJob, includeParameters);
+                        tmpConfig = createPipelineNode(entry, tmpJob, includeParameters);
                     }
                     jobsMap.put(tempJobName, tmpConfig);
                 } catch (Throwable e) {
@@ -372,9 +374,12 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
             Run run = getRunByRefNames(jobId, buildId);
             if (run != null) {
                 try {
-                    result = new FileInputStream(run.getRootDir() + File.separator + TestListener.TEST_RESULT_FILE);
+                    result = TestListener.openTestResults(run);
+                    if (result == null) {
+                        logger.error("'" + TestListener.TEST_RESULT_FILE + "' file no longer exists, test results of '" + jobId + " #" + buildId + "' won't be pushed to Octane");
+                    }
                 } catch (Exception fnfe) {
-                    logger.error("'" + TestListener.TEST_RESULT_FILE + "' file no longer exists, test results of '" + jobId + " #" + buildId + "' won't be pushed to Octane", fnfe);
+                    logger.error("'" + TestListener.TEST_RESULT_FILE + "' file can't be read, test results of '" + jobId + " #" + buildId + "' won't be pushed to Octane", fnfe);
                 }
                 tryRemoveTempTestResultFile(run);
             } else {
@@ -427,13 +432,10 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
             InputStream result = null;
             Run run = getRunByRefNames(jobId, buildId);
             if (run != null) {
-                File coverageReport = new File(run.getRootDir(), reportFileName);
-                if (coverageReport.exists()) {
-                    try {
-                        result = new FileInputStream(coverageReport);
-                    } catch (FileNotFoundException fnfe) {
-                        logger.warn("file not found for '" + reportFileName + "' although just verified its existence, concurrency?");
-                    }
+                try {
+                    result = CoverageService.openCoverageReport(run.getRootDir(), reportFileName);
+                } catch (IOException ioe) {
+                    logger.warn("failed to open coverage report '" + reportFileName + "' of build '" + jobId + " #" + buildId + "'", ioe);
                 }
             } else {
                 logger.error("build '" + jobId + " #" + buildId + "' not found");
@@ -643,26 +645,20 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
         ImpersonationUtil.stopImpersonation(impersonatedContext);
     }
 
-    private PipelineNode createPipelineNode(String name, Job job, boolean includeParameters) {
+    private PipelineNode createPipelineNode(JobsListCache.Entry entry, Job job, boolean includeParameters) {
         PipelineNode tmpConfig = dtoFactory.newDTO(PipelineNode.class)
-                .setJobCiId(JobProcessorFactory.getFlowProcessor(job).getTranslatedJobName())
-                .setName(name);
+                .setJobCiId(entry.getJobCiId())
+                .setName(entry.getName());
 
         if (includeParameters) {
-            tmpConfig.setParameters(ParameterProcessors.getConfigs(job));
-
-            //setIsTestRunner
-            if (tmpConfig.getParameters() != null) {
-                Optional opt = tmpConfig.getParameters().stream().filter(p -> TestsToRunConverterBuilder.TESTS_TO_RUN_PARAMETER.equals(p.getName())).findFirst();
-                tmpConfig.setIsTestRunner(opt.isPresent());
-            }
+            tmpConfig.setParameters(new ArrayList<>(entry.getParameters(job)));
+            tmpConfig.setIsTestRunner(tmpConfig.getParameters().stream().anyMatch(p -> TestsToRunConverterBuilder.TESTS_TO_RUN_PARAMETER.equals(p.getName())));
 
-            //setHasUpstream
+            //upstream projects are kept in the dependency graph that is rebuilt on any project change, so it is not cached
             if (job instanceof AbstractProject) {
                 List<AbstractProject> upstreams = Jenkins.get().getDependencyGraph().getUpstream((AbstractProject) job);
                 tmpConfig.setHasUpstream(upstreams.size() > 0);
             }
-
         }
         return tmpConfig;
     }
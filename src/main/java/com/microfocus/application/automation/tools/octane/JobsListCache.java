@@ -0,0 +1,215 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+package com.microfocus.application.automation.tools.octane;
+
+import com.hp.octane.integrations.dto.parameters.CIParameter;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
+import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
+import hudson.matrix.MatrixConfiguration;
+import hudson.maven.MavenModule;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snapshot of the jobs reported by {@link CIJenkinsServicesImpl#getJobsList(boolean, Long)}.
+ * The snapshot is built once under the system account and then kept up to date by item events:
+ * a created, updated or renamed job is re-read on the next request, a folder change rebuilds everything.
+ * It holds only what does not depend on the requesting user - permissions and the enabled state are
+ * checked against the live item on every request.
+ */
+public final class JobsListCache {
+    private static final Logger logger = SDKBasedLoggerProvider.getLogger(JobsListCache.class);
+    private static final boolean DISABLED = Boolean.getBoolean("JobsListCache.Disabled");
+    private static final JobsListCache instance = new JobsListCache();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> dirtyJobs = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong(1);
+    private long builtReset;
+
+    private JobsListCache() {
+    }
+
+    public static JobsListCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return number of changes applied to the jobs since the plugin started
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * marks the item as changed, called from item listeners
+     */
+    public void itemChanged(Item item) {
+        if (item instanceof Job) {
+            jobChanged(item.getFullName());
+        } else if (item instanceof ItemGroup) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * marks the item as changed under both names, called from item listeners
+     */
+    public void itemMoved(Item item, String oldFullName, String newFullName) {
+        if (item instanceof Job) {
+            jobChanged(oldFullName);
+            jobChanged(newFullName);
+        } else if (item instanceof ItemGroup) {
+            invalidateAll();
+        }
+    }
+
+    private void jobChanged(String fullName) {
+        dirtyJobs.add(fullName);
+        version.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        resets.incrementAndGet();
+        version.incrementAndGet();
+    }
+
+    /**
+     * @return all jobs known to Jenkins that may be reported, regardless of the permissions of the current user
+     */
+    synchronized List<Entry> getEntries() {
+        long reset = resets.get();
+        if (DISABLED || reset != builtReset) {
+            rebuild();
+            builtReset = reset;
+        } else if (!dirtyJobs.isEmpty()) {
+            refreshDirtyJobs();
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        dirtyJobs.clear();
+        entries.clear();
+        try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+            for (Job job : Jenkins.get().allItems(Job.class)) {
+                put(job);
+            }
+        }
+        logger.debug("jobs list snapshot of " + entries.size() + " jobs built in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private void refreshDirtyJobs() {
+        try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+            Iterator<String> it = dirtyJobs.iterator();
+            while (it.hasNext()) {
+                String fullName = it.next();
+                it.remove();
+                entries.remove(fullName);
+                Item item = Jenkins.get().getItemByFullName(fullName);
+                if (item instanceof Job) {
+                    put((Job) item);
+                }
+            }
+        }
+    }
+
+    private void put(Job job) {
+        if (job instanceof MatrixConfiguration || job instanceof MavenModule) {
+            return;
+        }
+        try {
+            String multiBranchParentName = JobProcessorFactory.WORKFLOW_MULTI_BRANCH_JOB_NAME.equals(job.getParent().getClass().getName()) ?
+                    job.getParent().getFullName() : null;
+            String jobCiId = multiBranchParentName == null ? JobProcessorFactory.getFlowProcessor(job).getTranslatedJobName() : null;
+            entries.put(job.getFullName(), new Entry(job.getFullName(), jobCiId, multiBranchParentName));
+        } catch (Throwable e) {
+            logger.error("failed to add job '" + job.getFullName() + "' to jobs list snapshot", e);
+        }
+    }
+
+    /**
+     * user independent data of a single job
+     */
+    static final class Entry {
+        private final String name;
+        private final String jobCiId;
+        private final String multiBranchParentName;
+        private volatile List<CIParameter> parameters;
+
+        private Entry(String name, String jobCiId, String multiBranchParentName) {
+            this.name = name;
+            this.jobCiId = jobCiId;
+            this.multiBranchParentName = multiBranchParentName;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getJobCiId() {
+            return jobCiId;
+        }
+
+        /**
+         * @return full name of the multibranch project if the job is one of its branches, otherwise null
+         */
+        String getMultiBranchParentName() {
+            return multiBranchParentName;
+        }
+
+        /**
+         * parameter definitions change only with the job configuration, which drops the entry, so they are read once
+         */
+        List<CIParameter> getParameters(Job job) {
+            List<CIParameter> result = parameters;
+            if (result == null) {
+                result = Collections.unmodifiableList(ParameterProcessors.getConfigs(job));
+                parameters = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,746 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented implementation of ResultQueue, persisted in a directory instead of a single tape file.
+ * <p>
+ * Every instance/type pair gets its own lane of append-only segment files, so producers of different lanes
+ * never contend on the same lock, and concurrent writes to a lane are fsync-ed together (group commit).
+ * Items are stored with the compact binary {@link QueueItemCodec}.
+ * Failed and postponed items are kept in a delayed lane ordered by sendAfter, so they don't block the head of the queue.
+ * <p>
+ * Removal is acknowledged by a per-lane cursor, delivery is at-least-once: an item may be peeked again after a crash.
+ */
+
+public abstract class SegmentedResultQueueImpl implements ResultQueue {
+
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(SegmentedResultQueueImpl.class);
+
+	private static final int RETRIES = 3;
+	private static final long DEFAULT_SEGMENT_SIZE = 4L * 1024 * 1024;
+	private static final long DEFAULT_RETRY_DELAY = TimeUnit.SECONDS.toMillis(10);
+	private static final String LANE_PREFIX = "lane-";
+	private static final String SEGMENT_SUFFIX = ".seg";
+	private static final String CURSOR_FILE = "cursor";
+	private static final String DELAYED_FILE = "delayed.dat";
+	private static final int RECORD_HEADER_SIZE = 8;
+
+	private final int maxRetries;
+	private final long retryDelay;
+	private final long segmentSize;
+	private final boolean fsync;
+
+	private File queueDir;
+	private final ConcurrentMap<String, Lane> lanes = new ConcurrentHashMap<>();
+	private final List<Lane> laneOrder = new CopyOnWriteArrayList<>();
+	private DelayedLane delayed;
+
+	private QueueItem currentItem;
+	private Lane currentLane;
+	private int nextLane;
+	private final Map<String, Claim> claims = new HashMap<>();
+
+	public SegmentedResultQueueImpl() {
+		this(RETRIES, DEFAULT_RETRY_DELAY, DEFAULT_SEGMENT_SIZE, true);
+	}
+
+	public SegmentedResultQueueImpl(int maxRetries, long retryDelay, long segmentSize, boolean fsync) {
+		this.maxRetries = maxRetries;
+		this.retryDelay = retryDelay;
+		this.segmentSize = segmentSize;
+		this.fsync = fsync;
+	}
+
+	protected void init(File queueDir) throws IOException {
+		if (!queueDir.isDirectory() && !queueDir.mkdirs()) {
+			throw new IOException("failed to create queue directory " + queueDir);
+		}
+		this.queueDir = queueDir;
+		File[] laneDirs = queueDir.listFiles(f -> f.isDirectory() && f.getName().startsWith(LANE_PREFIX));
+		if (laneDirs != null) {
+			Arrays.sort(laneDirs);
+			for (File laneDir : laneDirs) {
+				Lane lane = new Lane(laneDir);
+				lanes.put(laneDir.getName(), lane);
+				laneOrder.add(lane);
+			}
+		}
+		delayed = new DelayedLane(new File(queueDir, DELAYED_FILE));
+	}
+
+	/**
+	 * Moves all items of the legacy single-file tape queue into this queue and deletes the legacy file
+	 *
+	 * @param legacyQueueFile file of {@link AbstractResultQueueImpl}
+	 */
+	protected void migrateLegacyQueue(File legacyQueueFile) throws IOException {
+		if (!legacyQueueFile.isFile()) {
+			return;
+		}
+		AbstractResultQueueImpl legacy = new AbstractResultQueueImpl() {
+		};
+		legacy.init(legacyQueueFile);
+		int migrated = 0;
+		try {
+			QueueItem item;
+			while ((item = legacy.peekFirst()) != null) {
+				add(item);
+				legacy.remove();
+				migrated++;
+			}
+		} finally {
+			legacy.close();
+		}
+		Files.deleteIfExists(legacyQueueFile.toPath());
+		logger.info("migrated " + migrated + " items from legacy queue " + legacyQueueFile.getName());
+	}
+
+	@Override
+	public synchronized QueueItem peekFirst() {
+		if (!claims.isEmpty()) {
+			throw new IllegalStateException("queue is consumed per instance");
+		}
+		if (currentItem != null) {
+			return currentItem;
+		}
+		QueueItem due = delayed.peekDue(System.currentTimeMillis());
+		if (due != null) {
+			currentItem = due;
+			currentLane = null;
+			return currentItem;
+		}
+		int laneCount = laneOrder.size();
+		for (int i = 0; i < laneCount; i++) {
+			Lane lane = laneOrder.get((nextLane + i) % laneCount);
+			QueueItem head = lane.peek();
+			if (head != null) {
+				nextLane = (nextLane + i + 1) % laneCount;
+				currentItem = head;
+				currentLane = lane;
+				return currentItem;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public synchronized boolean failed() {
+		if (currentItem != null) {
+			QueueItem item = currentItem;
+			Lane lane = currentLane;
+			currentItem = null;
+			currentLane = null;
+			if (++item.failCount <= maxRetries) {
+				//retry is postponed in the delayed lane instead of the tail, so it doesn't block items behind it
+				long sendAfter = System.currentTimeMillis() + retryDelay * item.failCount;
+				if (lane == null) {
+					delayed.reschedule(item, sendAfter);
+				} else {
+					item.setSendAfter(sendAfter);
+					delayed.add(item);
+					lane.remove();
+				}
+				return true;
+			}
+
+			if (lane == null) {
+				delayed.remove(item);
+			} else {
+				lane.remove();
+			}
+			return false;
+		} else {
+			throw new IllegalStateException("no outstanding item");
+		}
+	}
+
+	@Override
+	public synchronized void remove() {
+		if (currentItem != null) {
+			if (currentLane == null) {
+				delayed.remove(currentItem);
+			} else {
+				currentLane.remove();
+			}
+			currentItem = null;
+			currentLane = null;
+		} else {
+			throw new IllegalStateException("no outstanding item");
+		}
+	}
+
+	/**
+	 * Instances that have items to send now. Together with {@link #peekFirst(String)} and {@link #remove(String)}
+	 * it lets every instance be consumed independently, and must not be mixed with {@link #peekFirst()} on the same queue.
+	 */
+	public synchronized Set<String> getDueInstanceIds() {
+		Set<String> instanceIds = new LinkedHashSet<>(claims.keySet());
+		instanceIds.addAll(delayed.dueInstanceIds(System.currentTimeMillis()));
+		for (Lane lane : laneOrder) {
+			QueueItem head = lane.peek();
+			if (head != null) {
+				instanceIds.add(instanceKey(head.getInstanceId()));
+			}
+		}
+		return instanceIds;
+	}
+
+	/**
+	 * First item of the instance that can be sent now, the item is held until it is removed
+	 *
+	 * @param instanceId instance of the items, null for items that were queued without instance
+	 */
+	public synchronized QueueItem peekFirst(String instanceId) {
+		if (currentItem != null) {
+			throw new IllegalStateException("queue is consumed by peekFirst()");
+		}
+		String key = instanceKey(instanceId);
+		Claim claim = claims.get(key);
+		if (claim != null) {
+			return claim.item;
+		}
+		QueueItem due = delayed.peekDue(System.currentTimeMillis(), key);
+		if (due != null) {
+			claims.put(key, new Claim(due, null));
+			return due;
+		}
+		for (Lane lane : laneOrder) {
+			QueueItem head = lane.peek();
+			if (head != null && key.equals(instanceKey(head.getInstanceId()))) {
+				claims.put(key, new Claim(head, lane));
+				return head;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the item returned by {@link #peekFirst(String)}
+	 */
+	public synchronized void remove(String instanceId) {
+		Claim claim = claims.remove(instanceKey(instanceId));
+		if (claim == null) {
+			throw new IllegalStateException("no outstanding item of instance " + instanceId);
+		}
+		if (claim.lane == null) {
+			delayed.remove(claim.item);
+		} else {
+			claim.lane.remove();
+		}
+	}
+
+	private static String instanceKey(String instanceId) {
+		return instanceId == null ? "" : instanceId;
+	}
+
+	@Override
+	public void add(QueueItem item) {
+		if (item.getSendAfter() > System.currentTimeMillis()) {
+			delayed.add(item);
+		} else {
+			laneOf(item).append(item);
+		}
+	}
+
+	@Override
+	public void add(String projectName, int buildNumber) {
+		add(new QueueItem(projectName, buildNumber));
+	}
+
+	@Override
+	public void add(String projectName, String type, int buildNumber) {
+		add(new QueueItem(projectName, type, buildNumber));
+	}
+
+	@Override
+	public void add(String projectName, int buildNumber, String workspace) {
+		add(new QueueItem(projectName, buildNumber, workspace));
+	}
+
+	@Override
+	public void add(String instanceId, String projectName, int buildNumber, String workspace) {
+		QueueItem item = new QueueItem(projectName, buildNumber, workspace);
+		item.setInstanceId(instanceId);
+		add(item);
+	}
+
+	public int size() {
+		int size = delayed.size();
+		for (Lane lane : laneOrder) {
+			size += lane.size();
+		}
+		return size;
+	}
+
+	@Override
+	public synchronized void clear() {
+		for (Lane lane : laneOrder) {
+			lane.clear();
+		}
+		delayed.clear();
+		currentItem = null;
+		currentLane = null;
+		claims.clear();
+	}
+
+	@Override
+	public void close() {
+		for (Lane lane : laneOrder) {
+			lane.close();
+		}
+	}
+
+	private Lane laneOf(QueueItem item) {
+		String laneName = laneName(item.getInstanceId(), item.getType());
+		Lane lane = lanes.get(laneName);
+		if (lane == null) {
+			synchronized (lanes) {
+				lane = lanes.get(laneName);
+				if (lane == null) {
+					lane = new Lane(new File(queueDir, laneName));
+					lanes.put(laneName, lane);
+					laneOrder.add(lane);
+				}
+			}
+		}
+		return lane;
+	}
+
+	static String laneName(String instanceId, String type) {
+		String key = (instanceId == null ? "" : instanceId) + "|" + (type == null ? "" : type);
+		String readable = key.replaceAll("[^A-Za-z0-9._-]", "_");
+		if (readable.length() > 64) {
+			readable = readable.substring(0, 64);
+		}
+		return LANE_PREFIX + readable + "-" + Integer.toHexString(key.hashCode());
+	}
+
+	private static String segmentName(long segmentId) {
+		return String.format("%019d%s", segmentId, SEGMENT_SUFFIX);
+	}
+
+	private static long segmentId(String segmentName) {
+		return Long.parseLong(segmentName.substring(0, segmentName.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	/**
+	 * Append-only sequence of segment files, read from a persisted cursor (segment id and offset)
+	 */
+	private final class Lane {
+		private final File dir;
+		private final Object syncLock = new Object();
+		private final TreeMap<Long, File> segments = new TreeMap<>();
+		private FileChannel writeChannel;
+		private long writeSegment;
+		private long appended;
+		private long synced;
+
+		private FileChannel readChannel;
+		private long readSegment;
+		private long readOffset;
+		private QueueItem head;
+		private long headEnd;
+		private int size;
+
+		private Lane(File dir) {
+			this.dir = dir;
+			try {
+				if (!dir.isDirectory() && !dir.mkdirs()) {
+					throw new IOException("failed to create lane directory " + dir);
+				}
+				File[] files = dir.listFiles(f -> f.isFile() && f.getName().endsWith(SEGMENT_SUFFIX));
+				if (files != null) {
+					for (File file : files) {
+						segments.put(segmentId(file.getName()), file);
+					}
+				}
+				readCursor();
+				if (segments.isEmpty()) {
+					segments.put(readSegment, new File(dir, segmentName(readSegment)));
+				}
+				writeSegment = segments.lastKey();
+				writeChannel = FileChannel.open(segments.get(writeSegment).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+				writeChannel.position(writeChannel.size());
+				size = recover();
+			} catch (IOException e) {
+				throw new RuntimeException("failed to open queue lane " + dir, e);
+			}
+		}
+
+		private void readCursor() throws IOException {
+			File cursorFile = new File(dir, CURSOR_FILE);
+			readSegment = segments.isEmpty() ? 1 : segments.firstKey();
+			readOffset = 0;
+			if (cursorFile.isFile() && cursorFile.length() == 16) {
+				try (DataInputStream in = new DataInputStream(new FileInputStream(cursorFile))) {
+					long segment = in.readLong();
+					long offset = in.readLong();
+					if (segments.containsKey(segment)) {
+						readSegment = segment;
+						readOffset = offset;
+					}
+				}
+			}
+			segments.headMap(readSegment).values().forEach(File::delete);
+			segments.headMap(readSegment).clear();
+		}
+
+		/**
+		 * counts pending records and truncates a torn record at the tail of the last segment
+		 */
+		private int recover() throws IOException {
+			int count = 0;
+			for (Map.Entry<Long, File> segment : segments.tailMap(readSegment).entrySet()) {
+				try (FileChannel channel = FileChannel.open(segment.getValue().toPath(), StandardOpenOption.READ)) {
+					long position = segment.getKey() == readSegment ? readOffset : 0;
+					long end;
+					while ((end = nextRecordEnd(channel, position)) > 0) {
+						position = end;
+						count++;
+					}
+					if (position < channel.size()) {
+						if (segment.getKey() == writeSegment) {
+							logger.warn("truncating corrupted tail of queue segment " + segment.getValue());
+							writeChannel.truncate(position);
+							writeChannel.position(position);
+						} else {
+							logger.warn("skipping corrupted tail of queue segment " + segment.getValue());
+						}
+					}
+				}
+			}
+			return count;
+		}
+
+		private long nextRecordEnd(FileChannel channel, long position) throws IOException {
+			byte[] record = readRecord(channel, position);
+			return record == null ? -1 : position + RECORD_HEADER_SIZE + record.length;
+		}
+
+		private byte[] readRecord(FileChannel channel, long position) throws IOException {
+			if (channel.size() - position < RECORD_HEADER_SIZE) {
+				return null;
+			}
+			ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+			readFully(channel, header, position);
+			header.flip();
+			int length = header.getInt();
+			int checksum = header.getInt();
+			if (length < 0 || channel.size() - position - RECORD_HEADER_SIZE < length) {
+				return null;
+			}
+			ByteBuffer payload = ByteBuffer.allocate(length);
+			readFully(channel, payload, position + RECORD_HEADER_SIZE);
+			if (checksum != checksum(payload.array())) {
+				return null;
+			}
+			return payload.array();
+		}
+
+		private void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, position + buffer.position()) < 0) {
+					throw new EOFException();
+				}
+			}
+		}
+
+		private void append(QueueItem item) {
+			long sequence;
+			try {
+				byte[] payload = QueueItemCodec.encode(item);
+				ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+				record.putInt(payload.length).putInt(checksum(payload)).put(payload);
+				record.flip();
+				synchronized (this) {
+					if (writeChannel.position() > 0 && writeChannel.position() + record.remaining() > segmentSize) {
+						roll();
+					}
+					while (record.hasRemaining()) {
+						writeChannel.write(record);
+					}
+					size++;
+					sequence = ++appended;
+				}
+			} catch (IOException e) {
+				throw new RuntimeException("failed to append item to queue lane " + dir, e);
+			}
+			awaitDurable(sequence);
+		}
+
+		/**
+		 * group commit: the first writer to get here forces everything appended so far, the writers
+		 * that were waiting for it find their records already synced
+		 */
+		private void awaitDurable(long sequence) {
+			if (!fsync) {
+				return;
+			}
+			synchronized (syncLock) {
+				if (synced >= sequence) {
+					return;
+				}
+				FileChannel channel;
+				long target;
+				synchronized (this) {
+					channel = writeChannel;
+					target = appended;
+				}
+				try {
+					channel.force(false);
+				} catch (ClosedChannelException e) {
+					//segment was rolled, which forces it before closing
+				} catch (IOException e) {
+					throw new RuntimeException("failed to sync queue lane " + dir, e);
+				}
+				synced = Math.max(synced, target);
+			}
+		}
+
+		private void roll() throws IOException {
+			writeChannel.force(false);
+			writeChannel.close();
+			writeSegment++;
+			File segmentFile = new File(dir, segmentName(writeSegment));
+			segments.put(writeSegment, segmentFile);
+			writeChannel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		}
+
+		private synchronized QueueItem peek() {
+			if (head != null) {
+				return head;
+			}
+			try {
+				while (true) {
+					if (readChannel == null) {
+						readChannel = FileChannel.open(segments.get(readSegment).toPath(), StandardOpenOption.READ);
+					}
+					byte[] record = readRecord(readChannel, readOffset);
+					if (record != null) {
+						head = QueueItemCodec.decode(record);
+						headEnd = readOffset + RECORD_HEADER_SIZE + record.length;
+						return head;
+					}
+					if (readSegment == writeSegment) {
+						return null;
+					}
+					//current segment is exhausted, continue with the next one
+					readChannel.close();
+					readChannel = null;
+					File exhausted = segments.remove(readSegment);
+					readSegment = segments.higherKey(readSegment);
+					readOffset = 0;
+					writeCursor();
+					Files.deleteIfExists(exhausted.toPath());
+				}
+			} catch (IOException e) {
+				logger.error("failed to read queue lane " + dir + " : " + e.getMessage());
+				return null;
+			}
+		}
+
+		private synchronized void remove() {
+			if (head == null) {
+				throw new IllegalStateException("no outstanding item");
+			}
+			readOffset = headEnd;
+			head = null;
+			size--;
+			try {
+				writeCursor();
+			} catch (IOException e) {
+				logger.warn("failed to persist cursor of queue lane " + dir + " : " + e.getMessage());
+			}
+		}
+
+		private void writeCursor() throws IOException {
+			File cursorFile = new File(dir, CURSOR_FILE);
+			try (RandomAccessFile file = new RandomAccessFile(cursorFile, "rw")) {
+				file.seek(0);
+				file.writeLong(readSegment);
+				file.writeLong(readOffset);
+				file.setLength(16);
+			}
+		}
+
+		private synchronized int size() {
+			return size;
+		}
+
+		private synchronized void clear() {
+			while (peek() != null) {
+				remove();
+			}
+		}
+
+		private synchronized void close() {
+			try {
+				if (readChannel != null) {
+					readChannel.close();
+				}
+				writeChannel.force(false);
+				writeChannel.close();
+			} catch (IOException e) {
+				logger.warn("failed to close queue lane " + dir + " : " + e.getMessage());
+			}
+		}
+	}
+
+	private static final class Claim {
+		private final QueueItem item;
+		private final Lane lane;
+
+		private Claim(QueueItem item, Lane lane) {
+			this.item = item;
+			this.lane = lane;
+		}
+	}
+
+	/**
+	 * Items waiting for their sendAfter time, kept ordered in memory and persisted as a snapshot file
+	 */
+	private final class DelayedLane {
+		private final File file;
+		private final PriorityQueue<QueueItem> items = new PriorityQueue<>(Comparator.comparingLong(QueueItem::getSendAfter));
+
+		private DelayedLane(File file) throws IOException {
+			this.file = file;
+			if (file.isFile()) {
+				try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+					int count = in.readInt();
+					for (int i = 0; i < count; i++) {
+						byte[] record = new byte[in.readInt()];
+						in.readFully(record);
+						items.add(QueueItemCodec.decode(record));
+					}
+				} catch (EOFException e) {
+					logger.warn("delayed queue snapshot " + file + " is truncated, loaded " + items.size() + " items");
+				}
+			}
+		}
+
+		private synchronized QueueItem peekDue(long now) {
+			QueueItem first = items.peek();
+			return first != null && first.getSendAfter() <= now ? first : null;
+		}
+
+		private synchronized QueueItem peekDue(long now, String instanceKey) {
+			QueueItem first = null;
+			for (QueueItem item : items) {
+				if (item.getSendAfter() <= now && instanceKey.equals(instanceKey(item.getInstanceId()))
+						&& (first == null || item.getSendAfter() < first.getSendAfter())) {
+					first = item;
+				}
+			}
+			return first;
+		}
+
+		private synchronized Set<String> dueInstanceIds(long now) {
+			Set<String> instanceIds = new HashSet<>();
+			for (QueueItem item : items) {
+				if (item.getSendAfter() <= now) {
+					instanceIds.add(instanceKey(item.getInstanceId()));
+				}
+			}
+			return instanceIds;
+		}
+
+		private synchronized void add(QueueItem item) {
+			items.add(item);
+			persist();
+		}
+
+		private synchronized void reschedule(QueueItem item, long sendAfter) {
+			items.remove(item);
+			item.setSendAfter(sendAfter);
+			items.add(item);
+			persist();
+		}
+
+		private synchronized void remove(QueueItem item) {
+			items.remove(item);
+			persist();
+		}
+
+		private synchronized int size() {
+			return items.size();
+		}
+
+		private synchronized void clear() {
+			items.clear();
+			persist();
+		}
+
+		private void persist() {
+			File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+			try {
+				try (FileOutputStream fos = new FileOutputStream(tmp);
+					 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+					out.writeInt(items.size());
+					for (QueueItem item : items) {
+						byte[] record = QueueItemCodec.encode(item);
+						out.writeInt(record.length);
+						out.write(record);
+					}
+					out.flush();
+					if (fsync) {
+						fos.getFD().sync();
+					}
+				}
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				throw new RuntimeException("failed to persist delayed queue items " + file, e);
+			}
+		}
+	}
+
+	private static int checksum(byte[] data) {
+		CRC32 crc = new CRC32();
+		crc.update(data, 0, data.length);
+		return (int) crc.getValue();
+	}
+}
@@ -50,7 +50,7 @@ public class CoveragePublisherAction implements Action {
 	}
 
 	/**
-	 * this method copy all reports from specified path pattern
+	 * this method merges all reports from specified path pattern to a single report in the build folder
 	 *
 	 * @return list of file names that were copied; NEVER NULL; if an empty list returned - no coverage reports found
 	 */
@@ -61,15 +61,15 @@ public class CoveragePublisherAction implements Action {
 			try {
 				CoverageService.log("start copying coverage report to build folder, using file patten of " + filePattern);
 				String[] files = CoverageService.getCoverageFiles(workspace, filePattern);
-				List<String> matchingReportFiles = filterFilesByFileExtension(files);
-				int index = 0;
+				List<String> matchingReportFiles = filterFilesByFileExtension(files, getFileExtension(defaultFileName));
 
-				for (String fileName : matchingReportFiles) {
-					File resultFile = new File(workspace.child(fileName).toURI());
-					String nextOutputFilename = CoverageService.getCoverageReportFileName(index++, defaultFileName);
-					result.add(nextOutputFilename);
-					File targetReportFile = new File(build.getRootDir(), nextOutputFilename);
-					CoverageService.copyCoverageFile(resultFile, targetReportFile, workspace);
+				if (!matchingReportFiles.isEmpty()) {
+					// all the reports of the build are merged to one report on the agent
+					String outputFilename = CoverageService.getCoverageReportFileName(0, defaultFileName);
+					File targetReportFile = new File(build.getRootDir(), outputFilename);
+					if (CoverageService.mergeCoverageFiles(matchingReportFiles, getReportType(defaultFileName), targetReportFile, workspace)) {
+						result.add(outputFilename);
+					}
 				}
 
 				if (result.isEmpty()) {
@@ -87,18 +87,29 @@ public class CoveragePublisherAction implements Action {
 	 * pre validation of coverage files by file extension.
 	 *
 	 * @param files to validate
+	 * @param fileExtension of the report type
 	 * @return filtered list of files
 	 */
-	private ArrayList<String> filterFilesByFileExtension(String[] files) {
+	private ArrayList<String> filterFilesByFileExtension(String[] files, String fileExtension) {
 		ArrayList<String> filteredList = new ArrayList<>();
 		for (String fileFullPath : files) {
-			if (fileFullPath.endsWith(CoverageService.Lcov.LCOV_FILE_EXTENSION) || fileFullPath.endsWith(CoverageService.Jacoco.JACOCO_FILE_EXTENSION)) {
+			if (fileFullPath.endsWith(fileExtension)) {
 				filteredList.add(fileFullPath);
 			}
 		}
 		return filteredList;
 	}
 
+	private static String getFileExtension(String defaultFileName) {
+		return CoverageService.Lcov.LCOV_DEFAULT_FILE_NAME.equals(defaultFileName) ?
+				CoverageService.Lcov.LCOV_FILE_EXTENSION : CoverageService.Jacoco.JACOCO_FILE_EXTENSION;
+	}
+
+	private static String getReportType(String defaultFileName) {
+		return CoverageService.Lcov.LCOV_DEFAULT_FILE_NAME.equals(defaultFileName) ?
+				CoverageService.Lcov.LCOV_TYPE : CoverageService.Jacoco.JACOCO_TYPE;
+	}
+
 	@Override
 	public String getIconFileName() {
 		return null;
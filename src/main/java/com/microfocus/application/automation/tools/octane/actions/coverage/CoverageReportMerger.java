@@ -0,0 +1,233 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.actions.coverage;
+
+import com.ctc.wstx.api.WstxOutputProperties;
+import com.ctc.wstx.stax.WstxInputFactory;
+import com.ctc.wstx.stax.WstxOutputFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges the coverage reports of several modules into a single report, streaming one report at a time
+ */
+final class CoverageReportMerger {
+    static final String MERGED_REPORT_NAME = "merged";
+
+    private static final String JACOCO_DOCTYPE = "<!DOCTYPE report PUBLIC \"-//JACOCO//DTD Report 1.1//EN\" \"report.dtd\">";
+    private static final String LCOV_END_OF_RECORD = "end_of_record";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+    private static final XMLOutputFactory xmlOutputFactory = createXmlOutputFactory();
+
+    private CoverageReportMerger() {
+    }
+
+    /**
+     * Each JaCoCo report becomes a group of the merged report (named after the report),
+     * the session infos of all reports come first and the report counters are the sums of the group counters.
+     */
+    static void mergeJacoco(List<File> reports, OutputStream out) throws IOException, XMLStreamException {
+        XMLStreamWriter writer = xmlOutputFactory.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+        writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        writer.writeDTD(JACOCO_DOCTYPE);
+        writer.writeStartElement("report");
+        writer.writeAttribute("name", MERGED_REPORT_NAME);
+
+        for (File report : reports) {
+            try (InputStream in = new FileInputStream(report)) {
+                copySessionInfos(xmlInputFactory.createXMLStreamReader(in), writer);
+            }
+        }
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        for (File report : reports) {
+            try (InputStream in = new FileInputStream(report)) {
+                copyAsGroup(xmlInputFactory.createXMLStreamReader(in), writer, report.getPath(), totals);
+            }
+        }
+        for (Map.Entry<String, long[]> total : totals.entrySet()) {
+            writer.writeEmptyElement("counter");
+            writer.writeAttribute("type", total.getKey());
+            writer.writeAttribute("missed", String.valueOf(total.getValue()[0]));
+            writer.writeAttribute("covered", String.valueOf(total.getValue()[1]));
+        }
+
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+        writer.close();
+    }
+
+    /**
+     * LCOV records of all reports one after the other, without blank lines and with every record terminated
+     */
+    static void mergeLcov(List<File> reports, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        for (File report : reports) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(report), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                boolean openRecord = false;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty()) {
+                        writer.write(line);
+                        writer.write('\n');
+                        openRecord = !LCOV_END_OF_RECORD.equals(line);
+                    }
+                }
+                if (openRecord) {
+                    writer.write(LCOV_END_OF_RECORD);
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static void copySessionInfos(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        try {
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2) {
+                        if (!"sessioninfo".equals(reader.getLocalName())) {
+                            // session infos precede the content of the report
+                            return;
+                        }
+                        writer.writeEmptyElement("sessioninfo");
+                        copyAttributes(reader, writer);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static void copyAsGroup(XMLStreamReader reader, XMLStreamWriter writer, String path, Map<String, long[]> totals) throws XMLStreamException {
+        try {
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = reader.getLocalName();
+                    if (depth == 1) {
+                        String reportName = reader.getAttributeValue(null, "name");
+                        writer.writeStartElement("group");
+                        writer.writeAttribute("name", reportName == null || reportName.isEmpty() ? path : reportName);
+                    } else if (depth == 2 && "sessioninfo".equals(name)) {
+                        skipElement(reader);
+                        depth--;
+                    } else {
+                        if (depth == 2 && "counter".equals(name)) {
+                            addCounter(reader, totals);
+                        }
+                        writer.writeStartElement(name);
+                        copyAttributes(reader, writer);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    writer.writeEndElement();
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static void addCounter(XMLStreamReader reader, Map<String, long[]> totals) {
+        long[] total = totals.computeIfAbsent(reader.getAttributeValue(null, "type"), type -> new long[2]);
+        total[0] += parseCount(reader.getAttributeValue(null, "missed"));
+        total[1] += parseCount(reader.getAttributeValue(null, "covered"));
+    }
+
+    private static long parseCount(String value) {
+        try {
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void copyAttributes(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlFactory = new WstxInputFactory();
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlFactory;
+    }
+
+    private static XMLOutputFactory createXmlOutputFactory() {
+        XMLOutputFactory xmlFactory = new WstxOutputFactory();
+        xmlFactory.setProperty(WstxOutputProperties.P_AUTOMATIC_EMPTY_ELEMENTS, true);
+        return xmlFactory;
+    }
+}
@@ -31,21 +31,35 @@ package com.microfocus.application.automation.tools.octane.actions.coverage;
 import hudson.FilePath;
 import hudson.Util;
 import hudson.model.TaskListener;
+import hudson.remoting.Channel;
+import hudson.remoting.RemoteOutputStream;
 import hudson.remoting.VirtualChannel;
 import jenkins.MasterToSlaveFileCallable;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.types.FileSet;
 
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Helper Service for coverage publisher
  */
 public class CoverageService {
     private static final String COVERAGE_REPORT_FILE_NAME_PREFIX = "coverage_report";
+    private static final String COMPRESSED_FILE_SUFFIX = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
     private static TaskListener listener;
 
     public static class Jacoco {
@@ -72,31 +86,62 @@ public class CoverageService {
         return workspace.act(new ResultFilesCallable(glob));
     }
 
-    public static void copyCoverageFile(File resultFile, File targetReportFile, final FilePath workspace) throws IOException, InterruptedException {
-        log(String.format("Copying %s to %s", resultFile.getPath(), targetReportFile));
-
-        byte[] content = workspace.act(new FileContentCallable(resultFile));
-
-        if (validateContent(content)) {
-            log("Got coverage file content");
-
-            try (FileOutputStream os = new FileOutputStream(targetReportFile)) {
-                os.write(content);
+    /**
+     * Merges the coverage files on the agent into a single report of the given type,
+     * which is transferred gzip compressed and stored as targetReportFile.gz
+     *
+     * @return true if the merged report has content
+     */
+    public static boolean mergeCoverageFiles(List<String> files, String type, File targetReportFile, final FilePath workspace) throws IOException, InterruptedException {
+        File compressedReportFile = new File(targetReportFile.getPath() + COMPRESSED_FILE_SUFFIX);
+        log(String.format("Merging %d coverage files to %s", files.size(), compressedReportFile));
+
+        long contentLength;
+        try (OutputStream os = new FileOutputStream(compressedReportFile)) {
+            OutputStream out = workspace.isRemote() ? new RemoteOutputStream(os) : os;
+            contentLength = workspace.act(new MergeCoverageCallable(files.toArray(new String[0]), type, out));
+            //the pipe is asynchronous, make sure everything has been written before the file is closed
+            VirtualChannel channel = workspace.getChannel();
+            if (workspace.isRemote() && channel instanceof Channel) {
+                ((Channel) channel).syncLocalIO();
             }
-            log(String.format("coverage file copied successfully to %s", targetReportFile.getPath()));
+        }
+
+        if (validateContent(contentLength)) {
+            log(String.format("coverage files merged successfully, %d bytes stored in %d bytes", contentLength, compressedReportFile.length()));
+            return true;
         } else {
             log("coverage file content corrupted, failed to copy the file to target destination");
+            Files.deleteIfExists(compressedReportFile.toPath());
+            return false;
+        }
+    }
+
+    /**
+     * Opens a coverage report of the build, decompressing it on the fly when it is stored compressed
+     *
+     * @return stream of the report, or null if the build has no such report
+     */
+    public static InputStream openCoverageReport(File buildDir, String reportFileName) throws IOException {
+        File compressed = new File(buildDir, reportFileName + COMPRESSED_FILE_SUFFIX);
+        File plain = new File(buildDir, reportFileName);
+        if (compressed.isFile()) {
+            return new GZIPInputStream(new FileInputStream(compressed), BUFFER_SIZE);
+        } else if (plain.isFile()) {
+            return new BufferedInputStream(new FileInputStream(plain), BUFFER_SIZE);
+        } else {
+            return null;
         }
     }
 
     /**
      * most of the validations will be done in octane side
      * this is a place holder to do more validations if needed
-     * @param content of the file
+     * @param contentLength of the file
      * @return status
      */
-    private static boolean validateContent(byte[] content) {
-        return content.length > 0;
+    private static boolean validateContent(long contentLength) {
+        return contentLength > 0;
     }
 
     public static void log(final String message) {
@@ -127,16 +172,41 @@ public class CoverageService {
         }
     }
 
-    private static final class FileContentCallable extends MasterToSlaveFileCallable<byte[]> {
-        private final File file;
-
-        private FileContentCallable(File file) {
-            this.file = file;
+    /**
+     * merges the coverage files on the agent and streams the merged report gzip compressed
+     */
+    private static final class MergeCoverageCallable extends MasterToSlaveFileCallable<Long> {
+        private final String[] files;
+        private final String type;
+        private final OutputStream out;
+
+        private MergeCoverageCallable(String[] files, String type, OutputStream out) {
+            this.files = files;
+            this.type = type;
+            this.out = out;
         }
 
         @Override
-        public byte[] invoke(File rootDir, VirtualChannel channel) throws IOException {
-            return Files.readAllBytes(file.toPath());
+        public Long invoke(File rootDir, VirtualChannel channel) throws IOException {
+            List<File> reports = new ArrayList<>();
+            for (String file : files) {
+                reports.add(new File(rootDir, file));
+            }
+
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE)) {
+                CountingOutputStream content = new CountingOutputStream(gzip);
+                if (Lcov.LCOV_TYPE.equals(type)) {
+                    CoverageReportMerger.mergeLcov(reports, content);
+                } else if (reports.size() == 1) {
+                    Files.copy(reports.get(0).toPath(), content);
+                } else {
+                    CoverageReportMerger.mergeJacoco(reports, content);
+                }
+                content.flush();
+                return content.getByteCount();
+            } catch (XMLStreamException e) {
+                throw new IOException("Failed to merge coverage files", e);
+            }
         }
     }
 
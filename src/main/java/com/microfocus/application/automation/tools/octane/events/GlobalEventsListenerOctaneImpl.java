@@ -34,14 +34,17 @@ import com.hp.octane.integrations.dto.events.CIEvent;
 import com.hp.octane.integrations.dto.events.CIEventType;
 import com.hp.octane.integrations.dto.events.ItemType;
 import com.microfocus.application.automation.tools.octane.CIJenkinsServicesImpl;
+import com.microfocus.application.automation.tools.octane.JobsListCache;
 import com.microfocus.application.automation.tools.octane.configuration.ConfigurationService;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
 import com.microfocus.application.automation.tools.octane.executor.UftTestDiscoveryDispatcher;
+import com.microfocus.application.automation.tools.octane.model.PipelineStructureCache;
 import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import com.microfocus.application.automation.tools.settings.OctaneServerSettingsGlobalConfiguration;
 import hudson.Extension;
 import hudson.model.Item;
+import hudson.model.Job;
 import hudson.model.listeners.ItemListener;
 import jenkins.model.Jenkins;
 import org.apache.logging.log4j.Logger;
@@ -68,11 +71,29 @@ public class GlobalEventsListenerOctaneImpl extends ItemListener {
 		logger.info("Plugin version " + ConfigurationService.getPluginVersion());
 		logger.info("CI SDK version " + OctaneSDK.SDK_VERSION);
 
+		JobsListCache.getInstance().invalidateAll();
+		PipelineStructureCache.invalidateAll();
 		OctaneServerSettingsGlobalConfiguration.getInstance().initOctaneClients();
 	}
 
+	@Override
+	public void onCreated(Item item) {
+		JobsListCache.getInstance().itemChanged(item);
+		PipelineStructureCache.invalidateAll();
+	}
+
+	@Override
+	public void onUpdated(Item item) {
+		//jobs are refreshed by SaveableListenerOctaneImpl, folder configuration affects only the display names of their jobs
+		if (!(item instanceof Job)) {
+			PipelineStructureCache.invalidateAll();
+		}
+	}
+
 	@Override
 	public void onDeleted(Item item) {
+		JobsListCache.getInstance().itemChanged(item);
+		PipelineStructureCache.invalidateAll();
 		if(!OctaneSDK.hasClients()){
 			return;
 		}
@@ -99,6 +120,8 @@ public class GlobalEventsListenerOctaneImpl extends ItemListener {
 
 	@Override
 	public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+		JobsListCache.getInstance().itemMoved(item, oldFullName, newFullName);
+		PipelineStructureCache.invalidateAll();
 
 		if (!OctaneSDK.hasClients()) {
 			return;
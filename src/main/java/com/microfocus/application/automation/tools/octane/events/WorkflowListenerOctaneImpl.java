@@ -47,6 +47,8 @@ import com.microfocus.application.automation.tools.octane.tests.TestListener;
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import hudson.Extension;
 import hudson.model.Result;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
 import org.apache.logging.log4j.Logger;
 import org.jenkinsci.plugins.workflow.actions.TimingAction;
 import org.jenkinsci.plugins.workflow.actions.WarningAction;
@@ -56,9 +58,15 @@ import org.jenkinsci.plugins.workflow.flow.GraphListener;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Octane's listener for WorkflowRun events
@@ -75,46 +83,98 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 	private static final Logger logger = SDKBasedLoggerProvider.getLogger(WorkflowListenerOctaneImpl.class);
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 
+	private static final int EVENT_THREADS = Integer.getInteger("WorkflowListenerOctaneImpl.EventThreads", 2);
+
 	//After upgrading Pipeline:Groovy plugin to Version 2.64: receive two start events, therefore
 	// pipeline job shows 2 bars for a single pipeline run.
-	// Here we add job key during start event and remove key in finished event
-	private static Set<String> workflowJobStarted = new HashSet<>();
+	// Here we add job key during start event and remove key in finished event, or when the run completes or is deleted
+	static final Set<String> workflowJobStarted = ConcurrentHashMap.newKeySet();
+
+	//events are built and sent off the CPS VM thread, one lane per run keeps the order of the events of each run
+	private static final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+	private static final AtomicInteger eventsThreadsCount = new AtomicInteger();
+	private static final ExecutorService eventsExecutor = Executors.newFixedThreadPool(EVENT_THREADS, runnable -> {
+		Thread thread = new Thread(runnable, "Octane workflow events-" + eventsThreadsCount.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	@Inject
 	private TestListener testListener;
 
+	/**
+	 * called on the CPS VM thread of the run, so only recognizes the node and what may change later is captured here
+	 */
 	@Override
 	public void onNewHead(FlowNode flowNode) {
 		if(!OctaneSDK.hasClients()){
 			return;
 		}
+		dispatch(flowNode);
+	}
+
+	void dispatch(FlowNode flowNode) {
 		try {
 			if (BuildHandlerUtils.isWorkflowStartNode(flowNode)) {
-				sendPipelineStartedEvent(flowNode);
+				WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
+				//Avoid duplicate start events
+				if (workflowJobStarted.add(getBuildKey(parentRun))) {
+					enqueue(parentRun, () -> sendPipelineStartedEvent(parentRun));
+				}
 			} else if (BuildHandlerUtils.isWorkflowEndNode(flowNode)) {
 				WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
-				sendPipelineFinishedEvent(parentRun);
-				BuildLogHelper.enqueueBuildLog(parentRun);
+				workflowJobStarted.remove(getBuildKey(parentRun));
+				CIBuildResult result = BuildHandlerUtils.translateRunResult(parentRun);
+				long duration = parentRun.getDuration();
+				enqueue(parentRun, () -> {
+					sendPipelineFinishedEvent(parentRun, result, duration);
+					BuildLogHelper.enqueueBuildLog(parentRun);
+				});
 			} else if (BuildHandlerUtils.isStageStartNode(flowNode)) {
-				sendStageStartedEvent((StepStartNode) flowNode);
+				enqueue(BuildHandlerUtils.extractParentRun(flowNode), new StageTask((StepStartNode) flowNode));
 			} else if (BuildHandlerUtils.isStageEndNode(flowNode)) {
-				sendStageFinishedEvent((StepEndNode) flowNode);
+				enqueueStageEnd(BuildHandlerUtils.extractParentRun(flowNode), (StepEndNode) flowNode);
 			}
 		} catch (Throwable throwable) {
 			logger.error("failed to build and/or dispatch STARTED/FINISHED event for " + flowNode, throwable);
 		}
 	}
 
-	private void sendPipelineStartedEvent(FlowNode flowNode) {
-		WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
+	private static void enqueue(WorkflowRun run, Runnable task) {
+		enqueue(run.getExternalizableId(), task);
+	}
 
-		//Avoid duplicate start events
-		String buildKey = getBuildKey(parentRun);
-		if (workflowJobStarted.contains(buildKey)) {
-			return;
-		} else {
-			workflowJobStarted.add(buildKey);
+	static void enqueue(String runId, Runnable task) {
+		boolean[] start = new boolean[1];
+		Lane lane = lanes.compute(runId, (key, existing) -> {
+			Lane result = existing == null ? new Lane(key) : existing;
+			result.pending.add(task);
+			start[0] = result.tryStart();
+			return result;
+		});
+		if (start[0]) {
+			eventsExecutor.execute(lane::drain);
+		}
+	}
+
+	/**
+	 * stage that ended before its STARTED event was sent is sent by a single task, that computes the causes once
+	 */
+	private void enqueueStageEnd(WorkflowRun run, StepEndNode stepEndNode) {
+		boolean[] coalesced = new boolean[1];
+		lanes.computeIfPresent(run.getExternalizableId(), (key, lane) -> {
+			Runnable last = lane.pending.peekLast();
+			if (last instanceof StageTask && ((StageTask) last).tryCoalesce(stepEndNode)) {
+				coalesced[0] = true;
+			}
+			return lane;
+		});
+		if (!coalesced[0]) {
+			enqueue(run, new StageTask(stepEndNode));
 		}
+	}
 
+	private void sendPipelineStartedEvent(WorkflowRun parentRun) {
 		CIEvent event = dtoFactory.newDTO(CIEvent.class)
 				.setEventType(CIEventType.STARTED)
 				.setProjectDisplayName(BuildHandlerUtils.translateFullDisplayName(parentRun.getParent().getFullDisplayName()))
@@ -136,7 +196,7 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 					.setProjectDisplayName(BuildHandlerUtils.translateFullDisplayName(parentRun.getParent().getFullDisplayName()));
 		}
 
-		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
+		publishEvent(event);
 	}
 
 	private boolean isInternal(List<CIEventCause> causes) {
@@ -150,12 +210,12 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 		return false;
 	}
 
-	private String getBuildKey(WorkflowRun run){
-		return run.getFullDisplayName();
+	private static String getBuildKey(WorkflowRun run){
+		//the display name may be changed by the pipeline before its end node
+		return run.getExternalizableId();
 	}
 
-	private void sendPipelineFinishedEvent(WorkflowRun parentRun) {
-		workflowJobStarted.remove(getBuildKey(parentRun));
+	private void sendPipelineFinishedEvent(WorkflowRun parentRun, CIBuildResult result, long duration) {
 		boolean hasTests = testListener.processBuild(parentRun);
 
 		CIEvent event = dtoFactory.newDTO(CIEvent.class)
@@ -166,32 +226,36 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 				.setParameters(ParameterProcessors.getInstances(parentRun))
 				.setStartTime(parentRun.getStartTimeInMillis())
 				.setEstimatedDuration(parentRun.getEstimatedDuration())
-				.setDuration(parentRun.getDuration())
-				.setResult(BuildHandlerUtils.translateRunResult(parentRun))
+				.setDuration(duration)
+				.setResult(result)
 				.setCauses(CIEventCausesFactory.processCauses(parentRun))
 				.setTestResultExpected(hasTests)
 				.setEnvironmentOutputtedParameters(OutputEnvironmentParametersHelper.getOutputEnvironmentParams(parentRun));
-		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
+		publishEvent(event);
 	}
 
-	private void sendStageStartedEvent(StepStartNode stepStartNode) {
+	private void sendStageStartedEvent(StepStartNode stepStartNode, List<CIEventCause> causes) {
 		logger.debug("node " + stepStartNode + " detected as Stage Start node");
-		CIEvent event = prepareStageEvent(stepStartNode).setEventType(CIEventType.STARTED);
-		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
+		CIEvent event = prepareStageEvent(stepStartNode, causes).setEventType(CIEventType.STARTED);
+		publishEvent(event);
 	}
 
-	private void sendStageFinishedEvent(StepEndNode stepEndNode) {
+	private void sendStageFinishedEvent(StepEndNode stepEndNode, List<CIEventCause> causes) {
 		logger.debug("node " + stepEndNode + " detected as Stage End node");
 		StepStartNode stepStartNode = stepEndNode.getStartNode();
-		CIEvent event = prepareStageEvent(stepStartNode)
+		CIEvent event = prepareStageEvent(stepStartNode, causes)
 				.setEventType(CIEventType.FINISHED)
 				.setDuration(TimingAction.getStartTime(stepEndNode) - TimingAction.getStartTime(stepStartNode))
 				.setResult(extractFlowNodeResult(stepEndNode));
 
+		publishEvent(event);
+	}
+
+	void publishEvent(CIEvent event) {
 		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
 	}
 
-	private CIEvent prepareStageEvent(StepStartNode stepStartNode) {
+	private CIEvent prepareStageEvent(StepStartNode stepStartNode, List<CIEventCause> causes) {
 		WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(stepStartNode);
 		return dtoFactory.newDTO(CIEvent.class)
 				.setPhaseType(PhaseType.INTERNAL)
@@ -200,7 +264,7 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
 				.setNumber(String.valueOf(parentRun.getNumber()))
 				.setStartTime(TimingAction.getStartTime(stepStartNode))
-				.setCauses(CIEventCausesFactory.processCauses(stepStartNode));
+				.setCauses(causes);
 	}
 
 	private CIBuildResult extractFlowNodeResult(FlowNode node) {
@@ -252,4 +316,105 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
         }
 		return false;
     }
-}
\ No newline at end of file
+
+	/**
+	 * event tasks of a single run, executed one after the other
+	 */
+	private static final class Lane {
+		private final String runId;
+		private final Deque<Runnable> pending = new ArrayDeque<>();
+		private boolean running;
+
+		private Lane(String runId) {
+			this.runId = runId;
+		}
+
+		//called under the lock of the lanes map entry
+		private boolean tryStart() {
+			if (running) {
+				return false;
+			}
+			running = true;
+			return true;
+		}
+
+		private void drain() {
+			Runnable task;
+			while ((task = next()) != null) {
+				try {
+					task.run();
+				} catch (Throwable throwable) {
+					logger.error("failed to build and/or dispatch event of " + runId, throwable);
+				}
+			}
+		}
+
+		/**
+		 * @return next task of the run, or null after the lane was removed since there is nothing left to do
+		 */
+		private Runnable next() {
+			Runnable[] next = new Runnable[1];
+			lanes.compute(runId, (key, lane) -> {
+				next[0] = pending.poll();
+				if (next[0] == null) {
+					running = false;
+					return null;
+				}
+				return this;
+			});
+			return next[0];
+		}
+	}
+
+	private final class StageTask implements Runnable {
+		private final StepStartNode stepStartNode;
+		private StepEndNode stepEndNode;
+
+		private StageTask(StepStartNode stepStartNode) {
+			this.stepStartNode = stepStartNode;
+		}
+
+		private StageTask(StepEndNode stepEndNode) {
+			this.stepStartNode = null;
+			this.stepEndNode = stepEndNode;
+		}
+
+		//called under the lock of the lanes map entry, so the task can't start meanwhile
+		private boolean tryCoalesce(StepEndNode endNode) {
+			if (stepStartNode == null || stepEndNode != null || !stepStartNode.getId().equals(endNode.getStartNode().getId())) {
+				return false;
+			}
+			stepEndNode = endNode;
+			return true;
+		}
+
+		@Override
+		public void run() {
+			StepStartNode startNode = stepStartNode != null ? stepStartNode : stepEndNode.getStartNode();
+			List<CIEventCause> causes = CIEventCausesFactory.processCauses(startNode);
+			if (stepStartNode != null) {
+				sendStageStartedEvent(stepStartNode, causes);
+			}
+			if (stepEndNode != null) {
+				sendStageFinishedEvent(stepEndNode, causes);
+			}
+		}
+	}
+
+	/**
+	 * Forgets started runs that did not reach their end node, e.g. aborted or deleted runs
+	 */
+	@Extension
+	public static final class RunListenerImpl extends RunListener<WorkflowRun> {
+
+		@Override
+		public void onCompleted(WorkflowRun run, TaskListener listener) {
+			workflowJobStarted.remove(getBuildKey(run));
+		}
+
+		@Override
+		public void onDeleted(WorkflowRun run) {
+			workflowJobStarted.remove(getBuildKey(run));
+		}
+	}
+}
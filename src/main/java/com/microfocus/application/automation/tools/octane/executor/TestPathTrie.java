@@ -0,0 +1,95 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.executor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trie of test paths by path segments.
+ * Answers whether a path contains the path of one of the tests in time proportional to the path depth,
+ * instead of comparing the path against every test.
+ */
+final class TestPathTrie {
+    private final String splitter;
+    private final Node root = new Node();
+
+    TestPathTrie(String splitter) {
+        this.splitter = splitter;
+    }
+
+    void add(String testPath) {
+        Node node = root;
+        for (String segment : split(testPath)) {
+            node = node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        node.isTest = true;
+    }
+
+    /**
+     * @return true if the segments of a test path appear in the path, starting at any of its segments
+     */
+    boolean containsTestPath(String path) {
+        String[] segments = split(path);
+        for (int start = 0; start < segments.length; start++) {
+            Node node = root;
+            for (int i = start; i < segments.length; i++) {
+                node = node.children.get(segments[i]);
+                if (node == null) {
+                    break;
+                }
+                if (node.isTest) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String[] split(String path) {
+        int count = 1;
+        for (int index = path.indexOf(splitter); index != -1; index = path.indexOf(splitter, index + splitter.length())) {
+            count++;
+        }
+        String[] segments = new String[count];
+        int from = 0;
+        for (int i = 0; i < count - 1; i++) {
+            int index = path.indexOf(splitter, from);
+            segments[i] = path.substring(from, index);
+            from = index + splitter.length();
+        }
+        segments[count - 1] = path.substring(from);
+        return segments;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private boolean isTest;
+    }
+}
@@ -164,37 +164,41 @@ public class UFTTestDetectionService {
     private static void removeFalsePositiveDataTables(UftTestDiscoveryResult result, List<AutomatedTest> tests, List<ScmResourceFile> scmResourceFiles) {
         if (!scmResourceFiles.isEmpty() && !tests.isEmpty()) {
 
-            List<ScmResourceFile> falsePositive = new ArrayList<>();
+            TestPathTrie testPaths = new TestPathTrie(SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER);
+            for (AutomatedTest test : tests) {
+                String testPath = SdkStringUtils.isEmpty(test.getPackage()) ? test.getName() : test.getPackage() + SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER + test.getName();
+                testPaths.add(testPath);
+            }
+
+            Set<ScmResourceFile> falsePositive = Collections.newSetFromMap(new IdentityHashMap<>());
             for (ScmResourceFile item : scmResourceFiles) {
                 int parentSplitterIndex = item.getRelativePath().lastIndexOf(SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER);
                 if (parentSplitterIndex != -1) {
                     String parentName = item.getRelativePath().substring(0, parentSplitterIndex);
-                    for (AutomatedTest test : tests) {
-                        String testPath = SdkStringUtils.isEmpty(test.getPackage()) ? test.getName() : test.getPackage() + SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER + test.getName();
-                        if (parentName.contains(testPath)) {
-                            falsePositive.add(item);
-                            break;
-                        }
+                    if (testPaths.containsTestPath(parentName)) {
+                        falsePositive.add(item);
                     }
                 }
             }
 
-            result.getAllScmResourceFiles().removeAll(falsePositive);
+            if (!falsePositive.isEmpty()) {
+                result.getAllScmResourceFiles().removeIf(falsePositive::contains);
+            }
         }
     }
 
     private static void removeTestDuplicatedForUpdateTests(UftTestDiscoveryResult result) {
         Set<String> keys = new HashSet<>();
-        List<AutomatedTest> testsToRemove = new ArrayList<>();
+        Set<AutomatedTest> testsToRemove = Collections.newSetFromMap(new IdentityHashMap<>());
         for (AutomatedTest test : result.getUpdatedTests()) {
             String key = test.getPackage() + "_" + test.getName();
-            if (keys.contains(key)) {
+            if (!keys.add(key)) {
                 testsToRemove.add(test);
             }
-            keys.add(key);
-
         }
-        result.getAllTests().removeAll(testsToRemove);
+        if (!testsToRemove.isEmpty()) {
+            result.getAllTests().removeIf(testsToRemove::contains);
+        }
     }
 
     public static void printToConsole(BuildListener buildListener, String msg) {
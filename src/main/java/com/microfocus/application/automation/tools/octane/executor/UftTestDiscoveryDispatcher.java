@@ -52,7 +52,8 @@ import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.*;
 
 /**
  * This class is responsible to send discovered uft tests to Octane.
@@ -68,8 +69,20 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
 
     private static final int MAX_DISPATCH_TRIALS = 5;
 
+    private static final int WORKERS = Integer.getInteger("UftTestDiscoveryDispatcher.Workers", 4);
+
+    private static final long MAX_LANE_BACKOFF = TimeUnit.MINUTES.toMillis(10);
+
     private UftTestDiscoveryQueue queue;
 
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(WORKERS, runnable -> {
+        Thread thread = new Thread(runnable, "Uft Test Discovery Dispatcher lane");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private volatile boolean stopped = false;
 
     public UftTestDiscoveryDispatcher() {
@@ -107,42 +120,122 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
             return;
         }
 
-        if (queue.peekFirst() == null) {
+        if (OctaneSDK.getClients().isEmpty()) {
+            if (!queue.getDueInstanceIds().isEmpty()) {
+                logger.warn("There are pending discovered UFT tests, but no Octane configuration is found, results can't be submitted");
+            }
             return;
         }
 
-        if (OctaneSDK.getClients().isEmpty()) {
-            logger.warn("There are pending discovered UFT tests, but no Octane configuration is found, results can't be submitted");
+        //the period is only a safety net for postponed items, new items wake the dispatcher on enqueue
+        wakeUp();
+    }
+
+    /**
+     * Starts a lane for every Octane instance that has items to send, unless it is already running or backing off
+     */
+    private void wakeUp() {
+        if (stopped || OctaneSDK.getClients().isEmpty()) {
             return;
         }
 
-        ResultQueue.QueueItem item = null;
-        try {
-            while ((item = queue.peekFirst()) != null) {
-                if (queueContainsPostponedItems(item)) {
-                    //all postponed items are in the end of queue, so it we encountered one postponed item, other postponed items will come after it, so we do break
-                    break;
+        for (String instanceId : queue.getDueInstanceIds()) {
+            Lane lane = lanes.computeIfAbsent(instanceId, Lane::new);
+            if (lane.tryStart()) {
+                try {
+                    workers.execute(lane::drain);
+                } catch (RejectedExecutionException e) {
+                    lane.finish();
+                }
+            }
+        }
+    }
+
+    /**
+     * Items of a single Octane instance, dispatched one after the other.
+     * A lane that fails backs off on its own, without delaying the lanes of other instances.
+     */
+    private final class Lane {
+        private final String instanceId;
+        private boolean running;
+        private long backoffUntil;
+        private int backoffCount;
+
+        private Lane(String instanceId) {
+            this.instanceId = instanceId;
+        }
+
+        private synchronized boolean tryStart() {
+            if (running || backoffUntil > System.currentTimeMillis()) {
+                return false;
+            }
+            running = true;
+            return true;
+        }
+
+        private synchronized void finish() {
+            running = false;
+        }
+
+        private synchronized void backoff() {
+            long delay = Math.min(MAX_LANE_BACKOFF, TimeUnit.MINUTES.toMillis(1) << Math.min(backoffCount, 4));
+            backoffCount++;
+            backoffUntil = System.currentTimeMillis() + delay;
+        }
+
+        private synchronized void succeeded() {
+            backoffCount = 0;
+            backoffUntil = 0;
+        }
+
+        private void drain() {
+            boolean more = false;
+            try {
+                ResultQueue.QueueItem item;
+                while (!stopped && (item = queue.peekFirst(instanceId)) != null) {
+                    if (!dispatch(item)) {
+                        backoff();
+                        return;
+                    }
+                    succeeded();
                 }
+            } catch (Exception e) {
+                logger.error("UFT discovery lane of instance [" + instanceId + "] failed : " + e.getMessage(), e);
+                backoff();
+            } finally {
+                finish();
+                more = !stopped && queue.getDueInstanceIds().contains(instanceId);
+            }
+            if (more) {
+                //items that were enqueued while the lane was finishing
+                wakeUp();
+            }
+        }
 
+        /**
+         * @return false if the instance should be retried later
+         */
+        private boolean dispatch(ResultQueue.QueueItem item) {
+            try {
                 Job project = (Job) Jenkins.get().getItemByFullName(item.getProjectName());
                 if (project == null) {
                     logger.warn("Project [" + item.getProjectName() + "] no longer exists, pending discovered tests can't be submitted");
-                    queue.remove();
-                    continue;
+                    queue.remove(instanceId);
+                    return true;
                 }
 
                 AbstractBuild build = (AbstractBuild) project.getBuildByNumber(item.getBuildNumber());
                 if (build == null) {
                     logger.warn("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] no longer exists, pending discovered tests can't be submitted");
-                    queue.remove();
-                    continue;
+                    queue.remove(instanceId);
+                    return true;
                 }
 
                 UftTestDiscoveryResult result = UFTTestDetectionService.readDetectionResults(build);
                 if (result == null) {
                     logger.warn("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] no longer contains valid detection result file");
-                    queue.remove();
-                    continue;
+                    queue.remove(instanceId);
+                    return true;
                 }
 
                 OctaneClient client;
@@ -150,54 +243,49 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
                     client = OctaneSDK.getClientByInstanceId(result.getConfigurationId());
                 } catch (Exception e) {
                     logger.error("Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] does not have valid configuration " + result.getConfigurationId() + " : " + e.getMessage());
-                    queue.remove();
-                    continue;
+                    queue.remove(instanceId);
+                    return true;
                 }
 
                 if (!client.getConfigurationService().isConnected()) {
                     logger.info(client.getConfigurationService().getConfiguration().getLocationForLog() +
                             " - Build [" + item.getProjectName() + "#" + item.getBuildNumber() + "] - octane is down , postponing sending UFT tests ");
-                    //if octane is down - put current item to the end of queue and try wth other items (that might be from another octane)
+                    //if octane is down - postpone current item, items of other octane instances are sent by their own lanes
+                    queue.remove(instanceId);
                     item.setSendAfter(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1));
-                    queue.remove();
                     queue.add(item);
-                    continue;
+                    return false;
                 }
 
                 logger.warn("Persistence [" + item.getProjectName() + "#" + item.getBuildNumber() + "]");
                 dispatchDetectionResults(item, client.getEntitiesService(), result, build);
-                queue.remove();
-            }
-        } catch (OctaneRestException e) {
-            String reasonDesc = StringUtils.isNotEmpty(e.getData().getDescriptionTranslated()) ? e.getData().getDescriptionTranslated() : e.getData().getDescription();
-            if (e.getResponseStatus() == HttpStatus.SC_FORBIDDEN) {
-                logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  because of lacking Octane permission : " + reasonDesc);
-            } else {
-                logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  : " + reasonDesc);
-            }
-            queue.remove();
-        } catch (Exception e) {
-            if (item != null) {
+                queue.remove(instanceId);
+                return true;
+            } catch (OctaneRestException e) {
+                String reasonDesc = StringUtils.isNotEmpty(e.getData().getDescriptionTranslated()) ? e.getData().getDescriptionTranslated() : e.getData().getDescription();
+                if (e.getResponseStatus() == HttpStatus.SC_FORBIDDEN) {
+                    logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  because of lacking Octane permission : " + reasonDesc);
+                } else {
+                    logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  : " + reasonDesc);
+                }
+                queue.remove(instanceId);
+                return true;
+            } catch (Exception e) {
                 item.incrementFailCount();
                 if (item.incrementFailCount() > MAX_DISPATCH_TRIALS) {
-                    queue.remove();
+                    queue.remove(instanceId);
                     logger.error("Failed to  persist discovery of [" + item.getProjectName() + "#" + item.getBuildNumber() + "]  after " + MAX_DISPATCH_TRIALS + " trials");
+                    return true;
                 }
+                return false;
             }
         }
     }
 
-    private boolean queueContainsPostponedItems(ResultQueue.QueueItem queueItem) {
-        if (queueItem.getSendAfter() > 0 && queueItem.getSendAfter() > System.currentTimeMillis()) {
-            //all postponed items are in the end of queue, so it we encountered one postponed item, other postponed items will come after it, so we do break
-            return true;
-        }
-        return false;
-    }
-
     public void close() {
         logger.info("stopping the UFT dispatcher and closing its queue");
         stopped = true;
+        workers.shutdown();
         queue.close();
     }
 
@@ -223,6 +311,7 @@ public class UftTestDiscoveryDispatcher extends AbstractSafeLoggingAsyncPeriodWo
      */
     public void enqueueResult(String instanceId, String projectName, int buildNumber, String workspace) {
         queue.add(instanceId, projectName, buildNumber, workspace);
+        wakeUp();
     }
 
 }
@@ -28,7 +28,7 @@
 
 package com.microfocus.application.automation.tools.octane.executor;
 
-import com.microfocus.application.automation.tools.octane.AbstractResultQueueImpl;
+import com.microfocus.application.automation.tools.octane.SegmentedResultQueueImpl;
 import jenkins.model.Jenkins;
 
 import java.io.File;
@@ -37,10 +37,11 @@ import java.io.IOException;
 /**
  * Queue for uft test discovery before dispatching
  */
-public class UftTestDiscoveryQueue extends AbstractResultQueueImpl {
+public class UftTestDiscoveryQueue extends SegmentedResultQueueImpl {
 
     public UftTestDiscoveryQueue() throws IOException {
-        File queueFile = new File(Jenkins.getInstanceOrNull().getRootDir(), "octane-uft-tests-queue.dat");
-        init(queueFile);
+        File rootDir = Jenkins.getInstanceOrNull().getRootDir();
+        init(new File(rootDir, "octane-uft-tests-queue"));
+        migrateLegacyQueue(new File(rootDir, "octane-uft-tests-queue.dat"));
     }
 }
@@ -43,15 +43,18 @@ import org.apache.logging.log4j.Logger;
 import org.jenkinsci.plugins.workflow.actions.LabelAction;
 import org.jenkinsci.plugins.workflow.cps.nodes.StepAtomNode;
 import org.jenkinsci.plugins.workflow.cps.nodes.StepEndNode;
+import org.jenkinsci.plugins.workflow.flow.FlowExecution;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Causes Factory is a collection of static stateless methods to extract/traverse/transform causes chains of the runs
+ * Causes Factory is a collection of static methods to extract/traverse/transform causes chains of the runs,
+ * the stages of the running flows are kept per flow execution
  * User: gullery
  * Date: 20/10/14
  */
@@ -60,6 +63,10 @@ public final class CIEventCausesFactory {
 	private static final Logger logger = SDKBasedLoggerProvider.getLogger(CIEventCausesFactory.class);
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 
+	private static final boolean FLOW_CAUSES_CACHE_DISABLED = Boolean.getBoolean("CIEventCausesFactory.DisableFlowCausesCache");
+	//weak keys - the cached data holds no reference to the execution, so it is dropped with the execution
+	private static final Map<FlowExecution, FlowCauses> flowCausesByExecution = Collections.synchronizedMap(new WeakHashMap<>());
+
 	private CIEventCausesFactory() {
 	}
 
@@ -126,6 +133,19 @@ public final class CIEventCausesFactory {
 	}
 
 	public static List<CIEventCause> processCauses(FlowNode flowNode) {
+		if (FLOW_CAUSES_CACHE_DISABLED) {
+			return walkCauses(flowNode);
+		}
+		List<CIEventCause> causes = new LinkedList<>();
+		FlowCauses flowCauses = flowCausesByExecution.computeIfAbsent(flowNode.getExecution(), execution -> new FlowCauses());
+		causes.add(flowCauses.createCause(flowNode));
+		return causes;
+	}
+
+	/**
+	 * causes of the node by walking the flow graph back to its start, used when the cache is disabled
+	 */
+	static List<CIEventCause> walkCauses(FlowNode flowNode) {
 		List<CIEventCause> causes = new LinkedList<>();
 		processCauses(flowNode, causes, new LinkedHashSet<>(),new HashSet<>());
 		return causes;
@@ -225,4 +245,84 @@ public final class CIEventCausesFactory {
 			this.parentFlowNodeId = parentFlowNodeId;
 		}
 	}
+
+	/**
+	 * Causes chain of the stages of a single flow execution.
+	 * The causes of a node are its enclosing stages, innermost first, ending with the run itself as the initial UPSTREAM cause.
+	 * Each stage is resolved once from the enclosing blocks of its start node, so a node costs O(depth of nesting)
+	 * instead of walking the flow graph back to its start. Fresh DTOs are created for every call, only the causes of the run are shared.
+	 */
+	private static final class FlowCauses {
+		private final Map<String, CauseNode> stages = new ConcurrentHashMap<>();
+		private String runNumber;
+		private volatile CauseNode root;
+
+		private CIEventCause createCause(FlowNode flowNode) {
+			//stages that are not resolved yet, innermost first
+			List<FlowNode> newStages = new ArrayList<>();
+			CauseNode enclosing = null;
+			for (FlowNode block : flowNode.getEnclosingBlocks()) {
+				if (BuildHandlerUtils.isStageStartNode(block)) {
+					enclosing = stages.get(block.getId());
+					if (enclosing != null) {
+						break;
+					}
+					newStages.add(block);
+				}
+			}
+			if (enclosing == null) {
+				enclosing = getRoot(flowNode);
+			}
+			for (int i = newStages.size() - 1; i >= 0; i--) {
+				FlowNode stageStart = newStages.get(i);
+				CauseNode stage = new CauseNode(stageStart.getDisplayName(), runNumber, enclosing, null);
+				CauseNode existing = stages.putIfAbsent(stageStart.getId(), stage);
+				enclosing = existing != null ? existing : stage;
+			}
+			return enclosing.createCause();
+		}
+
+		private CauseNode getRoot(FlowNode flowNode) {
+			CauseNode result = root;
+			if (result == null) {
+				//  the start of the flow - WorkflowRun is an initial UPSTREAM cause
+				WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
+				result = new CauseNode(BuildHandlerUtils.getJobCiId(parentRun), BuildHandlerUtils.getBuildCiId(parentRun), null,
+						Collections.unmodifiableList(CIEventCausesFactory.processCauses(parentRun)));
+				runNumber = String.valueOf(parentRun.getNumber());
+				root = result;
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * enclosing stage, or the run itself if it has no parent
+	 */
+	private static final class CauseNode {
+		private final String project;
+		private final String buildCiId;
+		private final CauseNode parent;
+		private final List<CIEventCause> runCauses;
+
+		private CauseNode(String project, String buildCiId, CauseNode parent, List<CIEventCause> runCauses) {
+			this.project = project;
+			this.buildCiId = buildCiId;
+			this.parent = parent;
+			this.runCauses = runCauses;
+		}
+
+		private CIEventCause createCause() {
+			CIEventCause cause = dtoFactory.newDTO(CIEventCause.class)
+					.setType(CIEventCauseType.UPSTREAM)
+					.setProject(project)
+					.setBuildCiId(buildCiId);
+			if (parent != null) {
+				cause.getCauses().add(parent.createCause());
+			} else {
+				cause.setCauses(new ArrayList<>(runCauses));
+			}
+			return cause;
+		}
+	}
 }
@@ -75,6 +75,10 @@ public class ModelFactory {
 	}
 
 	private static PipelineNode createStructureItem(Job job, Set<Job> processedJobs) {
+		return PipelineStructureCache.getOrBuild(job, processedJobs, () -> buildStructureItem(job, processedJobs));
+	}
+
+	private static PipelineNode buildStructureItem(Job job, Set<Job> processedJobs) {
 		AbstractProjectProcessor projectProcessor = JobProcessorFactory.getFlowProcessor(job);
 		projectProcessor.buildStructure(processedJobs);
 		PipelineNode pipelineNode = dtoFactory.newDTO(PipelineNode.class);
@@ -0,0 +1,169 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+package com.microfocus.application.automation.tools.octane.model;
+
+import com.hp.octane.integrations.dto.DTOFactory;
+import com.hp.octane.integrations.dto.pipelines.PipelineNode;
+import hudson.model.Job;
+import jenkins.model.Jenkins;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pipeline structures built by {@link ModelFactory#createStructureItem(Job)}, cached per job and per user
+ * (the downstream jobs that are resolved depend on the READ permission of the user).
+ * Each entry remembers the full names of all the jobs in its tree, so a change of one job drops only the
+ * structures that contain it, and the sub trees of unchanged jobs are reused by their upstream pipelines.
+ * Cached nodes are shared only as sub trees of the cached structures, callers get their own copy of the structure.
+ */
+public final class PipelineStructureCache {
+	private static final boolean DISABLED = Boolean.getBoolean("PipelineStructureCache.Disabled");
+	private static final char KEY_SEPARATOR = '\n';
+	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
+
+	private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private static final AtomicLong generation = new AtomicLong();
+	private static final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private PipelineStructureCache() {
+	}
+
+	/**
+	 * drops all the structures that contain the job, called when the job configuration is saved
+	 */
+	public static void jobChanged(String fullName) {
+		generation.incrementAndGet();
+		entries.values().removeIf(entry -> entry.jobs.contains(fullName));
+	}
+
+	/**
+	 * drops all the structures, called when jobs are created, deleted or moved, since a job reference
+	 * that was not resolved before may be resolved now
+	 */
+	public static void invalidateAll() {
+		generation.incrementAndGet();
+		entries.clear();
+	}
+
+	/**
+	 * called by builder processors when a downstream job is skipped since it is one of its own upstreams:
+	 * such structure depends on the path it was reached from, so none of the structures being built is cached
+	 */
+	public static void circularReferenceSkipped() {
+		for (Frame frame : frames.get()) {
+			frame.cacheable = false;
+		}
+	}
+
+	static PipelineNode getOrBuild(Job job, Set<Job> processedJobs, Supplier<PipelineNode> builder) {
+		if (DISABLED) {
+			return builder.get();
+		}
+
+		Deque<Frame> stack = frames.get();
+		boolean root = stack.isEmpty();
+		String key = getKey(job);
+		Entry entry = entries.get(key);
+		if (entry != null && !entry.containsAny(processedJobs)) {
+			Frame parent = stack.peek();
+			if (parent != null) {
+				parent.jobs.addAll(entry.jobs);
+			}
+			return root ? copy(entry.node) : entry.node;
+		}
+
+		long startGeneration = generation.get();
+		Frame frame = new Frame(job.getFullName());
+		stack.push(frame);
+		PipelineNode node;
+		try {
+			node = builder.get();
+		} finally {
+			stack.pop();
+		}
+
+		Frame parent = stack.peek();
+		if (parent != null) {
+			parent.jobs.addAll(frame.jobs);
+			parent.cacheable &= frame.cacheable;
+		}
+		if (frame.cacheable && generation.get() == startGeneration) {
+			entries.put(key, new Entry(node, frame.jobs));
+		}
+		return root ? copy(node) : node;
+	}
+
+	static boolean isCached(Job job) {
+		return entries.containsKey(getKey(job));
+	}
+
+	private static String getKey(Job job) {
+		return Jenkins.getAuthentication().getName() + KEY_SEPARATOR + job.getFullName();
+	}
+
+	/**
+	 * deep copy of the structure, so the caller may modify it without changing the cached nodes
+	 */
+	private static PipelineNode copy(PipelineNode node) {
+		return node == null ? null : dtoFactory.dtoFromJson(dtoFactory.dtoToJson(node), PipelineNode.class);
+	}
+
+	private static final class Frame {
+		private final Set<String> jobs = new HashSet<>();
+		private boolean cacheable = true;
+
+		private Frame(String jobName) {
+			jobs.add(jobName);
+		}
+	}
+
+	private static final class Entry {
+		private final PipelineNode node;
+		private final Set<String> jobs;
+
+		private Entry(PipelineNode node, Set<String> jobs) {
+			this.node = node;
+			this.jobs = Collections.unmodifiableSet(jobs);
+		}
+
+		/**
+		 * a structure that contains one of the upstream jobs would have been built without it, so it can't be reused
+		 */
+		private boolean containsAny(Set<Job> processedJobs) {
+			for (Job job : processedJobs) {
+				if (jobs.contains(job.getFullName())) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -30,6 +30,7 @@ package com.microfocus.application.automation.tools.octane.model.processors.buil
 
 import com.hp.octane.integrations.dto.pipelines.PipelinePhase;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import com.microfocus.application.automation.tools.octane.model.PipelineStructureCache;
 import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
 import hudson.model.AbstractProject;
 import hudson.model.Job;
@@ -96,6 +97,7 @@ public abstract class AbstractBuilderProcessor {
 				logger.warn("encountered null project reference; considering it as corrupted configuration and skipping");
 			} else if (processedJobs.contains(next)) {
 				iterator.remove();
+				PipelineStructureCache.circularReferenceSkipped();
 				logger.warn(String.format("encountered circular reference from %s to %s", job.getFullName(), next.getFullName()));
 			}
 		}
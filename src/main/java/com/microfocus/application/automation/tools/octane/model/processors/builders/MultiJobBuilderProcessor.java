@@ -30,6 +30,7 @@ package com.microfocus.application.automation.tools.octane.model.processors.buil
 
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
 import com.microfocus.application.automation.tools.octane.model.ModelFactory;
+import com.microfocus.application.automation.tools.octane.model.PipelineStructureCache;
 import com.tikal.jenkins.plugins.multijob.MultiJobBuilder;
 import com.tikal.jenkins.plugins.multijob.PhaseJobsConfig;
 import hudson.model.AbstractProject;
@@ -65,6 +66,7 @@ class MultiJobBuilderProcessor extends AbstractBuilderProcessor {
             } else if (item instanceof AbstractProject) {
                 tmpProject = (AbstractProject) item;
                 if (processedJobs.contains(tmpProject)) {
+                    PipelineStructureCache.circularReferenceSkipped();
                     logger.warn(String.format("encountered circular reference from %s to %s", job.getFullName(), tmpProject.getFullName()));
                 } else {
                     items.add(tmpProject);
@@ -144,17 +144,12 @@ public abstract class AbstractProjectProcessor<T extends Job> {
 				});
 			});
 
-			job.getBuilds().forEach(build -> {
-				if (!foundInfo.found) {
-					Run run = (Run)build;
-					run.getActions(ParametersAction.class).forEach(action -> {
-						if (checkIfParamExistAndEqual(action, paramToSearch, paramValueToSearch)) {
-							stopBuild(run);
-							foundInfo.found = true;
-						}
-					});
+			if (!foundInfo.found) {
+				Run run = BuildParameterIndex.findBuild(job, paramToSearch, paramValueToSearch);
+				if (run != null) {
+					stopBuild(run);
 				}
-			});
+			}
 		}
 	}
 
@@ -200,25 +195,20 @@ public abstract class AbstractProjectProcessor<T extends Job> {
 				});
 			}
 
-			job.getBuilds().forEach(build -> {
-				if (!foundInfo.found) {
-					Run aBuild = (Run) build;
-					aBuild.getActions(ParametersAction.class).forEach(action -> {
-						if (checkIfParamExistAndEqual(action, paramName, paramValue)) {
-							if (aBuild.isBuilding()) {
-								status.setBuildStatus(CIBuildStatus.RUNNING);
-							} else {
-								status.setBuildStatus(CIBuildStatus.FINISHED);
-								status.setResult(BuildHandlerUtils.translateRunResult(aBuild));
-								status.setEnvironmentOutputtedParameters(OutputEnvironmentParametersHelper.getOutputEnvironmentParams(aBuild));
-							}
-							status.setAllBuildParams(ParameterProcessors.getInstances(aBuild));
-							status.setBuildCiId(BuildHandlerUtils.getBuildCiId(aBuild));
-							foundInfo.found = true;
-						}
-					});
+			if (!foundInfo.found) {
+				Run aBuild = BuildParameterIndex.findBuild(job, paramName, paramValue);
+				if (aBuild != null) {
+					if (aBuild.isBuilding()) {
+						status.setBuildStatus(CIBuildStatus.RUNNING);
+					} else {
+						status.setBuildStatus(CIBuildStatus.FINISHED);
+						status.setResult(BuildHandlerUtils.translateRunResult(aBuild));
+						status.setEnvironmentOutputtedParameters(OutputEnvironmentParametersHelper.getOutputEnvironmentParams(aBuild));
+					}
+					status.setAllBuildParams(ParameterProcessors.getInstances(aBuild));
+					status.setBuildCiId(BuildHandlerUtils.getBuildCiId(aBuild));
 				}
-			});
+			}
 		}
 
 		return status;
@@ -0,0 +1,311 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.projects;
+
+import com.hp.octane.integrations.utils.SdkConstants;
+import com.hp.octane.integrations.utils.SdkStringUtils;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.ParameterValue;
+import hudson.model.ParametersAction;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.util.AtomicFileWriter;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Index of the Octane identification parameters (suite run id, auto action execution id) to the build that ran with them.
+ * The index of a job is persisted in the job folder and maintained by the run listener below, so looking a build up
+ * by such a parameter doesn't need to load the whole build history of the job.
+ * A job without a persisted index is indexed by a single scan of its builds on its first lookup, lookups in other jobs
+ * don't wait for that scan. The index file is resolved from the job folder on every access, so it follows the job
+ * when the job is renamed or moved.
+ * Queued items are not indexed, they are kept in memory and the callers look them up in the queue of the job.
+ */
+public final class BuildParameterIndex {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(BuildParameterIndex.class);
+	private static final String INDEX_FILE = "octane-parameters-index.properties";
+	private static final String LAST_INDEXED_BUILD_KEY = "lastIndexedBuild";
+	private static final Set<String> INDEXED_PARAMETERS = new HashSet<>(Arrays.asList(
+			SdkConstants.JobParameters.SUITE_RUN_ID_PARAMETER_NAME,
+			SdkConstants.JobParameters.OCTANE_AUTO_ACTION_EXECUTION_ID_PARAMETER_NAME));
+	private static final Map<Job, JobIndex> indexes = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private BuildParameterIndex() {
+	}
+
+	/**
+	 * Finds the latest build of the job that ran with the given parameter value
+	 *
+	 * @return the build or null if not found
+	 */
+	public static Run findBuild(Job job, String paramName, String paramValue) {
+		if (SdkStringUtils.isEmpty(paramValue)) {
+			return null;
+		}
+		if (!INDEXED_PARAMETERS.contains(paramName)) {
+			return scanBuilds(job, paramName, paramValue, 0);
+		}
+
+		JobIndex jobIndex = getIndex(job, true);
+		Integer buildNumber = jobIndex.get(paramName, paramValue);
+		if (buildNumber == null) {
+			//index miss, only builds that the index hasn't seen yet are scanned
+			Run run = scanBuilds(job, paramName, paramValue, jobIndex.getLastIndexedBuild());
+			if (run != null) {
+				jobIndex.add(job, run);
+			}
+			return run;
+		}
+
+		Run run = buildNumber == JobIndex.UNKNOWN_BUILD ? null : job.getBuildByNumber(buildNumber);
+		if (run != null && hasParameter(run, paramName, paramValue)) {
+			return run;
+		}
+		//stale entry, an older build with the same value may be hidden behind it
+		run = scanBuilds(job, paramName, paramValue, 0);
+		if (run != null) {
+			jobIndex.add(job, run);
+		} else {
+			jobIndex.forget(job, paramName, paramValue, buildNumber);
+		}
+		return run;
+	}
+
+	private static JobIndex getIndex(Job job, boolean create) {
+		JobIndex jobIndex;
+		synchronized (indexes) {
+			jobIndex = indexes.get(job);
+			if (jobIndex == null) {
+				if (!create && !getIndexFile(job).isFile()) {
+					return null;
+				}
+				jobIndex = new JobIndex();
+				indexes.put(job, jobIndex);
+			}
+		}
+		//loading or rebuilding blocks only the lookups of this job
+		jobIndex.init(job);
+		return jobIndex;
+	}
+
+	private static File getIndexFile(Job job) {
+		return new File(job.getRootDir(), INDEX_FILE);
+	}
+
+	private static Run scanBuilds(Job job, String paramName, String paramValue, int afterBuild) {
+		for (Object build : job.getBuilds()) {
+			Run run = (Run) build;
+			if (run.getNumber() <= afterBuild) {
+				break;
+			}
+			if (hasParameter(run, paramName, paramValue)) {
+				return run;
+			}
+		}
+		return null;
+	}
+
+	private static boolean hasParameter(Run run, String paramName, String paramValue) {
+		for (ParametersAction action : run.getActions(ParametersAction.class)) {
+			ParameterValue pv = action.getParameter(paramName);
+			if (pv != null && paramValue.equals(pv.getValue())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static final class JobIndex {
+		//value of the builds that were deleted, older builds may have the same value
+		private static final int UNKNOWN_BUILD = 0;
+		private final Map<String, Integer> builds = new HashMap<>();
+		private int lastIndexedBuild;
+		private boolean initialized;
+
+		private static String key(String paramName, String paramValue) {
+			return paramName + ":" + paramValue;
+		}
+
+		synchronized Integer get(String paramName, String paramValue) {
+			return builds.get(key(paramName, paramValue));
+		}
+
+		synchronized int getLastIndexedBuild() {
+			return lastIndexedBuild;
+		}
+
+		synchronized void init(Job job) {
+			if (!initialized) {
+				if (!load(job)) {
+					rebuild(job);
+				}
+				initialized = true;
+			}
+		}
+
+		synchronized void add(Job job, Run run) {
+			if (index(run)) {
+				save(job);
+			}
+		}
+
+		synchronized void remove(Job job, int buildNumber) {
+			boolean changed = false;
+			for (Map.Entry<String, Integer> entry : builds.entrySet()) {
+				if (entry.getValue() == buildNumber) {
+					entry.setValue(UNKNOWN_BUILD);
+					changed = true;
+				}
+			}
+			if (changed) {
+				save(job);
+			}
+		}
+
+		synchronized void forget(Job job, String paramName, String paramValue, int buildNumber) {
+			//a build that started meanwhile keeps its entry
+			if (builds.remove(key(paramName, paramValue), buildNumber)) {
+				save(job);
+			}
+		}
+
+		private boolean index(Run run) {
+			boolean changed = false;
+			for (ParametersAction action : run.getActions(ParametersAction.class)) {
+				for (String paramName : INDEXED_PARAMETERS) {
+					ParameterValue pv = action.getParameter(paramName);
+					if (pv != null && pv.getValue() instanceof String && SdkStringUtils.isNotEmpty((String) pv.getValue())) {
+						String key = key(paramName, (String) pv.getValue());
+						Integer current = builds.get(key);
+						if (current == null || current < run.getNumber()) {
+							builds.put(key, run.getNumber());
+							changed = true;
+						}
+					}
+				}
+			}
+			if (run.getNumber() > lastIndexedBuild) {
+				lastIndexedBuild = run.getNumber();
+				changed = true;
+			}
+			return changed;
+		}
+
+		private void rebuild(Job job) {
+			logger.info("building parameters index of " + job.getFullName());
+			builds.clear();
+			lastIndexedBuild = 0;
+			for (Object build : job.getBuilds()) {
+				index((Run) build);
+			}
+			save(job);
+		}
+
+		private boolean load(Job job) {
+			File indexFile = getIndexFile(job);
+			if (!indexFile.isFile()) {
+				return false;
+			}
+			Properties properties = new Properties();
+			try (Reader reader = new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8)) {
+				properties.load(reader);
+				for (String key : properties.stringPropertyNames()) {
+					int number = Integer.parseInt(properties.getProperty(key));
+					if (LAST_INDEXED_BUILD_KEY.equals(key)) {
+						lastIndexedBuild = number;
+					} else {
+						builds.put(key, number);
+					}
+				}
+				return true;
+			} catch (IOException | RuntimeException e) {
+				logger.warn("failed to load parameters index " + indexFile + ", it will be rebuilt", e);
+				builds.clear();
+				lastIndexedBuild = 0;
+				return false;
+			}
+		}
+
+		private void save(Job job) {
+			File indexFile = getIndexFile(job);
+			Properties properties = new Properties();
+			builds.forEach((key, number) -> properties.setProperty(key, String.valueOf(number)));
+			properties.setProperty(LAST_INDEXED_BUILD_KEY, String.valueOf(lastIndexedBuild));
+			try {
+				AtomicFileWriter writer = new AtomicFileWriter(indexFile.toPath(), StandardCharsets.UTF_8);
+				try {
+					properties.store(writer, null);
+					writer.commit();
+				} finally {
+					writer.abort();
+				}
+			} catch (IOException e) {
+				logger.warn("failed to save parameters index " + indexFile, e);
+			}
+		}
+	}
+
+	/**
+	 * Keeps the indexes up to date, jobs that were not indexed yet are left to be indexed on their first lookup
+	 */
+	@Extension
+	public static final class RunListenerImpl extends RunListener<Run> {
+
+		@Override
+		public void onStarted(Run run, TaskListener listener) {
+			try {
+				JobIndex jobIndex = getIndex(run.getParent(), false);
+				if (jobIndex != null) {
+					jobIndex.add(run.getParent(), run);
+				}
+			} catch (Exception e) {
+				logger.warn("failed to index parameters of " + run, e);
+			}
+		}
+
+		@Override
+		public void onDeleted(Run run) {
+			try {
+				JobIndex jobIndex = getIndex(run.getParent(), false);
+				if (jobIndex != null) {
+					jobIndex.remove(run.getParent(), run.getNumber());
+				}
+			} catch (Exception e) {
+				logger.warn("failed to remove " + run + " from parameters index", e);
+			}
+		}
+	}
+}
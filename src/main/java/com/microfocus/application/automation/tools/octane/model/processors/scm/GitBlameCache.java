@@ -0,0 +1,170 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Blame results of a single repository, persisted inside its .git folder between builds.
+ * An entry is valid only for the blob the file had at HEAD when it was blamed, so a file that was not touched
+ * since the previous build is never blamed again.
+ */
+final class GitBlameCache {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(GitBlameCache.class);
+	private static final String FILE_NAME = "octane-blame-cache";
+	private static final int FORMAT_VERSION = 1;
+	private static final int MAX_ENTRIES = Integer.getInteger("GitSCMProcessor.BlameCacheSize", 20000);
+	private static final boolean DISABLED = Boolean.getBoolean("GitSCMProcessor.DisableBlameCache");
+
+	private final File file;
+	private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+	private boolean dirty;
+
+	private GitBlameCache(File file) {
+		this.file = file;
+	}
+
+	static GitBlameCache load(File gitDir) {
+		GitBlameCache cache = new GitBlameCache(new File(gitDir, FILE_NAME));
+		if (!DISABLED && cache.file.isFile()) {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cache.file)))) {
+				cache.read(in);
+			} catch (IOException e) {
+				logger.warn("failed to read blame cache " + cache.file + ", it will be rebuilt", e);
+				cache.entries.clear();
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * @return cached ranges of the file if it was blamed with the same blob, otherwise null
+	 */
+	synchronized List<BlameRange> get(String filePath, ObjectId blobId) {
+		Entry entry = entries.get(filePath);
+		return entry != null && entry.blobId.equals(blobId.name()) ? entry.ranges : null;
+	}
+
+	synchronized void put(String filePath, ObjectId blobId, List<BlameRange> ranges) {
+		if (!DISABLED) {
+			entries.put(filePath, new Entry(blobId.name(), Collections.unmodifiableList(ranges)));
+			dirty = true;
+		}
+	}
+
+	synchronized void save() {
+		if (!dirty) {
+			return;
+		}
+		File tmp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				write(out);
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			dirty = false;
+		} catch (IOException e) {
+			logger.warn("failed to save blame cache " + file, e);
+			if (!tmp.delete()) {
+				tmp.deleteOnExit();
+			}
+		}
+	}
+
+	private void read(DataInputStream in) throws IOException {
+		if (in.readInt() != FORMAT_VERSION) {
+			return;
+		}
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			String filePath = in.readUTF();
+			String blobId = in.readUTF();
+			int rangesCount = in.readInt();
+			List<BlameRange> ranges = new ArrayList<>(rangesCount);
+			for (int j = 0; j < rangesCount; j++) {
+				ranges.add(new BlameRange(in.readUTF(), in.readInt(), in.readInt()));
+			}
+			entries.put(filePath, new Entry(blobId, Collections.unmodifiableList(ranges)));
+		}
+	}
+
+	private void write(DataOutputStream out) throws IOException {
+		out.writeInt(FORMAT_VERSION);
+		out.writeInt(entries.size());
+		for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeUTF(entry.getValue().blobId);
+			out.writeInt(entry.getValue().ranges.size());
+			for (BlameRange range : entry.getValue().ranges) {
+				out.writeUTF(range.revision);
+				out.writeInt(range.start);
+				out.writeInt(range.end);
+			}
+		}
+	}
+
+	private static final class Entry {
+		private final String blobId;
+		private final List<BlameRange> ranges;
+
+		private Entry(String blobId, List<BlameRange> ranges) {
+			this.blobId = blobId;
+			this.ranges = ranges;
+		}
+	}
+
+	static final class BlameRange {
+		final String revision;
+		final int start;
+		final int end;
+
+		BlameRange(String revision, int start, int end) {
+			this.revision = revision;
+			this.start = start;
+			this.end = end;
+		}
+	}
+}
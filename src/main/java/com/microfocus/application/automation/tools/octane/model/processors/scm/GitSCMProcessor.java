@@ -64,15 +64,23 @@ import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.util.io.DisabledOutputStream;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by gullery on 31/03/2015.
@@ -82,6 +90,7 @@ class GitSCMProcessor implements SCMProcessor {
 	private static final Logger logger = SDKBasedLoggerProvider.getLogger(GitSCMProcessor.class);
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 	private static final String MASTER = "refs/remotes/origin/master";
+	private static final int ENRICHER_THREADS = Integer.getInteger("GitSCMProcessor.EnricherThreads", Math.min(4, Runtime.getRuntime().availableProcessors()));
 
 	@Override
 	public SCMData getSCMData(AbstractBuild build, SCM scm) {
@@ -365,109 +374,211 @@ class GitSCMProcessor implements SCMProcessor {
 					return null;
 				}
 
-				try (RevWalk rw = new RevWalk(repo);
-				     DiffFormatter df = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
-					df.setDiffComparator(RawTextComparator.DEFAULT);
-					df.setRepository(repo);
-					df.setDetectRenames(true);
+				//commits and files are independent of each other, so diffs and blames run side by side on a bounded pool
+				AtomicInteger threadsCount = new AtomicInteger();
+				ExecutorService executor = Executors.newFixedThreadPool(ENRICHER_THREADS, runnable -> {
+					Thread thread = new Thread(runnable, "Octane git line enricher-" + threadsCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+				try {
+					List<Future<?>> diffTasks = new ArrayList<>();
+					try (RevWalk rw = new RevWalk(repo)) {
+						for (SCMCommit curCommit : scmData.getCommits()) {
+							RevCommit commit = rw.parseCommit(repo.resolve(curCommit.getRevId())); // Any ref will work here (HEAD, a sha1, tag, branch)
+							RevCommit parent = rw.parseCommit(commit.getParent(0).getId());
+							ObjectId parentTree = parent.getTree().getId();
+							ObjectId commitTree = commit.getTree().getId();
+							diffTasks.add(executor.submit(() -> {
+								enrichCommitLines(repo, curCommit, parentTree, commitTree);
+								return null;
+							}));
+						}
+					}
 
 					//add blame data to scm data
 					Set<String> committedFiles = getAddedOrEditedFiles(scmData);
-					List<SCMFileBlame> fileBlameList = getBlameData(repo, committedFiles);
+					List<SCMFileBlame> fileBlameList = getBlameData(repo, committedFiles, executor);
 					scmData.setFileBlameList(fileBlameList);
 
-					for (SCMCommit curCommit : scmData.getCommits()) {
-						Map<String, SCMChange> fileChanges = new HashMap<>();
-						curCommit.getChanges().forEach(change -> fileChanges.put(change.getFile(), change));
-						RevCommit commit = rw.parseCommit(repo.resolve(curCommit.getRevId())); // Any ref will work here (HEAD, a sha1, tag, branch)
-						RevCommit parent = rw.parseCommit(commit.getParent(0).getId());
-
-						List<DiffEntry> diffs = df.scan(parent.getTree(), commit.getTree());
-						// FOR EACH FILE
-						for (DiffEntry diff : diffs) { // each file change will be in seperate diff
-							EditList fileEdits = df.toFileHeader(diff).toEditList();
-							switch (diff.getChangeType()) {
-								case ADD:
-									// old path == null, need to use new path
-									handleAddLinesDiff(fileEdits, fileChanges.get(diff.getNewPath()));
-									break;
-								case COPY:
-									// need to validate this type
-									handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
-									break;
-								case DELETE:
-									// new path == null, need to use old path
-									handleDeleteLinesDiff(fileEdits, fileChanges.get(diff.getOldPath()));
-									break;
-								case MODIFY:
-									handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
-									break;
-								case RENAME:
-									// enrich delete event with 'rename to' data
-									SCMChange deletedChange = fileChanges.get(diff.getOldPath());
-									SCMChange newRenamedFile = fileChanges.get(diff.getNewPath());
-									deletedChange.setRenamedToFile(newRenamedFile.getFile());
-									// handle changes
-									handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
-									break;
-								default:
-									break;
-							}
-						}
+					for (Future<?> diffTask : diffTasks) {
+						getTaskResult(diffTask);
 					}
 					return scmData;
+				} finally {
+					executor.shutdownNow();
 				}
 			}
 		}
 	}
 
+	private static void enrichCommitLines(Repository repo, SCMCommit curCommit, ObjectId parentTree, ObjectId commitTree) throws IOException {
+		Map<String, SCMChange> fileChanges = new HashMap<>();
+		curCommit.getChanges().forEach(change -> fileChanges.put(change.getFile(), change));
+		try (DiffFormatter df = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+			df.setDiffComparator(RawTextComparator.DEFAULT);
+			df.setRepository(repo);
+			df.setDetectRenames(true);
+
+			List<DiffEntry> diffs = df.scan(parentTree, commitTree);
+			// FOR EACH FILE
+			for (DiffEntry diff : diffs) { // each file change will be in seperate diff
+				EditList fileEdits = df.toFileHeader(diff).toEditList();
+				switch (diff.getChangeType()) {
+					case ADD:
+						// old path == null, need to use new path
+						handleAddLinesDiff(fileEdits, fileChanges.get(diff.getNewPath()));
+						break;
+					case COPY:
+						// need to validate this type
+						handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
+						break;
+					case DELETE:
+						// new path == null, need to use old path
+						handleDeleteLinesDiff(fileEdits, fileChanges.get(diff.getOldPath()));
+						break;
+					case MODIFY:
+						handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
+						break;
+					case RENAME:
+						// enrich delete event with 'rename to' data
+						SCMChange deletedChange = fileChanges.get(diff.getOldPath());
+						SCMChange newRenamedFile = fileChanges.get(diff.getNewPath());
+						deletedChange.setRenamedToFile(newRenamedFile.getFile());
+						// handle changes
+						handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
+						break;
+					default:
+						break;
+				}
+			}
+		}
+	}
+
+	private static <T> T getTaskResult(Future<T> task) throws IOException {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("line enrichment was interrupted");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
 	private static Set<String> getAddedOrEditedFiles(SCMData scmData) {
-		Set<String> filesCommittedInPPR = new HashSet<>();
+		Set<String> filesCommittedInPPR = new LinkedHashSet<>();
 		for (SCMCommit curCommit : scmData.getCommits()) {
 			curCommit.getChanges().stream().filter(change -> !change.getType().equals("delete")).forEach(change -> filesCommittedInPPR.add(change.getFile()));
 		}
 		return filesCommittedInPPR;
 	}
 
-	private static List<SCMFileBlame> getBlameData(Repository repo, Set<String> files) {
-		BlameCommand blamer = new BlameCommand(repo);
+	private static List<SCMFileBlame> getBlameData(Repository repo, Set<String> files, ExecutorService executor) {
 		List<SCMFileBlame> fileBlameList = new ArrayList<>();
+		for (Map.Entry<String, List<GitBlameCache.BlameRange>> fileRanges : blameFiles(repo, files, executor).entrySet()) {
+			RevisionsMap revisionsMap = new RevisionsMap();
+			for (GitBlameCache.BlameRange range : fileRanges.getValue()) {
+				revisionsMap.addRangeToRevision(range.revision, new LineRange(range.start, range.end));
+			}
+			fileBlameList.add(new SCMFileBlameImpl(fileRanges.getKey(), revisionsMap));
+		}
+		return fileBlameList;
+	}
+
+	/**
+	 * @return blame ranges of the files at HEAD in the order of the files, files that could not be blamed are left out
+	 */
+	static Map<String, List<GitBlameCache.BlameRange>> blameFiles(Repository repo, Set<String> files, ExecutorService executor) {
+		Map<String, List<GitBlameCache.BlameRange>> blames = new LinkedHashMap<>();
 		ObjectId commitID;
+		Map<String, ObjectId> blobIds = new HashMap<>();
 		try {
 			commitID = repo.resolve(Constants.HEAD);
-			for (String filePath : files) {
-				blamer.setStartCommit(commitID);
-				blamer.setFilePath(filePath);
-				BlameResult blameResult = blamer.call();
-				if (blameResult == null) {
-					continue;
-				}
-				RawText rawText = blameResult.getResultContents();
-				int fileSize = rawText.size();
-
-				RevisionsMap revisionsMap = new RevisionsMap();
-
-				if (fileSize > 0) {
-					String startRangeRevision = blameResult.getSourceCommit(0).getName();
-					int startRange = 1;
-					for (int i = 1; i < fileSize; i++) {
-						String currentRevision = blameResult.getSourceCommit(i).getName();
-						if (!currentRevision.equals(startRangeRevision)) {
-							LineRange range = new LineRange(startRange, i);//line numbers starting from 1 not from 0.
-							revisionsMap.addRangeToRevision(startRangeRevision, range);
-							startRange = i + 1;
-							startRangeRevision = currentRevision;
+			if (commitID == null) {
+				logger.error("failed to resolve repo head");
+				return blames;
+			}
+			//blob ids are resolved once on a shared reader, unchanged blobs are served from the cache
+			try (RevWalk rw = new RevWalk(repo)) {
+				RevTree headTree = rw.parseCommit(commitID).getTree();
+				for (String filePath : files) {
+					try (TreeWalk tw = TreeWalk.forPath(rw.getObjectReader(), filePath, headTree)) {
+						if (tw != null) {
+							blobIds.put(filePath, tw.getObjectId(0));
 						}
 					}
 				}
-				fileBlameList.add(new SCMFileBlameImpl(filePath, revisionsMap));
 			}
 		} catch (IOException e) {
 			logger.error("failed to resolve repo head", e);
-		} catch (GitAPIException e) {
-			logger.error("failed to get blame result from git", e);
+			return blames;
 		}
-		return fileBlameList;
+
+		GitBlameCache blameCache = GitBlameCache.load(repo.getDirectory());
+		Map<String, Future<List<GitBlameCache.BlameRange>>> blameTasks = new LinkedHashMap<>();
+		for (String filePath : files) {
+			ObjectId blobId = blobIds.get(filePath);
+			blameTasks.put(filePath, executor.submit(() -> blameFile(repo, commitID, filePath, blobId, blameCache)));
+		}
+		for (Map.Entry<String, Future<List<GitBlameCache.BlameRange>>> blameTask : blameTasks.entrySet()) {
+			try {
+				List<GitBlameCache.BlameRange> ranges = getTaskResult(blameTask.getValue());
+				if (ranges != null) {
+					blames.put(blameTask.getKey(), ranges);
+				}
+			} catch (InterruptedIOException e) {
+				logger.error("blame was interrupted", e);
+				break;
+			} catch (IOException | RuntimeException e) {
+				logger.error("failed to get blame result from git for " + blameTask.getKey(), e);
+			}
+		}
+		blameCache.save();
+		return blames;
+	}
+
+	private static List<GitBlameCache.BlameRange> blameFile(Repository repo, ObjectId commitID, String filePath, ObjectId blobId, GitBlameCache blameCache) throws GitAPIException {
+		List<GitBlameCache.BlameRange> ranges = blobId != null ? blameCache.get(filePath, blobId) : null;
+		if (ranges == null) {
+			BlameCommand blamer = new BlameCommand(repo);
+			blamer.setStartCommit(commitID);
+			blamer.setFilePath(filePath);
+			BlameResult blameResult = blamer.call();
+			if (blameResult == null) {
+				return null;
+			}
+			ranges = getBlameRanges(blameResult);
+			if (blobId != null) {
+				blameCache.put(filePath, blobId, ranges);
+			}
+		}
+		return ranges;
+	}
+
+	static List<GitBlameCache.BlameRange> getBlameRanges(BlameResult blameResult) {
+		List<GitBlameCache.BlameRange> ranges = new ArrayList<>();
+		RawText rawText = blameResult.getResultContents();
+		int fileSize = rawText.size();
+		if (fileSize > 0) {
+			String startRangeRevision = blameResult.getSourceCommit(0).getName();
+			int startRange = 1;
+			for (int i = 1; i < fileSize; i++) {
+				String currentRevision = blameResult.getSourceCommit(i).getName();
+				if (!currentRevision.equals(startRangeRevision)) {
+					ranges.add(new GitBlameCache.BlameRange(startRangeRevision, startRange, i));//line numbers starting from 1 not from 0.
+					startRange = i + 1;
+					startRangeRevision = currentRevision;
+				}
+			}
+		}
+		return ranges;
 	}
 
 	private static void handleModifyDiff(EditList fileEdits, SCMChange scmChange) {
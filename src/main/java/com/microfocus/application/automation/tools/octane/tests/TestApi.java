@@ -28,7 +28,6 @@
 
 package com.microfocus.application.automation.tools.octane.tests;
 
-import hudson.FilePath;
 import hudson.model.AbstractBuild;
 import hudson.model.Item;
 import org.apache.commons.io.IOUtils;
@@ -36,7 +35,6 @@ import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
 import org.kohsuke.stapler.export.Flavor;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -51,19 +49,17 @@ public class TestApi {
 
 	public void doXml(StaplerRequest req, StaplerResponse res) throws IOException, InterruptedException {
 		build.getACL().checkPermission(Item.READ);
-		serveFile(res, TestListener.TEST_RESULT_FILE, Flavor.XML);
-	}
-
-	private void serveFile(StaplerResponse res, String relativePath, Flavor flavor) throws IOException, InterruptedException {
-		FilePath file = new FilePath(new File(build.getRootDir(), relativePath));
-		if (!file.exists()) {
+		InputStream is = TestListener.openTestResults(build);
+		if (is == null) {
 			res.sendError(404, "Information not available");
 			return;
 		}
 		res.setStatus(200);
-		res.setContentType(flavor.contentType);
-		InputStream is = file.read();
-		IOUtils.copy(is, res.getOutputStream());
-		IOUtils.closeQuietly(is);
+		res.setContentType(Flavor.XML.contentType);
+		try {
+			IOUtils.copy(is, res.getOutputStream());
+		} finally {
+			IOUtils.closeQuietly(is);
+		}
 	}
 }
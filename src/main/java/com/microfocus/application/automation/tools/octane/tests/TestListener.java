@@ -36,9 +36,12 @@ import hudson.Extension;
 import hudson.FilePath;
 import hudson.model.Run;
 import jenkins.model.Jenkins;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.logging.log4j.Logger;
 
 import javax.xml.stream.XMLStreamException;
+import java.io.*;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Jenkins events life cycle listener for processing test results on build completed
@@ -47,13 +50,17 @@ import javax.xml.stream.XMLStreamException;
 @SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2259", "squid:S1872"})
 public class TestListener {
 	private static Logger logger = SDKBasedLoggerProvider.getLogger(TestListener.class);
+	private static final int BUFFER_SIZE = 64 * 1024;
 
 	public static final String TEST_RESULT_FILE = "mqmTests.xml";
+	public static final String COMPRESSED_TEST_RESULT_FILE = TEST_RESULT_FILE + ".gz";
+	private static final String COMPRESS_RESULTS_PROPERTY = "TestListener.CompressResults"; // let's us keep mqmTests.xml gzip compressed on disk
 
 
 	public boolean processBuild(Run run) {
-		FilePath resultPath = new FilePath(new FilePath(run.getRootDir()), TEST_RESULT_FILE);
-		TestResultXmlWriter resultWriter = new TestResultXmlWriter(resultPath, run);
+		boolean compress = Boolean.getBoolean(COMPRESS_RESULTS_PROPERTY);
+		FilePath resultPath = new FilePath(new FilePath(run.getRootDir()), compress ? COMPRESSED_TEST_RESULT_FILE : TEST_RESULT_FILE);
+		TestResultXmlWriter resultWriter = new TestResultXmlWriter(resultPath, run, compress);
 		boolean success = true;
 		boolean hasTests = false;
 		String jenkinsRootUrl = Jenkins.get().getRootUrl();
@@ -73,7 +80,15 @@ public class TestListener {
 			logger.error("failed to process test results", t);
 		} finally {
 			try {
-				resultWriter.close();
+				if (success) {
+					resultWriter.close();
+				} else {
+					resultWriter.discard();
+				}
+				if (success && hasTests) {
+					logger.info("test results of build '" + run.getFullDisplayName() + "': " + resultWriter.getBytesWritten() + " bytes written, " +
+							resultWriter.getBytesStored() + " bytes stored in " + resultPath.getName());
+				}
 
 				// we don't push individual maven module results (although we create the file for future use)
 				if (!"hudson.maven.MavenBuild".equals(run.getClass().getName())) {
@@ -87,11 +102,54 @@ public class TestListener {
 						}
 					}
 				}
-			} catch (XMLStreamException xmlse) {
+			} catch (XMLStreamException | IOException e) {
 				success = false;
-				logger.error("failed to finalize test results processing", xmlse);
+				logger.error("failed to finalize test results processing", e);
+			} catch (InterruptedException e) {
+				success = false;
+				Thread.currentThread().interrupt();
+				logger.error("interrupted while finalizing test results processing", e);
 			}
 		}
 		return success && hasTests;
 	}
+
+	/**
+	 * Opens test results of the run, decompressing them on the fly when they are stored as mqmTests.xml.gz
+	 *
+	 * @param run run to read test results of
+	 * @return stream of mqmTests.xml content that logs read bytes when closed, or null if run has no test results
+	 */
+	public static InputStream openTestResults(Run run) throws IOException {
+		File compressed = new File(run.getRootDir(), COMPRESSED_TEST_RESULT_FILE);
+		File plain = new File(run.getRootDir(), TEST_RESULT_FILE);
+		if (compressed.isFile()) {
+			return new TestResultsInputStream(new GZIPInputStream(new FileInputStream(compressed), BUFFER_SIZE), run, compressed);
+		} else if (plain.isFile()) {
+			return new TestResultsInputStream(new BufferedInputStream(new FileInputStream(plain), BUFFER_SIZE), run, plain);
+		} else {
+			return null;
+		}
+	}
+
+	private static class TestResultsInputStream extends CountingInputStream {
+		private final String buildName;
+		private final File file;
+		private boolean closed;
+
+		private TestResultsInputStream(InputStream in, Run run, File file) {
+			super(in);
+			this.buildName = run.getFullDisplayName();
+			this.file = file;
+		}
+
+		@Override
+		public void close() throws IOException {
+			super.close();
+			if (!closed) {
+				closed = true;
+				logger.info("test results of build '" + buildName + "': " + getByteCount() + " bytes read, " + file.length() + " bytes stored in " + file.getName());
+			}
+		}
+	}
 }
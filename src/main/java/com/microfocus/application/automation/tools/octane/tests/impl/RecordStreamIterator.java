@@ -33,19 +33,26 @@ import hudson.FilePath;
 import org.apache.logging.log4j.Logger;
 
 import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
-public class ObjectStreamIterator<E> implements Iterator<E> {
-    private static Logger logger = SDKBasedLoggerProvider.getLogger(ObjectStreamIterator.class);
+/**
+ * Iterator over a stream of length-prefixed binary records ([int length][payload])
+ */
+public class RecordStreamIterator<E> implements Iterator<E> {
+    private static Logger logger = SDKBasedLoggerProvider.getLogger(RecordStreamIterator.class);
 
-    private ObjectInputStream ois;
+    private final DataInputStream dis;
+    private final RecordDecoder<E> decoder;
     private E next;
+    private boolean closed;
 
-    public ObjectStreamIterator(FilePath filePath) throws IOException, InterruptedException {
-        this.ois = new ObjectInputStream(new BufferedInputStream(filePath.read()));
+    public RecordStreamIterator(FilePath filePath, RecordDecoder<E> decoder) throws IOException, InterruptedException {
+        this.dis = new DataInputStream(new BufferedInputStream(filePath.read()));
+        this.decoder = decoder;
     }
 
     @Override
@@ -53,15 +60,21 @@ public class ObjectStreamIterator<E> implements Iterator<E> {
         if (next != null) {
             return true;
         }
+        if (closed) {
+            return false;
+        }
         try {
-            next = (E) ois.readObject();
+            int length = dis.readInt();
+            byte[] record = new byte[length];
+            dis.readFully(record);
+            next = decoder.decode(record);
             return true;
-        } catch (Throwable e) {
-            try {
-                ois.close();
-            } catch (IOException ioe) {
-                logger.error("Failed to close the stream", ioe); // NON-NLS
-            }
+        } catch (EOFException e) {
+            close();
+            return false;
+        } catch (Exception e) {
+            logger.error("Failed to read record", e); // NON-NLS
+            close();
             return false;
         }
     }
@@ -81,4 +94,17 @@ public class ObjectStreamIterator<E> implements Iterator<E> {
     public void remove() {
         throw new UnsupportedOperationException();
     }
+
+    private void close() {
+        closed = true;
+        try {
+            dis.close();
+        } catch (IOException ioe) {
+            logger.error("Failed to close the stream", ioe); // NON-NLS
+        }
+    }
+
+    public interface RecordDecoder<E> {
+        E decode(byte[] record) throws IOException;
+    }
 }
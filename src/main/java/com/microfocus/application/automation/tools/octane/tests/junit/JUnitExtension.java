@@ -31,6 +31,7 @@ package com.microfocus.application.automation.tools.octane.tests.junit;
 import com.google.inject.Inject;
 import com.hp.octane.integrations.OctaneClient;
 import com.hp.octane.integrations.OctaneSDK;
+import com.hp.octane.integrations.testresults.XmlWritableTestResult;
 import com.microfocus.application.automation.tools.JenkinsUtils;
 import com.microfocus.application.automation.tools.octane.actions.cucumber.CucumberTestResultsAction;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
@@ -44,7 +45,7 @@ import com.microfocus.application.automation.tools.octane.tests.build.BuildHandl
 import com.microfocus.application.automation.tools.octane.tests.detection.MFToolsDetectionExtension;
 import com.microfocus.application.automation.tools.octane.tests.detection.ResultFields;
 import com.microfocus.application.automation.tools.octane.tests.detection.ResultFieldsDetectionService;
-import com.microfocus.application.automation.tools.octane.tests.impl.ObjectStreamIterator;
+import com.microfocus.application.automation.tools.octane.tests.impl.RecordStreamIterator;
 import com.microfocus.application.automation.tools.settings.RunnerMiscSettingsGlobalConfiguration;
 import hudson.Extension;
 import hudson.FilePath;
@@ -66,6 +67,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import static com.hp.octane.integrations.utils.SdkConstants.JobParameters.OCTANE_CONFIG_ID_PARAMETER_NAME;
@@ -80,6 +87,9 @@ public class JUnitExtension extends OctaneTestsExtension {
 	private static final String JUNIT_RESULT_XML = "junitResult.xml"; // NON-NLS
 	public static final String TEMP_TEST_RESULTS_FILE_NAME_PREFIX = "GetJUnitTestResults";
 	private static final String TEST_RESULT_NAME_REGEX_PATTERN_PARAMETER_NAME = "octane_test_result_name_run_regex_pattern";
+	private static final String CONVERSION_THREADS_PROPERTY = "JUnitExtension.ConversionThreads"; // let's us config the number of reports converted in parallel
+	private static final int DEFAULT_CONVERSION_THREADS = 4;
+	private static final long PART_CLEANUP_TIMEOUT_SECONDS = 30;
 
 	@Inject
 	private ResultFieldsDetectionService resultFieldsDetectionService;
@@ -116,9 +126,9 @@ public class JUnitExtension extends OctaneTestsExtension {
 			if(hpRunnerType.equals(HPRunnerType.UFT) || hpRunnerType.equals(HPRunnerType.UFT_MBT)){
 				getResultsOnController = true;
 			}
-			FilePath filePath = getTestResultsFromWorkspace(run, jenkinsRootUrl, getResultsOnController, workspace, Collections.singletonList(resultFile),hpRunnerType);
+			Iterator<XmlWritableTestResult> testResults = getTestResultsFromWorkspace(run, jenkinsRootUrl, getResultsOnController, workspace, Collections.singletonList(resultFile),hpRunnerType);
 			ResultFields detectedFields = getResultFields(run);
-			return new TestResultContainer(new ObjectStreamIterator<>(filePath), detectedFields);
+			return new TestResultContainer(testResults, detectedFields);
 		} else {
 			//avoid java.lang.NoClassDefFoundError when maven plugin is not present
 			if ("hudson.maven.MavenModuleSetBuild".equals(run.getClass().getName())) {
@@ -138,8 +148,8 @@ public class JUnitExtension extends OctaneTestsExtension {
 				}
 				if (!resultFiles.isEmpty()) {
 					ResultFields detectedFields = getResultFields(run);
-					FilePath filePath = getTestResultsFromWorkspace(run, jenkinsRootUrl, getResultsOnController, workspace, resultFiles,HPRunnerType.NONE);
-					return new TestResultContainer(new ObjectStreamIterator<>(filePath), detectedFields);
+					Iterator<XmlWritableTestResult> testResults = getTestResultsFromWorkspace(run, jenkinsRootUrl, getResultsOnController, workspace, resultFiles,HPRunnerType.NONE);
+					return new TestResultContainer(testResults, detectedFields);
 				}
 			}
 			logger.debug("No JUnit result report found");
@@ -147,16 +157,14 @@ public class JUnitExtension extends OctaneTestsExtension {
 		}
 	}
 
-	private FilePath getTestResultsFromWorkspace(Run<?, ?> run, String jenkinsRootUrl, boolean getResultsOnController, FilePath workspace, List<FilePath> resultFiles,HPRunnerType runnerType) throws IOException, InterruptedException {
-		FilePath filePath;
+	private Iterator<XmlWritableTestResult> getTestResultsFromWorkspace(Run<?, ?> run, String jenkinsRootUrl, boolean getResultsOnController, FilePath workspace, List<FilePath> resultFiles,HPRunnerType runnerType) throws IOException, InterruptedException {
 		try {
+			Iterator<XmlWritableTestResult> testResults = getTestResults(run, jenkinsRootUrl, getResultsOnController, workspace, resultFiles, runnerType);
 			if (getResultsOnController) {
-				logger.info("Get results from controller");
-				filePath = (new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl)).invoke(null, null);
-			} else {
-				logger.info("Get results from agent");
-				filePath = workspace.act(new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl));
+				//results are streamed on controller, a report that fails to be read in the middle of the stream is retried from agent
+				return new AgentFallbackIterator(testResults, () -> getTestResults(run, jenkinsRootUrl, false, workspace, resultFiles, runnerType));
 			}
+			return testResults;
 		}catch (Exception e){
 			//if failed on controller/agent retrying from agent/controller
 			logger.error(String.format("Failed to get test results from %s, trying to get test results from %s : %s",
@@ -164,21 +172,89 @@ public class JUnitExtension extends OctaneTestsExtension {
 						getResultsOnController ? "agent" : "controller",
 						e.getMessage()),
 					e);
-			if (getResultsOnController) {
-				logger.info("Get results from agent");
-				filePath = workspace.act(new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl));
-			} else {
-				logger.info("Get results from controller");
-				filePath = (new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl)).invoke(null, null);
-			}
+			return getTestResults(run, jenkinsRootUrl, !getResultsOnController, workspace, resultFiles, runnerType);
+		}
+	}
+
+	private Iterator<XmlWritableTestResult> getTestResults(Run<?, ?> run, String jenkinsRootUrl, boolean onController, FilePath workspace, List<FilePath> resultFiles, HPRunnerType runnerType) throws IOException, InterruptedException {
+		if (onController) {
+			logger.info("Get results from controller");
+			//on controller results are streamed from the reports straight into mqmTests.xml, without intermediate file
+			return new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl, false).iterate();
+		} else {
+			logger.info("Get results from agent");
+			FilePath filePath = workspace.act(new GetJUnitTestResults(run, runnerType, resultFiles, false, jenkinsRootUrl, true));
+			return new RecordStreamIterator<>(filePath, JUnitTestResultCodec::decode);
 		}
-		return filePath;
 	}
 
 	private ResultFields getResultFields(Run<?, ?> build) throws InterruptedException {
 		return resultFieldsDetectionService.getDetectedFields(build);
 	}
 
+	interface TestResultsSupplier {
+		Iterator<XmlWritableTestResult> get() throws IOException, InterruptedException;
+	}
+
+	/**
+	 * Iterates the results streamed on controller. When reading a report fails with an IOException,
+	 * the results are converted again on agent and the ones already returned are skipped,
+	 * as both sides convert the same reports in the same order.
+	 */
+	static class AgentFallbackIterator implements Iterator<XmlWritableTestResult> {
+		private final TestResultsSupplier agentResults;
+		private Iterator<XmlWritableTestResult> current;
+		private long returned;
+		private boolean onAgent;
+
+		AgentFallbackIterator(Iterator<XmlWritableTestResult> controllerResults, TestResultsSupplier agentResults) {
+			this.current = controllerResults;
+			this.agentResults = agentResults;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				return current.hasNext();
+			} catch (IllegalStateException e) {
+				fallBackToAgent(e);
+				return current.hasNext();
+			}
+		}
+
+		@Override
+		public XmlWritableTestResult next() {
+			XmlWritableTestResult result;
+			try {
+				result = current.next();
+			} catch (IllegalStateException e) {
+				fallBackToAgent(e);
+				result = current.next();
+			}
+			returned++;
+			return result;
+		}
+
+		private void fallBackToAgent(IllegalStateException e) {
+			if (onAgent || !(e.getCause() instanceof IOException)) {
+				throw e;
+			}
+			onAgent = true;
+			logger.error("Failed to get test results from controller after " + returned + " results, trying to get test results from agent : " + e.getCause().getMessage(), e.getCause());
+			try {
+				current = agentResults.get();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(ie);
+			} catch (IOException ioe) {
+				throw new IllegalStateException(ioe);
+			}
+			for (long i = 0; i < returned && current.hasNext(); i++) {
+				current.next();
+			}
+		}
+	}
+
 	private static class GetJUnitTestResults implements FilePath.FileCallable<FilePath> {
 
 		private final List<FilePath> reports;
@@ -194,20 +270,24 @@ public class JUnitExtension extends OctaneTestsExtension {
 		private String sharedCheckOutDirectory;
 		private Pattern testParserRegEx;
 		private boolean octaneSupportsSteps;
+		private int conversionThreads;
 
 		//this class is run on master and JUnitXmlIterator is runnning on slave.
 		//this object pass some master2slave data
 		private Object additionalContext;
 		private String nodeName;
 
-		public GetJUnitTestResults(Run<?, ?> build, HPRunnerType hpRunnerType, List<FilePath> reports, boolean stripPackageAndClass, String jenkinsRootUrl) throws IOException, InterruptedException {
+		public GetJUnitTestResults(Run<?, ?> build, HPRunnerType hpRunnerType, List<FilePath> reports, boolean stripPackageAndClass, String jenkinsRootUrl, boolean intermediateFile) throws IOException, InterruptedException {
 			this.reports = reports;
-			this.filePath = new FilePath(build.getRootDir()).createTempFile(TEMP_TEST_RESULTS_FILE_NAME_PREFIX, null);
+			if (intermediateFile) {
+				this.filePath = new FilePath(build.getRootDir()).createTempFile(TEMP_TEST_RESULTS_FILE_NAME_PREFIX, null);
+			}
 			this.buildStarted = build.getStartTimeInMillis();
 			this.workspace = BuildHandlerUtils.getWorkspace(build);
 			this.stripPackageAndClass = stripPackageAndClass;
 			this.hpRunnerType = hpRunnerType;
 			this.jenkinsRootUrl = jenkinsRootUrl;
+			this.conversionThreads = Integer.getInteger(CONVERSION_THREADS_PROPERTY, Math.min(DEFAULT_CONVERSION_THREADS, Runtime.getRuntime().availableProcessors()));
 			String buildRootDir = build.getRootDir().getCanonicalPath();
 			this.sharedCheckOutDirectory = CheckOutSubDirEnvContributor.getSharedCheckOutDirectory(build.getParent());
 			if (sharedCheckOutDirectory == null && (HPRunnerType.UFT.equals(hpRunnerType) || HPRunnerType.UFT_MBT.equals(hpRunnerType))) {
@@ -282,30 +362,156 @@ public class JUnitExtension extends OctaneTestsExtension {
 
 		@Override
 		public FilePath invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
-			OutputStream os = filePath.write();
-			BufferedOutputStream bos = new BufferedOutputStream(os);
-			ObjectOutputStream oos = new ObjectOutputStream(bos);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(filePath.write()))) {
+				if (reports.size() > 1 && conversionThreads > 1) {
+					convertReportsInParallel(out);
+				} else {
+					for (FilePath report : reports) {
+						convertReport(report, out);
+					}
+				}
+			}
+			return filePath;
+		}
 
+		/**
+		 * Converts the reports lazily, one after another, while the results are consumed.
+		 * The first report is opened right away, so that failure to read it can still be retried elsewhere.
+		 */
+		public Iterator<XmlWritableTestResult> iterate() throws IOException, InterruptedException {
+			ReportsIterator iterator = new ReportsIterator();
 			try {
-				for (FilePath report : reports) {
-					JUnitXmlIterator iterator = new JUnitXmlIterator(report.read(), moduleDetection, workspace, sharedCheckOutDirectory, jobName, buildId, buildStarted, stripPackageAndClass, hpRunnerType, jenkinsRootUrl, additionalContext,testParserRegEx, octaneSupportsSteps,nodeName);
-					while (iterator.hasNext()) {
-						oos.writeObject(iterator.next());
-					}
+				iterator.hasNext();
+			} catch (IllegalStateException e) {
+				throw new IOException(e.getCause());
+			}
+			return iterator;
+		}
+
+		private JUnitXmlIterator createIterator(FilePath report) throws IOException, InterruptedException, XMLStreamException {
+			//the iterator removes the test folders it matched from the list, each report gets its own copy as reports may be converted in parallel
+			Object context = additionalContext instanceof List ? new ArrayList<>((List<?>) additionalContext) : additionalContext;
+			return new JUnitXmlIterator(report.read(), moduleDetection, workspace, sharedCheckOutDirectory, jobName, buildId, buildStarted, stripPackageAndClass, hpRunnerType, jenkinsRootUrl, context, testParserRegEx, octaneSupportsSteps, nodeName);
+		}
+
+		private void convertReport(FilePath report, DataOutputStream out) throws IOException, InterruptedException {
+			try {
+				JUnitXmlIterator iterator = createIterator(report);
+				while (iterator.hasNext()) {
+					JUnitTestResultCodec.write(out, iterator.next());
 				}
 			} catch (XMLStreamException e) {
 				throw new IOException(e);
 			}
-			os.flush();
+		}
 
-			oos.close();
-			return filePath;
+		/**
+		 * Each report is converted on a bounded pool into its own local part file,
+		 * parts are appended to the output in report order as soon as they are ready
+		 */
+		private void convertReportsInParallel(OutputStream out) throws IOException, InterruptedException {
+			ExecutorService executor = Executors.newFixedThreadPool(Math.min(conversionThreads, reports.size()));
+			List<Future<File>> parts = new ArrayList<>(reports.size());
+			//every part file is recorded as soon as it is created, so that the ones left behind by a failure can be deleted
+			//without waiting on the futures of conversions that were dropped from the pool
+			Set<File> unmergedParts = ConcurrentHashMap.newKeySet();
+			try {
+				for (FilePath report : reports) {
+					parts.add(executor.submit(() -> {
+						File part = File.createTempFile(TEMP_TEST_RESULTS_FILE_NAME_PREFIX, ".part");
+						unmergedParts.add(part);
+						try (DataOutputStream partOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(part)))) {
+							convertReport(report, partOut);
+						}
+						return part;
+					}));
+				}
+				for (Future<File> future : parts) {
+					File part = getPart(future);
+					try {
+						Files.copy(part.toPath(), out);
+					} finally {
+						unmergedParts.remove(part);
+						Files.deleteIfExists(part.toPath());
+					}
+				}
+			} finally {
+				for (Future<File> future : parts) {
+					future.cancel(true);
+				}
+				executor.shutdownNow();
+				try {
+					//let the interrupted conversions close their part files before deleting them
+					executor.awaitTermination(PART_CLEANUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+				} finally {
+					for (File part : unmergedParts) {
+						deleteUnmergedPart(part);
+					}
+				}
+			}
+		}
+
+		private static File getPart(Future<File> future) throws IOException, InterruptedException {
+			try {
+				return future.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IOException(e.getCause());
+			}
+		}
+
+		private static void deleteUnmergedPart(File part) {
+			try {
+				Files.deleteIfExists(part.toPath());
+			} catch (IOException e) {
+				logger.warn("Failed to delete " + part + " : " + e.getMessage());
+			}
 		}
 
 		@Override
 		public void checkRoles(RoleChecker roleChecker) throws SecurityException {
 			roleChecker.check(this, Role.UNKNOWN);
 		}
+
+		private class ReportsIterator implements Iterator<XmlWritableTestResult> {
+			private int nextReport;
+			private JUnitXmlIterator current;
+
+			@Override
+			public boolean hasNext() {
+				try {
+					while (current == null || !current.hasNext()) {
+						if (nextReport >= reports.size()) {
+							return false;
+						}
+						current = createIterator(reports.get(nextReport++));
+					}
+					return true;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(e);
+				} catch (IOException | XMLStreamException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+
+			@Override
+			public XmlWritableTestResult next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				try {
+					return current.next();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(e);
+				} catch (IOException | XMLStreamException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
 	}
 
 	/*
@@ -146,6 +146,22 @@ final public class JUnitTestResult implements Serializable, XmlWritableTestResul
         return uftResultData;
     }
 
+    public String getDescription() {
+        return description;
+    }
+
+    public HPRunnerType getRunnerType() {
+        return runnerType;
+    }
+
+    public String getExternalRunId() {
+        return externalRunId;
+    }
+
+    public boolean isOctaneSupportsSteps() {
+        return octaneSupportsSteps;
+    }
+
     @Override
     public void writeXmlElement(XMLStreamWriter writer) throws XMLStreamException {
         writer.writeStartElement("test_run");
@@ -0,0 +1,157 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.hp.octane.integrations.uft.ufttestresults.schema.UftResultIterationData;
+import com.microfocus.application.automation.tools.octane.tests.HPRunnerType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Length-prefixed binary record format of JUnitTestResult, used as intermediate format between
+ * junitResult.xml conversion and mqmTests.xml writing instead of java serialization.
+ * Each record is written as [int length][payload]; UFT iteration data (rare and deeply nested) is kept java-serialized inside the payload.
+ */
+public final class JUnitTestResultCodec {
+
+    private static final byte VERSION = 1;
+    private static final int NULL_LENGTH = -1;
+
+    private JUnitTestResultCodec() {
+    }
+
+    public static void write(DataOutputStream out, JUnitTestResult result) throws IOException {
+        byte[] record = encode(result);
+        out.writeInt(record.length);
+        out.write(record);
+    }
+
+    static byte[] encode(JUnitTestResult result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(VERSION);
+        writeString(out, result.getModuleName());
+        writeString(out, result.getPackageName());
+        writeString(out, result.getClassName());
+        writeString(out, result.getTestName());
+        writeString(out, result.getResult() == null ? null : result.getResult().name());
+        out.writeLong(result.getDuration());
+        out.writeLong(result.getStarted());
+        TestError testError = result.getTestError();
+        out.writeBoolean(testError != null);
+        if (testError != null) {
+            writeString(out, testError.getStackTraceStr());
+            writeString(out, testError.getErrorType());
+            writeString(out, testError.getErrorMsg());
+        }
+        writeString(out, result.getExternalReportUrl());
+        writeString(out, result.getDescription());
+        writeString(out, result.getRunnerType() == null ? null : result.getRunnerType().name());
+        writeString(out, result.getExternalRunId());
+        writeBytes(out, result.getUftResultData() == null ? null : serialize(result.getUftResultData()));
+        out.writeBoolean(result.isOctaneSupportsSteps());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static JUnitTestResult decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported test result record version " + version);
+        }
+        String moduleName = readString(in);
+        String packageName = readString(in);
+        String className = readString(in);
+        String testName = readString(in);
+        String status = readString(in);
+        long duration = in.readLong();
+        long started = in.readLong();
+        TestError testError = in.readBoolean() ? new TestError(readString(in), readString(in), readString(in)) : null;
+        String externalReportUrl = readString(in);
+        String description = readString(in);
+        String runnerType = readString(in);
+        String externalRunId = readString(in);
+        List<UftResultIterationData> uftResultData = deserialize(readBytes(in));
+        boolean octaneSupportsSteps = in.readBoolean();
+        return new JUnitTestResult(moduleName, packageName, className, testName,
+                status == null ? null : TestResultStatus.valueOf(status), duration, started, testError, externalReportUrl, description,
+                runnerType == null ? null : HPRunnerType.valueOf(runnerType), externalRunId, uftResultData, octaneSupportsSteps);
+    }
+
+    private static byte[] serialize(List<UftResultIterationData> data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<UftResultIterationData> deserialize(byte[] data) throws IOException {
+        if (data == null) {
+            return null;
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (List<UftResultIterationData>) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] data = readBytes(in);
+        return data == null ? null : new String(data, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] data) throws IOException {
+        if (data == null) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            out.writeInt(data.length);
+            out.write(data);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return data;
+    }
+}
@@ -36,27 +36,34 @@ import com.microfocus.application.automation.tools.octane.tests.detection.Result
 import hudson.FilePath;
 import hudson.model.Run;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.commons.lang.StringUtils;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * Save results to mqmTests.xml in XML format
+ * Save results to mqmTests.xml in XML format, optionally gzip compressed
  */
 @SuppressWarnings("all")
 public class TestResultXmlWriter {
 
+	private static final int BUFFER_SIZE = 64 * 1024;
+
 	private FilePath targetPath;
+	private FilePath tempPath;
 	private BuildDescriptor buildDescriptor;
 
+	private boolean compress;
+
 	private XMLStreamWriter writer;
-	private OutputStream outputStream;
+	private CountingOutputStream outputStream;
+	private CountingOutputStream fileStream;
 
 	public TestResultXmlWriter(FilePath targetPath, BuildDescriptor buildDescriptor) {
 		this.targetPath = targetPath;
@@ -64,8 +71,27 @@ public class TestResultXmlWriter {
 	}
 
 	public TestResultXmlWriter(FilePath targetPath, Run build) {
+		this(targetPath, build, false);
+	}
+
+	public TestResultXmlWriter(FilePath targetPath, Run build, boolean compress) {
 		this.targetPath = targetPath;
 		this.buildDescriptor = BuildHandlerUtils.getBuildType(build);
+		this.compress = compress;
+	}
+
+	/**
+	 * @return number of XML bytes written so far
+	 */
+	public long getBytesWritten() {
+		return outputStream == null ? 0 : outputStream.getByteCount();
+	}
+
+	/**
+	 * @return number of bytes stored in the target file so far (less than written bytes when compressed)
+	 */
+	public long getBytesStored() {
+		return fileStream == null ? 0 : fileStream.getByteCount();
 	}
 
 	public void writeResults(TestResultContainer testResultContainer) throws InterruptedException, XMLStreamException, IOException {
@@ -81,19 +107,35 @@ public class TestResultXmlWriter {
 		}
 	}
 
-	public void close() throws XMLStreamException {
+	/**
+	 * Completes the document, results are written to a temporary file that replaces the target file only once complete
+	 */
+	public void close() throws XMLStreamException, IOException, InterruptedException {
 		if (outputStream != null) {
 			writer.writeEndElement(); // test_runs
 			writer.writeEndElement(); // test_result
 			writer.writeEndDocument();
 			writer.close();
+			outputStream.close();
+			tempPath.renameTo(targetPath);
+		}
+	}
+
+	/**
+	 * Drops the results written so far, the target file is left untouched
+	 */
+	public void discard() throws IOException, InterruptedException {
+		if (outputStream != null) {
 			IOUtils.closeQuietly(outputStream);
+			tempPath.delete();
 		}
 	}
 
 	private void initialize(ResultFields resultFields) throws IOException, InterruptedException, XMLStreamException {
 		if (outputStream == null) {
-			outputStream = targetPath.write();
+			tempPath = targetPath.sibling(targetPath.getName() + ".tmp");
+			fileStream = new CountingOutputStream(tempPath.write());
+			outputStream = compress ? new CountingOutputStream(new GZIPOutputStream(fileStream, BUFFER_SIZE)) : fileStream;
 			writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name() );
 			writer.writeStartDocument();
 
@@ -35,6 +35,7 @@
 package com.microfocus.application.automation.tools.pc;
 
 import com.cloudbees.plugins.credentials.common.UsernamePasswordCredentials;
+import com.microfocus.application.automation.tools.common.PollScheduler;
 import com.microfocus.application.automation.tools.pc.helper.DateFormatter;
 import com.microfocus.application.automation.tools.run.PcBuilder;
 import hudson.FilePath;
@@ -46,6 +47,8 @@ import java.io.InputStream;
 import java.io.PrintStream;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.*;
 
 import hudson.console.HyperlinkNote;
@@ -79,7 +82,7 @@ public class PcClient {
                         logger.println(String.format("%s - %s %s.", dateFormatter.getDate(), Messages.UsingProxyCredentialsConfiguration(), proxyOutUser));
                 }
             }
-            restProxy = new PcRestProxy(model.isHTTPSProtocol(), model.getPcServerName(true), model.isAuthenticateWithToken(), model.getAlmDomain(true), model.getAlmProject(true), model.getProxyOutURL(true),proxyOutUser,proxyOutPassword);
+            restProxy = new MeteredPcRestProxy(model.isHTTPSProtocol(), model.getPcServerName(true), model.isAuthenticateWithToken(), model.getAlmDomain(true), model.getAlmProject(true), model.getProxyOutURL(true),proxyOutUser,proxyOutPassword);
             this.logger = logger;
         }catch (PcException e){
             logger.println(String.format("%s - %s", dateFormatter.getDate(), e.getMessage()));
@@ -399,12 +402,31 @@ public class PcClient {
     private PcRunResponse waitForRunState(int runId, RunState completionState, int interval) throws InterruptedException,
             ClientProtocolException, PcException, IOException {
 
-        int counter = 0;
-        RunState[] states = {RunState.BEFORE_COLLATING_RESULTS,RunState.BEFORE_CREATING_ANALYSIS_DATA};
-        PcRunResponse response = null;
-        RunState lastState = RunState.UNDEFINED;
-        int threeStrikes = 3;
-        do {
+        return awaitPoll(PollScheduler.getInstance().submit(
+                new RunStatePoll(runId, completionState),
+                PollScheduler.Backoff.adaptive(interval)));
+    }
+
+    /**
+     * Polls the run state on the shared {@link PollScheduler}, backing off while the state does not change.
+     */
+    private class RunStatePoll implements PollScheduler.Poll<PcRunResponse> {
+
+        private final int runId;
+        private final RunState completionState;
+        private final RunState[] states = {RunState.BEFORE_COLLATING_RESULTS,RunState.BEFORE_CREATING_ANALYSIS_DATA};
+        private int counter = 0;
+        private PcRunResponse response = null;
+        private RunState lastState = RunState.UNDEFINED;
+        private int threeStrikes = 3;
+
+        private RunStatePoll(int runId, RunState completionState) {
+            this.runId = runId;
+            this.completionState = completionState;
+        }
+
+        @Override
+        public void poll(CompletableFuture<PcRunResponse> result, PollScheduler.Backoff backoff) throws ClientProtocolException, IOException {
             try {
 
                 if (threeStrikes < 3) {
@@ -417,50 +439,51 @@ public class PcClient {
                                 dateFormatter.getDate(),
                                 Messages.StoppingMonitoringOnRun(),
                                 runId));
-                        break;
+                        result.complete(response);
+                        return;
                     }
-                    Thread.sleep(2000);
                     login();
                 }
                 response = restProxy.getRunData(runId);
                 RunState currentState = RunState.get(response.getRunState());
                 if (lastState.ordinal() < currentState.ordinal()) {
                     lastState = currentState;
+                    backoff.reset();
                     logger.println(String.format("%s - RunID: %s - State = %s",
                             dateFormatter.getDate(),
                             runId,
                             currentState.value()));
                 }
+                threeStrikes = 3;
+                if (lastState.ordinal() >= completionState.ordinal()) {
+                    result.complete(response);
+                    return;
+                }
 
                 // In case we are in state before collate or before analyze, we will wait 1 minute for the state to change otherwise we exit
                 // because the user probably stopped the run from LRE or timeslot has reached the end.
                 if (Arrays.asList(states).contains(currentState)) {
                     counter++;
-                    Thread.sleep(1000);
                     if (counter > 60) {
                         logger.println(String.format("%s - Run ID: %s  - %s = %s",
                                 dateFormatter.getDate(),
                                 runId,
                                 Messages.StoppedFromPC(),
                                 currentState.value()));
-                        break;
+                        result.complete(response);
+                        return;
                     }
+                    backoff.once(1000);
                 } else {
                     counter = 0;
-                    Thread.sleep(interval);
                 }
-                threeStrikes = 3;
-            }
-            catch(InterruptedException e)
-            {
-                throw e;
             }
             catch(PcException e)
             {
                 threeStrikes--;
+                backoff.once(2000);
             }
-        } while (lastState.ordinal() < completionState.ordinal());
-        return response;
+        }
     }
 
     public FilePath publishRunReport(int runId, String reportDirectory) throws IOException, PcException, InterruptedException {
@@ -567,31 +590,52 @@ public class PcClient {
 
     public void waitForRunToPublishOnTrendReport(int runId, String trendReportId) throws PcException,IOException,InterruptedException{
 
-        ArrayList<PcTrendedRun> trendReportMetaDataResultsList;
-        boolean publishEnded = false;
-        int counterPublishStarted = 0;
-        int counterPublishNotStarted = 0;
-        boolean resultNotFound = true;
+        awaitPoll(PollScheduler.getInstance().submit(
+                new TrendReportPublishPoll(runId, trendReportId),
+                PollScheduler.Backoff.fixed(5000)));
+    }
 
-        do {
-            trendReportMetaDataResultsList = restProxy.getTrendReportMetaData(trendReportId);
+    /**
+     * Polls the trend report on the shared {@link PollScheduler}, each pending check of the run delays the next poll by 5 seconds.
+     */
+    private class TrendReportPublishPoll implements PollScheduler.Poll<Void> {
+
+        private final int runId;
+        private final String trendReportId;
+        private int counterPublishStarted = 0;
+        private int counterPublishNotStarted = 0;
+
+        private TrendReportPublishPoll(int runId, String trendReportId) {
+            this.runId = runId;
+            this.trendReportId = trendReportId;
+        }
 
-            if (trendReportMetaDataResultsList.isEmpty())  break;
+        @Override
+        public void poll(CompletableFuture<Void> result, PollScheduler.Backoff backoff) throws PcException, IOException {
+            boolean publishEnded = false;
+            boolean resultNotFound = true;
+            long delay = 0;
+            ArrayList<PcTrendedRun> trendReportMetaDataResultsList = restProxy.getTrendReportMetaData(trendReportId);
 
-            for (PcTrendedRun result : trendReportMetaDataResultsList) {
-                resultNotFound = result.getRunID() != runId;
+            if (trendReportMetaDataResultsList.isEmpty()) {
+                result.complete(null);
+                return;
+            }
+
+            for (PcTrendedRun trendedRun : trendReportMetaDataResultsList) {
+                resultNotFound = trendedRun.getRunID() != runId;
                 if (resultNotFound) continue;
 
-                if (result.getState().equals(PcBuilder.TRENDED) || result.getState().equals(PcBuilder.ERROR)){
+                if (trendedRun.getState().equals(PcBuilder.TRENDED) || trendedRun.getState().equals(PcBuilder.ERROR)){
                     publishEnded = true;
                     logger.println(String.format("%s - Run: %s %s: %s",
                             dateFormatter.getDate(),
                             runId,
                             Messages.PublishingStatus(),
-                            result.getState()));
+                            trendedRun.getState()));
                     break;
                 } else {
-                    Thread.sleep(5000);
+                    delay += 5000;
                     counterPublishStarted++;
                     if(counterPublishStarted >= 360){ //waiting 30 minutes for timeout
                         String msg = String.format("%s: %s",
@@ -600,24 +644,47 @@ public class PcClient {
                         throw new PcException(msg);
                     }
                 }
-             }
-             if (!publishEnded && resultNotFound) {
-                Thread.sleep(5000);
-                 counterPublishNotStarted++;
-                 if(counterPublishNotStarted >= 180){ //waiting 15 minutes for timeout
-                     String msg = String.format("%s",
-                             Messages.PublishingStartTimeout());
-                     throw new PcException(msg);
-                 } else if (counterPublishNotStarted % 12 == 0){ //warning every minute until timeout
-                     logger.println(String.format("%s - %s. %s: %s ... ",
-                             dateFormatter.getDate(),
-                             Messages.WaitingForTrendReportToStart(),
-                             Messages.MinutesUntilTimeout(),
-                             10 - (counterPublishNotStarted / 12)
-                     ));
-                 }
             }
-        } while (!publishEnded && counterPublishStarted < 120 && counterPublishNotStarted < 120);
+            if (!publishEnded && resultNotFound) {
+                delay += 5000;
+                counterPublishNotStarted++;
+                if(counterPublishNotStarted >= 180){ //waiting 15 minutes for timeout
+                    String msg = String.format("%s",
+                            Messages.PublishingStartTimeout());
+                    throw new PcException(msg);
+                } else if (counterPublishNotStarted % 12 == 0){ //warning every minute until timeout
+                    logger.println(String.format("%s - %s. %s: %s ... ",
+                            dateFormatter.getDate(),
+                            Messages.WaitingForTrendReportToStart(),
+                            Messages.MinutesUntilTimeout(),
+                            10 - (counterPublishNotStarted / 12)
+                    ));
+                }
+            }
+            if (publishEnded || counterPublishStarted >= 120 || counterPublishNotStarted >= 120) {
+                result.complete(null);
+            } else {
+                backoff.once(delay);
+            }
+        }
+    }
+
+    private <T> T awaitPoll(CompletableFuture<T> result) throws InterruptedException, PcException, IOException {
+        try {
+            return PollScheduler.await(result);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof PcException) {
+                throw (PcException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
     }
 
     public boolean downloadTrendReportAsPdf(String trendReportId, String directory) throws PcException {
@@ -28,20 +28,21 @@
 
 package com.microfocus.application.automation.tools.rest;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
@@ -50,11 +51,17 @@ import javax.net.ssl.SSLSession;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
+import com.microfocus.application.automation.tools.common.HttpTransport;
 import com.microfocus.application.automation.tools.common.SSEException;
 import com.microfocus.application.automation.tools.sse.sdk.Client;
 import com.microfocus.application.automation.tools.sse.sdk.ResourceAccessLevel;
 import com.microfocus.application.automation.tools.sse.sdk.Response;
-import hudson.ProxyConfiguration;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
 
 import com.microfocus.application.automation.tools.sse.sdk.HttpRequestDecorator;
 
@@ -69,7 +76,7 @@ import com.microfocus.adm.performancecenter.plugins.common.rest.RESTConstants;
 public class RestClient implements Client {
 
     private final String _serverUrl;
-    protected Map<String, String> _cookies = new HashMap<String, String>();
+    protected Map<String, String> _cookies = new ConcurrentHashMap<String, String>();
     private final String _restPrefix;
     private final String _webuiPrefix;
     private final String _username;
@@ -263,8 +270,7 @@ public class RestClient implements Client {
             url += "?" + queryString;
         }
         try {
-            HttpURLConnection connection = (HttpURLConnection)ProxyConfiguration.open(new URL(url));
-            connection.setRequestMethod(type);
+            HttpUriRequest request = createRequest(type, url, data);
 
             Map<String, String> decoratedHeaders = new HashMap<String, String>();
             if (headers != null) {
@@ -276,9 +282,11 @@ public class RestClient implements Client {
                     getUsername(),
                     resourceAccessLevel);
 
-            prepareHttpRequest(connection, decoratedHeaders, data);
-            connection.connect();
-            ret = retrieveHtmlResponse(connection);
+            prepareHttpRequest(request, decoratedHeaders);
+            ret = HttpTransport.getInstance().execute(
+                    request,
+                    HttpTransport.createJenkinsProxyContext(request.getURI().getHost()),
+                    response -> retrieveHtmlResponse(response, request.getURI()));
             updateCookies(ret);
         } catch (Exception cause) {
             throw new SSEException(cause);
@@ -288,97 +296,68 @@ public class RestClient implements Client {
     }
 
     /**
-     * Prepare http request
+     * Create http request
      */
-    private void prepareHttpRequest(
-            HttpURLConnection connnection,
-            Map<String, String> headers,
-            byte[] bytes) {
-
-        // set all cookies for request
-        connnection.setRequestProperty(RESTConstants.COOKIE, getCookiesString());
+    private HttpUriRequest createRequest(String type, String url, byte[] bytes) {
 
-        setConnectionHeaders(connnection, headers);
+        RequestBuilder builder = RequestBuilder.create(type).setUri(HttpTransport.toUri(url));
+        if (bytes != null && bytes.length > 0) {
+            builder.setEntity(new ByteArrayEntity(bytes));
+        }
 
-        setConnectionData(connnection, bytes);
+        return builder.build();
     }
 
     /**
-     * Set connection data
+     * Prepare http request
      */
-    private void setConnectionData(HttpURLConnection connnection, byte[] bytes) {
+    private void prepareHttpRequest(HttpUriRequest request, Map<String, String> headers) {
 
-        if (bytes != null && bytes.length > 0) {
-            connnection.setDoOutput(true);
-            try {
-                OutputStream out = connnection.getOutputStream();
-                out.write(bytes);
-                out.flush();
-                out.close();
-            } catch (Exception cause) {
-                throw new SSEException(cause);
-            }
-        }
+        // set all cookies for request
+        request.setHeader(RESTConstants.COOKIE, getCookiesString());
+
+        setRequestHeaders(request, headers);
     }
 
     /**
-     * Set connection headers
+     * Set request headers
      */
-    private void setConnectionHeaders(HttpURLConnection connnection, Map<String, String> headers) {
+    private void setRequestHeaders(HttpUriRequest request, Map<String, String> headers) {
 
         if (headers != null) {
             Iterator<Entry<String, String>> headersIterator = headers.entrySet().iterator();
             while (headersIterator.hasNext()) {
                 Entry<String, String> header = headersIterator.next();
-                connnection.setRequestProperty(header.getKey(), header.getValue());
+                request.setHeader(header.getKey(), header.getValue());
             }
         }
     }
 
     /**
      * Retrieve Html Response
-     * @param connection
-     *            that is already connected to its url with an http request, and that should contain
-     *            a response for us to retrieve
+     * @param response
+     *            response from the server to the request, its body (decompressed when gzipped) is read here
      * @return a response from the server to the previously submitted http request
      */
-    private Response retrieveHtmlResponse(HttpURLConnection connection) {
+    private Response retrieveHtmlResponse(HttpResponse response, URI uri) throws IOException {
 
         Response ret = new Response();
-
-        try {
-            ret.setStatusCode(connection.getResponseCode());
-            ret.setHeaders(connection.getHeaderFields());
-        } catch (Exception cause) {
-            throw new SSEException(cause);
-        }
-
-        InputStream inputStream;
-        // select the source of the input bytes, first try 'regular' input
-        try {
-            inputStream = connection.getInputStream();
-        }
-        // if the connection to the server somehow failed, for example 404 or 500,
-        // con.getInputStream() will throw an exception, which we'll keep.
-        // we'll also store the body of the exception page, in the response data. */
-        catch (Exception e) {
-            inputStream = connection.getErrorStream();
-            ret.setFailure(e);
+        ret.setStatusCode(response.getStatusLine().getStatusCode());
+        ret.setHeaders(HttpTransport.getHeaders(response));
+
+        // like HttpURLConnection, keep a failure for error status codes, the body of the error page is kept too
+        int statusCode = ret.getStatusCode();
+        if (statusCode == HttpURLConnection.HTTP_NOT_FOUND || statusCode == HttpURLConnection.HTTP_GONE) {
+            ret.setFailure(new FileNotFoundException(uri.toString()));
+        } else if (statusCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+            ret.setFailure(new IOException(String.format(
+                    "Server returned HTTP response code: %d for URL: %s",
+                    statusCode,
+                    uri)));
         }
 
-        // this takes data from the previously set stream (error or input)
-        // and stores it in a byte[] inside the response
-        ByteArrayOutputStream container = new ByteArrayOutputStream();
-        byte[] buf = new byte[1024];
-        int read;
-        try {
-            while ((read = inputStream.read(buf, 0, 1024)) > 0) {
-                container.write(buf, 0, read);
-            }
-            ret.setData(container.toByteArray());
-        } catch (Exception ex) {
-            throw new SSEException(ex);
-        }
+        HttpEntity entity = response.getEntity();
+        ret.setData(entity == null ? new byte[0] : EntityUtils.toByteArray(entity));
 
         return ret;
     }
@@ -405,10 +384,8 @@ public class RestClient implements Client {
      */
     private String getCookiesString() {
         StringBuilder ret = new StringBuilder();
-        if (!_cookies.isEmpty()) {
-            for (Entry<String, String> entry : _cookies.entrySet()) {
-                ret.append(entry.getKey()).append("=").append(entry.getValue()).append(";");
-            }
+        for (Entry<String, String> entry : _cookies.entrySet()) {
+            ret.append(entry.getKey()).append("=").append(entry.getValue()).append(";");
         }
 
         return ret.toString();
@@ -424,6 +401,6 @@ public class RestClient implements Client {
      * Get cookies
      */
     public Map<String, String> getCookies() {
-        return _cookies;
+        return Collections.unmodifiableMap(_cookies);
     }
 }
@@ -0,0 +1,558 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import com.microfocus.application.automation.tools.results.projectparser.performance.AvgTransactionResponseTime;
+import com.microfocus.application.automation.tools.results.projectparser.performance.GoalResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrJobResults;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrProjectScenarioResults;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrTest;
+import com.microfocus.application.automation.tools.results.projectparser.performance.PercentileTransactionWholeRun;
+import com.microfocus.application.automation.tools.results.projectparser.performance.ProjectLrResults;
+import com.microfocus.application.automation.tools.results.projectparser.performance.TimeRangeResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.WholeRunResult;
+import hudson.XmlFile;
+import hudson.model.Job;
+import hudson.model.Run;
+import jenkins.model.Jenkins;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult
+        .DEFAULT_CONNECTION_MAX;
+import static com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult
+        .DEFAULT_SCENARIO_DURATION;
+
+/**
+ * Incremental aggregator of the LoadRunner trend of a job.
+ * Only builds that were not seen yet are scanned. Every scenario keeps its own sliding window of its newest
+ * builds, so a job alternating between scenarios keeps the same history per scenario as a full walk would.
+ * The union of the windows is folded into {@link ProjectLrResults}, and the aggregated result is persisted
+ * as a side file of the job, so the trend survives restarts without walking the whole build history.
+ * Readers get the last published result without locking.
+ * The aggregators are kept as long as their job, an aggregator only holds a weak reference to its job.
+ */
+public final class PerformanceTrendAggregator {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger
+            .getLogger(PerformanceTrendAggregator.class.getName());
+    static final int MAX_DISPLAY_BUILDS = 20;
+    /**
+     * {@link #foldBuild} only skips a scenario once it has more than {@link #MAX_DISPLAY_BUILDS} builds.
+     */
+    static final int SCENARIO_WINDOW = MAX_DISPLAY_BUILDS + 1;
+    private static final String TREND_FILE = "lrTrendCache.xml";
+    private static final Map<Job<?, ?>, PerformanceTrendAggregator> AGGREGATORS =
+            Collections.synchronizedMap(new WeakHashMap<Job<?, ?>, PerformanceTrendAggregator>());
+
+    private final WeakReference<Job<?, ?>> jobReference;
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final Map<Integer, LrJobResults> windowData = new HashMap<Integer, LrJobResults>();
+    private volatile TrendState state;
+    private volatile ProjectLrResults projectResult;
+    //published copies of the state, for the readers that do not hold the update lock
+    private volatile int lastScannedBuild;
+    private volatile boolean buildsRunning;
+
+    private PerformanceTrendAggregator(Job<?, ?> job) {
+        this.jobReference = new WeakReference<Job<?, ?>>(job);
+        this.state = load(job);
+        this.projectResult = state.projectResult;
+        publish();
+    }
+
+    /**
+     * Gets the aggregator of the job.
+     *
+     * @param job the job
+     * @return the aggregator
+     */
+    public static PerformanceTrendAggregator forJob(Job<?, ?> job) {
+        synchronized (AGGREGATORS) {
+            PerformanceTrendAggregator aggregator = AGGREGATORS.get(job);
+            if (aggregator == null) {
+                aggregator = new PerformanceTrendAggregator(job);
+                AGGREGATORS.put(job, aggregator);
+            }
+            return aggregator;
+        }
+    }
+
+    /**
+     * Gets the last published project result, never blocks.
+     *
+     * @return the project result, null if nothing was aggregated yet
+     */
+    public ProjectLrResults getProjectResult() {
+        return projectResult;
+    }
+
+    /**
+     * Is update needed boolean.
+     *
+     * @return true if there are builds that were not folded into the trend yet
+     */
+    public boolean isUpdateNeeded() {
+        Run<?, ?> lastBuild = getJob().getLastBuild();
+        int lastBuildNumber = lastBuild == null ? 0 : lastBuild.getNumber();
+        return projectResult == null || lastBuildNumber != lastScannedBuild || buildsRunning;
+    }
+
+    /**
+     * Folds builds that were not seen yet into the trend.
+     * If another viewer is already updating, the call returns right away and the previous result is served.
+     */
+    public void update() {
+        if (projectResult != null) {
+            if (!isUpdateNeeded() || !updateLock.tryLock()) {
+                return;
+            }
+        } else {
+            updateLock.lock();
+        }
+        try {
+            Job<?, ?> currentJob = getJob();
+            if (scan(currentJob)) {
+                projectResult = fold(currentJob);
+                state.projectResult = projectResult;
+                save(currentJob);
+            } else if (projectResult == null) {
+                projectResult = fold(currentJob);
+            }
+            publish();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes the scan position, called with the update lock held or before the aggregator is shared.
+     */
+    private void publish() {
+        lastScannedBuild = state.lastScannedBuild;
+        buildsRunning = !state.runningBuilds.isEmpty();
+    }
+
+    private Job<?, ?> getJob() {
+        Job<?, ?> ret = jobReference.get();
+        if (ret == null) {
+            //callers get the aggregator by their job, so the job can't be collected while they use it
+            throw new IllegalStateException("The job of the performance trend was discarded");
+        }
+        return ret;
+    }
+
+    private boolean scan(Job<?, ?> job) {
+        Run<?, ?> lastBuild = job.getLastBuild();
+        int lastBuildNumber = lastBuild == null ? 0 : lastBuild.getNumber();
+        boolean changed = false;
+        if (lastBuildNumber < state.lastScannedBuild) {
+            //build history was reset, start over
+            state = new TrendState();
+            windowData.clear();
+            changed = true;
+        }
+
+        for (Integer runNumber : new ArrayList<Integer>(state.runningBuilds)) {
+            Run<?, ?> run = job.getBuildByNumber(runNumber);
+            if (run == null || !run.isBuilding()) {
+                state.runningBuilds.remove(runNumber);
+                changed |= addToWindow(run);
+            }
+        }
+
+        if (lastBuildNumber > state.lastScannedBuild) {
+            for (Run<?, ?> run : job.getBuilds()) {
+                int runNumber = run.getNumber();
+                if (runNumber <= state.lastScannedBuild) {
+                    break;
+                }
+                if (run.isBuilding()) {
+                    state.runningBuilds.add(runNumber);
+                    continue;
+                }
+                changed |= addToWindow(run);
+            }
+            state.lastScannedBuild = lastBuildNumber;
+            changed = true;
+        }
+        return changed;
+    }
+
+    private boolean addToWindow(Run<?, ?> run) {
+        if (run == null) {
+            return false;
+        }
+        LrJobResults jobLrResult = getJobResults(run);
+        if (jobLrResult == null) {
+            return false;
+        }
+        int runNumber = run.getNumber();
+        Set<Integer> evicted = state.windows.add(runNumber, jobLrResult.getLrScenarioResults().keySet());
+        windowData.keySet().removeAll(evicted);
+        if (evicted.contains(runNumber)) {
+            return false;
+        }
+        windowData.put(runNumber, jobLrResult);
+        return true;
+    }
+
+    private static LrJobResults getJobResults(Run<?, ?> run) {
+        PerformanceJobReportAction performanceJobReportAction = run.getAction(PerformanceJobReportAction.class);
+        return performanceJobReportAction == null ? null : performanceJobReportAction.getLrResultBuildDataset();
+    }
+
+    /**
+     * Folds the builds of all scenario windows into a new project result.
+     */
+    private ProjectLrResults fold(Job<?, ?> job) {
+        TreeMap<Integer, LrJobResults> builds = new TreeMap<Integer, LrJobResults>();
+        for (Integer runNumber : state.windows.getBuilds()) {
+            LrJobResults jobLrResult = windowData.get(runNumber);
+            if (jobLrResult == null) {
+                //window was restored from the side file, load the build data on demand
+                Run<?, ?> run = job.getBuildByNumber(runNumber);
+                jobLrResult = run == null ? null : getJobResults(run);
+                if (jobLrResult == null) {
+                    state.windows.remove(runNumber);
+                    continue;
+                }
+                windowData.put(runNumber, jobLrResult);
+            }
+            builds.put(runNumber, jobLrResult);
+        }
+        return fold(builds);
+    }
+
+    /**
+     * Folds the builds into a new project result, newest build first.
+     *
+     * @param builds the build results by build number
+     * @return the project result
+     */
+    static ProjectLrResults fold(NavigableMap<Integer, LrJobResults> builds) {
+        ProjectLrResults result = new ProjectLrResults();
+        for (Map.Entry<Integer, LrJobResults> build : builds.descendingMap().entrySet()) {
+            foldBuild(result, build.getKey(), build.getValue());
+        }
+        return result;
+    }
+
+    private static void foldBuild(ProjectLrResults result, int runNumber, LrJobResults jobLrResult) {
+        // get all the ran scenario results from this run and insert them into the project
+        for (Map.Entry<String, JobLrScenarioResult> runResult : jobLrResult.getLrScenarioResults().entrySet()) {
+            // add the scenario if it's the first time it's ran in this build (allows scenarios to be also added
+            // at diffrent time)
+            if (!result.getScenarioResults().containsKey(runResult.getKey())) {
+                result.addScenario(new LrProjectScenarioResults(runResult.getKey()));
+            }
+            // Join the SLA rule results
+            LrProjectScenarioResults lrProjectScenarioResults =
+                    result.getScenarioResults().get(runResult.getKey());
+            if(lrProjectScenarioResults.getBuildCount() > MAX_DISPLAY_BUILDS)
+            {
+                continue;
+            }
+            lrProjectScenarioResults.incBuildCount();
+            JobLrScenarioResult scenarioRunResult = runResult.getValue();
+            for (GoalResult goalResult : scenarioRunResult.scenarioSlaResults) {
+                scenarioGoalResult(runNumber, lrProjectScenarioResults, goalResult);
+            }
+
+            // Join sceanrio stats
+            joinSceanrioConnectionsStats(runNumber, lrProjectScenarioResults, scenarioRunResult);
+            joinVUserScenarioStats(runNumber, lrProjectScenarioResults, scenarioRunResult);
+            joinTransactionScenarioStats(runNumber, lrProjectScenarioResults, scenarioRunResult);
+            joinDurationStats(runNumber, lrProjectScenarioResults, scenarioRunResult);
+        }
+    }
+
+    private static void joinDurationStats(int runNumber, LrProjectScenarioResults lrProjectScenarioResults,
+                                   JobLrScenarioResult scenarioRunResult) {
+        long scenarioConnectionMax = scenarioRunResult.getScenarioDuration();
+        if (scenarioConnectionMax != DEFAULT_SCENARIO_DURATION) {
+            lrProjectScenarioResults.getDurationData().put(runNumber, scenarioConnectionMax);
+        }
+    }
+
+    private static void joinTransactionScenarioStats(int runNumber, LrProjectScenarioResults lrProjectScenarioResults,
+                                              JobLrScenarioResult scenarioRunResult) {
+        SortedMap<Integer, TreeMap<String, TreeMap<String, Integer>>> projectTransactionPerRun =
+                lrProjectScenarioResults.getTransactionPerRun();
+        SortedMap<String, Integer> projectTransactionSum = lrProjectScenarioResults.getTransactionSum();
+
+        final TreeMap<String, TreeMap<String, Integer>> scenarioTransactionData =
+                scenarioRunResult.transactionData;
+        final TreeMap<String, Integer> scenarioTransactionSum = scenarioRunResult.transactionSum;
+
+        if (scenarioTransactionData == null || scenarioTransactionSum == null) {
+            return;
+        }
+
+        if (!scenarioTransactionData.isEmpty()) {
+            //store transaction state data per run
+            projectTransactionPerRun.put(runNumber, scenarioTransactionData);
+            //add all summary transcation states to project level summary
+            for (SortedMap.Entry<String, Integer> transactionState : scenarioTransactionSum.entrySet()) {
+                int previousCount = 0;
+                if (projectTransactionSum.containsKey(transactionState.getKey())) {
+                    previousCount = projectTransactionSum.get(transactionState.getKey());
+                }
+                projectTransactionSum.put(transactionState.getKey(), previousCount + transactionState.getValue());
+            }
+
+
+            //add all per transcation states to project level per transaction summary
+            SortedMap<String, TreeMap<String, Integer>> projectTransactionsData =
+                    lrProjectScenarioResults.getTransactionData();
+            for (SortedMap.Entry<String, TreeMap<String, Integer>> scenarioTransactionDataSet :
+                    scenarioTransactionData.entrySet()) {
+                String transactionName = scenarioTransactionDataSet.getKey();
+                TreeMap<String, Integer> TransactionStateData = scenarioTransactionDataSet.getValue();
+                if (!projectTransactionsData.containsKey(transactionName)) {
+                    projectTransactionsData.put(transactionName, new TreeMap<String, Integer>(TransactionStateData));
+                    continue;
+                }
+
+                TreeMap<String, Integer> projectTransactionState = projectTransactionsData.get(transactionName);
+                for (Map.Entry<String, Integer> scenarioTransactionState : TransactionStateData.entrySet()) {
+                    Integer currentValue = scenarioTransactionState.getValue();
+                    projectTransactionState.put(scenarioTransactionState.getKey(), currentValue +
+                            scenarioTransactionState.getValue());
+                }
+            }
+        }
+    }
+
+    private static void joinVUserScenarioStats(int runNumber, LrProjectScenarioResults lrProjectScenarioResults,
+                                        JobLrScenarioResult scenarioRunResult) {
+        SortedMap<Integer, TreeMap<String, Integer>> vUserPerRun = lrProjectScenarioResults.getvUserPerRun();
+        if (scenarioRunResult.vUserSum != null && !scenarioRunResult.vUserSum.isEmpty()) {
+            for (SortedMap.Entry<String, Integer> vUserStat : scenarioRunResult.vUserSum.entrySet()) {
+                if (!vUserPerRun.containsKey(runNumber)) {
+                    vUserPerRun.put(runNumber, new TreeMap<String, Integer>());
+                    LrProjectScenarioResults.vUserMapInit(vUserPerRun.get(runNumber));
+                }
+                vUserPerRun.get(runNumber).put(vUserStat.getKey(), vUserStat.getValue());
+                int previousCount = 0;
+                if (lrProjectScenarioResults.getvUserSummary().containsKey(vUserStat.getKey())) {
+                    previousCount = lrProjectScenarioResults.getvUserSummary().get(vUserStat.getKey());
+                }
+                lrProjectScenarioResults.getvUserSummary()
+                        .put(vUserStat.getKey(), previousCount + vUserStat.getValue());
+            }
+        }
+    }
+
+    private static void joinSceanrioConnectionsStats(int runNumber, LrProjectScenarioResults lrProjectScenarioResults,
+                                              JobLrScenarioResult scenarioRunResult) {
+        int scenarioConnectionMax = scenarioRunResult.getConnectionMax();
+        if (scenarioConnectionMax != DEFAULT_CONNECTION_MAX) {
+            lrProjectScenarioResults.getMaxConnectionsCount().put(runNumber, scenarioConnectionMax);
+        }
+    }
+
+    private static void scenarioGoalResult(int runNumber, LrProjectScenarioResults lrProjectScenarioResults,
+                                           GoalResult goalResult) {
+        if(goalResult.getStatus().equals(LrTest.SLA_STATUS.NoData))
+        {
+            return;
+        }
+        switch (goalResult.getSlaGoal()) {
+            case AverageThroughput:
+                lrProjectScenarioResults.getAverageThroughputResults()
+                        .put(runNumber, (WholeRunResult) goalResult);
+                break;
+            case TotalThroughput:
+                lrProjectScenarioResults.getTotalThroughtputResults().put(runNumber, (WholeRunResult) goalResult);
+                break;
+            case AverageHitsPerSecond:
+                lrProjectScenarioResults.getAverageHitsPerSecondResults()
+                        .put(runNumber, (WholeRunResult) goalResult);
+                break;
+            case TotalHits:
+                lrProjectScenarioResults.getTotalHitsResults().put(runNumber, (WholeRunResult) goalResult);
+                break;
+            case ErrorsPerSecond:
+                lrProjectScenarioResults.getErrPerSecResults()
+                        .put(runNumber, (TimeRangeResult) goalResult);
+                break;
+            case PercentileTRT:
+                if (!lrProjectScenarioResults.getPercentileTransactionResults().containsKey(runNumber)) {
+                    lrProjectScenarioResults.getPercentileTransactionResults()
+                            .put(runNumber, new TreeMap<String, PercentileTransactionWholeRun>());
+                }
+                lrProjectScenarioResults.getTransactions()
+                        .add(((PercentileTransactionWholeRun) goalResult).getName());
+                lrProjectScenarioResults.getPercentileTransactionResults().get(runNumber)
+                        .put(((PercentileTransactionWholeRun) goalResult).getName(),
+                                (PercentileTransactionWholeRun) goalResult);
+                break;
+            case AverageTRT:
+                if (!lrProjectScenarioResults.getAvgTransactionResponseTimeResults()
+                        .containsKey(runNumber)) {
+                    lrProjectScenarioResults.getAvgTransactionResponseTimeResults()
+                            .put(runNumber, new TreeMap<String, AvgTransactionResponseTime>());
+                }
+                lrProjectScenarioResults.getTransactions()
+                        .add(((AvgTransactionResponseTime) goalResult).getName());
+                lrProjectScenarioResults.getAvgTransactionResponseTimeResults().get(runNumber)
+                        .put(((AvgTransactionResponseTime) goalResult).getName(),
+                                (AvgTransactionResponseTime) goalResult);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static XmlFile getTrendFile(Job<?, ?> job) {
+        return new XmlFile(Jenkins.XSTREAM2, new File(job.getRootDir(), TREND_FILE));
+    }
+
+    private static TrendState load(Job<?, ?> job) {
+        XmlFile file = getTrendFile(job);
+        if (file.exists()) {
+            try {
+                Object loaded = file.read();
+                if (loaded instanceof TrendState && ((TrendState) loaded).windows != null) {
+                    return (TrendState) loaded;
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to load performance trend of " + job.getFullName() + ", rebuilding it", e);
+            }
+        }
+        return new TrendState();
+    }
+
+    private void save(Job<?, ?> job) {
+        try {
+            getTrendFile(job).write(state);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save performance trend of " + job.getFullName(), e);
+        }
+    }
+
+    /**
+     * Persisted trend: builds seen so far, the scenario windows and their aggregated result.
+     * A state saved before the windows were kept per scenario has no windows and is rebuilt.
+     */
+    private static final class TrendState {
+        private int lastScannedBuild;
+        private TreeSet<Integer> runningBuilds = new TreeSet<Integer>();
+        private ScenarioWindows windows = new ScenarioWindows();
+        private ProjectLrResults projectResult;
+    }
+
+    /**
+     * The newest {@link #SCENARIO_WINDOW} builds of every scenario.
+     * A build stays in the trend as long as the window of any of its scenarios holds it.
+     */
+    static final class ScenarioWindows {
+        private final TreeMap<String, TreeSet<Integer>> scenarioBuilds = new TreeMap<String, TreeSet<Integer>>();
+
+        /**
+         * Adds the build to the windows of its scenarios.
+         *
+         * @param runNumber the build number
+         * @param scenarios the scenarios that ran in the build
+         * @return the builds that are no longer held by any window, may contain the added build itself
+         */
+        Set<Integer> add(int runNumber, Collection<String> scenarios) {
+            Set<Integer> dropped = new HashSet<Integer>();
+            for (String scenario : scenarios) {
+                TreeSet<Integer> builds = scenarioBuilds.get(scenario);
+                if (builds == null) {
+                    builds = new TreeSet<Integer>();
+                    scenarioBuilds.put(scenario, builds);
+                }
+                builds.add(runNumber);
+                while (builds.size() > SCENARIO_WINDOW) {
+                    dropped.add(builds.pollFirst());
+                }
+            }
+            if (scenarios.isEmpty()) {
+                dropped.add(runNumber);
+            }
+            Set<Integer> evicted = new HashSet<Integer>();
+            for (Integer build : dropped) {
+                if (!contains(build)) {
+                    evicted.add(build);
+                }
+            }
+            return evicted;
+        }
+
+        void remove(int runNumber) {
+            for (TreeSet<Integer> builds : scenarioBuilds.values()) {
+                builds.remove(runNumber);
+            }
+        }
+
+        boolean contains(int runNumber) {
+            for (TreeSet<Integer> builds : scenarioBuilds.values()) {
+                if (builds.contains(runNumber)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return the builds held by any window, oldest first
+         */
+        TreeSet<Integer> getBuilds() {
+            TreeSet<Integer> builds = new TreeSet<Integer>();
+            for (TreeSet<Integer> scenarioWindow : scenarioBuilds.values()) {
+                builds.addAll(scenarioWindow);
+            }
+            return builds;
+        }
+    }
+}
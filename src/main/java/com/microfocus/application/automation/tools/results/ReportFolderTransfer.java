@@ -0,0 +1,191 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.remoting.Channel;
+import hudson.remoting.RemoteOutputStream;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Zips report folders on the node that holds them and streams the archive straight into a file of the master.
+ * The archive never sits in memory: the node writes it to the remoting pipe through a bounded buffer,
+ * and the master writes it to the target file as it arrives.
+ * The zip layout is the one of {@link FilePath#zip(OutputStream)}, entries are prefixed by the folder name.
+ */
+final class ReportFolderTransfer implements Closeable {
+
+	private static final int COMPRESSION_LEVEL = Integer.getInteger("RunResultRecorder.ZipCompressionLevel", Deflater.DEFAULT_COMPRESSION);
+	private static final int TRANSFER_THREADS = Integer.getInteger("RunResultRecorder.TransferThreads", 2);
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final TaskListener listener;
+	private final List<Future<Long>> transfers = new ArrayList<>();
+	private ExecutorService executor;
+
+	ReportFolderTransfer(TaskListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Zips the source folder (or file) into the target file
+	 *
+	 * @return the size of the archive
+	 */
+	static long zipTo(FilePath source, FilePath target, TaskListener listener) throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		CountingOutputStream counter;
+		try (OutputStream fileOut = target.write()) {
+			counter = new CountingOutputStream(fileOut);
+			OutputStream out = source.isRemote() ? new RemoteOutputStream(counter) : counter;
+			source.act(new ZipCallable(out, COMPRESSION_LEVEL));
+			//the pipe is asynchronous, make sure everything has been written before the file is closed
+			VirtualChannel channel = source.getChannel();
+			if (source.isRemote() && channel instanceof Channel) {
+				((Channel) channel).syncLocalIO();
+			}
+		}
+
+		long bytes = counter.getByteCount();
+		double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+		listener.getLogger().println(String.format("Transferred %.1f MB from %s in %.1f s (%.1f MB/s)",
+				bytes / 1048576.0, source, seconds, bytes / 1048576.0 / seconds));
+		return bytes;
+	}
+
+	/**
+	 * Zips the source folder into the target file in the background, up to RunResultRecorder.TransferThreads folders at once
+	 */
+	void zipToAsync(FilePath source, FilePath target) {
+		if (executor == null) {
+			AtomicInteger threadsCount = new AtomicInteger();
+			executor = Executors.newFixedThreadPool(Math.max(1, TRANSFER_THREADS), runnable -> {
+				Thread thread = new Thread(runnable, "Report folder transfer-" + threadsCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		transfers.add(executor.submit(() -> zipTo(source, target, listener)));
+	}
+
+	/**
+	 * Waits for the background transfers, the first failure is rethrown
+	 */
+	void awaitAll() throws IOException, InterruptedException {
+		for (Future<Long> transfer : transfers) {
+			try {
+				transfer.get();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				} else if (cause instanceof InterruptedException) {
+					throw (InterruptedException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new IOException(cause);
+			}
+		}
+		transfers.clear();
+	}
+
+	@Override
+	public void close() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	private static final class ZipCallable extends MasterToSlaveFileCallable<Void> {
+		private static final long serialVersionUID = 1L;
+		private final OutputStream out;
+		private final int level;
+
+		private ZipCallable(OutputStream out, int level) {
+			this.out = out;
+			this.level = level;
+		}
+
+		@Override
+		public Void invoke(File f, VirtualChannel channel) throws IOException {
+			try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE))) {
+				zip.setLevel(level);
+				if (f.isDirectory()) {
+					addDirectory(zip, f, f.getName() + '/');
+				} else {
+					addFile(zip, f, f.getName());
+				}
+			}
+			return null;
+		}
+
+		private static void addDirectory(ZipOutputStream zip, File dir, String path) throws IOException {
+			ZipEntry entry = new ZipEntry(path);
+			entry.setTime(dir.lastModified());
+			zip.putNextEntry(entry);
+			zip.closeEntry();
+			File[] children = dir.listFiles();
+			if (children == null) {
+				return;
+			}
+			for (File child : children) {
+				if (child.isDirectory()) {
+					addDirectory(zip, child, path + child.getName() + '/');
+				} else {
+					addFile(zip, child, path + child.getName());
+				}
+			}
+		}
+
+		private static void addFile(ZipOutputStream zip, File file, String path) throws IOException {
+			ZipEntry entry = new ZipEntry(path);
+			entry.setTime(file.lastModified());
+			zip.putNextEntry(entry);
+			Files.copy(file.toPath(), zip);
+			zip.closeEntry();
+		}
+	}
+}
@@ -47,19 +47,16 @@ public class LrScriptResultsSanitizer extends FilterReader {
     }
 
     /**
-     * This is another no-op read() method we have to implement. We implement it
-     * in terms of the method above. Our superclass implements the remaining
-     * read() methods in terms of these two.
+     * Reads the next character that is not stripped, without the buffer of the method below.
+     * Our superclass implements the remaining read() methods in terms of these two.
      */
     @Override
     public int read() throws IOException {
-        char[] buf = new char[1];
-        int result = read(buf, 0, 1);
-        if (result == -1) {
-            return -1;
-        } else {
-            return (int) buf[0];
-        }
+        int current;
+        do {
+            current = in.read();
+        } while (current != -1 && isBadXMLChar((char) current));
+        return current;
     }
 
     @Override
@@ -30,9 +30,16 @@ package com.microfocus.application.automation.tools.results.parser;
 
 import java.io.FileInputStream;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.ctc.wstx.stax.WstxInputFactory;
 import com.microfocus.application.automation.tools.results.parser.antjunit.AntJUnitReportParserImpl;
 import com.microfocus.application.automation.tools.results.parser.jenkinsjunit.JenkinsJUnitReportParserImpl;
 import com.microfocus.application.automation.tools.results.parser.mavensurefire.MavenSureFireReportParserImpl;
@@ -44,29 +51,28 @@ import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import hudson.FilePath;
 
 public class ReportParserManager {
-	
-	private static ReportParserManager instance = new ReportParserManager();
 
-	private List<ReportParser> parserList;
-	private FilePath workspace;
-	private Logger logger;
+	private static final XMLInputFactory xmlFactory = createXmlInputFactory();
+
+	private final FilePath workspace;
+	private final Logger logger;
 
-	private ReportParserManager() {}
+	private ReportParserManager(FilePath workspace, Logger logger) {
+		this.workspace = workspace;
+		this.logger = logger;
+	}
 
+	/**
+	 * The manager holds the workspace and logger of one upload, so concurrent builds get their own instance
+	 */
 	public static ReportParserManager getInstance(FilePath workspace, Logger logger) {
-		if (instance.workspace == null) {
-			instance.workspace = workspace;
-		}
-		if (instance.logger == null) {
-			instance.logger = logger;
-		}
-		return instance;
+		return new ReportParserManager(workspace, logger);
 	}
 
 	public List<AlmTestSet> parseTestSets(String reportFilePath, String testingFramework, String testingTool) {
-		init();
+		String rootElement = readRootElement(reportFilePath);
 		List<AlmTestSet> testsets = null;
-		for (ReportParser reportParser : parserList) {
+		for (ReportParser reportParser : getParsers(rootElement)) {
 			try {
 				InputStream in = new FileInputStream(reportFilePath);
 				testsets = reportParser.parseTestSets(in, testingFramework, testingTool);
@@ -78,18 +84,67 @@ public class ReportParserManager {
 		return testsets;
 	}
 
-	private void init() {
-		if (parserList == null) {
-			parserList = new ArrayList<ReportParser>();
+	/**
+	 * The parsers that accept the given root element, in the order they are tried.
+	 * An unknown (or unreadable) root element falls back to trying all of them.
+	 */
+	List<ReportParser> getParsers(String rootElement) {
+		switch (String.valueOf(rootElement)) {
+			case "result":
+				return Collections.<ReportParser>singletonList(new JenkinsJUnitReportParserImpl());
+			case "testsuite":
+				return Collections.<ReportParser>singletonList(new MavenSureFireReportParserImpl());
+			case "testng-results":
+				return Collections.<ReportParser>singletonList(new TestNGXmlReportParserImpl());
+			case "test-run":
+				return Collections.<ReportParser>singletonList(new NUnit3ReportParserImpl(workspace));
+			case "test-results":
+				// NUnit 2 reports are converted by the NUnit 3 stylesheet as well, the NUnit 2 model is the fallback
+				return Arrays.asList(new NUnit3ReportParserImpl(workspace), new NUnitReportParserImpl());
+			case "testsuites":
+				return Collections.<ReportParser>singletonList(new AntJUnitReportParserImpl());
+			default:
+				return Arrays.asList(
+						new JenkinsJUnitReportParserImpl(),
+						new MavenSureFireReportParserImpl(),
+						new TestNGXmlReportParserImpl(),
+						new NUnit3ReportParserImpl(workspace),
+						new NUnitReportParserImpl(),
+						new AntJUnitReportParserImpl());
+		}
+	}
+
+	/**
+	 * Reads only the first element of the report
+	 *
+	 * @return the local name of the root element, or null if the file could not be read as xml
+	 */
+	static String readRootElement(String reportFilePath) {
+		try (InputStream in = new FileInputStream(reportFilePath)) {
+			return readRootElement(in);
+		} catch (Exception e) {
+			return null;
 		}
+	}
 
-		if (parserList.isEmpty()) {
-			parserList.add(new JenkinsJUnitReportParserImpl());
-			parserList.add(new MavenSureFireReportParserImpl());
-			parserList.add(new TestNGXmlReportParserImpl());
-			parserList.add(new NUnit3ReportParserImpl(workspace));
-			parserList.add(new NUnitReportParserImpl());
-			parserList.add(new AntJUnitReportParserImpl());
+	static String readRootElement(InputStream in) throws XMLStreamException {
+		XMLStreamReader reader = xmlFactory.createXMLStreamReader(in);
+		try {
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+					return reader.getLocalName();
+				}
+			}
+			return null;
+		} finally {
+			reader.close();
 		}
 	}
+
+	private static XMLInputFactory createXmlInputFactory() {
+		XMLInputFactory factory = new WstxInputFactory();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
 }
@@ -73,15 +73,7 @@ public class AntJUnitReportParserImpl implements ReportParser {
 	}	
 	
 	private Testsuites parseFromAntJUnitReport(InputStream reportInputStream) throws JAXBException {
-		JAXBContext jaxbContext;
-		Thread t = Thread.currentThread();
-		ClassLoader orig = t.getContextClassLoader();
-		t.setContextClassLoader(AntJUnitReportParserImpl.class.getClassLoader());
-		try {
-			jaxbContext = JAXBContext.newInstance(Testsuites.class);
-		} finally {
-			t.setContextClassLoader(orig);
-		}
+		JAXBContext jaxbContext = ParserUtil.getJAXBContext(Testsuites.class);
 		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
 		return (Testsuites)unmarshaller.unmarshal(reportInputStream);
 	}
@@ -64,15 +64,7 @@ public class JenkinsJUnitReportParserImpl implements ReportParser {
 	}	
 	
 	private Result parseFromJenkinsPluginJUnitReport(InputStream reportInputStream) throws JAXBException {
-		JAXBContext jaxbContext;
-		Thread t = Thread.currentThread();
-		ClassLoader orig = t.getContextClassLoader();
-		t.setContextClassLoader(JenkinsJUnitReportParserImpl.class.getClassLoader());
-		try {
-			jaxbContext = JAXBContext.newInstance(Result.class);
-		} finally {
-			t.setContextClassLoader(orig);
-		}
+		JAXBContext jaxbContext = ParserUtil.getJAXBContext(Result.class);
 		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
 		return (Result)unmarshaller.unmarshal(reportInputStream);		
 	}
@@ -63,15 +63,7 @@ public class MavenSureFireReportParserImpl implements ReportParser {
 	}	
     
 	private Testsuite parseFromMavenSurefirePluginJUnitReport(InputStream reportInputStream) throws JAXBException {
-		JAXBContext jaxbContext;
-		Thread t = Thread.currentThread();
-		ClassLoader orig = t.getContextClassLoader();
-		t.setContextClassLoader(MavenSureFireReportParserImpl.class.getClassLoader());
-		try {
-			jaxbContext = JAXBContext.newInstance(Testsuite.class);
-		} finally {
-			t.setContextClassLoader(orig);
-		}
+		JAXBContext jaxbContext = ParserUtil.getJAXBContext(Testsuite.class);
 		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
 		return (Testsuite)unmarshaller.unmarshal(reportInputStream);
 	}
@@ -65,15 +65,7 @@ public class NUnitReportParserImpl implements ReportParser {
 	}	
     
 	private ResultType parseFromNUnitReport(InputStream reportInputStream) throws JAXBException {
-		JAXBContext jaxbContext;
-		Thread t = Thread.currentThread();
-		ClassLoader orig = t.getContextClassLoader();
-		t.setContextClassLoader(NUnitReportParserImpl.class.getClassLoader());
-		try {
-			jaxbContext = JAXBContext.newInstance(ResultType.class);
-		} finally {
-			t.setContextClassLoader(orig);
-		}
+		JAXBContext jaxbContext = ParserUtil.getJAXBContext(ResultType.class);
 		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
 		return (ResultType)unmarshaller.unmarshal(reportInputStream);
 	}
@@ -34,7 +34,9 @@ import com.microfocus.application.automation.tools.results.parser.antjunit.AntJU
 import com.microfocus.application.automation.tools.results.service.almentities.AlmTestSet;
 import hudson.FilePath;
 
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -55,6 +57,8 @@ public class NUnit3ReportParserImpl implements ReportParser {
     private static final String TEMP_JUNIT_FILE_SUFFIX = ".xml";
     private static final String NUNIT_TO_JUNIT_XSLFILE = "nunit-to-junit.xsl";
 
+    private static volatile Templates nunitTemplates;
+
     private FilePath workspace;
 
     public NUnit3ReportParserImpl(FilePath workspace) {
@@ -71,9 +75,7 @@ public class NUnit3ReportParserImpl implements ReportParser {
 
         FileOutputStream fileOutputStream = null;
         try {
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer nunitTransformer = transformerFactory.newTransformer(
-                        new StreamSource(this.getClass().getResourceAsStream(NUNIT_TO_JUNIT_XSLFILE)));
+            Transformer nunitTransformer = getNunitTemplates().newTransformer();
             File junitTargetFile = new File(workspace.createTempFile(TEMP_JUNIT_FILE_PREFIX, TEMP_JUNIT_FILE_SUFFIX).toURI());
             fileOutputStream = new FileOutputStream(junitTargetFile);
             nunitTransformer.transform(new StreamSource(reportInputStream), new StreamResult(fileOutputStream));
@@ -102,4 +104,18 @@ public class NUnit3ReportParserImpl implements ReportParser {
             }
         }
     }
+
+    /**
+     * The stylesheet is compiled once, a transformer is created from it per report.
+     */
+    private static Templates getNunitTemplates() throws TransformerConfigurationException {
+        Templates templates = nunitTemplates;
+        if (templates == null) {
+            TransformerFactory transformerFactory = TransformerFactory.newInstance();
+            templates = transformerFactory.newTemplates(
+                    new StreamSource(NUnit3ReportParserImpl.class.getResourceAsStream(NUNIT_TO_JUNIT_XSLFILE)));
+            nunitTemplates = templates;
+        }
+        return templates;
+    }
 }
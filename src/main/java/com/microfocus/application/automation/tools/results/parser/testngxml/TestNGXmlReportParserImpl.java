@@ -66,15 +66,7 @@ public class TestNGXmlReportParserImpl implements ReportParser {
 	}	
     
 	private TestngResults parseFromTestNGXmlReport(InputStream reportInputStream) throws JAXBException {
-		JAXBContext jaxbContext;
-		Thread t = Thread.currentThread();
-		ClassLoader orig = t.getContextClassLoader();
-		t.setContextClassLoader(TestNGXmlReportParserImpl.class.getClassLoader());
-		try {
-			jaxbContext = JAXBContext.newInstance(TestngResults.class);
-		} finally {
-			t.setContextClassLoader(orig);
-		}
+		JAXBContext jaxbContext = ParserUtil.getJAXBContext(TestngResults.class);
 		Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
 		return (TestngResults)unmarshaller.unmarshal(reportInputStream);
 	}
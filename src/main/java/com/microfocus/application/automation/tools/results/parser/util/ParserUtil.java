@@ -30,8 +30,11 @@ package com.microfocus.application.automation.tools.results.parser.util;
 
 import java.io.StringWriter;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 
 import com.microfocus.application.automation.tools.results.parser.ReportParser;
@@ -45,6 +48,8 @@ public class ParserUtil {
 	public static char[] testNameInvalidChars = new char[] { '\\', '/', ':', '"', '?', '\'', '<', '>', '|', '*', '%' };
 	public static char[] testSetNameInvalidChars = new char[] { '\\', '^', ',', '"', '*' };
 
+	private static final Map<Class<?>, JAXBContext> jaxbContexts = new ConcurrentHashMap<>();
+
 	public static String repaceInvalidChars(char[] invalidChars, char newChar, String source)
     {
 		StringBuffer temp = new StringBuffer(source);
@@ -98,15 +103,7 @@ public class ParserUtil {
 	public static String marshallerObject(Class c, Object o){
 		String s = "<?xml version=\"1.0\" ?>";
 		try {
-			JAXBContext jaxbContext;
-			Thread t = Thread.currentThread();
-			ClassLoader orig = t.getContextClassLoader();
-			t.setContextClassLoader(ParserUtil.class.getClassLoader());
-			try {
-				jaxbContext = JAXBContext.newInstance(c);
-			} finally {
-				t.setContextClassLoader(orig);
-			}
+			JAXBContext jaxbContext = getJAXBContext(c);
 
 			Marshaller marshaller =  jaxbContext.createMarshaller();
 			marshaller.setProperty(Marshaller.JAXB_ENCODING,"utf-8");
@@ -121,6 +118,28 @@ public class ParserUtil {
 		return s;
 	}
 	
+	/**
+	 * JAXB contexts are expensive to create and thread safe, so one is kept per model class
+	 */
+	public static JAXBContext getJAXBContext(Class<?> c) throws JAXBException {
+		JAXBContext jaxbContext = jaxbContexts.get(c);
+		if (jaxbContext == null) {
+			Thread t = Thread.currentThread();
+			ClassLoader orig = t.getContextClassLoader();
+			t.setContextClassLoader(ParserUtil.class.getClassLoader());
+			try {
+				jaxbContext = JAXBContext.newInstance(c);
+			} finally {
+				t.setContextClassLoader(orig);
+			}
+			JAXBContext existing = jaxbContexts.putIfAbsent(c, jaxbContext);
+			if (existing != null) {
+				jaxbContext = existing;
+			}
+		}
+		return jaxbContext;
+	}
+
 	public static AlmRun createRun(String runStatus, String execDateTime, String duration, String detail) {
 		AlmRun run = new AlmRunImpl();
 		run.setFieldValue( AlmRun.RUN_SUBTYPE_ID, ReportParser.EXTERNAL_RUN_TYPE_ID);
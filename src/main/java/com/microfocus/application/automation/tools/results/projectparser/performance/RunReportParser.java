@@ -0,0 +1,312 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.projectparser.performance;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Single pass StAX reader for LoadRunner RunReport.xml files.
+ * <p>
+ * Fills a {@link JobLrScenarioResult} with the scenario statistics found under {@code Runs/General} and with the
+ * SLA goal results found under {@code Runs/SLA}, without building a DOM of the report. Only the values that end
+ * up in the result are kept, so heap usage does not grow with the size of the SLA time range sections beyond the
+ * {@link TimeRange}s themselves.
+ */
+public final class RunReportParser {
+
+    private static final String SLA_ACTUAL_VALUE_LABEL = "ActualValue";
+    private static final String SLA_GOAL_VALUE_LABEL = "GoalValue";
+    private static final String SLA_FULL_NAME = "FullName";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private RunReportParser() {
+    }
+
+    /**
+     * Parses the given RunReport.xml stream into a new scenario result.
+     *
+     * @param scenarioName the scenario name of the result
+     * @param is           the report content, closed by this method
+     * @return the scenario result
+     * @throws IOException when the stream can't be read or isn't a well formed report
+     */
+    public static JobLrScenarioResult parse(String scenarioName, InputStream is) throws IOException {
+        JobLrScenarioResult result = new JobLrScenarioResult(scenarioName);
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(is);
+            parse(reader, result);
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new IOException("Failed to parse run report of scenario " + scenarioName + ": " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // the underlying stream is closed below anyway
+                }
+            }
+            is.close();
+        }
+        return result;
+    }
+
+    private static void parse(XMLStreamReader reader, JobLrScenarioResult result) throws XMLStreamException {
+        if (!nextChild(reader) || !"Runs".equalsIgnoreCase(reader.getLocalName())) {
+            return;
+        }
+        while (nextChild(reader)) {
+            String name = reader.getLocalName();
+            if ("General".equalsIgnoreCase(name)) {
+                readGeneral(reader, result);
+            } else if ("SLA".equalsIgnoreCase(name)) {
+                readSla(reader, result);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private static void readGeneral(XMLStreamReader reader, JobLrScenarioResult result) throws XMLStreamException {
+        while (nextChild(reader)) {
+            String name = reader.getLocalName();
+            if ("VUsers".equalsIgnoreCase(name)) {
+                readAttributes(reader, result.vUserSum);
+                skipElement(reader);
+            } else if ("Transactions".equalsIgnoreCase(name)) {
+                readAttributes(reader, result.transactionSum);
+                readTransactions(reader, result);
+            } else if ("Connections".equalsIgnoreCase(name)) {
+                result.setConnectionMax(Integer.parseInt(attribute(reader, "MaxCount")));
+                skipElement(reader);
+            } else if ("Time".equalsIgnoreCase(name)) {
+                result.setScenarioDuration(Long.parseLong(attribute(reader, "Duration")));
+                skipElement(reader);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private static void readTransactions(XMLStreamReader reader, JobLrScenarioResult result)
+            throws XMLStreamException {
+        while (nextChild(reader)) {
+            TreeMap<String, Integer> transactionData = new TreeMap<String, Integer>();
+            transactionData.put("Pass", Integer.valueOf(attribute(reader, "Pass")));
+            transactionData.put("Fail", Integer.valueOf(attribute(reader, "Fail")));
+            transactionData.put("Stop", Integer.valueOf(attribute(reader, "Stop")));
+            result.transactionData.put(attribute(reader, "Name"), transactionData);
+            skipElement(reader);
+        }
+    }
+
+    private static void readSla(XMLStreamReader reader, JobLrScenarioResult result) throws XMLStreamException {
+        while (nextChild(reader)) {
+            LrTest.SLA_GOAL slaGoal = LrTest.SLA_GOAL.checkGoal(attribute(reader, "Measurement"));
+            GoalResult goalResult = readSlaRule(reader, slaGoal);
+            if (goalResult != null) {
+                result.scenarioSlaResults.add(goalResult);
+            }
+        }
+    }
+
+    /**
+     * Reads one SLA_GOAL element, leaving the reader on its end tag.
+     * The rule status is the text following the last child element, as the DOM based parser used to take it.
+     */
+    private static GoalResult readSlaRule(XMLStreamReader reader, LrTest.SLA_GOAL slaGoal)
+            throws XMLStreamException {
+        GoalResult goalResult;
+        TimeRangeResult timeRangeResult = null;
+        switch (slaGoal) {
+            case AverageThroughput:
+            case TotalThroughput:
+            case AverageHitsPerSecond:
+            case TotalHits:
+                goalResult = readWholeRunResult(reader, new WholeRunResult());
+                break;
+            case PercentileTRT:
+                PercentileTransactionWholeRun percentileTransactionWholeRun =
+                        readWholeRunResult(reader, new PercentileTransactionWholeRun());
+                percentileTransactionWholeRun.setName(attribute(reader, "TransactionName"));
+                percentileTransactionWholeRun.setPrecentage(Double.parseDouble(attribute(reader, "Percentile")));
+                goalResult = percentileTransactionWholeRun;
+                break;
+            case ErrorsPerSecond:
+            case AverageTRT:
+                AvgTransactionResponseTime transactionTimeRange = new AvgTransactionResponseTime();
+                if (slaGoal == LrTest.SLA_GOAL.AverageTRT) {
+                    transactionTimeRange.setName(attribute(reader, "TransactionName"));
+                }
+                transactionTimeRange.setLoadThrashold(attribute(reader, "SLALoadThresholdValue"));
+                timeRangeResult = transactionTimeRange;
+                goalResult = transactionTimeRange;
+                break;
+            default:
+                skipElement(reader);
+                return null;
+        }
+        goalResult.setSlaGoal(slaGoal);
+        goalResult.setFullName(attribute(reader, SLA_FULL_NAME));
+
+        StringBuilder status = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (timeRangeResult != null && "TimeRangeInfo".equals(reader.getLocalName())) {
+                    addTimeRange(reader, timeRangeResult);
+                } else {
+                    depth++;
+                }
+                status.setLength(0);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (depth == 1 && isText(event)) {
+                status.append(reader.getText());
+            }
+        }
+        goalResult.setStatus(LrTest.SLA_STATUS.checkStatus(status.toString().trim()));
+        return goalResult;
+    }
+
+    private static <T extends WholeRunResult> T readWholeRunResult(XMLStreamReader reader, T wholeRunResult) {
+        wholeRunResult.setActualValue(Double.parseDouble(attribute(reader, SLA_ACTUAL_VALUE_LABEL)));
+        wholeRunResult.setGoalValue(Double.parseDouble(attribute(reader, SLA_GOAL_VALUE_LABEL)));
+        return wholeRunResult;
+    }
+
+    /**
+     * Reads one TimeRangeInfo element, leaving the reader on its end tag.
+     * The goal value of the first time range is taken as the goal of the whole rule.
+     */
+    private static void addTimeRange(XMLStreamReader reader, TimeRangeResult timeRangeResult)
+            throws XMLStreamException {
+        double actualValue = Double.parseDouble(attribute(reader, SLA_ACTUAL_VALUE_LABEL));
+        double goalValue = Double.parseDouble(attribute(reader, SLA_GOAL_VALUE_LABEL));
+        int loadValue = Integer.parseInt(attribute(reader, "LoadValue"));
+        double startTime = Double.parseDouble(attribute(reader, "StartTime"));
+        double endTime = Double.parseDouble(attribute(reader, "EndTime"));
+        if (timeRangeResult.getTimeRanges().isEmpty()) {
+            timeRangeResult.setGoalValue(goalValue);
+        }
+        timeRangeResult.incActualValue(actualValue);
+        LrTest.SLA_STATUS slaStatus = LrTest.SLA_STATUS.checkStatus(readLeadingText(reader));
+        timeRangeResult.getTimeRanges().add(new TimeRange(actualValue, goalValue, slaStatus, loadValue, startTime,
+                endTime));
+    }
+
+    /**
+     * Returns the text preceding the first child element of the current element and skips to its end tag.
+     */
+    private static String readLeadingText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        boolean leading = true;
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                leading = false;
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (leading && isText(event)) {
+                text.append(reader.getText());
+            }
+        }
+        return text.toString();
+    }
+
+    private static void readAttributes(XMLStreamReader reader, Map<String, Integer> target) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            target.put(reader.getAttributeLocalName(i), Integer.valueOf(reader.getAttributeValue(i)));
+        }
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Advances to the next child element of the current element.
+     *
+     * @return false when the end tag of the current element was reached instead
+     */
+    private static boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT || event == XMLStreamConstants.END_DOCUMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the remainder of the current element, leaving the reader on its end tag.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static boolean isText(int event) {
+        return event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                || event == XMLStreamConstants.SPACE;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlFactory = new WstxInputFactory();
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return xmlFactory;
+    }
+}
@@ -30,17 +30,21 @@ package com.microfocus.application.automation.tools.results.service;
 
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.microfocus.application.automation.tools.common.Pair;
 import com.microfocus.application.automation.tools.rest.RestClient;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmEntity;
+import com.microfocus.application.automation.tools.results.service.rest.CreateAlmEntitiesRequest;
 import com.microfocus.application.automation.tools.results.service.rest.CreateAlmEntityRequest;
 import com.microfocus.application.automation.tools.results.service.rest.GetAlmEntityRequest;
 import com.microfocus.application.automation.tools.results.service.rest.UpdateAlmEntityRequest;
-import com.microfocus.application.automation.tools.sse.common.XPathUtils;
+import com.microfocus.application.automation.tools.sse.common.EntityPages;
 import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import com.microfocus.application.automation.tools.sse.sdk.ResourceAccessLevel;
 import com.microfocus.application.automation.tools.sse.sdk.Response;
@@ -53,6 +57,9 @@ public class AlmRestTool {
 	private RestClient restClient;
 	private AlmRestInfo almLoginInfo;
 
+	private static final int PAGE_SIZE = 2000;
+	private static final int BULK_SIZE = Integer.getInteger("AlmRestTool.BulkSize", 100);
+
 	private final String USERNAMEPRETAG = "<Username>";
 	private final String USERNAMESUBTAG = "</Username>";
 
@@ -199,7 +206,7 @@ public class AlmRestTool {
 			GetAlmEntityRequest getRequest = new GetAlmEntityRequest(entity, getRestClient(), getEntityUnderParentFolderQuery);
 			Response response = getRequest.perform();
 			if(response.isOk() ) {
-				List<Map<String, String>> entities2 = XPathUtils.toEntities(response.toString());
+				List<Map<String, String>> entities2 = response.getEntities();
 				List<E> entities = getAlmEntityList(entities2, entityClass);
 	
 				if(entities.size()>0){
@@ -228,8 +235,8 @@ public class AlmRestTool {
 		try {
 			GetAlmEntityRequest getRequest = new GetAlmEntityRequest(entity, getRestClient(), queryString);
 			Response response = getRequest.perform();
-			if(response.isOk() && !response.toString().equals("")) {
-				List<Map<String, String>> entities2 = XPathUtils.toEntities(response.toString());
+			if(response.isOk() && response.hasData()) {
+				List<Map<String, String>> entities2 = response.getEntities();
 				List entities = getAlmEntityList(entities2, entity.getClass());
 				return entities;
 			} else {
@@ -251,8 +258,8 @@ public class AlmRestTool {
 		
 		CreateAlmEntityRequest createRequest = new CreateAlmEntityRequest(getRestClient(), entity, getPairListForAlmEntityFields(entity, fieldsForCreation) );
 		Response response = createRequest.perform();	
-		if(response.isOk() && !response.toString().equals("")){
-			List<Map<String, String>> entities2 = XPathUtils.toEntities(response.toString());
+		if(response.isOk() && response.hasData()){
+			List<Map<String, String>> entities2 = response.getEntities();
 			List entities = getAlmEntityList(entities2, entity.getClass());
 	
 			if(entities.size()>0){
@@ -269,6 +276,133 @@ public class AlmRestTool {
 		
 	}
 
+    /**
+     * Get all ALM entities matching the query, following the result pages.
+     * Fails rather than returning part of the entities, so callers never take missing entities for absent ones.
+     */
+	public <E extends AlmEntity> List<E> getAllAlmEntities(E entity, String queryString) throws ExternalEntityUploadException {
+
+		List<E> ret = new ArrayList<E>();
+		EntityPages pages = new EntityPages(startIndex -> {
+			String pageQuery = String.format("%s&page-size=%d&start-index=%d", queryString, PAGE_SIZE, startIndex);
+			return new GetAlmEntityRequest(entity, getRestClient(), pageQuery).perform();
+		}, PAGE_SIZE);
+		try {
+			while (pages.hasNext()) {
+				List entities = getAlmEntityList(Collections.singletonList(pages.next()), entity.getClass());
+				ret.addAll(entities);
+			}
+		} catch (Exception e) {
+			_logger.log("Failed to get Entity:" + entity.toString() + " with query string:" + queryString + ", " + e.getMessage());
+			throw new ExternalEntityUploadException("Failed to get Entity:" + entity.toString() + " with query string:" + queryString, e);
+		}
+		return ret;
+	}
+
+    /**
+     * Create ALM entities of the same type with bulk requests.
+     * Falls back to one request per entity when the server rejects the bulk request, the entities that the bulk
+     * request created before it failed are found by the lookup fields and reused instead of being created twice.
+     * Only entities with an id above the highest id seen before the bulk request are reused.
+     * The created entities are returned in the order of the given ones.
+     */
+	public <E extends AlmEntity> List<E> createAlmEntities(List<E> entities, String[] fieldsForCreation, String[] fieldsForLookup) throws ExternalEntityUploadException {
+
+		List<E> created = new ArrayList<E>(entities.size());
+		for (int from = 0; from < entities.size(); from += BULK_SIZE) {
+			List<E> chunk = entities.subList(from, Math.min(entities.size(), from + BULK_SIZE));
+			List<Map<String, String>> fields = new ArrayList<Map<String, String>>(chunk.size());
+			for (E entity : chunk) {
+				fields.addAll(getMapListForAlmEntityFields(entity, fieldsForCreation));
+			}
+
+			Long maxIdBefore = getMaxId(chunk.get(0));
+			CreateAlmEntitiesRequest createRequest = new CreateAlmEntitiesRequest(getRestClient(), chunk.get(0), fields);
+			Response response = createRequest.execute();
+			if (!response.isOk() || !response.hasData()) {
+				_logger.log("Bulk creation of " + chunk.size() + " entities failed, creating them one by one, status: " + response.getStatusCode());
+				if (maxIdBefore == null) {
+					throw new ExternalEntityUploadException("Failed to create Entities, the entities created by the failed bulk request cannot be told apart:" + chunk.get(0).toString());
+				}
+				// the bulk request may have created some of the entities before it failed
+				Set<String> reusedIds = new HashSet<String>();
+				for (E entity : chunk) {
+					E existing = findCreatedAlmEntity(entity, fieldsForLookup, maxIdBefore, reusedIds);
+					created.add(existing != null ? existing : createAlmEntity(entity, fieldsForCreation));
+				}
+				continue;
+			}
+
+			List<Map<String, String>> entities2 = response.getEntities();
+			List entitiesCreated = getAlmEntityList(entities2, chunk.get(0).getClass());
+			if (entitiesCreated.size() != chunk.size()) {
+				_logger.log("Failed to create Entities: expected " + chunk.size() + " but got " + entitiesCreated.size());
+				throw new ExternalEntityUploadException("Failed to create Entities:" + chunk.get(0).toString());
+			}
+			created.addAll(entitiesCreated);
+		}
+		return created;
+	}
+
+    /**
+     * Get the highest id of the entities of the type, null if it cannot be read
+     */
+	private <E extends AlmEntity> Long getMaxId(E entity) {
+
+		Response response = new GetAlmEntityRequest(entity, getRestClient(), "fields=id&order-by={id[DESC]}&page-size=1").execute();
+		if (!response.isOk()) {
+			_logger.log("Failed to get the highest id of " + entity.getRestPrefix() + ", status: " + response.getStatusCode());
+			return null;
+		}
+		try {
+			List<Map<String, String>> entities = response.hasData() ? response.getEntities("id") : Collections.<Map<String, String>>emptyList();
+			return entities.isEmpty() ? 0L : Long.valueOf(entities.get(0).get("id"));
+		} catch (RuntimeException e) {
+			_logger.log("Failed to get the highest id of " + entity.getRestPrefix() + ", " + e.getMessage());
+			return null;
+		}
+	}
+
+    /**
+     * Find an entity created after maxIdBefore with the same lookup field values that is not reused yet
+     */
+	private <E extends AlmEntity> E findCreatedAlmEntity(E entity, String[] fieldsForLookup, long maxIdBefore, Set<String> reusedIds) throws ExternalEntityUploadException {
+
+		List<String> conditions = new ArrayList<String>(fieldsForLookup.length + 1);
+		conditions.add(String.format("id[%%3E%d]", maxIdBefore));
+		for (String fieldName : fieldsForLookup) {
+			String value = getFieldString(entity, fieldName);
+			// empty values can't be queried, they are compared below
+			if (!value.isEmpty()) {
+				conditions.add(String.format("%s[%s]", fieldName, getEncodedString(value)));
+			}
+		}
+		String queryString = String.format("query={%s}", String.join(";", conditions));
+		for (E existing : getAllAlmEntities(entity, queryString)) {
+			if (hasSameFieldValues(entity, existing, fieldsForLookup) && reusedIds.add(existing.getId())) {
+				_logger.log("Entity " + existing.getId() + " was created by the failed bulk request, reusing it");
+				return existing;
+			}
+		}
+		return null;
+	}
+
+	private static boolean hasSameFieldValues(AlmEntity entity, AlmEntity existing, String[] fieldNames) {
+
+		for (String fieldName : fieldNames) {
+			if (!getFieldString(entity, fieldName).equals(getFieldString(existing, fieldName))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String getFieldString(AlmEntity entity, String fieldName) {
+
+		Object value = entity.getFieldValue(fieldName);
+		return value == null ? "" : String.valueOf(value);
+	}
+
     /**
      * Update ALM entity
      */
@@ -30,11 +30,21 @@ package com.microfocus.application.automation.tools.results.service;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.microfocus.application.automation.tools.results.parser.ReportParserManager;
 import com.microfocus.application.automation.tools.results.service.almentities.AlmCommonProperties;
@@ -60,6 +70,9 @@ import hudson.FilePath;
 public class DefaultExternalEntityUploadServiceImpl implements
 		IExternalEntityUploadService {
 
+	private static final int QUERY_BATCH_SIZE = 100;
+	private static final int TESTSET_PARALLELISM = Integer.getInteger("DefaultExternalEntityUploadServiceImpl.TestSetParallelism", 4);
+
 	Logger logger;
 	private AlmRestTool restTool;
 	private FilePath workspace;
@@ -83,63 +96,118 @@ public class DefaultExternalEntityUploadServiceImpl implements
 								AlmTest.TEST_RESPONSIBLE
 							};
 	}
+
+	private String [] getTestLookupFields() {
+		return new String [] {	AlmCommonProperties.PARENT_ID,
+								AlmTest.TS_TESTING_FRAMEWORK,
+								AlmTest.TS_UT_PACKAGE_NAME,
+								AlmTest.TS_UT_CLASS_NAME,
+								AlmTest.TS_UT_METHOD_NAME,
+								AlmTest.TEST_NAME};
+	}
 	
-	private AlmTest importTest(AlmTest test , int testFolderId, String testingTool, String testdesigner) throws ExternalEntityUploadException{
+	private static String getTestLookupKey(AlmTest test) {
+		return (test.getFieldValue(AlmTest.TS_UT_CLASS_NAME) + "\n" + test.getFieldValue(AlmTest.TS_UT_METHOD_NAME)).toLowerCase();
+	}
+
+	/**
+	 * Resolves the tests of all test instances against the test folder with a single (paged) query
+	 * and creates the missing ones with bulk requests.
+	 *
+	 * @return the imported tests by test key
+	 */
+	private Map<String, AlmTest> importTests(List<AlmTest> tests, int testFolderId, String testingTool, String testdesigner) throws ExternalEntityUploadException{
+
+		String queryString = String.format("query={parent-id[%s];subtype-id[EXTERNAL-TEST]}&fields=id,name,ut-package-name,ut-class-name,ut-method-name,testing-framework",
+											String.valueOf(testFolderId));
+		List<AlmTestImpl> existingTests = restTool.getAllAlmEntities(new AlmTestImpl(), queryString);
+
+		Map<String, List<AlmTest>> existingTestsByLookupKey = new HashMap<String, List<AlmTest>>();
+		for(AlmTestImpl existingTest : existingTests) {
+			String lookupKey = getTestLookupKey(existingTest);
+			List<AlmTest> sameLookupKey = existingTestsByLookupKey.get(lookupKey);
+			if(sameLookupKey == null) {
+				sameLookupKey = new ArrayList<AlmTest>();
+				existingTestsByLookupKey.put(lookupKey, sameLookupKey);
+			}
+			sameLookupKey.add(existingTest);
+		}
+
+		Map<String, AlmTest> importedTests = new HashMap<String, AlmTest>();
+		List<AlmTest> testsToCreate = new ArrayList<AlmTest>();
+		for(AlmTest test : tests) {
+			if(importedTests.containsKey(test.getKey())) {
+				continue;
+			}
+
+			List<AlmTest> sameLookupKey = existingTestsByLookupKey.get(getTestLookupKey(test));
+			if(sameLookupKey == null) {
+				sameLookupKey = new ArrayList<AlmTest>();
+				existingTestsByLookupKey.put(getTestLookupKey(test), sameLookupKey);
+			}
+
+			AlmTest importedTest = findOrNameTest(test, sameLookupKey);
+			if(importedTest != null) {
+				importedTests.put(test.getKey(), importedTest);
+				continue;
+			}
+
+			test.setFieldValue(AlmCommonProperties.PARENT_ID, String.valueOf(testFolderId));
+			test.setFieldValue(AlmTest.TS_TESTING_TOOL, testingTool);
+			test.setFieldValue(AlmTest.TEST_RESPONSIBLE, testdesigner);
+			testsToCreate.add(test);
+			// tests created in this upload take part in the naming of the following ones
+			sameLookupKey.add(test);
+		}
+
+		if(!testsToCreate.isEmpty()) {
+			logger.log(String.format("INFO: Creating %d tests.", testsToCreate.size()));
+			List<AlmTest> createdTests = restTool.createAlmEntities(testsToCreate, getTestCreationFields(), getTestLookupFields());
+			for(int i = 0; i < testsToCreate.size(); i++) {
+				importedTests.put(testsToCreate.get(i).getKey(), createdTests.get(i));
+			}
+		}
+		return importedTests;
+	}
+
+	/**
+	 * Returns the existing test matching the given one, or picks a free name for it when there are
+	 * other tests with the same class and method name.
+	 */
+	private AlmTest findOrNameTest(AlmTest test, List<AlmTest> sameLookupKey) {
+
+		if(sameLookupKey.isEmpty()) {
+			return null;
+		}
 
 		String className = (String) test.getFieldValue(AlmTest.TS_UT_CLASS_NAME);
 		String methodName = (String) test.getFieldValue(AlmTest.TS_UT_METHOD_NAME);
 		String packageName = (String) test.getFieldValue(AlmTest.TS_UT_PACKAGE_NAME);
 		String testingFramework = (String) test.getFieldValue(AlmTest.TS_TESTING_FRAMEWORK);
-		
-		String queryString = String.format("query={parent-id[%s];subtype-id[EXTERNAL-TEST];ut-class-name[%s];ut-method-name[%s]}&fields=id,name,ut-package-name,ut-class-name,ut-method-name,testing-framework&page-size=2000", 
-											String.valueOf(testFolderId),
-											AlmRestTool.getEncodedString(className),
-											AlmRestTool.getEncodedString(methodName));		
-		List<AlmTestImpl> existingTests = restTool.getAlmEntity(new AlmTestImpl(), queryString);
-		
-		AlmTestImpl importedTest = null;//restTool.getEntityUnderParentFolder(AlmTestImpl.class, testFolderId, test.getName());
-		
-		if(existingTests != null && existingTests.size() >0) {
-			boolean exists = false;
-			Map<String, AlmTestImpl> existingTestMap = new HashMap<String, AlmTestImpl> ();
-			
-			for(AlmTestImpl existingTest : existingTests) {
-				if(existingTest.getKey().endsWith(test.getKey())) {
-					exists = true;
-					importedTest = existingTest;
-					break;
-				}
-				existingTestMap.put(existingTest.getName(), existingTest);
+
+		Map<String, AlmTest> existingTestMap = new HashMap<String, AlmTest> ();
+		for(AlmTest existingTest : sameLookupKey) {
+			if(existingTest.getKey().endsWith(test.getKey())) {
+				return existingTest;
 			}
-			
-			if(!exists) {
-				String tempName = className + "_" + methodName;
+			existingTestMap.put(existingTest.getName(), existingTest);
+		}
+
+		String tempName = className + "_" + methodName;
+		if(!existingTestMap.containsKey(tempName)) {
+			test.setFieldValue(AlmTest.TEST_NAME, tempName);
+		} else {
+			tempName = packageName + "_" +tempName;
+			if(!existingTestMap.containsKey(tempName)) {
+				test.setFieldValue(AlmTest.TEST_NAME, tempName);
+			} else {
+				tempName = tempName +"_" +testingFramework;
 				if(!existingTestMap.containsKey(tempName)) {
 					test.setFieldValue(AlmTest.TEST_NAME, tempName);
-				} else { 
-					tempName = packageName + "_" +tempName;
-					if(!existingTestMap.containsKey(tempName)) {
-						test.setFieldValue(AlmTest.TEST_NAME, tempName);
-					} else {
-						tempName = tempName +"_" +testingFramework;
-						if(!existingTestMap.containsKey(tempName)) {
-							test.setFieldValue(AlmTest.TEST_NAME, tempName);
-						}
-					}
 				}
-				
 			}
 		}
-		
-		if(importedTest	== null) {
-			test.setFieldValue(AlmCommonProperties.PARENT_ID, String.valueOf(testFolderId));	
-			test.setFieldValue(AlmTest.TS_TESTING_TOOL, testingTool);
-			test.setFieldValue(AlmTest.TEST_RESPONSIBLE, testdesigner);
-			return restTool.createAlmEntity(test, getTestCreationFields());
-		}
-
-
-		return importedTest;
+		return null;
 	}
 	
 	private String [] getTestSetCreationFields() {
@@ -165,17 +233,31 @@ public class DefaultExternalEntityUploadServiceImpl implements
 		return importedTestset;
 	}
 	
-	private AlmTestConfig getMainTestConfig(AlmTest test){
-	
-        AlmTestConfigImpl testConfigImpl = new AlmTestConfigImpl();
-        String queryString = String.format("query={parent-id[%s]}&fields=id,name", String.valueOf(test.getId()) );
-        List<AlmTestConfigImpl> testconfigs = restTool.getAlmEntity(testConfigImpl, queryString);
-		if(testconfigs != null && testconfigs.size() >0) {
-			return testconfigs.get(0);
-		} else {
-			return null;
+	/**
+	 * Gets the main test configuration of each test, querying the configurations of many tests at once.
+	 *
+	 * @return the main test configuration by test id
+	 */
+	private Map<String, AlmTestConfig> getMainTestConfigs(Collection<AlmTest> tests) throws ExternalEntityUploadException{
+
+		Set<String> testIds = new LinkedHashSet<String>();
+		for(AlmTest test : tests) {
+			testIds.add(test.getId());
 		}
-		
+
+		Map<String, AlmTestConfig> mainTestConfigs = new HashMap<String, AlmTestConfig>();
+		List<String> ids = new ArrayList<String>(testIds);
+		for(int from = 0; from < ids.size(); from += QUERY_BATCH_SIZE) {
+			String parentIds = String.join("%20OR%20", ids.subList(from, Math.min(ids.size(), from + QUERY_BATCH_SIZE)));
+			String queryString = String.format("query={parent-id[%s]}&fields=id,name,parent-id", parentIds);
+			for(AlmTestConfigImpl testConfig : restTool.getAllAlmEntities(new AlmTestConfigImpl(), queryString)) {
+				String testId = testConfig.getFieldValue(AlmCommonProperties.PARENT_ID);
+				if(!mainTestConfigs.containsKey(testId)) {
+					mainTestConfigs.put(testId, testConfig);
+				}
+			}
+		}
+		return mainTestConfigs;
 	}
 	
 	private String [] getTestInstanceCreationFields (){
@@ -187,25 +269,35 @@ public class DefaultExternalEntityUploadServiceImpl implements
 		};
 		
 	}
-	
-	private AlmTestInstance importTestInstance(AlmTestInstance testinstance, String testsetId, String testId, String testconfigId, String tester) throws ExternalEntityUploadException{
-		
-		String queryString = String.format("query={cycle-id[%s];test-config-id[%s];test-id[%s]}&fields=id,name",
-										String.valueOf(testsetId), String.valueOf(testconfigId), String.valueOf(testId) );
-
-        List<AlmTestInstanceImpl> testInstances = restTool.getAlmEntity(new AlmTestInstanceImpl(), queryString);
-
-		if(testInstances!=null && testInstances.size() > 0){
-			return testInstances.get(0);
-		} else {
 
-			testinstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_TESTSET_ID, String.valueOf(testsetId));
-			testinstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_CONFIG_ID, String.valueOf(testconfigId));
-			testinstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_TEST_ID, String.valueOf(testId));
-			testinstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_TESTER_NAME, tester);
+	private String [] getTestInstanceLookupFields (){
+		return new String [] {	AlmTestInstance.TEST_INSTANCE_TESTSET_ID,
+								AlmTestInstance.TEST_INSTANCE_TEST_ID,
+								AlmTestInstance.TEST_INSTANCE_CONFIG_ID
+		};
+	}
+	
+	private static String getTestInstanceKey(String testId, String testconfigId) {
+		return testId + "_" + testconfigId;
+	}
 
-			return restTool.createAlmEntity(testinstance, getTestInstanceCreationFields());
+	/**
+	 * Gets the existing test instances of a test set.
+	 *
+	 * @return the test instances by test and test configuration id
+	 */
+	private Map<String, AlmTestInstance> getTestInstances(String testsetId) throws ExternalEntityUploadException {
+
+		String queryString = String.format("query={cycle-id[%s]}&fields=id,name,test-id,test-config-id", String.valueOf(testsetId));
+		Map<String, AlmTestInstance> testInstances = new HashMap<String, AlmTestInstance>();
+		for(AlmTestInstanceImpl testInstance : restTool.getAllAlmEntities(new AlmTestInstanceImpl(), queryString)) {
+			String key = getTestInstanceKey(testInstance.getFieldValue(AlmTestInstance.TEST_INSTANCE_TEST_ID),
+					testInstance.getFieldValue(AlmTestInstance.TEST_INSTANCE_CONFIG_ID));
+			if(!testInstances.containsKey(key)) {
+				testInstances.put(key, testInstance);
+			}
 		}
+		return testInstances;
 	}
 	
     private String generateImportRunName() {
@@ -241,8 +333,15 @@ public class DefaultExternalEntityUploadServiceImpl implements
     			AlmRun.RUN_STATUS
     	};
     }
+
+    private String[] getRunLookupFields() {
+    	return new String[]{
+    			AlmRun.RUN_TESTCYCL_UNIQUE_ID,
+    			AlmCommonProperties.NAME
+    	};
+    }
     
-	private AlmRun generateRun(String tester, 
+	private AlmRun prepareRun(String tester, 
 								AlmRun run, 
 								String testsetId, 
 								String testId, 
@@ -250,7 +349,7 @@ public class DefaultExternalEntityUploadServiceImpl implements
 								String testconfigId, 
 								String subversion,
 								String jobName,
-								String buildUrl) throws ExternalEntityUploadException{
+								String buildUrl) {
 		
 		run.setFieldValue(AlmRun.RUN_CONFIG_ID, String.valueOf(testconfigId));
 		run.setFieldValue(AlmRun.RUN_CYCLE_ID, String.valueOf(testsetId));
@@ -269,8 +368,7 @@ public class DefaultExternalEntityUploadServiceImpl implements
 		run.setFieldValue(AlmCommonProperties.NAME, generateImportRunName());
 		run.setFieldValue(AlmCommonProperties.OWNER, tester);
 		
-		return restTool.createAlmEntity(run, getRunCreationFields());
-
+		return run;
 
 	}
 
@@ -424,62 +522,185 @@ public class DefaultExternalEntityUploadServiceImpl implements
 	}
 	
 	
-	private List<String> importExternalTestSet(List<AlmTestSet> testsets, String tester, int testsetFolderId, int testFolderId, String testingTool, String subversion, String jobName, String buildUrl ) throws ExternalEntityUploadException{
+	private List<String> importExternalTestSet(List<AlmTestSet> testsets, final String tester, final int testsetFolderId, int testFolderId, String testingTool, final String subversion, final String jobName, final String buildUrl ) throws ExternalEntityUploadException{
+
+		// tests and their configurations are shared between the test sets, resolve them once for all of them
+		List<AlmTest> tests = new ArrayList<AlmTest>();
+		for (AlmTestSet testset : testsets) {
+			for (AlmTestInstance testInstance : getParsedTestInstances(testset)) {
+				tests.add(getTest(testInstance));
+			}
+		}
+		final Map<String, AlmTest> importedTests = importTests(tests, testFolderId, testingTool, tester);
+		final Map<String, AlmTestConfig> mainTestConfigs = getMainTestConfigs(importedTests.values());
 
+		// test sets are looked up and created one at a time, so that test sets of the same name are created once
+		Map<String, AlmTestSet> importedTestsetsByName = new HashMap<String, AlmTestSet>();
+		Map<String, List<AlmTestSet>> testsetsById = new LinkedHashMap<String, List<AlmTestSet>>();
+		final Map<String, AlmTestSet> importedTestsetsById = new HashMap<String, AlmTestSet>();
 		List<String> importedTestsetIds = new ArrayList<String>();
+		for (AlmTestSet testset : testsets) {
+			AlmTestSet importedTestset = importedTestsetsByName.get(testset.getName());
+			if (importedTestset == null) {
+				importedTestset = importTestSet(testset, testsetFolderId);
+				if (importedTestset == null) {
+					continue;
+				}
+				importedTestsetsByName.put(testset.getName(), importedTestset);
+			}
+			List<AlmTestSet> sameTestset = testsetsById.get(importedTestset.getId());
+			if (sameTestset == null) {
+				sameTestset = new ArrayList<AlmTestSet>();
+				testsetsById.put(importedTestset.getId(), sameTestset);
+				importedTestsetsById.put(importedTestset.getId(), importedTestset);
+			}
+			sameTestset.add(testset);
+			importedTestsetIds.add(importedTestset.getId());
+		}
 
-		for (AlmTestSet testset : testsets){
-			AlmTestSet importedTestSet = importTestSet(testset, testsetFolderId);
-			if(importedTestSet == null ) {
-				continue;
+		// the content of one ALM test set is imported by a single thread, different test sets in parallel
+		int parallelism = Math.min(testsetsById.size(), TESTSET_PARALLELISM);
+		if (parallelism <= 1) {
+			for (Map.Entry<String, List<AlmTestSet>> entry : testsetsById.entrySet()) {
+				for (AlmTestSet testset : entry.getValue()) {
+					importTestSetContent(testset, importedTestsetsById.get(entry.getKey()), tester, importedTests, mainTestConfigs, subversion, jobName, buildUrl);
+				}
+			}
+			return importedTestsetIds;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>(testsetsById.size());
+			for (final Map.Entry<String, List<AlmTestSet>> entry : testsetsById.entrySet()) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws ExternalEntityUploadException {
+						for (AlmTestSet testset : entry.getValue()) {
+							importTestSetContent(testset, importedTestsetsById.get(entry.getKey()), tester, importedTests, mainTestConfigs, subversion, jobName, buildUrl);
+						}
+						return null;
+					}
+				}));
 			}
 
-            importedTestsetIds.add(importedTestSet.getId());
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+			return importedTestsetIds;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof ExternalEntityUploadException) {
+				throw (ExternalEntityUploadException) e.getCause();
+			}
+			throw new ExternalEntityUploadException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExternalEntityUploadException(e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 
-			List<AlmEntity> testinstances = testset.getRelatedEntities().get(EntityRelation.TESTSET_TO_TESTINSTANCE_CONTAINMENT_RELATION);
-			if(testinstances == null || testinstances.size() <=0) {
+	/**
+	 * Imports the test instances and runs of a parsed test set into the imported test set, creating the instances
+	 * and runs with bulk requests.
+	 */
+	private void importTestSetContent(AlmTestSet testset, AlmTestSet importedTestSet, String tester, Map<String, AlmTest> importedTests,
+										Map<String, AlmTestConfig> mainTestConfigs, String subversion, String jobName, String buildUrl) throws ExternalEntityUploadException {
+
+		List<AlmTestInstance> testinstances = getParsedTestInstances(testset);
+		if(testinstances.isEmpty()) {
+			return;
+		}
+
+		Map<String, AlmTestInstance> existingTestInstances = getTestInstances(importedTestSet.getId());
+		List<AlmTestInstance> testInstancesToCreate = new ArrayList<AlmTestInstance>();
+		List<AlmTestInstance> testInstancesWithRun = new ArrayList<AlmTestInstance>();
+
+		for(AlmTestInstance testInstance : testinstances){
+			AlmTest importedTest = importedTests.get(getTest(testInstance).getKey());
+			if(importedTest == null) {
+				continue;
+			}
+			AlmTestConfig mainTestConfig = mainTestConfigs.get(importedTest.getId());
+			if(mainTestConfig == null) {
 				continue;
 			}
 
-			for(AlmEntity testinstanceEntity: testinstances){
-				AlmTestInstance testInstance = (AlmTestInstance) testinstanceEntity;
-				List<AlmEntity> tests = testInstance.getRelatedEntities().get(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION);
-				if(tests == null || tests.size() <= 0) {
-					continue;
-				}
+			String key = getTestInstanceKey(importedTest.getId(), mainTestConfig.getId());
+			if(!existingTestInstances.containsKey(key)) {
+				testInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_TESTSET_ID, String.valueOf(importedTestSet.getId()));
+				testInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_CONFIG_ID, String.valueOf(mainTestConfig.getId()));
+				testInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_TEST_ID, String.valueOf(importedTest.getId()));
+				testInstance.setFieldValue(AlmTestInstance.TEST_INSTANCE_TESTER_NAME, tester);
+				testInstancesToCreate.add(testInstance);
+				// several results of the same test are reported as runs of a single instance
+				existingTestInstances.put(key, testInstance);
+			}
 
-				AlmTest test = (AlmTest) tests.get(0);
-				AlmTest importedTest = importTest(test, testFolderId, testingTool, tester);
-				if(importedTest == null) {
-					continue;
-				}
-				
-				AlmTestConfig mainTestConfig = getMainTestConfig(importedTest);
-				if(mainTestConfig == null) {
-					continue;
-				}
+			List<AlmEntity> runs = testInstance.getRelatedEntities().get(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION);
+			if(runs != null && runs.size() > 0) {
+				testInstancesWithRun.add(testInstance);
+			}
+		}
 
-				AlmTestInstance importedTestInstance = importTestInstance(testInstance, importedTestSet.getId(), importedTest.getId(), mainTestConfig.getId(), tester);
-				List<AlmEntity> runs = testInstance.getRelatedEntities().get(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION);
-				if(runs == null || runs.size() <= 0) {
-					continue;
-				}
-				
-				AlmRun run = (AlmRun) runs.get(0);
-				generateRun(tester, 
-							run,  
+		Map<AlmTestInstance, AlmTestInstance> importedTestInstances = new IdentityHashMap<AlmTestInstance, AlmTestInstance>();
+		if(!testInstancesToCreate.isEmpty()) {
+			List<AlmTestInstance> createdTestInstances = restTool.createAlmEntities(testInstancesToCreate, getTestInstanceCreationFields(), getTestInstanceLookupFields());
+			for(int i = 0; i < testInstancesToCreate.size(); i++) {
+				importedTestInstances.put(testInstancesToCreate.get(i), createdTestInstances.get(i));
+			}
+		}
+
+		List<AlmRun> runsToCreate = new ArrayList<AlmRun>(testInstancesWithRun.size());
+		for(AlmTestInstance testInstance : testInstancesWithRun) {
+			AlmTest importedTest = importedTests.get(getTest(testInstance).getKey());
+			AlmTestConfig mainTestConfig = mainTestConfigs.get(importedTest.getId());
+			AlmTestInstance importedTestInstance = existingTestInstances.get(getTestInstanceKey(importedTest.getId(), mainTestConfig.getId()));
+			if(importedTestInstances.containsKey(importedTestInstance)) {
+				importedTestInstance = importedTestInstances.get(importedTestInstance);
+			}
+
+			AlmRun run = (AlmRun) testInstance.getRelatedEntities().get(EntityRelation.TESTINSTANCE_TO_RUN_REALIZATION_RELATION).get(0);
+			runsToCreate.add(prepareRun(tester,
+							run,
 							importedTestSet.getId(),
-							importedTest.getId(), 
-							importedTestInstance.getId(), 
-							mainTestConfig.getId(), 
+							importedTest.getId(),
+							importedTestInstance.getId(),
+							mainTestConfig.getId(),
 							subversion,
 							jobName,
 							buildUrl
-							);
+							));
+		}
+
+		if(!runsToCreate.isEmpty()) {
+			logger.log(String.format("INFO: Creating %d runs in testset %s.", runsToCreate.size(), importedTestSet.getId()));
+			restTool.createAlmEntities(runsToCreate, getRunCreationFields(), getRunLookupFields());
+		}
+	}
+
+	private static List<AlmTestInstance> getParsedTestInstances(AlmTestSet testset) {
+		List<AlmTestInstance> testInstances = new ArrayList<AlmTestInstance>();
+		List<AlmEntity> testinstanceEntities = testset.getRelatedEntities().get(EntityRelation.TESTSET_TO_TESTINSTANCE_CONTAINMENT_RELATION);
+		if(testinstanceEntities == null) {
+			return testInstances;
+		}
+		for(AlmEntity testinstanceEntity : testinstanceEntities) {
+			AlmTestInstance testInstance = (AlmTestInstance) testinstanceEntity;
+			if(getTest(testInstance) != null) {
+				testInstances.add(testInstance);
 			}
 		}
+		return testInstances;
+	}
 
-		return importedTestsetIds;
+	private static AlmTest getTest(AlmTestInstance testInstance) {
+		List<AlmEntity> tests = testInstance.getRelatedEntities().get(EntityRelation.TEST_TO_TESTINSTANCE_REALIZATION_RELATION);
+		if(tests == null || tests.size() <= 0) {
+			return null;
+		}
+		return (AlmTest) tests.get(0);
 	}
 	
 }
@@ -0,0 +1,75 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.service.rest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.microfocus.application.automation.tools.results.service.almentities.AlmEntity;
+import com.microfocus.application.automation.tools.sse.sdk.Client;
+import com.microfocus.application.automation.tools.sse.sdk.request.GeneralPostBulkRequest;
+
+public class CreateAlmEntitiesRequest extends GeneralPostBulkRequest {
+
+	private static final String IGNORE_REQUIRED_FIELDS_VALIDATION = "X-QC-Ignore-Customizable-Required-Fields-Validation";
+
+	List<Map<String, String>> attrForCreation;
+	AlmEntity almEntity;
+
+	public CreateAlmEntitiesRequest(Client client, AlmEntity almEntity, List<Map<String, String>> attrForCreation){
+		super(client);
+		this.attrForCreation = attrForCreation;
+		this.almEntity = almEntity;
+	}
+
+	@Override
+	protected Map<String, String> getHeaders() {
+		Map<String, String> ret = new HashMap<String, String>(super.getHeaders());
+		ret.put(IGNORE_REQUIRED_FIELDS_VALIDATION, "Y");
+		return ret;
+	}
+
+	@Override
+	protected String getSuffix() {
+		return almEntity.getRestPrefix();
+	}
+
+	@Override
+	protected String getEntityType() {
+		// rest prefixes are the plural of the entity type, e.g. "test-instances"
+		String restPrefix = almEntity.getRestPrefix();
+		return restPrefix.endsWith("s") ? restPrefix.substring(0, restPrefix.length() - 1) : restPrefix;
+	}
+
+	@Override
+	protected List<Map<String, String>> getFields() {
+		return attrForCreation;
+	}
+}
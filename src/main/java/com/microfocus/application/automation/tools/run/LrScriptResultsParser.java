@@ -28,27 +28,34 @@
 
 package com.microfocus.application.automation.tools.run;
 
+import com.ctc.wstx.stax.WstxInputFactory;
+import com.microfocus.application.automation.tools.results.lrscriptresultparser.LrScriptResultsSanitizer;
 import hudson.FilePath;
 import hudson.model.TaskListener;
-import org.w3c.dom.CharacterData;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import org.apache.commons.io.input.BOMInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
 
 /**
  * Created by YafimK on 22/03/2017.
@@ -64,9 +71,12 @@ public class LrScriptResultsParser {
      * The constant LR_SCRIPT_RESULT_FILENAME.
      */
     public static final String LR_SCRIPT_RESULT_FILENAME = "Results.xml";
+    public static final String LR_SCRIPT_JUNIT_RESULT_FILENAME = "JunitResult.xml";
     public static final String LR_SCRIPT_PASSED_STATUS = "Passed";
     public static final String LR_SCRIPT_REPORT_PASSED_STATUS = "passed";
     public static final String LR_SCRIPT_REPORT_FAILED_STATUS = "failed";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final XMLInputFactory xmlInputFactory = createXmlInputFactory();
     private TaskListener _logger;
     private String _scriptName;
 
@@ -98,7 +108,7 @@ public class LrScriptResultsParser {
      */
     public void invoke(FilePath ws_filePath) throws InterruptedException {
         FilePath sourceFile = ws_filePath.child(this._scriptName).child(LR_SCRIPT_RESULT_FILENAME);
-        FilePath targetFile = ws_filePath.child(this._scriptName).child("JunitResult.xml");
+        FilePath targetFile = ws_filePath.child(this._scriptName).child(LR_SCRIPT_JUNIT_RESULT_FILENAME);
         parse(sourceFile, targetFile);
     }
 
@@ -109,72 +119,21 @@ public class LrScriptResultsParser {
      * @param outputFile the output file
      */
     public void parse(FilePath scriptName, FilePath outputFile) throws InterruptedException {
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = null;
-        Document doc;
-        Document newDoc;
+        String name = scriptName.getParent().getBaseName();
         try {
-            dBuilder = dbFactory.newDocumentBuilder();
-            doc = dBuilder.parse(scriptName.read());
-
-            newDoc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
-
-            doc.getDocumentElement().normalize();
-            NodeList actionNodes = doc.getElementsByTagName("Action");
-
-            Element testSuits = newDoc.createElement("testsuites");
-            parseScriptAction(newDoc, actionNodes, testSuits, scriptName.getParent().getBaseName());
-            Element reportSummaryNode = (Element) doc.getElementsByTagName("Summary").item(actionNodes.getLength());
-            testSuits.setAttribute(
-                    LR_SCRIPT_REPORT_PASSED_STATUS, reportSummaryNode.getAttribute(LR_SCRIPT_REPORT_PASSED_STATUS));
-            testSuits.setAttribute("failures", reportSummaryNode.getAttribute(LR_SCRIPT_REPORT_FAILED_STATUS));
-            testSuits.setAttribute("name", scriptName.getParent().getBaseName());
-            testSuits.setAttribute("xmlns:xsd", "http://www.w3.org/2001/XMLSchema");
-            testSuits.setAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
-            int tests =
-                    Integer.parseInt(reportSummaryNode.getAttribute(LR_SCRIPT_REPORT_FAILED_STATUS)) +
-                            Integer.parseInt(reportSummaryNode
-                                    .getAttribute(LR_SCRIPT_REPORT_PASSED_STATUS));
-            testSuits.setAttribute("tests", String.valueOf(tests));
-            newDoc.appendChild(testSuits);
-            newDoc.setXmlVersion("1.0");
-
-            TransformerFactory tFactory =
-                    TransformerFactory.newInstance();
-            Transformer transformer =
-                    tFactory.newTransformer();
-
-            DOMSource source = new DOMSource(newDoc);
-            StreamResult result = new StreamResult(outputFile.write());
-
-            transformer.transform(source, result);
-        } catch (SAXException e) {
+            ScriptReport report;
+            try (InputStream in = new BufferedInputStream(scriptName.read(), BUFFER_SIZE)) {
+                report = readReport(in);
+            }
+            try (OutputStream out = new BufferedOutputStream(outputFile.write(), BUFFER_SIZE)) {
+                writeJunitReport(report, name, out);
+            }
+        } catch (XMLStreamException e) {
             log("XML reader error");
             log(e);
-        } catch (ParserConfigurationException e) {
-            log("XML parser error");
-            log(e);
         } catch (IOException e) {
             log("IO error");
             log(e);
-        } catch (TransformerConfigurationException tce) {
-            log("* Transformer Factory error");
-            log(" " + tce.getMessage());
-
-            Throwable x = tce;
-            if (tce.getException() != null) {
-                x = tce.getException();
-            }
-            log(x);
-        } catch (TransformerException te) {
-            log("* Transformation error");
-            log(" " + te.getMessage());
-
-            Throwable x = te;
-            if (te.getException() != null) {
-                x = te.getException();
-            }
-            log(x);
         }
     }
 
@@ -182,77 +141,155 @@ public class LrScriptResultsParser {
         _logger.error(msg.toString());
     }
 
-    private static void parseScriptAction(Document newDoc, NodeList actionNodes, Element rootnode, String scriptName) {
-        for (int i = 0; i < actionNodes.getLength(); i++) {
-
-            Element action = (Element) actionNodes.item(i);
-
-
-            NodeList actionProps = action.getElementsByTagName("AName");
-            Element actionName = (Element) actionProps.item(0);
-
-            Element testSuite = newDoc.createElement("testsuite");
-            final String suiteName = getCharacterDataFromElement(actionName);
-            testSuite.setAttribute("name", suiteName);
-
-            NodeList stepNodes = action.getElementsByTagName("Step");
-            parseScriptActionStep(newDoc, testSuite, stepNodes, scriptName + "." + suiteName);
-
-            Element suiteSummaryNode = (Element) action.getElementsByTagName("Summary").item(0);
-            testSuite.setAttribute(
-                    LR_SCRIPT_REPORT_PASSED_STATUS, suiteSummaryNode.getAttribute(LR_SCRIPT_REPORT_PASSED_STATUS));
-            testSuite.setAttribute("failures", suiteSummaryNode.getAttribute(LR_SCRIPT_REPORT_FAILED_STATUS));
-            int tests =
-                    Integer.parseInt(suiteSummaryNode.getAttribute(LR_SCRIPT_REPORT_FAILED_STATUS)) +
-                            Integer.parseInt(suiteSummaryNode.getAttribute(LR_SCRIPT_REPORT_PASSED_STATUS));
-            testSuite.setAttribute("package", scriptName);
-
-            testSuite.setAttribute("tests", String.valueOf(tests));
-            if (tests > 0) {
-                rootnode.appendChild(testSuite);
+    /**
+     * Reads the actions, steps and summaries of the results in one pass, the content of the steps is skipped
+     */
+    static ScriptReport readReport(InputStream in) throws XMLStreamException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        decoder.onMalformedInput(CodingErrorAction.REPLACE);
+        XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(
+                new LrScriptResultsSanitizer(new InputStreamReader(new BOMInputStream(in), decoder)));
+
+        ScriptReport report = new ScriptReport();
+        Deque<Action> actions = new ArrayDeque<>();
+        Deque<Step> steps = new ArrayDeque<>();
+        // the name of an action (step) is the leading text of its first AName (Obj) descendant
+        ElementText text = new ElementText();
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        text.end();
+                        String elementName = reader.getLocalName();
+                        if ("Action".equals(elementName)) {
+                            Action action = new Action();
+                            actions.push(action);
+                            report.actions.add(action);
+                        } else if ("AName".equals(elementName)) {
+                            text.start(actions);
+                        } else if ("Step".equals(elementName)) {
+                            Step step = new Step();
+                            steps.push(step);
+                            for (Action action : actions) {
+                                action.steps.add(step);
+                            }
+                        } else if ("Obj".equals(elementName)) {
+                            text.start(steps);
+                        } else if ("NodeArgs".equals(elementName)) {
+                            String status = reader.getAttributeValue(null, "status");
+                            for (Step step : steps) {
+                                if (step.status == null) {
+                                    step.status = status == null ? "" : status;
+                                }
+                            }
+                        } else if ("Summary".equals(elementName)) {
+                            Summary summary = new Summary(reader.getAttributeValue(null, LR_SCRIPT_REPORT_PASSED_STATUS),
+                                    reader.getAttributeValue(null, LR_SCRIPT_REPORT_FAILED_STATUS));
+                            report.summaries.add(summary);
+                            for (Action action : actions) {
+                                if (action.summary == null) {
+                                    action.summary = summary;
+                                }
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        text.append(reader);
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        text.end();
+                        String endName = reader.getLocalName();
+                        if ("Action".equals(endName)) {
+                            actions.pop();
+                        } else if ("Step".equals(endName)) {
+                            steps.pop();
+                        }
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        text.comment(reader);
+                        break;
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        text.end();
+                        break;
+                    default:
+                        break;
+                }
             }
+        } finally {
+            reader.close();
         }
+        return report;
     }
 
-    private static void parseScriptActionStep(Document newDoc, Element testSuite, NodeList stepNodes,
-                                              String className) {
-        for (int j = 0; j < stepNodes.getLength(); j++) {
-            Element step = (Element) stepNodes.item(j);
-            Element objNode = (Element) step.getElementsByTagName("Obj").item(0);
-            Element testCase = newDoc.createElement("testcase");
-            testCase.setAttribute("name", getStepDataFromElement(objNode));
-            Element nodeArgs = (Element) step.getElementsByTagName("NodeArgs").item(0);
-            String stepStatus = nodeArgs.getAttribute("status");
-            if (stepStatus.equals(LR_SCRIPT_PASSED_STATUS)) {
-                stepStatus = "pass";
-            } else {
-                stepStatus = "fail";
-                Element failureMessage = newDoc.createElement("failure");
-                failureMessage.setAttribute("message", "");
-
-                testCase.appendChild(failureMessage);
+    static void writeJunitReport(ScriptReport report, String scriptName, OutputStream out) throws XMLStreamException {
+        // the report summary follows the summaries of the actions
+        if (report.summaries.size() <= report.actions.size()) {
+            throw new XMLStreamException("Results summary is missing");
+        }
+        Summary reportSummary = report.summaries.get(report.actions.size());
+
+        XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+        writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        writer.writeStartElement("testsuites");
+        writer.writeNamespace("xsd", "http://www.w3.org/2001/XMLSchema");
+        writer.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+        writer.writeAttribute("failures", reportSummary.failed);
+        writer.writeAttribute("name", scriptName);
+        writer.writeAttribute(LR_SCRIPT_REPORT_PASSED_STATUS, reportSummary.passed);
+        writer.writeAttribute("tests", String.valueOf(reportSummary.getTests()));
+
+        for (Action action : report.actions) {
+            if (action.summary == null) {
+                throw new XMLStreamException("Summary of action " + action.name + " is missing");
             }
-            testCase.setAttribute("status", stepStatus);
-            testCase.setAttribute("classname", className);
-
-            testSuite.appendChild(testCase);
+            int tests = action.summary.getTests();
+            if (tests <= 0) {
+                continue;
+            }
+            String suiteName = action.name == null ? "" : action.name;
+            writer.writeStartElement("testsuite");
+            writer.writeAttribute("failures", action.summary.failed);
+            writer.writeAttribute("name", suiteName);
+            writer.writeAttribute("package", scriptName);
+            writer.writeAttribute(LR_SCRIPT_REPORT_PASSED_STATUS, action.summary.passed);
+            writer.writeAttribute("tests", String.valueOf(tests));
+            for (Step step : action.steps) {
+                writeTestCase(writer, step, scriptName + "." + suiteName);
+            }
+            writer.writeEndElement();
         }
-    }
 
-    private static String getStepDataFromElement(Element e) {
-        String stepName = getCharacterDataFromElement(e);
-        stepName = stepName.replace("Url: ", "");
-
-        return stepName;
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+        writer.close();
     }
 
-    private static String getCharacterDataFromElement(Element e) {
-        Node child = e.getFirstChild();
-        if (child instanceof CharacterData) {
-            CharacterData cd = (CharacterData) child;
-            return cd.getData();
+    private static void writeTestCase(XMLStreamWriter writer, Step step, String className) throws XMLStreamException {
+        boolean passed = LR_SCRIPT_PASSED_STATUS.equals(step.status);
+        if (passed) {
+            writer.writeEmptyElement("testcase");
+        } else {
+            writer.writeStartElement("testcase");
+        }
+        writer.writeAttribute("classname", className);
+        writer.writeAttribute("name", step.name == null ? "" : step.name.replace("Url: ", ""));
+        writer.writeAttribute("status", passed ? "pass" : "fail");
+        if (!passed) {
+            writer.writeEmptyElement("failure");
+            writer.writeAttribute("message", "");
+            writer.writeEndElement();
         }
-        return "";
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlFactory = new WstxInputFactory();
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlFactory;
     }
 
     /**
@@ -274,4 +311,78 @@ public class LrScriptResultsParser {
     public void setScriptName(String _scriptName) {
         this._scriptName = _scriptName;
     }
+
+    static final class ScriptReport {
+        private final List<Action> actions = new ArrayList<>();
+        private final List<Summary> summaries = new ArrayList<>();
+    }
+
+    private abstract static class Named {
+        String name;
+    }
+
+    private static final class Action extends Named {
+        private final List<Step> steps = new ArrayList<>();
+        private Summary summary;
+    }
+
+    private static final class Step extends Named {
+        private String status;
+    }
+
+    /**
+     * Collects the leading text of an element for the open actions or steps that have no name yet
+     */
+    private static final class ElementText {
+        private final List<Named> targets = new ArrayList<>();
+        private StringBuilder text;
+
+        void start(Collection<? extends Named> open) {
+            for (Named named : open) {
+                if (named.name == null) {
+                    targets.add(named);
+                }
+            }
+            text = targets.isEmpty() ? null : new StringBuilder();
+        }
+
+        void append(XMLStreamReader reader) {
+            if (text != null) {
+                text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+        }
+
+        void comment(XMLStreamReader reader) {
+            // a leading comment is the first character data of the element as well
+            if (text != null && text.length() == 0) {
+                text.append(reader.getText());
+            }
+            end();
+        }
+
+        void end() {
+            if (text != null) {
+                String value = text.toString();
+                for (Named named : targets) {
+                    named.name = value;
+                }
+                targets.clear();
+                text = null;
+            }
+        }
+    }
+
+    private static final class Summary {
+        private final String passed;
+        private final String failed;
+
+        private Summary(String passed, String failed) {
+            this.passed = passed == null ? "" : passed;
+            this.failed = failed == null ? "" : failed;
+        }
+
+        private int getTests() {
+            return Integer.parseInt(failed) + Integer.parseInt(passed);
+        }
+    }
 }
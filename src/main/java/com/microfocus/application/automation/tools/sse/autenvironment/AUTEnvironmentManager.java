@@ -73,7 +73,7 @@ public class AUTEnvironmentManager {
             response = new GetAutEnvironmentByIdOldApiRequest(client, autEnvironmentId).execute();
         }
         try {
-            List<Map<String, String>> entities = XPathUtils.toEntities(response.toString());
+            List<Map<String, String>> entities = response.getEntities("root-app-param-folder-id");
             if (!response.isOk() || entities.size() != 1) {
                 throw new SSEException(String.format(
                         "Failed to get AUT Environment with ID: [%s]",
@@ -140,7 +140,7 @@ public class AUTEnvironmentManager {
         
         Response response =
                 new GetAutEnvironmentConfigurationByIdRequest(client, existingAutEnvConfId).execute();
-        if (!response.isOk() || XPathUtils.toEntities(response.toString()).size() != 1) {
+        if (!response.isOk() || response.getEntities("id").size() != 1) {
             logger.log(String.format(
                     "Failed to get AUT Environment Configuration with ID: [%s]. Will try to create a new one",
                     existingAutEnvConfId));
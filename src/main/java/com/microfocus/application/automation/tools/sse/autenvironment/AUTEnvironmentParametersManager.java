@@ -35,7 +35,6 @@ import com.microfocus.application.automation.tools.sse.autenvironment.request.ge
 import com.microfocus.application.automation.tools.sse.autenvironment.request.put.PutAutEnvironmentParametersBulkRequest;
 import com.microfocus.application.automation.tools.sse.common.JsonHandler;
 import com.microfocus.application.automation.tools.sse.common.StringUtils;
-import com.microfocus.application.automation.tools.sse.common.XPathUtils;
 import com.microfocus.application.automation.tools.sse.sdk.Client;
 import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import com.microfocus.application.automation.tools.sse.sdk.Response;
@@ -125,7 +124,11 @@ public class AUTEnvironmentParametersManager {
                     response.getFailure());
         }
 
-        List<Map<String, String>> parameters = XPathUtils.toEntities(response.toString());
+        List<Map<String, String>> parameters =
+                response.getEntities(
+                        AUTEnvironmnentParameter.ALM_PARAMETER_ID_FIELD,
+                        AUTEnvironmnentParameter.ALM_PARAMETER_PARENT_ID_FIELD,
+                        AUTEnvironmnentParameter.ALM_PARAMETER_NAME_FIELD);
 
         for (Map<String, String> parameter : parameters) {
 
@@ -163,7 +166,11 @@ public class AUTEnvironmentParametersManager {
                     response.getFailure());
         }
 
-        List<Map<String, String>> folders = XPathUtils.toEntities(response.toString());
+        List<Map<String, String>> folders =
+                response.getEntities(
+                        AUTEnvironmentFolder.ALM_PARAMETER_FOLDER_ID_FIELD,
+                        AUTEnvironmentFolder.ALM_PARAMETER_FOLDER_PARENT_ID_FIELD,
+                        AUTEnvironmentFolder.ALM_PARAMETER_FOLDER_NAME_FIELD);
 
         for (Map<String, String> folder : folders) {
 
@@ -0,0 +1,269 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+package com.microfocus.application.automation.tools.sse.common;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+import com.microfocus.application.automation.tools.common.SSEException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Reads the entities of an ALM REST response one by one, without building a document of the whole response.
+ * Each entity is a map of field name to the first value of the field, the same as {@link XPathUtils#toEntities(String)}.
+ * When fields are given, only these fields are kept.
+ */
+public class EntityIterator implements Iterator<Map<String, String>>, Closeable {
+
+    private static final XMLInputFactory xmlFactory = createFactory();
+
+    private final XMLStreamReader reader;
+    private final Set<String> fields;
+    private final int totalResults;
+
+    //entities in document order, an entity is returned once it ends
+    private final Deque<Map<String, String>> entities = new ArrayDeque<Map<String, String>>();
+    private final Map<Map<String, String>, Boolean> completed = new IdentityHashMap<Map<String, String>, Boolean>();
+    //open entities, the fields of a nested entity belong to the enclosing ones too
+    private final Deque<Map<String, String>> openEntities = new ArrayDeque<Map<String, String>>();
+    private boolean ended;
+
+    public EntityIterator(InputStream in, String... fields) {
+
+        this(createReader(in, null), fields);
+    }
+
+    public EntityIterator(Reader in, String... fields) {
+
+        this(createReader(null, in), fields);
+    }
+
+    private EntityIterator(XMLStreamReader reader, String[] fields) {
+
+        this.reader = reader;
+        this.fields = fields.length == 0 ? null : new HashSet<String>(Arrays.asList(fields));
+        try {
+            reader.nextTag();
+            String total = reader.getAttributeValue(null, "TotalResults");
+            this.totalResults = StringUtils.isNullOrEmpty(total) ? -1 : Integer.parseInt(total.trim());
+        } catch (XMLStreamException | NumberFormatException e) {
+            close();
+            throw new SSEException(e);
+        }
+        if ("Entity".equals(reader.getLocalName())) {
+            //response of a single entity
+            startEntity();
+        }
+    }
+
+    /**
+     * @return the TotalResults attribute of the response, or -1 if it is missing
+     */
+    public int getTotalResults() {
+
+        return totalResults;
+    }
+
+    @Override
+    public boolean hasNext() {
+
+        while (!isHeadCompleted() && !ended) {
+            readNext();
+        }
+
+        return isHeadCompleted();
+    }
+
+    @Override
+    public Map<String, String> next() {
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map<String, String> entity = entities.poll();
+        completed.remove(entity);
+
+        return entity;
+    }
+
+    /**
+     * Reads the remaining entities and closes the reader.
+     */
+    public List<Map<String, String>> toList() {
+
+        List<Map<String, String>> ret = new ArrayList<Map<String, String>>();
+        try {
+            while (hasNext()) {
+                ret.add(next());
+            }
+        } finally {
+            close();
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void close() {
+
+        ended = true;
+        try {
+            reader.close();
+        } catch (XMLStreamException ignored) {
+            //nothing to do
+        }
+    }
+
+    private boolean isHeadCompleted() {
+
+        return !entities.isEmpty() && completed.containsKey(entities.peek());
+    }
+
+    private void readNext() {
+
+        try {
+            if (!reader.hasNext()) {
+                ended = true;
+                return;
+            }
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if ("Entity".equals(name)) {
+                    startEntity();
+                } else if ("Field".equals(name) && !openEntities.isEmpty()) {
+                    readField();
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "Entity".equals(reader.getLocalName())) {
+                completed.put(openEntities.pop(), Boolean.TRUE);
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                ended = true;
+            }
+        } catch (XMLStreamException e) {
+            close();
+            throw new SSEException(e);
+        }
+    }
+
+    private void startEntity() {
+
+        Map<String, String> entity = new HashMap<String, String>();
+        entities.add(entity);
+        openEntities.push(entity);
+    }
+
+    /**
+     * The field is named by its first attribute (in the order of a DOM attribute map), the value is the text of its
+     * first child, given that the child starts with text. The reader is left at the end of the field.
+     */
+    private void readField() throws XMLStreamException {
+
+        String name = null;
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String attribute = reader.getAttributeLocalName(i);
+            if (name == null || attribute.compareTo(name) < 0) {
+                name = attribute;
+            }
+        }
+        String fieldName = name == null ? null : reader.getAttributeValue(null, name);
+        boolean keep = fields == null || fields.contains(fieldName);
+
+        String value = null;
+        int depth = 1;
+        boolean firstChild = true;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (keep && firstChild && depth == 1) {
+                    value = readFirstText();
+                } else {
+                    depth++;
+                }
+                firstChild = false;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (depth == 1 && event != XMLStreamConstants.END_DOCUMENT) {
+                firstChild = false;
+            }
+        }
+
+        if (keep) {
+            for (Map<String, String> entity : openEntities) {
+                entity.put(fieldName, value);
+            }
+        }
+    }
+
+    /**
+     * @return text of the element if it starts with text, otherwise null. The reader is left at the end of the element.
+     */
+    private String readFirstText() throws XMLStreamException {
+
+        String ret = null;
+        int depth = 1;
+        boolean first = true;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (first && depth == 1 && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE)) {
+                ret = reader.getText();
+            }
+            first = false;
+        }
+
+        return ret;
+    }
+
+    private static XMLStreamReader createReader(InputStream in, Reader charactersIn) {
+
+        try {
+            return in != null ? xmlFactory.createXMLStreamReader(in) : xmlFactory.createXMLStreamReader(charactersIn);
+        } catch (XMLStreamException e) {
+            throw new SSEException(e);
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+
+        XMLInputFactory factory = new WstxInputFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        return factory;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+package com.microfocus.application.automation.tools.sse.common;
+
+import com.microfocus.application.automation.tools.common.SSEException;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Entities of a query that is read page by page with the page-size and start-index parameters.
+ * The next page is requested only when the entities of the current one were consumed, so at most
+ * one page is kept in memory.
+ */
+public class EntityPages implements Iterator<Map<String, String>> {
+
+    private final IntFunction<Response> pageRequest;
+    private final int pageSize;
+    private final String[] fields;
+    private EntityIterator page;
+    private int pageCount;
+    private int read;
+    private boolean lastPage;
+
+    /**
+     * @param pageRequest executes the request of the page that starts at the given (1 based) index
+     * @param pageSize page size of the request
+     * @param fields fields to keep, all the fields are kept if none is given
+     */
+    public EntityPages(IntFunction<Response> pageRequest, int pageSize, String... fields) {
+
+        this.pageRequest = pageRequest;
+        this.pageSize = pageSize;
+        this.fields = fields;
+    }
+
+    @Override
+    public boolean hasNext() {
+
+        while (page == null || !page.hasNext()) {
+            if (page != null) {
+                page.close();
+                lastPage = lastPage || pageCount < pageSize;
+            }
+            if (lastPage) {
+                return false;
+            }
+            page = nextPage();
+        }
+
+        return true;
+    }
+
+    @Override
+    public Map<String, String> next() {
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        pageCount++;
+        read++;
+
+        return page.next();
+    }
+
+    private EntityIterator nextPage() {
+
+        Response response = pageRequest.apply(read + 1);
+        if (!response.isOk()) {
+            throw new SSEException(
+                    String.format("Failed to get entities starting at index %d, status: %d", read + 1, response.getStatusCode()),
+                    response.getFailure());
+        }
+        pageCount = 0;
+        if (!response.hasData()) {
+            lastPage = true;
+            return new EntityIterator(new StringReader("<Entities/>"));
+        }
+        EntityIterator ret = response.getEntityIterator(fields);
+        if (ret.getTotalResults() >= 0 && read + pageSize >= ret.getTotalResults()) {
+            lastPage = true;
+        }
+
+        return ret;
+    }
+}
@@ -78,21 +78,7 @@ public class XPathUtils {
     
     public static List<Map<String, String>> toEntities(String xml) {
         
-        Document document = getDocument(xml);
-        
-        List<Map<String, String>> ret = new ArrayList<Map<String, String>>();
-        NodeList entities = document.getElementsByTagName("Entity");
-        for (int i = 0; i < entities.getLength(); i++) {
-            Map<String, String> currEntity = new HashMap<String, String>();
-            NodeList fields = ((Element) entities.item(i)).getElementsByTagName("Field");
-            for (int j = 0; j < fields.getLength(); j++) {
-                Node item = fields.item(j);
-                currEntity.put(item.getAttributes().item(0).getNodeValue(), getFieldValue(item));
-            }
-            ret.add(currEntity);
-        }
-        
-        return ret;
+        return new EntityIterator(new StringReader(xml)).toList();
     }
     
     public static String getAttributeValue(String xml, String attrName) {
@@ -182,28 +168,13 @@ public class XPathUtils {
     }
 
     public static boolean hasResults(String xml) {
-        boolean ok = false;
-
+        
+        EntityIterator entities = new EntityIterator(new StringReader(xml), "id");
         try {
-            Document doc = getDocument(xml);
-            if (doc == null) {
-                return ok;
-            }
-
-            Node root = doc.getDocumentElement();
-            if (root == null) {
-                return ok;
-            }
-
-            if ((root.hasAttributes() && Integer.parseInt(root.getAttributes().getNamedItem("TotalResults").getNodeValue()) > 0)
-                || (doc.hasChildNodes() && doc.getElementsByTagName("Entity").getLength() > 0)) {
-                ok = true;
-            }
-        } catch (SSEException | NumberFormatException cause) {
-            throw new SSEException(cause);
+            return entities.getTotalResults() > 0 || entities.hasNext();
+        } finally {
+            entities.close();
         }
-
-        return ok;
     }
 
     public static List<String> getTestSetIds(String xml) {
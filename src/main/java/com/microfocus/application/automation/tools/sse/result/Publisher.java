@@ -31,8 +31,6 @@ package com.microfocus.application.automation.tools.sse.result;
 import java.util.List;
 import java.util.Map;
 
-import com.microfocus.application.automation.tools.sse.common.StringUtils;
-import com.microfocus.application.automation.tools.sse.common.XPathUtils;
 import com.microfocus.application.automation.tools.sse.result.model.junit.Testsuites;
 import com.microfocus.application.automation.tools.sse.sdk.Client;
 import com.microfocus.application.automation.tools.sse.sdk.Logger;
@@ -84,8 +82,8 @@ public abstract class Publisher extends Handler {
         
         List<Map<String, String>> ret = null;
         try {
-            if (!StringUtils.isNullOrEmpty(response.toString())) {
-                ret = XPathUtils.toEntities(response.toString());
+            if (response.hasData()) {
+                ret = response.getEntities();
             }
 
             if (ret ==null || ret.size() == 0) {
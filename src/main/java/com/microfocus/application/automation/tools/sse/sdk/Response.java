@@ -28,6 +28,9 @@
 
 package com.microfocus.application.automation.tools.sse.sdk;
 
+import com.microfocus.application.automation.tools.sse.common.EntityIterator;
+
+import java.io.ByteArrayInputStream;
 import java.net.HttpURLConnection;
 import java.util.List;
 import java.util.Map;
@@ -117,6 +120,30 @@ public class Response {
                    || getStatusCode() == HttpURLConnection.HTTP_CREATED || getStatusCode() == HttpURLConnection.HTTP_ACCEPTED);
     }
     
+    public boolean hasData() {
+        
+        return _data != null && _data.length > 0;
+    }
+    
+    /**
+     * Reads the entities of the body without converting it to a string.
+     * 
+     * @param fields fields to keep, all the fields are kept if none is given
+     */
+    public EntityIterator getEntityIterator(String... fields) {
+        
+        return new EntityIterator(new ByteArrayInputStream(_data != null ? _data : new byte[0]), fields);
+    }
+    
+    /**
+     * @param fields fields to keep, all the fields are kept if none is given
+     * @return the entities of the body, as returned by XPathUtils.toEntities
+     */
+    public List<Map<String, String>> getEntities(String... fields) {
+        
+        return getEntityIterator(fields).toList();
+    }
+    
     /**
      * @see Object#toString() return the contents of the byte[] data as a string.
      */
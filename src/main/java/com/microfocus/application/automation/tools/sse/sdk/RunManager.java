@@ -180,6 +180,24 @@ public class RunManager {
         String entityId = args.getEntityId();
         _runHandler = new RunHandlerFactory().create(client, args.getRunType(), entityId);
         _pollHandler = new PollHandlerFactory().create(client, args.getRunType(), entityId);
+        _pollHandler.setExpectedDuration(getTimeslotDurationMillis(args));
+    }
+
+    /**
+     * Timeslot duration is given in minutes
+     */
+    private long getTimeslotDurationMillis(Args args) {
+        long ret = 0;
+        String duration = args.getDuration();
+        if (!StringUtils.isNullOrEmpty(duration)) {
+            try {
+                ret = Long.parseLong(duration.trim()) * 60 * 1000;
+            } catch (NumberFormatException ex) {
+                ret = 0;
+            }
+        }
+
+        return ret;
     }
 
     /**
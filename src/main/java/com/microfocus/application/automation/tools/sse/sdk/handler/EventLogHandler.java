@@ -28,18 +28,26 @@
 
 package com.microfocus.application.automation.tools.sse.sdk.handler;
 
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import com.microfocus.application.automation.tools.common.SSEException;
+import com.microfocus.application.automation.tools.sse.common.EntityPages;
 import com.microfocus.application.automation.tools.sse.common.StringUtils;
-import com.microfocus.application.automation.tools.sse.common.XPathUtils;
 import com.microfocus.application.automation.tools.sse.sdk.Client;
 import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import com.microfocus.application.automation.tools.sse.sdk.Response;
 import com.microfocus.application.automation.tools.sse.sdk.request.EventLogRequest;
 
+/**
+ * Prints the new events of a timeslot to the build log. Each poll only asks the server for the
+ * events after the last one printed, so the polls don't get slower as the event log grows.
+ */
 public class EventLogHandler extends Handler {
     
+    private static final int PAGE_SIZE = Integer.getInteger("EventLogHandler.PageSize", 1000);
+    private static final boolean DEBUG = Boolean.getBoolean("EventLogHandler.Debug");
+    
     private String _timeslotId = StringUtils.EMPTY_STRING;
     private int _lastRead = -1;
     
@@ -52,12 +60,21 @@ public class EventLogHandler extends Handler {
     public boolean log(Logger logger) {
         
         boolean ret = false;
-        Response eventLog = null;
+        long start = System.nanoTime();
+        final int afterId = _lastRead;
+        final long[] payload = new long[2];
         try {
-            eventLog = getEventLog();
-            String xml = eventLog.toString();
-            List<Map<String, String>> entities = XPathUtils.toEntities(xml);
-            for (Map<String, String> currEntity : entities) {
+            EntityPages events = new EntityPages(startIndex -> {
+                Response page = getEventLog(afterId, startIndex);
+                if (page.isOk() && !page.hasData()) {
+                    throw new SSEException("Empty event log response");
+                }
+                payload[0]++;
+                payload[1] += page.hasData() ? page.getData().length : 0;
+                return page;
+            }, PAGE_SIZE, "id", "creation-time", "description");
+            while (events.hasNext()) {
+                Map<String, String> currEntity = events.next();
                 if (isNew(currEntity)) {
                     logger.log(String.format(
                             "%s:%s",
@@ -68,12 +85,20 @@ public class EventLogHandler extends Handler {
             ret = true;
         } catch (Throwable cause) {
             logger.log(String.format(
-                    "Failed to print Event Log: %s (run id: %s, reservation id: %s). Cause: %s",
-                    eventLog,
+                    "Failed to print Event Log (run id: %s, reservation id: %s, last event id: %s). Cause: %s",
                     _runId,
                     _timeslotId,
+                    _lastRead,
                     cause));
         }
+        if (DEBUG) {
+            logger.log(String.format(
+                    "[DEBUG] Event Log poll of reservation %s took %d ms, read %d page(s), %d bytes",
+                    _timeslotId,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    payload[0],
+                    payload[1]));
+        }
         
         return ret;
     }
@@ -90,9 +115,9 @@ public class EventLogHandler extends Handler {
         return ret;
     }
     
-    private Response getEventLog() {
+    private Response getEventLog(int afterId, int startIndex) {
         
-        return new EventLogRequest(_client, _timeslotId).execute();
+        return new EventLogRequest(_client, _timeslotId, afterId, startIndex, PAGE_SIZE).execute();
     }
     
 }
@@ -57,16 +57,14 @@ public class LabPollHandler extends PollHandler {
     }
     
     @Override
-    protected boolean doPoll(Logger logger) throws InterruptedException {
+    protected boolean startPolling(Logger logger) {
         boolean ret = false;
         
         Response runEntityResponse = getRunEntityData();
         if (isOk(runEntityResponse, logger)) {
             setTimeslotId(runEntityResponse, logger);
             _eventLogHandler = new EventLogHandler(_client, _timeslotId);
-            if (!StringUtils.isNullOrEmpty(_timeslotId)) {
-                ret = super.doPoll(logger);
-            }
+            ret = !StringUtils.isNullOrEmpty(_timeslotId);
         }
         return ret;
     }
@@ -28,6 +28,11 @@
 
 package com.microfocus.application.automation.tools.sse.sdk.handler;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.microfocus.application.automation.tools.common.PollScheduler;
+import com.microfocus.application.automation.tools.common.SSEException;
 import com.microfocus.application.automation.tools.sse.sdk.Client;
 import com.microfocus.application.automation.tools.sse.sdk.Logger;
 import com.microfocus.application.automation.tools.sse.sdk.Response;
@@ -35,6 +40,7 @@ import com.microfocus.application.automation.tools.sse.sdk.Response;
 public abstract class PollHandler extends Handler {
     
     private int _interval = 5000; // millisecond
+    private long _expectedDuration = 0; // millisecond
     
     public PollHandler(Client client, String entityId) {
         
@@ -51,36 +57,57 @@ public abstract class PollHandler extends Handler {
         
         super(client, entityId, runId);
     }
+    
+    /**
+     * Expected duration of the run, polls are not delayed past it.
+     */
+    public void setExpectedDuration(long expectedDuration) {
+        
+        _expectedDuration = expectedDuration;
+    }
 
     public boolean poll(Logger logger) throws InterruptedException {
 
-        logger.log(String.format("Polling... Run ID: %s", _runId));
-
-        return doPoll(logger);
+        try {
+            return PollScheduler.await(pollAsync(logger));
+        } catch (InterruptedException ex) {
+            logger.log("Interrupted while polling");
+            throw ex;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SSEException(cause);
+        }
     }
     
-    protected boolean doPoll(Logger logger) throws InterruptedException {
-        boolean ret = false;
-        int failures = 0;
-
-        while (failures < 3) {
-            Response response = getResponse();
-            if (isOk(response, logger)) {
-                log(logger);
-                if (isFinished(response, logger)) {
-                    ret = true;
-                    logRunEntityResults(getRunEntityResultsResponse(), logger);
-                    break;
-                }
-            } else {
-                ++failures;
-            }
-            if (sleep(logger)) { // interrupted
-                break;
-            }
+    /**
+     * Polls the run on the shared {@link PollScheduler} instead of the calling thread.
+     * 
+     * @return future completed with true if the run has finished, false if polling failed
+     */
+    public CompletableFuture<Boolean> pollAsync(Logger logger) {
+        
+        logger.log(String.format("Polling... Run ID: %s", _runId));
+        PollScheduler.Backoff backoff = PollScheduler.Backoff.adaptive(_interval);
+        if (_expectedDuration > 0) {
+            backoff.setEta(System.currentTimeMillis() + _expectedDuration);
         }
         
-        return ret;
+        return PollScheduler.getInstance().submit(new RunPoll(logger), backoff);
+    }
+    
+    /**
+     * Called once before the first poll of the run.
+     * 
+     * @return false if the run cannot be polled
+     */
+    protected boolean startPolling(Logger logger) {
+        
+        return true;
     }
     
     protected abstract Response getRunEntityResultsResponse();
@@ -107,18 +134,47 @@ public abstract class PollHandler extends Handler {
         return ret;
     }
     
-    protected boolean sleep(Logger logger) throws InterruptedException {
+    protected void log(Logger logger) {}
+    
+    private class RunPoll implements PollScheduler.Poll<Boolean> {
         
-        boolean ret = false;
-        try {
-            Thread.sleep(_interval);
-        } catch (InterruptedException ex) {
-            logger.log("Interrupted while polling");
-            throw ex;
+        private final Logger _logger;
+        private boolean _started = false;
+        private int _failures = 0;
+        private String _lastState;
+        
+        private RunPoll(Logger logger) {
+            
+            _logger = logger;
         }
         
-        return ret;
+        @Override
+        public void poll(CompletableFuture<Boolean> result, PollScheduler.Backoff backoff) {
+            
+            if (!_started) {
+                _started = true;
+                if (!startPolling(_logger)) {
+                    result.complete(false);
+                    return;
+                }
+            }
+            Response response = getResponse();
+            if (isOk(response, _logger)) {
+                log(_logger);
+                if (isFinished(response, _logger)) {
+                    logRunEntityResults(getRunEntityResultsResponse(), _logger);
+                    result.complete(true);
+                    return;
+                }
+                // poll again soon whenever the run entity has changed, otherwise back off
+                String state = response.toString();
+                if (!state.equals(_lastState)) {
+                    _lastState = state;
+                    backoff.reset();
+                }
+            } else if (++_failures >= 3) {
+                result.complete(false);
+            }
+        }
     }
-    
-    protected void log(Logger logger) {}
 }
@@ -33,18 +33,46 @@ import com.microfocus.application.automation.tools.sse.sdk.Client;
 public class EventLogRequest extends GetRequest {
     
     private final String _timeslotId;
+    private final int _afterId;
+    private final int _startIndex;
+    private final int _pageSize;
     
     public EventLogRequest(Client client, String timeslotId) {
         
+        this(client, timeslotId, -1, 1, 0);
+    }
+    
+    /**
+     * @param afterId only events with a greater id are read, -1 reads all the events
+     * @param startIndex 1 based index of the first event of the page
+     * @param pageSize page size, 0 for the server default
+     */
+    public EventLogRequest(Client client, String timeslotId, int afterId, int startIndex, int pageSize) {
+        
         super(client, timeslotId);
         _timeslotId = timeslotId;
+        _afterId = afterId;
+        _startIndex = startIndex;
+        _pageSize = pageSize;
     }
     
     @Override
     protected String getSuffix() {
         
-        return String.format(
-                "event-log-reads?query={context[\"*Timeslot:%%20%s%%3B*\"]}&fields=id,event-type,creation-time,action,description",
-                _timeslotId);
+        StringBuilder ret = new StringBuilder(String.format(
+                "event-log-reads?query={context[\"*Timeslot:%%20%s%%3B*\"]",
+                _timeslotId));
+        if (_afterId >= 0) {
+            ret.append(String.format(";id[%%3E%d]", _afterId));
+        }
+        ret.append("}&fields=id,event-type,creation-time,action,description");
+        if (_pageSize > 0) {
+            ret.append(String.format(
+                    "&order-by={id[ASC]}&page-size=%d&start-index=%d",
+                    _pageSize,
+                    _startIndex));
+        }
+        
+        return ret.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.sse.sdk.request;
+
+import com.microfocus.adm.performancecenter.plugins.common.rest.RESTConstants;
+import com.microfocus.application.automation.tools.sse.common.RestXmlUtils;
+import com.microfocus.application.automation.tools.sse.sdk.Client;
+import com.microfocus.application.automation.tools.sse.sdk.ResourceAccessLevel;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates several entities of the same type with a single collection POST.
+ * The created entities are returned in the order of {@link #getFields()}.
+ */
+public abstract class GeneralPostBulkRequest extends GeneralRequest {
+
+    protected GeneralPostBulkRequest(Client client) {
+        super(client);
+    }
+
+    protected abstract String getEntityType();
+
+    protected abstract List<Map<String, String>> getFields();
+
+    @Override
+    protected Map<String, String> getHeaders() {
+
+        Map<String, String> ret = new HashMap<String, String>();
+        ret.put(RESTConstants.CONTENT_TYPE, RESTConstants.APP_XML_BULK);
+        ret.put(RESTConstants.ACCEPT, RESTConstants.APP_XML);
+        ret.put("X-XSRF-TOKEN", _client.getXsrfTokenValue());
+        return ret;
+    }
+
+    @Override
+    protected Response perform() {
+        return _client.httpPost(
+                getUrl(),
+                getDataBytes(),
+                getHeaders(),
+                ResourceAccessLevel.PROTECTED);
+    }
+
+    private byte[] getDataBytes() {
+
+        StringBuilder builder = new StringBuilder("<Entities>");
+        for (Map<String, String> values : getFields()) {
+            builder.append("<Entity Type=\"").append(getEntityType()).append("\"><Fields>");
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                builder.append(RestXmlUtils.fieldXml(entry.getKey(), entry.getValue()));
+            }
+            builder.append("</Fields></Entity>");
+        }
+
+        return builder.append("</Entities>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.common;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HttpTransportTest {
+    private static final String BODY = "<Entities TotalResults=\"0\"/>";
+
+    private HttpServer server;
+    private final Set<String> clients = Collections.synchronizedSet(new HashSet<>());
+    private String baseUrl;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            clients.add(exchange.getRemoteAddress().toString());
+            ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(zipped)) {
+                out.write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, zipped.size());
+            exchange.getResponseBody().write(zipped.toByteArray());
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void execute_reusesConnectionAndDecompresses() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            String body = HttpTransport.getInstance().execute(
+                    new HttpGet(baseUrl + "/rest/runs/" + i),
+                    HttpClientContext.create(),
+                    response -> EntityUtils.toString(response.getEntity()));
+            assertEquals(BODY, body);
+        }
+
+        assertEquals(1, clients.size());
+        HttpTransport.Stats stats = HttpTransport.getInstance().getStats().get("GET " + baseUrl + "/rest/runs/{id}");
+        assertEquals(3, stats.getCount());
+        assertEquals(0, stats.getFailures());
+        assertTrue(stats.getMaxMillis() >= stats.getAverageMillis());
+    }
+
+    @Test
+    public void toUri_encodesIllegalCharactersAndKeepsEscapes() {
+        assertEquals(
+                "http://alm:8080/qcbin/rest/runs?query=%7Bname%5B%22a%20b%22%5D;id%5B%3E5%5D%7D&fields=id",
+                HttpTransport.toUri("http://alm:8080/qcbin/rest/runs?query={name[\"a b\"];id[%3E5]}&fields=id")
+                        .toASCIIString());
+        assertEquals(
+                "http://alm/qcbin/rest/runs?query=%7Bstatus%5BPassed%20OR%20Failed%5D%7D",
+                HttpTransport.toUri("http://alm/qcbin/rest/runs?query={status[Passed%20OR%20Failed]}").toASCIIString());
+    }
+
+    @Test
+    public void toUri_encodesPercentThatIsNotAnEscape() {
+        assertEquals(
+                "http://alm/qcbin/rest/tests?query=%7Bname%5B100%25%20done%5D%7D",
+                HttpTransport.toUri("http://alm/qcbin/rest/tests?query={name[100% done]}").toASCIIString());
+        assertEquals("http://alm/a%25zz%25", HttpTransport.toUri("http://alm/a%zz%").toASCIIString());
+        assertEquals("http://alm/a%252", HttpTransport.toUri("http://alm/a%2").toASCIIString());
+    }
+}
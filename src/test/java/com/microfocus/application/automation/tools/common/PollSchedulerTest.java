@@ -0,0 +1,149 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.common;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PollSchedulerTest {
+
+    @Test
+    public void pollIsRetriedUntilItCompletes() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        CompletableFuture<String> result = PollScheduler.getInstance().submit((future, backoff) -> {
+            if (polls.incrementAndGet() == 3) {
+                future.complete("done");
+            }
+        }, PollScheduler.Backoff.fixed(1));
+
+        assertEquals("done", result.get(10, TimeUnit.SECONDS));
+        assertEquals(3, polls.get());
+    }
+
+    @Test
+    public void pollThatTimesOutFailsTheResultAndStops() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        CompletableFuture<String> result = PollScheduler.getInstance().submit((future, backoff) -> {
+            if (polls.incrementAndGet() == 2) {
+                throw new TimeoutException("run did not end in time");
+            }
+        }, PollScheduler.Backoff.fixed(1));
+
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            fail("the poll failure is not propagated");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        Thread.sleep(100);
+        assertEquals(2, polls.get());
+    }
+
+    @Test
+    public void cancellingTheResultStopsPolling() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        CountDownLatch polled = new CountDownLatch(1);
+        CompletableFuture<String> result = PollScheduler.getInstance().submit((future, backoff) -> {
+            polls.incrementAndGet();
+            polled.countDown();
+        }, PollScheduler.Backoff.fixed(5));
+
+        assertTrue(polled.await(10, TimeUnit.SECONDS));
+        result.cancel(false);
+        //a poll that was already running may still end
+        Thread.sleep(50);
+        int cancelledAt = polls.get();
+        Thread.sleep(100);
+        assertEquals(cancelledAt, polls.get());
+    }
+
+    @Test
+    public void interruptedAwaitCancelsThePoll() throws Exception {
+        CompletableFuture<String> result = PollScheduler.getInstance().submit((future, backoff) -> {
+        }, PollScheduler.Backoff.fixed(5));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread waiting = new Thread(() -> {
+            try {
+                PollScheduler.await(result);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        waiting.start();
+        waiting.interrupt();
+        waiting.join(10000);
+
+        assertTrue(failure.get() instanceof InterruptedException);
+        assertTrue(result.isCancelled());
+    }
+
+    @Test
+    public void pollsDoNotRunOnTheTimerThreads() throws Exception {
+        CompletableFuture<String> result = PollScheduler.getInstance().submit(
+                (future, backoff) -> future.complete(Thread.currentThread().getName()),
+                PollScheduler.Backoff.fixed(1));
+
+        assertTrue(result.get(10, TimeUnit.SECONDS).startsWith("PollScheduler-io-"));
+    }
+
+    @Test
+    public void backoffGrowsUntilTheStateChanges() {
+        PollScheduler.Backoff backoff = new PollScheduler.Backoff(10, 40);
+
+        assertEquals(10, backoff.next());
+        assertEquals(15, backoff.next());
+        assertEquals(22, backoff.next());
+        assertEquals(33, backoff.next());
+        assertEquals(40, backoff.next());
+        backoff.once(3);
+        assertEquals(3, backoff.next());
+        assertEquals(40, backoff.next());
+        backoff.reset();
+        assertEquals(10, backoff.next());
+    }
+
+    @Test
+    public void backoffDoesNotWaitPastTheEta() {
+        PollScheduler.Backoff backoff = PollScheduler.Backoff.fixed(60000);
+        backoff.setEta(System.currentTimeMillis() + 1000);
+
+        assertTrue(backoff.next() <= 1000);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.commonResultUpload.xmlreader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.microfocus.application.automation.tools.commonResultUpload.xmlreader.model.EntitiesFieldMap;
+import com.microfocus.application.automation.tools.commonResultUpload.xmlreader.model.XmlResultEntity;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xml.sax.SAXException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that the streaming reader gives the same test sets, tests and runs as the XPath reader.
+ */
+public class StreamingTestSetReaderTest {
+
+    private static final String FIELD_MAPPING =
+            "testset:\n" +
+            "  root: \"x:/results/suite\"\n" +
+            "  name: \"x:@name\"\n" +
+            "  subtype-id: \"v:hp.qc.test-set.external\"\n" +
+            "  description: \"v:Suite |x:@name|v: on |x:env/host\"\n" +
+            "test:\n" +
+            "  root: \"x:case\"\n" +
+            "  name: \"x:@name\"\n" +
+            "  subtype-id: \"v:EXTERNAL-TEST\"\n" +
+            "  class: \"x:info/class\"\n" +
+            "run:\n" +
+            "  root: \"x:.\"\n" +
+            "  status: \"x:@status\"\n" +
+            "  duration: \"x:info/duration\"\n" +
+            "  detail: \"x:failure\"\n" +
+            "  failure-type: \"x:failure/@type\"\n";
+
+    private static final String RESULTS =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<results xmlns=\"http://example.com/results\">\n" +
+            "  <suite name=\"Suite A\">\n" +
+            "    <env><host>node-1</host></env>\n" +
+            "    <case name=\"login\" status=\"Passed\">\n" +
+            "      <info><class>com.example.LoginTest</class><duration>1.5</duration></info>\n" +
+            "    </case>\n" +
+            "    <case name=\"logout\" status=\"Failed\">\n" +
+            "      <info><class>com.example.LogoutTest</class></info>\n" +
+            "      <failure type=\"AssertionError\">expected <![CDATA[<true>]]> but was <b>false</b></failure>\n" +
+            "      <failure type=\"Ignored\">second failure</failure>\n" +
+            "    </case>\n" +
+            "  </suite>\n" +
+            "  <suite>\n" +
+            "    <case/>\n" +
+            "    <other><case name=\"not a child of the suite\"/></other>\n" +
+            "  </suite>\n" +
+            "  <suite name=\"Suite C\"/>\n" +
+            "</results>\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameEntitiesAsXpathReader() throws Exception {
+        TestSetReader reader = createReader(RESULTS);
+        List<XmlResultEntity> testsets = reader.readTestsets();
+
+        assertSameEntities(reader.readTestsetsWithXpath(), testsets);
+        assertEquals(3, testsets.size());
+
+        XmlResultEntity suiteA = testsets.get(0);
+        assertEquals("Suite A", suiteA.getValueMap().get("name"));
+        assertEquals("Suite Suite A on node-1", suiteA.getValueMap().get("description"));
+        assertEquals(2, suiteA.getSubEntities().size());
+
+        Map<String, String> failedRun = suiteA.getSubEntities().get(1).getSubEntities().get(0).getValueMap();
+        assertEquals("Failed", failedRun.get("status"));
+        assertEquals("expected <true> but was false", failedRun.get("detail"));
+        assertEquals("AssertionError", failedRun.get("failure-type"));
+    }
+
+    @Test
+    public void testMissingAttributesAndElementsAreEmpty() throws Exception {
+        TestSetReader reader = createReader(RESULTS);
+        List<XmlResultEntity> testsets = reader.readTestsets();
+
+        assertSameEntities(reader.readTestsetsWithXpath(), testsets);
+
+        XmlResultEntity unnamed = testsets.get(1);
+        assertEquals("", unnamed.getValueMap().get("name"));
+        assertEquals("Suite  on ", unnamed.getValueMap().get("description"));
+        assertEquals(1, unnamed.getSubEntities().size());
+
+        XmlResultEntity emptyCase = unnamed.getSubEntities().get(0);
+        assertEquals("", emptyCase.getValueMap().get("class"));
+        Map<String, String> run = emptyCase.getSubEntities().get(0).getValueMap();
+        assertEquals("", run.get("status"));
+        assertEquals("", run.get("duration"));
+        assertEquals("", run.get("failure-type"));
+        assertNull(emptyCase.getSubEntities().get(0).getSubEntities());
+
+        assertTrue(testsets.get(2).getSubEntities().isEmpty());
+    }
+
+    @Test
+    public void testPrefixedNamesInTheFileAreMatchedByLocalName() throws Exception {
+        TestSetReader reader = createReader(RESULTS
+                .replace("xmlns=", "xmlns:r=")
+                .replace("<results", "<r:results").replace("</results", "</r:results")
+                .replace("<suite", "<r:suite").replace("</suite", "</r:suite")
+                .replace("<case name=", "<case r:name=")
+                .replace("<info>", "<r:info>").replace("</info>", "</r:info>")
+                .replace("<r:suite name=\"Suite A\"", "<r:suite z:name=\"Other\" name=\"Suite A\" a:name=\"Prefixed\""));
+        List<XmlResultEntity> testsets = reader.readTestsets();
+
+        assertSameEntities(reader.readTestsetsWithXpath(), testsets);
+        assertEquals(3, testsets.size());
+        assertEquals("Prefixed", testsets.get(0).getValueMap().get("name"));
+        XmlResultEntity logout = testsets.get(0).getSubEntities().get(1);
+        assertEquals("logout", logout.getValueMap().get("name"));
+        assertEquals("com.example.LogoutTest", logout.getValueMap().get("class"));
+    }
+
+    @Test
+    public void testPrefixedNamesInTheMappingAreLeftToXpath() throws Exception {
+        assertFalse(StreamingTestSetReader.isSupported(loadFieldMap(
+                FIELD_MAPPING.replace("x:/results/suite", "x:/r:results/r:suite"))));
+        assertFalse(StreamingTestSetReader.isSupported(loadFieldMap(
+                FIELD_MAPPING.replace("x:@status", "x:@r:status"))));
+    }
+
+    @Test
+    public void testMalformedResultFile() throws Exception {
+        TestSetReader reader = createReader(RESULTS.replace("</suite>\n  <suite>", "</suite>\n  <suite"));
+        try {
+            reader.readTestsetsWithXpath();
+            fail("the XPath reader should reject the file");
+        } catch (SAXException e) {
+            // expected
+        }
+        try {
+            reader.readTestsets();
+            fail("the streaming reader should reject the file");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private TestSetReader createReader(String results) throws IOException {
+        EntitiesFieldMap entitiesFieldMap = loadFieldMap(FIELD_MAPPING);
+        assertTrue(StreamingTestSetReader.isSupported(entitiesFieldMap));
+
+        File file = folder.newFile();
+        Files.write(file.toPath(), results.getBytes(StandardCharsets.UTF_8));
+        return new TestSetReader(file.getAbsolutePath(), entitiesFieldMap);
+    }
+
+    private static EntitiesFieldMap loadFieldMap(String fieldMapping) throws IOException {
+        return new ObjectMapper(new YAMLFactory()).readValue(fieldMapping, EntitiesFieldMap.class);
+    }
+
+    private static void assertSameEntities(List<XmlResultEntity> expected, List<XmlResultEntity> actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getValueMap(), actual.get(i).getValueMap());
+            assertSameEntities(expected.get(i).getSubEntities(), actual.get(i).getSubEntities());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.mc;
+
+import com.microfocus.application.automation.tools.model.AuthModel;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.minidev.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JobConfigurationProxyTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private String mcUrl;
+    private final AtomicInteger logins = new AtomicInteger();
+    private final List<String> uploadSessions = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> rejectedSessions = Collections.synchronizedSet(new HashSet<>());
+    private volatile boolean failUploads;
+    private volatile byte[] uploadedBody;
+    private volatile String uploadedContentLength;
+
+    @Before
+    public void setUp() throws Exception {
+        //sessions are kept per server url, a new path keeps them from leaking between the tests
+        String path = "/mc-" + UUID.randomUUID();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(path + Constants.LOGIN_URL, exchange -> {
+            read(exchange);
+            exchange.getResponseHeaders().add(Constants.SET_COOKIE, Constants.JESEEIONEQ + "session-" + logins.incrementAndGet());
+            exchange.getResponseHeaders().add(Constants.LOGIN_SECRET, "secret");
+            respond(exchange, 200, "{}");
+        });
+        server.createContext(path + "/rest/apps/upload", exchange -> {
+            uploadedBody = read(exchange);
+            uploadedContentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            String session = String.valueOf(exchange.getRequestHeaders().get(Constants.COOKIE));
+            uploadSessions.add(session);
+            if (failUploads) {
+                respond(exchange, 500, "");
+            } else if (rejectedSessions.contains(session)) {
+                respond(exchange, 401, "");
+            } else {
+                respond(exchange, 200, "{\"error\":false,\"data\":{\"size\":" + uploadedBody.length + "}}");
+            }
+        });
+        server.start();
+        mcUrl = "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testUploadStreamsTheAppBetweenTheMultipartBoundaries() throws Exception {
+        byte[] app = new byte[200 * 1024 + 17];
+        new Random(42).nextBytes(app);
+        File appFile = folder.newFile("app.apk");
+        Files.write(appFile.toPath(), app);
+
+        JSONObject response = JobConfigurationProxy.getInstance().upload(mcUrl, createAuthModel("user"), null, appFile.getAbsolutePath());
+
+        assertNotNull(response);
+        byte[] prefix = ("\r\n------" + Constants.BOUNDARYSTR + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"app.apk\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] suffix = ("\r\n------" + Constants.BOUNDARYSTR + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        assertEquals(String.valueOf(prefix.length + app.length + suffix.length), uploadedContentLength);
+        assertArrayEquals(prefix, Arrays.copyOfRange(uploadedBody, 0, prefix.length));
+        assertArrayEquals(app, Arrays.copyOfRange(uploadedBody, prefix.length, prefix.length + app.length));
+        assertArrayEquals(suffix, Arrays.copyOfRange(uploadedBody, prefix.length + app.length, uploadedBody.length));
+    }
+
+    @Test
+    public void testLoginIsReusedByUploadsWithTheSameCredentials() throws Exception {
+        String appPath = createApp();
+
+        assertNotNull(JobConfigurationProxy.getInstance().upload(mcUrl, createAuthModel("user"), null, appPath));
+        assertNotNull(JobConfigurationProxy.getInstance().upload(mcUrl, createAuthModel("user"), null, appPath));
+        assertEquals(1, logins.get());
+        assertEquals(uploadSessions.get(0), uploadSessions.get(1));
+
+        assertNotNull(JobConfigurationProxy.getInstance().upload(mcUrl, createAuthModel("other user"), null, appPath));
+        assertEquals(2, logins.get());
+    }
+
+    @Test
+    public void testRejectedSessionIsRenewedAndTheUploadRetriedOnce() throws Exception {
+        String appPath = createApp();
+        assertNotNull(JobConfigurationProxy.getInstance().upload(mcUrl, createAuthModel("user"), null, appPath));
+        rejectedSessions.add(uploadSessions.get(0));
+
+        assertNotNull(JobConfigurationProxy.getInstance().upload(mcUrl, createAuthModel("user"), null, appPath));
+        assertEquals(2, logins.get());
+        assertEquals(3, uploadSessions.size());
+        assertEquals(uploadSessions.get(0), uploadSessions.get(1));
+
+        //the renewed session is kept for the next upload
+        assertNotNull(JobConfigurationProxy.getInstance().upload(mcUrl, createAuthModel("user"), null, appPath));
+        assertEquals(2, logins.get());
+        assertEquals(uploadSessions.get(2), uploadSessions.get(3));
+    }
+
+    @Test
+    public void testFailedUploadDropsTheSession() throws Exception {
+        String appPath = createApp();
+        failUploads = true;
+        assertNull(JobConfigurationProxy.getInstance().upload(mcUrl, createAuthModel("user"), null, appPath));
+        assertEquals(1, uploadSessions.size());
+
+        failUploads = false;
+        assertNotNull(JobConfigurationProxy.getInstance().upload(mcUrl, createAuthModel("user"), null, appPath));
+        assertEquals(2, logins.get());
+    }
+
+    private String createApp() throws IOException {
+        File appFile = folder.newFile("app.ipa");
+        Files.write(appFile.toPath(), "app".getBytes(StandardCharsets.UTF_8));
+        return appFile.getAbsolutePath();
+    }
+
+    private static AuthModel createAuthModel(String userName) {
+        AuthModel authModel = mock(AuthModel.class);
+        when(authModel.getValue()).thenReturn("base");
+        when(authModel.getMcUserName()).thenReturn(userName);
+        when(authModel.getMcPassword()).thenReturn("password");
+        return authModel;
+    }
+
+    private static byte[] read(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+            }
+        }
+        return body.toByteArray();
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+}
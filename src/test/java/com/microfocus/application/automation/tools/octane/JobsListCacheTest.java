@@ -0,0 +1,124 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Items;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.StringParameterDefinition;
+import org.junit.Test;
+import org.jvnet.hudson.test.MockFolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class JobsListCacheTest extends OctanePluginTestBase {
+
+    @Test
+    public void testCreatedAndDeletedJobs() throws Exception {
+        String name = "jobs-list-" + UUID.randomUUID();
+        getEntries();
+
+        long version = JobsListCache.getInstance().getVersion();
+        FreeStyleProject job = rule.createFreeStyleProject(name);
+        assertTrue(JobsListCache.getInstance().getVersion() > version);
+        assertTrue(getEntries().containsKey(name));
+
+        version = JobsListCache.getInstance().getVersion();
+        job.delete();
+        assertTrue(JobsListCache.getInstance().getVersion() > version);
+        assertFalse(getEntries().containsKey(name));
+    }
+
+    @Test
+    public void testRenamedJob() throws Exception {
+        String name = "jobs-list-" + UUID.randomUUID();
+        FreeStyleProject job = rule.createFreeStyleProject(name);
+        assertTrue(getEntries().containsKey(name));
+
+        job.renameTo(name + "-renamed");
+
+        Map<String, JobsListCache.Entry> entries = getEntries();
+        assertFalse(entries.containsKey(name));
+        assertTrue(entries.containsKey(name + "-renamed"));
+        assertEquals(name + "-renamed", entries.get(name + "-renamed").getJobCiId());
+    }
+
+    @Test
+    public void testSavedJobIsReadAgain() throws Exception {
+        String name = "jobs-list-" + UUID.randomUUID();
+        FreeStyleProject job = rule.createFreeStyleProject(name);
+        JobsListCache.Entry entry = getEntries().get(name);
+        assertEquals(0, entry.getParameters(job).size());
+        assertSame(entry, getEntries().get(name));
+
+        job.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("ParamA", "a", "")));
+
+        JobsListCache.Entry changedEntry = getEntries().get(name);
+        assertNotSame(entry, changedEntry);
+        assertEquals(1, changedEntry.getParameters(job).size());
+    }
+
+    @Test
+    public void testJobMovedToAnotherFolder() throws Exception {
+        String folderName = "jobs-list-folder-" + UUID.randomUUID();
+        MockFolder folder = rule.createFolder(folderName);
+        FreeStyleProject job = rule.createFreeStyleProject(folderName + "-job");
+        assertTrue(getEntries().containsKey(folderName + "-job"));
+
+        Items.move(job, folder);
+
+        Map<String, JobsListCache.Entry> entries = getEntries();
+        assertFalse(entries.containsKey(folderName + "-job"));
+        assertTrue(entries.containsKey(folderName + "/" + folderName + "-job"));
+    }
+
+    @Test
+    public void testJobsOfADeletedFolder() throws Exception {
+        String folderName = "jobs-list-folder-" + UUID.randomUUID();
+        MockFolder folder = rule.createFolder(folderName);
+        folder.createProject(FreeStyleProject.class, "job");
+        assertTrue(getEntries().containsKey(folderName + "/job"));
+
+        folder.delete();
+
+        assertFalse(getEntries().containsKey(folderName + "/job"));
+    }
+
+    private static Map<String, JobsListCache.Entry> getEntries() {
+        Map<String, JobsListCache.Entry> entries = new HashMap<>();
+        for (JobsListCache.Entry entry : JobsListCache.getInstance().getEntries()) {
+            entries.put(entry.getName(), entry);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class SegmentedResultQueueImplTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testCodecRoundTrip() throws IOException {
+		ResultQueue.QueueItem item = new ResultQueue.QueueItem("folder/job", 42, 2, "ws");
+		item.setType("tests");
+		item.setInstanceId("instance");
+		item.setSendAfter(123L);
+
+		ResultQueue.QueueItem decoded = QueueItemCodec.decode(QueueItemCodec.encode(item));
+		assertEquals("folder/job", decoded.getProjectName());
+		assertEquals(42, decoded.getBuildNumber());
+		assertEquals(2, decoded.getFailCount());
+		assertEquals("ws", decoded.getWorkspace());
+		assertEquals("tests", decoded.getType());
+		assertEquals("instance", decoded.getInstanceId());
+		assertEquals(123L, decoded.getSendAfter());
+
+		decoded = QueueItemCodec.decode(QueueItemCodec.encode(new ResultQueue.QueueItem("job", 1)));
+		assertNull(decoded.getWorkspace());
+		assertNull(decoded.getType());
+		assertNull(decoded.getInstanceId());
+	}
+
+	@Test
+	public void testItemsArePersistedAcrossSegments() throws IOException {
+		File dir = tmp.newFolder();
+		TestQueue queue = new TestQueue(dir, 128);
+		for (int i = 0; i < 20; i++) {
+			queue.add("job", i);
+		}
+		assertEquals(20, queue.size());
+		assertEquals(0, queue.peekFirst().getBuildNumber());
+		queue.remove();
+		queue.close();
+
+		queue = new TestQueue(dir, 128);
+		assertEquals(19, queue.size());
+		for (int i = 1; i < 20; i++) {
+			assertEquals(i, queue.peekFirst().getBuildNumber());
+			queue.remove();
+		}
+		assertNull(queue.peekFirst());
+		queue.close();
+	}
+
+	@Test
+	public void testLanesAreServedInTurn() throws IOException {
+		TestQueue queue = new TestQueue(tmp.newFolder(), 1024);
+		queue.add("instance1", "job1", 1, null);
+		queue.add("instance1", "job1", 2, null);
+		queue.add("instance2", "job2", 1, null);
+
+		ResultQueue.QueueItem first = queue.peekFirst();
+		queue.remove();
+		ResultQueue.QueueItem second = queue.peekFirst();
+		queue.remove();
+		assertNotEquals(first.getInstanceId(), second.getInstanceId());
+		assertEquals(1, queue.size());
+		queue.close();
+	}
+
+	@Test
+	public void testFailedItemDoesNotBlockHead() throws IOException, InterruptedException {
+		TestQueue queue = new TestQueue(tmp.newFolder(), 1024);
+		queue.add("job", 1);
+		queue.add("job", 2);
+
+		assertEquals(1, queue.peekFirst().getBuildNumber());
+		assertTrue(queue.failed());
+		assertEquals(2, queue.peekFirst().getBuildNumber());
+		queue.remove();
+		assertNull(queue.peekFirst());
+		assertEquals(1, queue.size());
+
+		Thread.sleep(TestQueue.RETRY_DELAY * 2);
+		ResultQueue.QueueItem retried = queue.peekFirst();
+		assertEquals(1, retried.getBuildNumber());
+		assertEquals(1, retried.getFailCount());
+		assertTrue(queue.failed());
+		assertEquals(1, queue.size());
+		queue.close();
+	}
+
+	@Test
+	public void testRetriesAreLimited() throws IOException, InterruptedException {
+		TestQueue queue = new TestQueue(tmp.newFolder(), 1024);
+		queue.add("job", 1);
+		for (int i = 0; i < 3; i++) {
+			assertNotNull(waitForItem(queue));
+			assertTrue(queue.failed());
+		}
+		assertNotNull(waitForItem(queue));
+		assertFalse(queue.failed());
+		assertEquals(0, queue.size());
+		queue.close();
+	}
+
+	@Test
+	public void testPostponedItemWaitsForSendAfter() throws IOException {
+		TestQueue queue = new TestQueue(tmp.newFolder(), 1024);
+		ResultQueue.QueueItem postponed = new ResultQueue.QueueItem("job", 1);
+		postponed.setSendAfter(System.currentTimeMillis() + 60000);
+		queue.add(postponed);
+		queue.add("job", 2);
+
+		assertEquals(2, queue.peekFirst().getBuildNumber());
+		queue.remove();
+		assertNull(queue.peekFirst());
+		assertEquals(1, queue.size());
+		queue.close();
+	}
+
+	@Test
+	public void testInstancesAreConsumedIndependently() throws IOException {
+		TestQueue queue = new TestQueue(tmp.newFolder(), 1024);
+		queue.add("instance1", "job1", 1, null);
+		queue.add("instance1", "job1", 2, null);
+		queue.add("instance2", "job2", 1, null);
+		ResultQueue.QueueItem postponed = new ResultQueue.QueueItem("job2", 2, null);
+		postponed.setInstanceId("instance2");
+		postponed.setSendAfter(System.currentTimeMillis() + 60000);
+		queue.add(postponed);
+
+		assertEquals(new HashSet<>(Arrays.asList("instance1", "instance2")), queue.getDueInstanceIds());
+		assertEquals(1, queue.peekFirst("instance1").getBuildNumber());
+		assertEquals("job2", queue.peekFirst("instance2").getProjectName());
+		queue.remove("instance2");
+		assertNull(queue.peekFirst("instance2"));
+		assertEquals(1, queue.peekFirst("instance1").getBuildNumber());
+		queue.remove("instance1");
+		assertEquals(2, queue.peekFirst("instance1").getBuildNumber());
+		queue.remove("instance1");
+		assertNull(queue.peekFirst("instance1"));
+		assertTrue(queue.getDueInstanceIds().isEmpty());
+		assertEquals(1, queue.size());
+		queue.close();
+	}
+
+	@Test
+	public void testTornTailIsTruncated() throws IOException {
+		File dir = tmp.newFolder();
+		TestQueue queue = new TestQueue(dir, 1024);
+		queue.add("instance", "job", 1, null);
+		queue.add("instance", "job", 2, null);
+		queue.close();
+
+		File laneDir = new File(dir, SegmentedResultQueueImpl.laneName("instance", null));
+		File[] segments = laneDir.listFiles((d, name) -> name.endsWith(".seg"));
+		assertNotNull(segments);
+		try (RandomAccessFile segment = new RandomAccessFile(segments[0], "rw")) {
+			segment.setLength(segment.length() - 3);
+		}
+
+		queue = new TestQueue(dir, 1024);
+		assertEquals(1, queue.size());
+		assertEquals(1, queue.peekFirst().getBuildNumber());
+		queue.remove();
+		queue.add("instance", "job", 3, null);
+		assertEquals(3, queue.peekFirst().getBuildNumber());
+		queue.close();
+	}
+
+	private static ResultQueue.QueueItem waitForItem(TestQueue queue) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			ResultQueue.QueueItem item = queue.peekFirst();
+			if (item != null) {
+				return item;
+			}
+			Thread.sleep(TestQueue.RETRY_DELAY);
+		}
+		return null;
+	}
+
+	private static class TestQueue extends SegmentedResultQueueImpl {
+		private static final long RETRY_DELAY = 20;
+
+		private TestQueue(File dir, long segmentSize) throws IOException {
+			super(3, RETRY_DELAY, segmentSize, true);
+			init(dir);
+		}
+	}
+}
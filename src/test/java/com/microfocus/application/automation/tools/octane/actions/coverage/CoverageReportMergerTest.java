@@ -0,0 +1,93 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.actions.coverage;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class CoverageReportMergerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMergeJacoco() throws Exception {
+        File moduleA = write("a/jacoco.xml", jacocoReport("module-a", "s1", 2));
+        File moduleB = write("b/jacoco.xml", jacocoReport("module-b", "s2", 5));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CoverageReportMerger.mergeJacoco(Arrays.asList(moduleA, moduleB), out);
+        String merged = new String(out.toByteArray(), StandardCharsets.UTF_8);
+
+        assertTrue(merged.contains("<report name=\"merged\"><sessioninfo id=\"s1\" start=\"1\" dump=\"2\"/><sessioninfo id=\"s2\" start=\"1\" dump=\"2\"/><group name=\"module-a\">"));
+        assertTrue(merged.contains("</group><group name=\"module-b\"><package name=\"p\">"));
+        assertTrue(merged.endsWith("</group><counter type=\"LINE\" missed=\"2\" covered=\"7\"/><counter type=\"CLASS\" missed=\"0\" covered=\"2\"/></report>"));
+    }
+
+    @Test
+    public void testMergeLcov() throws Exception {
+        File moduleA = write("a/coverage/lcov.info", "TN:\r\nSF:a.js\r\nDA:1,1\r\nend_of_record\r\n\r\n");
+        File moduleB = write("b/coverage/lcov.info", "SF:b.js\nDA:2,0\n");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CoverageReportMerger.mergeLcov(Arrays.asList(moduleA, moduleB), out);
+
+        assertEquals("TN:\nSF:a.js\nDA:1,1\nend_of_record\nSF:b.js\nDA:2,0\nend_of_record\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private File write(String path, String content) throws IOException {
+        File file = new File(folder.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String jacocoReport(String name, String session, int covered) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<!DOCTYPE report PUBLIC \"-//JACOCO//DTD Report 1.1//EN\" \"report.dtd\">" +
+                "<report name=\"" + name + "\">" +
+                "<sessioninfo id=\"" + session + "\" start=\"1\" dump=\"2\"/>" +
+                "<package name=\"p\"><class name=\"p/A\"><counter type=\"LINE\" missed=\"1\" covered=\"" + covered + "\"/></class>" +
+                "<counter type=\"LINE\" missed=\"1\" covered=\"" + covered + "\"/></package>" +
+                "<counter type=\"LINE\" missed=\"1\" covered=\"" + covered + "\"/>" +
+                "<counter type=\"CLASS\" missed=\"0\" covered=\"1\"/>" +
+                "</report>";
+    }
+}
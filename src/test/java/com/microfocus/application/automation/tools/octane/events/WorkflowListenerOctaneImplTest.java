@@ -0,0 +1,191 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.hp.octane.integrations.dto.events.CIEvent;
+import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
+import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
+import hudson.model.TaskListener;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.cps.nodes.StepEndNode;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.graphanalysis.DepthFirstScanner;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class WorkflowListenerOctaneImplTest extends OctanePluginTestBase {
+
+	@Test
+	public void testStageEventsOfARunAreSentInOrderAndCoalesced() throws Exception {
+		WorkflowRun run = rule.buildAndAssertSuccess(createPipeline());
+		List<FlowNode> nodes = new DepthFirstScanner().allNodes(run.getExecution());
+		RecordingListener listener = new RecordingListener();
+
+		CountDownLatch release = blockLane(run);
+		listener.dispatch(getStageStart(nodes, "A"));
+		listener.dispatch(getStageEnd(nodes, "A"));
+		listener.dispatch(getStageStart(nodes, "B"));
+		listener.dispatch(getStageEnd(nodes, "B"));
+		release.countDown();
+
+		List<CIEvent> events = listener.await(4);
+		assertEquals("[STARTED:A, FINISHED:A, STARTED:B, FINISHED:B]", describe(events));
+		//both events of a stage that ended before its started event was sent share the causes computed once
+		assertSame(events.get(0).getCauses(), events.get(1).getCauses());
+		assertSame(events.get(2).getCauses(), events.get(3).getCauses());
+	}
+
+	@Test
+	public void testStageEndIsSentOnItsOwnOnceTheStartWasSent() throws Exception {
+		WorkflowRun run = rule.buildAndAssertSuccess(createPipeline());
+		List<FlowNode> nodes = new DepthFirstScanner().allNodes(run.getExecution());
+		RecordingListener listener = new RecordingListener();
+
+		listener.dispatch(getStageStart(nodes, "A"));
+		listener.await(1);
+		listener.dispatch(getStageEnd(nodes, "A"));
+
+		List<CIEvent> events = listener.await(2);
+		assertEquals("[STARTED:A, FINISHED:A]", describe(events));
+		assertNotSame(events.get(0).getCauses(), events.get(1).getCauses());
+		assertEquals(events.get(0).getCauses().size(), events.get(1).getCauses().size());
+	}
+
+	@Test
+	public void testBlockedRunDoesNotHoldOtherRuns() throws Exception {
+		WorkflowJob job = createPipeline();
+		WorkflowRun blockedRun = rule.buildAndAssertSuccess(job);
+		WorkflowRun otherRun = rule.buildAndAssertSuccess(job);
+		RecordingListener listener = new RecordingListener();
+
+		CountDownLatch release = blockLane(blockedRun);
+		listener.dispatch(getStageStart(new DepthFirstScanner().allNodes(blockedRun.getExecution()), "A"));
+		listener.dispatch(getStageStart(new DepthFirstScanner().allNodes(otherRun.getExecution()), "A"));
+
+		List<CIEvent> events = listener.await(1);
+		assertEquals(String.valueOf(otherRun.getNumber()), events.get(0).getNumber());
+
+		release.countDown();
+		events = listener.await(2);
+		assertEquals(String.valueOf(blockedRun.getNumber()), events.get(1).getNumber());
+	}
+
+	@Test
+	public void testStartedRunIsForgottenWhenCompletedOrDeleted() throws Exception {
+		WorkflowRun run = rule.buildAndAssertSuccess(createPipeline());
+		String key = run.getExternalizableId();
+
+		WorkflowListenerOctaneImpl.workflowJobStarted.add(key);
+		new WorkflowListenerOctaneImpl.RunListenerImpl().onCompleted(run, TaskListener.NULL);
+		assertFalse(WorkflowListenerOctaneImpl.workflowJobStarted.contains(key));
+
+		WorkflowListenerOctaneImpl.workflowJobStarted.add(key);
+		run.delete();
+		assertFalse(WorkflowListenerOctaneImpl.workflowJobStarted.contains(key));
+	}
+
+	private static WorkflowJob createPipeline() throws Exception {
+		WorkflowJob job = rule.jenkins.createProject(WorkflowJob.class, "workflow-events-" + UUID.randomUUID());
+		job.setDefinition(new CpsFlowDefinition("stage('A') { echo 'a' }\nstage('B') { echo 'b' }\n", true));
+		return job;
+	}
+
+	/**
+	 * @return latch that releases a task holding the lane of the run, so the next events of the run are pending
+	 */
+	private static CountDownLatch blockLane(WorkflowRun run) throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		WorkflowListenerOctaneImpl.enqueue(run.getExternalizableId(), () -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertTrue(started.await(30, TimeUnit.SECONDS));
+		return release;
+	}
+
+	private static FlowNode getStageStart(List<FlowNode> nodes, String stage) {
+		for (FlowNode node : nodes) {
+			if (BuildHandlerUtils.isStageStartNode(node) && stage.equals(node.getDisplayName())) {
+				return node;
+			}
+		}
+		throw new AssertionError("no start of stage " + stage);
+	}
+
+	private static FlowNode getStageEnd(List<FlowNode> nodes, String stage) {
+		FlowNode start = getStageStart(nodes, stage);
+		for (FlowNode node : nodes) {
+			if (node instanceof StepEndNode && ((StepEndNode) node).getStartNode() == start) {
+				return node;
+			}
+		}
+		throw new AssertionError("no end of stage " + stage);
+	}
+
+	private static String describe(List<CIEvent> events) {
+		List<String> descriptions = new ArrayList<>();
+		for (CIEvent event : events) {
+			descriptions.add(event.getEventType() + ":" + event.getProject());
+		}
+		return descriptions.toString();
+	}
+
+	private static final class RecordingListener extends WorkflowListenerOctaneImpl {
+		private final List<CIEvent> events = new ArrayList<>();
+
+		@Override
+		synchronized void publishEvent(CIEvent event) {
+			events.add(event);
+			notifyAll();
+		}
+
+		synchronized List<CIEvent> await(int count) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+			while (events.size() < count && System.currentTimeMillis() < deadline) {
+				wait(1000);
+			}
+			assertEquals(count, events.size());
+			return new ArrayList<>(events);
+		}
+	}
+}
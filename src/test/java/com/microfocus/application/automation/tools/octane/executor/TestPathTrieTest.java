@@ -0,0 +1,80 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.executor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestPathTrieTest {
+
+    private static final String SPLITTER = "\\";
+
+    @Test
+    public void testContainsTestPath() {
+        TestPathTrie trie = new TestPathTrie(SPLITTER);
+        trie.add("GUITests\\Login");
+        trie.add("Root");
+
+        assertTrue(trie.containsTestPath("GUITests\\Login"));
+        assertTrue(trie.containsTestPath("Repo\\GUITests\\Login\\Action1"));
+        assertTrue(trie.containsTestPath("Root\\Other"));
+        assertFalse(trie.containsTestPath("GUITests"));
+        assertFalse(trie.containsTestPath("GUITests\\Login2"));
+        assertFalse(trie.containsTestPath("Repo\\GUITests\\Logout"));
+    }
+
+    @Test(timeout = 10000)
+    public void testSyntheticTreeOf50kTests() {
+        TestPathTrie trie = new TestPathTrie(SPLITTER);
+        for (int i = 0; i < 50000; i++) {
+            trie.add(testPath(i));
+        }
+
+        List<String> dataTableParents = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            dataTableParents.add(i % 2 == 0 ? testPath(i) + "\\Action1" : "DataTables\\area" + (i % 50) + "\\module" + (i % 1000));
+        }
+
+        int falsePositives = 0;
+        for (String parent : dataTableParents) {
+            if (trie.containsTestPath(parent)) {
+                falsePositives++;
+            }
+        }
+        assertEquals(25000, falsePositives);
+    }
+
+    private static String testPath(int i) {
+        return "GUITests\\area" + (i % 50) + "\\module" + (i % 1000) + "\\test" + i;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model;
+
+import com.hp.octane.integrations.dto.causes.CIEventCause;
+import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
+import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
+import org.jenkinsci.plugins.workflow.actions.ArgumentsAction;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.cps.nodes.StepAtomNode;
+import org.jenkinsci.plugins.workflow.cps.nodes.StepEndNode;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.graphanalysis.DepthFirstScanner;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class CIEventCausesFactoryTest extends OctanePluginTestBase {
+
+    @Test
+    public void testFlowCausesMatchTheWalkOfTheFlowGraph() throws Exception {
+        WorkflowJob job = rule.jenkins.createProject(WorkflowJob.class, "flow-causes-" + UUID.randomUUID());
+        job.setDefinition(new CpsFlowDefinition(
+                "stage('A') { echo 'a' }\n" +
+                "stage('B') { stage('B1') { echo 'b1' } }\n" +
+                "stage('C') { parallel one: { stage('C1') { echo 'c1' } }, two: { stage('C2') { echo 'c2' } } }\n" +
+                "stage('D') { echo 'd' }\n", true));
+        WorkflowRun run = rule.buildAndAssertSuccess(job);
+        List<FlowNode> nodes = new DepthFirstScanner().allNodes(run.getExecution());
+
+        for (String stage : new String[]{"A", "B", "B1", "C", "C1", "C2"}) {
+            assertSameCauses(getStageStart(nodes, stage));
+        }
+        for (String stage : new String[]{"A", "B", "B1", "C1", "C2"}) {
+            assertSameCauses(getStageEnd(nodes, stage));
+        }
+        for (String message : new String[]{"a", "b1", "c1", "c2"}) {
+            assertSameCauses(getEcho(nodes, message));
+        }
+
+        //the walk may count the stage of a parallel branch again once the branches joined, so these are checked as is
+        String root = describe(CIEventCausesFactory.walkCauses(getStageStart(nodes, "A")));
+        assertEquals(root, describe(CIEventCausesFactory.processCauses(getStageEnd(nodes, "C"))));
+        assertEquals(root, describe(CIEventCausesFactory.processCauses(getStageStart(nodes, "D"))));
+        assertEquals("[UPSTREAM:D:" + run.getNumber() + root + "]",
+                describe(CIEventCausesFactory.processCauses(getEcho(nodes, "d"))));
+    }
+
+    private static void assertSameCauses(FlowNode node) {
+        assertEquals(node.getDisplayName(), describe(CIEventCausesFactory.walkCauses(node)),
+                describe(CIEventCausesFactory.processCauses(node)));
+    }
+
+    private static FlowNode getStageStart(List<FlowNode> nodes, String stage) {
+        for (FlowNode node : nodes) {
+            if (BuildHandlerUtils.isStageStartNode(node) && stage.equals(node.getDisplayName())) {
+                return node;
+            }
+        }
+        throw new AssertionError("no start of stage " + stage);
+    }
+
+    private static FlowNode getStageEnd(List<FlowNode> nodes, String stage) {
+        FlowNode start = getStageStart(nodes, stage);
+        for (FlowNode node : nodes) {
+            if (node instanceof StepEndNode && ((StepEndNode) node).getStartNode() == start) {
+                return node;
+            }
+        }
+        throw new AssertionError("no end of stage " + stage);
+    }
+
+    private static FlowNode getEcho(List<FlowNode> nodes, String message) {
+        for (FlowNode node : nodes) {
+            if (node instanceof StepAtomNode && message.equals(ArgumentsAction.getStepArgumentsAsString(node))) {
+                return node;
+            }
+        }
+        throw new AssertionError("no echo of " + message);
+    }
+
+    private static String describe(List<CIEventCause> causes) {
+        StringBuilder builder = new StringBuilder("[");
+        for (CIEventCause cause : causes) {
+            builder.append(cause.getType()).append(':').append(cause.getProject()).append(':').append(cause.getBuildCiId())
+                    .append(describe(cause.getCauses()));
+        }
+        return builder.append(']').toString();
+    }
+}
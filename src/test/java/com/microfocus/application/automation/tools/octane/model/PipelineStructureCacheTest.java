@@ -0,0 +1,111 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+package com.microfocus.application.automation.tools.octane.model;
+
+import com.hp.octane.integrations.dto.pipelines.PipelineNode;
+import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Result;
+import hudson.model.StringParameterDefinition;
+import hudson.tasks.BuildTrigger;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class PipelineStructureCacheTest extends OctanePluginTestBase {
+
+    @Test
+    public void testChangeOfDownstreamJobInvalidatesOnlyItsPipelines() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        FreeStyleProject upstream = rule.createFreeStyleProject("upstream-" + suffix);
+        FreeStyleProject downstream = rule.createFreeStyleProject("downstream-" + suffix);
+        FreeStyleProject other = rule.createFreeStyleProject("other-" + suffix);
+        upstream.getPublishersList().add(new BuildTrigger(downstream.getName(), Result.SUCCESS));
+
+        PipelineNode pipeline = ModelFactory.createStructureItem(upstream);
+        ModelFactory.createStructureItem(other);
+        assertTrue(PipelineStructureCache.isCached(upstream));
+        assertTrue(PipelineStructureCache.isCached(downstream));
+        assertTrue(PipelineStructureCache.isCached(other));
+        assertEquals(0, pipeline.getPhasesPostBuild().get(0).getJobs().get(0).getParameters().size());
+
+        downstream.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("ParamA", "a", "")));
+
+        assertFalse(PipelineStructureCache.isCached(upstream));
+        assertFalse(PipelineStructureCache.isCached(downstream));
+        assertTrue(PipelineStructureCache.isCached(other));
+        PipelineNode changedPipeline = ModelFactory.createStructureItem(upstream);
+        assertEquals(1, changedPipeline.getPhasesPostBuild().get(0).getJobs().get(0).getParameters().size());
+    }
+
+    @Test
+    public void testChangesOfAReturnedStructureDoNotReachTheCache() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        FreeStyleProject upstream = rule.createFreeStyleProject("copied-upstream-" + suffix);
+        FreeStyleProject downstream = rule.createFreeStyleProject("copied-downstream-" + suffix);
+        upstream.getPublishersList().add(new BuildTrigger(downstream.getName(), Result.SUCCESS));
+
+        PipelineNode pipeline = ModelFactory.createStructureItem(upstream);
+        String name = pipeline.getName();
+        pipeline.setName("changed");
+        pipeline.getPhasesPostBuild().get(0).getJobs().get(0).setName("changed");
+        pipeline.getPhasesPostBuild().get(0).getJobs().clear();
+        assertTrue(PipelineStructureCache.isCached(upstream));
+
+        PipelineNode cachedPipeline = ModelFactory.createStructureItem(upstream);
+        assertNotSame(pipeline, cachedPipeline);
+        assertEquals(name, cachedPipeline.getName());
+        assertEquals(1, cachedPipeline.getPhasesPostBuild().get(0).getJobs().size());
+        assertEquals(downstream.getName(), cachedPipeline.getPhasesPostBuild().get(0).getJobs().get(0).getJobCiId());
+        assertEquals(ModelFactory.createStructureItem(downstream).getName(),
+                cachedPipeline.getPhasesPostBuild().get(0).getJobs().get(0).getName());
+    }
+
+    @Test
+    public void testCircularPipelineIsNotCached() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        FreeStyleProject jobA = rule.createFreeStyleProject("circular-a-" + suffix);
+        FreeStyleProject jobB = rule.createFreeStyleProject("circular-b-" + suffix);
+        jobA.getPublishersList().add(new BuildTrigger(jobB.getName(), Result.SUCCESS));
+        jobB.getPublishersList().add(new BuildTrigger(jobA.getName(), Result.SUCCESS));
+
+        PipelineNode pipelineB = ModelFactory.createStructureItem(jobB);
+        PipelineNode pipelineA = ModelFactory.createStructureItem(jobA);
+
+        //B reached from A doesn't trigger A again, while B as a root does
+        PipelineNode nestedB = pipelineA.getPhasesPostBuild().get(0).getJobs().get(0);
+        assertEquals(jobB.getName(), nestedB.getJobCiId());
+        assertTrue(nestedB.getPhasesPostBuild().get(0).getJobs().isEmpty());
+        assertEquals(1, pipelineB.getPhasesPostBuild().get(0).getJobs().size());
+        assertFalse(PipelineStructureCache.isCached(jobA));
+        assertFalse(PipelineStructureCache.isCached(jobB));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.projects;
+
+import com.hp.octane.integrations.utils.SdkConstants;
+import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersAction;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.StringParameterDefinition;
+import hudson.model.StringParameterValue;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class BuildParameterIndexTest extends OctanePluginTestBase {
+    private static final String SUITE_RUN_ID = SdkConstants.JobParameters.SUITE_RUN_ID_PARAMETER_NAME;
+
+    @Test
+    public void testLookupIndexesBuildsOnceAndFindsLatestBuild() throws Exception {
+        FreeStyleProject job = createJob();
+        build(job, "100");
+        FreeStyleBuild second = build(job, "200");
+        FreeStyleBuild third = build(job, "100");
+        //the job has no index yet, the builds are indexed on the first lookup
+        assertFalse(getIndexFile(job).exists());
+
+        assertSame(third, BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "100"));
+        assertSame(second, BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "200"));
+        assertNull(BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "300"));
+        assertNull(BuildParameterIndex.findBuild(job, SUITE_RUN_ID, ""));
+
+        Properties index = readIndex(job);
+        assertEquals("3", index.getProperty(SUITE_RUN_ID + ":100"));
+        assertEquals("2", index.getProperty(SUITE_RUN_ID + ":200"));
+        assertEquals("3", index.getProperty("lastIndexedBuild"));
+    }
+
+    @Test
+    public void testNewAndDeletedBuildsUpdateTheIndex() throws Exception {
+        FreeStyleProject job = createJob();
+        FreeStyleBuild first = build(job, "100");
+        assertSame(first, BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "100"));
+
+        FreeStyleBuild second = build(job, "200");
+        assertEquals("2", readIndex(job).getProperty(SUITE_RUN_ID + ":200"));
+        assertSame(second, BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "200"));
+
+        second.delete();
+        assertNull(BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "200"));
+        assertNull(readIndex(job).getProperty(SUITE_RUN_ID + ":200"));
+        assertSame(first, BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "100"));
+    }
+
+    @Test
+    public void testDeletedBuildFallsBackToOlderBuildWithTheSameValue() throws Exception {
+        FreeStyleProject job = createJob();
+        FreeStyleBuild first = build(job, "100");
+        FreeStyleBuild second = build(job, "100");
+        assertSame(second, BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "100"));
+
+        second.delete();
+
+        assertSame(first, BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "100"));
+        assertEquals("1", readIndex(job).getProperty(SUITE_RUN_ID + ":100"));
+    }
+
+    @Test
+    public void testIndexFollowsRenamedJob() throws Exception {
+        FreeStyleProject job = createJob();
+        build(job, "100");
+        assertNotNull(BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "100"));
+
+        job.renameTo("renamed-" + UUID.randomUUID());
+        FreeStyleBuild second = build(job, "200");
+
+        assertEquals("2", readIndex(job).getProperty(SUITE_RUN_ID + ":200"));
+        assertSame(second, BuildParameterIndex.findBuild(job, SUITE_RUN_ID, "200"));
+    }
+
+    private static FreeStyleProject createJob() throws Exception {
+        FreeStyleProject job = rule.createFreeStyleProject("index-" + UUID.randomUUID());
+        job.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition(SUITE_RUN_ID, "", "")));
+        return job;
+    }
+
+    private static FreeStyleBuild build(FreeStyleProject job, String suiteRunId) throws Exception {
+        return rule.assertBuildStatusSuccess(
+                job.scheduleBuild2(0, new ParametersAction(new StringParameterValue(SUITE_RUN_ID, suiteRunId))));
+    }
+
+    private static File getIndexFile(FreeStyleProject job) {
+        return new File(job.getRootDir(), "octane-parameters-index.properties");
+    }
+
+    private static Properties readIndex(FreeStyleProject job) throws Exception {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(getIndexFile(job))) {
+            properties.load(in);
+        }
+        return properties;
+    }
+}
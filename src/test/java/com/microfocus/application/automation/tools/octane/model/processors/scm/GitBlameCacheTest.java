@@ -0,0 +1,208 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.blame.BlameResult;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+public class GitBlameCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Git git;
+	private Repository repo;
+	private ExecutorService executor;
+	private final Set<String> files = new LinkedHashSet<>(Arrays.asList("a.txt", "b.txt", "dir/c.txt", "missing.txt"));
+
+	@Before
+	public void setUp() throws Exception {
+		git = Git.init().setDirectory(folder.getRoot()).call();
+		repo = git.getRepository();
+		executor = Executors.newFixedThreadPool(4);
+
+		write("a.txt", "a1", "a2", "a3", "a4", "a5");
+		write("b.txt", "b1", "b2", "b3");
+		write("dir/c.txt", "c1", "c2", "c3", "c4");
+		commit("first", "alice");
+		write("a.txt", "a1", "a2 changed", "a3", "a4", "a5", "a6");
+		write("dir/c.txt", "c0", "c1", "c2", "c3", "c4");
+		commit("second", "bob");
+		write("a.txt", "a1", "a2 changed", "a3", "a4 changed", "a5", "a6");
+		commit("third", "carol");
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+		repo.close();
+		git.close();
+	}
+
+	@Test
+	public void testParallelBlameMatchesTheSerialBlame() throws Exception {
+		Map<String, String> expected = blameSerially();
+		assertEquals(3, expected.size());
+
+		assertEquals(expected, describe(GitSCMProcessor.blameFiles(repo, files, executor)));
+		//served from the cache saved by the first blame
+		assertEquals(expected, describe(GitSCMProcessor.blameFiles(repo, files, executor)));
+	}
+
+	@Test
+	public void testUnchangedFilesAreServedFromTheCache() throws Exception {
+		GitSCMProcessor.blameFiles(repo, files, executor);
+		fakeCachedBlame("a.txt");
+		fakeCachedBlame("b.txt");
+
+		Map<String, String> blames = describe(GitSCMProcessor.blameFiles(repo, files, executor));
+		assertEquals("fake:1-2", blames.get("a.txt"));
+		assertEquals("fake:1-2", blames.get("b.txt"));
+	}
+
+	@Test
+	public void testFileChangedByANewCommitIsBlamedAgain() throws Exception {
+		GitSCMProcessor.blameFiles(repo, files, executor);
+		fakeCachedBlame("a.txt");
+		fakeCachedBlame("b.txt");
+
+		write("a.txt", "a1 changed", "a2 changed", "a3", "a4 changed", "a5", "a6");
+		commit("fourth", "dave");
+
+		Map<String, String> blames = describe(GitSCMProcessor.blameFiles(repo, files, executor));
+		assertEquals(blameSerially().get("a.txt"), blames.get("a.txt"));
+		assertNotEquals("fake:1-2", blames.get("a.txt"));
+		assertEquals("fake:1-2", blames.get("b.txt"));
+	}
+
+	@Test
+	public void testCacheIsPersistedAndKeyedByBlob() throws Exception {
+		ObjectId blobId = getBlobId("b.txt");
+		GitBlameCache cache = GitBlameCache.load(repo.getDirectory());
+		cache.put("b.txt", blobId, Collections.singletonList(new GitBlameCache.BlameRange("rev", 1, 3)));
+		cache.save();
+
+		GitBlameCache loaded = GitBlameCache.load(repo.getDirectory());
+		assertEquals("rev:1-3", describe(loaded.get("b.txt", blobId)));
+		assertNull(loaded.get("b.txt", getBlobId("a.txt")));
+		assertNull(loaded.get("a.txt", blobId));
+	}
+
+	@Test
+	public void testUnreadableCacheIsRebuilt() throws Exception {
+		Files.write(new File(repo.getDirectory(), "octane-blame-cache").toPath(), new byte[]{0, 0, 0, 1, 0, 0, 0, 9, 1});
+
+		assertNull(GitBlameCache.load(repo.getDirectory()).get("a.txt", getBlobId("a.txt")));
+		assertEquals(blameSerially(), describe(GitSCMProcessor.blameFiles(repo, files, executor)));
+	}
+
+	private void fakeCachedBlame(String filePath) throws IOException {
+		GitBlameCache cache = GitBlameCache.load(repo.getDirectory());
+		cache.put(filePath, getBlobId(filePath), Collections.singletonList(new GitBlameCache.BlameRange("fake", 1, 2)));
+		cache.save();
+	}
+
+	/**
+	 * the blame of each file one after the other, without the cache
+	 */
+	private Map<String, String> blameSerially() throws Exception {
+		Map<String, String> blames = new LinkedHashMap<>();
+		ObjectId head = repo.resolve(Constants.HEAD);
+		for (String filePath : files) {
+			BlameResult blameResult = git.blame().setStartCommit(head).setFilePath(filePath).call();
+			if (blameResult != null) {
+				blames.put(filePath, describe(GitSCMProcessor.getBlameRanges(blameResult)));
+			}
+		}
+		return blames;
+	}
+
+	private ObjectId getBlobId(String filePath) throws IOException {
+		try (RevWalk rw = new RevWalk(repo);
+		     TreeWalk tw = TreeWalk.forPath(repo, filePath, rw.parseCommit(repo.resolve(Constants.HEAD)).getTree())) {
+			return tw.getObjectId(0);
+		}
+	}
+
+	private void write(String filePath, String... lines) throws IOException {
+		File file = new File(folder.getRoot(), filePath);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void commit(String message, String author) throws Exception {
+		git.add().addFilepattern(".").call();
+		git.commit().setMessage(message).setAuthor(author, author + "@example.com").call();
+	}
+
+	private static Map<String, String> describe(Map<String, List<GitBlameCache.BlameRange>> blames) {
+		Map<String, String> descriptions = new LinkedHashMap<>();
+		for (Map.Entry<String, List<GitBlameCache.BlameRange>> blame : blames.entrySet()) {
+			descriptions.put(blame.getKey(), describe(blame.getValue()));
+		}
+		return descriptions;
+	}
+
+	private static String describe(List<GitBlameCache.BlameRange> ranges) {
+		List<String> descriptions = new ArrayList<>();
+		for (GitBlameCache.BlameRange range : ranges) {
+			descriptions.add(range.revision + ":" + range.start + "-" + range.end);
+		}
+		return String.join(",", descriptions);
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.hp.octane.integrations.testresults.XmlWritableTestResult;
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AgentFallbackIteratorTest {
+
+    @Test
+    public void testFailureOnControllerContinuesFromAgent() {
+        Iterator<XmlWritableTestResult> controller = failingAfter(2, new IOException("report truncated"));
+        JUnitExtension.AgentFallbackIterator iterator = new JUnitExtension.AgentFallbackIterator(controller,
+                () -> results("test1", "test2", "test3", "test4").iterator());
+
+        List<String> names = new ArrayList<>();
+        while (iterator.hasNext()) {
+            names.add(((JUnitTestResult) iterator.next()).getTestName());
+        }
+
+        assertEquals(Arrays.asList("test1", "test2", "test3", "test4"), names);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMalformedReportIsNotRetried() {
+        Iterator<XmlWritableTestResult> controller = failingAfter(1, new XMLStreamException("malformed"));
+        JUnitExtension.AgentFallbackIterator iterator = new JUnitExtension.AgentFallbackIterator(controller, () -> {
+            fail("agent should not be used");
+            return null;
+        });
+
+        iterator.next();
+        iterator.hasNext();
+    }
+
+    private static List<XmlWritableTestResult> results(String... names) {
+        List<XmlWritableTestResult> results = new ArrayList<>();
+        for (String name : names) {
+            results.add(new JUnitTestResult("", "com.example", "AppTest", name, TestResultStatus.PASSED,
+                    1, 1000, null, null, null, null, null, null, false));
+        }
+        return results;
+    }
+
+    private static Iterator<XmlWritableTestResult> failingAfter(int count, Exception failure) {
+        Iterator<XmlWritableTestResult> results = results("test1", "test2", "test3", "test4").iterator();
+        return new Iterator<XmlWritableTestResult>() {
+            private int returned;
+
+            @Override
+            public boolean hasNext() {
+                if (returned >= count) {
+                    throw new IllegalStateException(failure);
+                }
+                return results.hasNext();
+            }
+
+            @Override
+            public XmlWritableTestResult next() {
+                if (!hasNext()) {
+                    throw new IllegalStateException();
+                }
+                returned++;
+                return results.next();
+            }
+        };
+    }
+}
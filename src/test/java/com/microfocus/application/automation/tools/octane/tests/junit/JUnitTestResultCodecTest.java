@@ -0,0 +1,93 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.microfocus.application.automation.tools.octane.tests.HPRunnerType;
+import com.microfocus.application.automation.tools.octane.tests.impl.RecordStreamIterator;
+import hudson.FilePath;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.*;
+
+public class JUnitTestResultCodecTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testRecordsRoundTrip() throws Exception {
+        File file = tmp.newFile("records.bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            JUnitTestResultCodec.write(out, new JUnitTestResult("module", "com.example", "AppTest", "testFailed", TestResultStatus.FAILED,
+                    12, 1000, new TestError("stack", "java.lang.AssertionError", "boom"), "http://report", "description",
+                    HPRunnerType.UFT, "run-1", null, true));
+            JUnitTestResult passed = new JUnitTestResult("", null, "AppTest", "testPassed", TestResultStatus.PASSED,
+                    3, 1001, null, null, null, null, null, null, false);
+            for (int i = 0; i < 100; i++) {
+                JUnitTestResultCodec.write(out, passed);
+            }
+        }
+
+        RecordStreamIterator<JUnitTestResult> iterator = new RecordStreamIterator<>(new FilePath(file), JUnitTestResultCodec::decode);
+        JUnitTestResult failed = iterator.next();
+        assertEquals("module", failed.getModuleName());
+        assertEquals("com.example", failed.getPackageName());
+        assertEquals("AppTest", failed.getClassName());
+        assertEquals("testFailed", failed.getTestName());
+        assertEquals(TestResultStatus.FAILED, failed.getResult());
+        assertEquals(12, failed.getDuration());
+        assertEquals(1000, failed.getStarted());
+        assertEquals("stack", failed.getTestError().getStackTraceStr());
+        assertEquals("java.lang.AssertionError", failed.getTestError().getErrorType());
+        assertEquals("boom", failed.getTestError().getErrorMsg());
+        assertEquals("http://report", failed.getExternalReportUrl());
+        assertEquals("description", failed.getDescription());
+        assertEquals(HPRunnerType.UFT, failed.getRunnerType());
+        assertEquals("run-1", failed.getExternalRunId());
+        assertTrue(failed.isOctaneSupportsSteps());
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            JUnitTestResult passed = iterator.next();
+            assertNull(passed.getPackageName());
+            assertNull(passed.getTestError());
+            assertNull(passed.getRunnerType());
+            assertEquals(TestResultStatus.PASSED, passed.getResult());
+            count++;
+        }
+        assertEquals(100, count);
+    }
+}
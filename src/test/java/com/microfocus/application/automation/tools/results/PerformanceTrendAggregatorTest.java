@@ -0,0 +1,101 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrJobResults;
+import com.microfocus.application.automation.tools.results.projectparser.performance.ProjectLrResults;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PerformanceTrendAggregatorTest {
+
+    @Test
+    public void interleavedScenariosKeepTheirOwnWindow() {
+        PerformanceTrendAggregator.ScenarioWindows windows = new PerformanceTrendAggregator.ScenarioWindows();
+        TreeMap<Integer, LrJobResults> window = new TreeMap<Integer, LrJobResults>();
+        //scenario A runs on odd builds, scenario B on even builds
+        for (int runNumber = 1; runNumber <= 60; runNumber++) {
+            addBuild(windows, window, runNumber, runNumber % 2 == 1 ? "A" : "B");
+        }
+
+        assertEquals(2 * PerformanceTrendAggregator.SCENARIO_WINDOW, window.size());
+        assertEquals(window.keySet(), windows.getBuilds());
+
+        ProjectLrResults result = PerformanceTrendAggregator.fold(window);
+        assertEquals(expectedBuilds(19, 59), new ArrayList<Integer>(
+                result.getScenarioResults().get("A").getDurationData().keySet()));
+        assertEquals(expectedBuilds(20, 60), new ArrayList<Integer>(
+                result.getScenarioResults().get("B").getDurationData().keySet()));
+    }
+
+    @Test
+    public void buildStaysWhileAnyScenarioHoldsIt() {
+        PerformanceTrendAggregator.ScenarioWindows windows = new PerformanceTrendAggregator.ScenarioWindows();
+        TreeMap<Integer, LrJobResults> window = new TreeMap<Integer, LrJobResults>();
+        addBuild(windows, window, 1, "A", "B");
+        for (int runNumber = 2; runNumber <= 40; runNumber++) {
+            addBuild(windows, window, runNumber, "A");
+        }
+
+        assertTrue(windows.contains(1));
+        assertFalse(windows.contains(2));
+        ProjectLrResults result = PerformanceTrendAggregator.fold(window);
+        assertEquals(PerformanceTrendAggregator.SCENARIO_WINDOW, result.getScenarioResults().get("A").getBuildCount());
+        assertFalse(result.getScenarioResults().get("A").getDurationData().containsKey(1));
+        assertTrue(result.getScenarioResults().get("B").getDurationData().containsKey(1));
+    }
+
+    private static void addBuild(PerformanceTrendAggregator.ScenarioWindows windows,
+                                 TreeMap<Integer, LrJobResults> window, int runNumber, String... scenarios) {
+        LrJobResults jobResults = new LrJobResults();
+        for (String scenario : scenarios) {
+            JobLrScenarioResult scenarioResult = new JobLrScenarioResult(scenario);
+            scenarioResult.setScenarioDuration(runNumber);
+            jobResults.addScenario(scenarioResult);
+        }
+        window.put(runNumber, jobResults);
+        window.keySet().removeAll(windows.add(runNumber, jobResults.getLrScenarioResults().keySet()));
+    }
+
+    private static List<Integer> expectedBuilds(int first, int last) {
+        List<Integer> builds = new ArrayList<Integer>();
+        for (int runNumber = first; runNumber <= last; runNumber += 2) {
+            builds.add(runNumber);
+        }
+        return builds;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReportFolderTransferTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFoldersAreZippedInTheBackground() throws Exception {
+		RecordingListener listener = new RecordingListener();
+		List<File> targets = new ArrayList<>();
+		try (ReportFolderTransfer transfer = new ReportFolderTransfer(listener)) {
+			for (int i = 0; i < 3; i++) {
+				File target = new File(folder.getRoot(), "Report" + i + ".zip");
+				targets.add(target);
+				transfer.zipToAsync(new FilePath(createReport("Report" + i)), new FilePath(target));
+			}
+			transfer.awaitAll();
+		}
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(getExpectedEntries("Report" + i), readZip(targets.get(i)));
+		}
+		assertEquals(3, listener.threads.size());
+		for (String thread : listener.threads) {
+			assertTrue(thread, thread.startsWith("Report folder transfer-") && thread.endsWith("daemon"));
+		}
+	}
+
+	@Test
+	public void testFailureIsRethrownAfterTheEarlierTransfers() throws Exception {
+		File target = new File(folder.getRoot(), "Report.zip");
+		try (ReportFolderTransfer transfer = new ReportFolderTransfer(new RecordingListener())) {
+			transfer.zipToAsync(new FilePath(createReport("Report")), new FilePath(target));
+			transfer.zipToAsync(new FilePath(new File(folder.getRoot(), "Missing")),
+					new FilePath(new File(folder.getRoot(), "Missing.zip")));
+			try {
+				transfer.awaitAll();
+				fail("the missing report folder should fail its transfer");
+			} catch (IOException e) {
+				// expected
+			}
+		}
+
+		assertEquals(getExpectedEntries("Report"), readZip(target));
+	}
+
+	private File createReport(String name) throws IOException {
+		File report = new File(folder.getRoot(), name);
+		File sub = new File(report, "sub");
+		assertTrue(sub.mkdirs());
+		Files.write(new File(report, "run_results.html").toPath(), ("<html>" + name + "</html>").getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(sub, "data.xml").toPath(), ("<data>" + name + "</data>").getBytes(StandardCharsets.UTF_8));
+		return report;
+	}
+
+	private static Map<String, String> getExpectedEntries(String name) {
+		Map<String, String> entries = new TreeMap<>();
+		entries.put(name + "/", "");
+		entries.put(name + "/run_results.html", "<html>" + name + "</html>");
+		entries.put(name + "/sub/", "");
+		entries.put(name + "/sub/data.xml", "<data>" + name + "</data>");
+		return entries;
+	}
+
+	private static Map<String, String> readZip(File zipFile) throws IOException {
+		Map<String, String> entries = new TreeMap<>();
+		try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(zipFile.toPath()))) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				entries.put(entry.getName(), read(zip));
+			}
+		}
+		return entries;
+	}
+
+	private static String read(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * records the threads that report the transfers
+	 */
+	private static final class RecordingListener implements TaskListener {
+		private static final long serialVersionUID = 1L;
+		private final transient List<String> threads = Collections.synchronizedList(new ArrayList<>());
+		private final transient PrintStream logger = new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+				// the lines are not needed
+			}
+		}) {
+			@Override
+			public void println(String line) {
+				Thread thread = Thread.currentThread();
+				threads.add(thread.getName() + (thread.isDaemon() ? " daemon" : ""));
+			}
+		};
+
+		@Override
+		public PrintStream getLogger() {
+			return logger;
+		}
+	}
+}
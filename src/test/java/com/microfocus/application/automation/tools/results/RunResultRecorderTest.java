@@ -28,8 +28,13 @@
 
 package com.microfocus.application.automation.tools.results;
 
+import com.microfocus.application.automation.tools.results.projectparser.performance.GoalResult;
 import com.microfocus.application.automation.tools.results.projectparser.performance.JobLrScenarioResult;
 import com.microfocus.application.automation.tools.results.projectparser.performance.LrJobResults;
+import com.microfocus.application.automation.tools.results.projectparser.performance.LrTest;
+import com.microfocus.application.automation.tools.results.projectparser.performance.PercentileTransactionWholeRun;
+import com.microfocus.application.automation.tools.results.projectparser.performance.TimeRangeResult;
+import com.microfocus.application.automation.tools.results.projectparser.performance.WholeRunResult;
 import com.microfocus.application.automation.tools.model.ResultsPublisherModel;
 import hudson.FilePath;
 import org.junit.After;
@@ -442,6 +447,39 @@ public void testParseScenarioResults() throws Exception {
 
 } 
 
+@Test
+public void testParseScenarioSlaResults() throws Exception {
+	RunResultRecorder runResultRecorder = new RunResultRecorder(ResultsPublisherModel.CreateHtmlReportResults.getValue());
+	FilePath runReportPath = new FilePath(new File(getClass().getResource("RunReport.xml").getPath()));
+	Method method = runResultRecorder.getClass().getDeclaredMethod("parseScenarioResults", FilePath.class);
+	method.setAccessible(true);
+	JobLrScenarioResult result = (JobLrScenarioResult) method.invoke(runResultRecorder, runReportPath);
+
+	assertEquals("RunReport", result.getScenarioName());
+	assertEquals(94560, result.getScenarioDuration());
+	assertEquals(1272, result.getConnectionMax());
+	assertEquals(Integer.valueOf(11000), result.transactionSum.get("Count"));
+	assertEquals(11, result.transactionData.size());
+	assertEquals(Integer.valueOf(299), result.transactionData.get("transTes_0").get("Fail"));
+
+	assertEquals(10, result.scenarioSlaResults.size());
+	GoalResult totalHits = result.scenarioSlaResults.get(0);
+	assertEquals(LrTest.SLA_STATUS.Passed, totalHits.getStatus());
+	assertEquals(22000, ((WholeRunResult) totalHits).getActualValue(), 0);
+
+	PercentileTransactionWholeRun percentile = (PercentileTransactionWholeRun) result.scenarioSlaResults.get(4);
+	assertEquals("CGI", percentile.getName());
+	assertEquals(90, percentile.getPrecentage(), 0);
+	assertEquals(LrTest.SLA_STATUS.Failed, percentile.getStatus());
+
+	TimeRangeResult errorsPerSecond = (TimeRangeResult) result.scenarioSlaResults.get(9);
+	assertEquals(LrTest.SLA_STATUS.Failed, errorsPerSecond.getStatus());
+	assertEquals("RunningVusers", errorsPerSecond.getLoadThrashold());
+	assertEquals(38, errorsPerSecond.getTimeRanges().size());
+	assertEquals(LrTest.SLA_STATUS.Passed, errorsPerSecond.getTimeRanges().get(0).getSlaStatus());
+	assertEquals(49, errorsPerSecond.getTimeRanges().get(0).getLoadAmount());
+}
+
 /** 
 * 
 * Method: processScenarioStats(JobLrScenarioResult jobLrScenarioResult, Document doc) 
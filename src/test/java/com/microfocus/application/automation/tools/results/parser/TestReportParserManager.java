@@ -0,0 +1,71 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.parser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.microfocus.application.automation.tools.results.parser.antjunit.AntJUnitReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.jenkinsjunit.JenkinsJUnitReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.mavensurefire.MavenSureFireReportParserImpl;
+import com.microfocus.application.automation.tools.results.parser.testngxml.TestNGXmlReportParserImpl;
+
+public class TestReportParserManager {
+
+	@Test
+	public void testReadRootElement() throws Exception {
+		Assert.assertEquals("testsuites", readRootElement("<?xml version=\"1.0\"?>\n<testsuites><testsuite name=\"a\"/></testsuites>"));
+		Assert.assertEquals("test-results", readRootElement("<!-- NUnit 2 -->\n<test-results name=\"a\"><test-suite/></test-results>"));
+		Assert.assertEquals("testsuite", readRootElement("<?xml version=\"1.0\"?><testsuite name=\"a\"><testcase name=\"b\"/></testsuite>"));
+	}
+
+	@Test
+	public void testReadRootElementOfMissingFile() {
+		Assert.assertNull(ReportParserManager.readRootElement("no-such-report.xml"));
+	}
+
+	@Test
+	public void testParsersByRootElement() throws Exception {
+		ReportParserManager manager = ReportParserManager.getInstance(null, null);
+		Assert.assertTrue(manager.getParsers("testsuites").get(0) instanceof AntJUnitReportParserImpl);
+		Assert.assertTrue(manager.getParsers("testsuite").get(0) instanceof MavenSureFireReportParserImpl);
+		Assert.assertTrue(manager.getParsers("result").get(0) instanceof JenkinsJUnitReportParserImpl);
+		Assert.assertTrue(manager.getParsers("testng-results").get(0) instanceof TestNGXmlReportParserImpl);
+		Assert.assertEquals(2, manager.getParsers("test-results").size());
+		Assert.assertEquals(6, manager.getParsers(null).size());
+		Assert.assertEquals(6, manager.getParsers("unknown").size());
+	}
+
+	private static String readRootElement(String xml) throws Exception {
+		return ReportParserManager.readRootElement(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.service;
+
+import com.microfocus.application.automation.tools.results.service.almentities.AlmCommonProperties;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmRun;
+import com.microfocus.application.automation.tools.results.service.almentities.AlmRunImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class AlmRestToolTest {
+
+	private static final String[] RUN_FIELDS = {AlmRun.RUN_TESTCYCL_UNIQUE_ID, AlmCommonProperties.NAME};
+
+	private FakeAlmServer alm;
+	private AlmRestTool restTool;
+
+	@Before
+	public void setUp() {
+		alm = new FakeAlmServer();
+		restTool = new AlmRestTool(alm.createClient(), new SystemOutLogger());
+	}
+
+	@Test
+	public void createdEntitiesKeepTheOrderOfTheChunks() throws Exception {
+		List<AlmRun> runs = createRuns(250);
+
+		List<AlmRun> created = restTool.createAlmEntities(runs, RUN_FIELDS, RUN_FIELDS);
+
+		assertEquals(3, alm.getBulkRequests().size());
+		assertEquals(getNames(runs), getNames(created));
+		assertEquals(250, alm.getEntities("runs").size());
+	}
+
+	@Test
+	public void failedChunkReusesTheEntitiesItCreated() throws Exception {
+		List<AlmRun> runs = createRuns(250);
+		//the second chunk fails after creating 30 of its runs
+		alm.failBulkRequestsAfter(130);
+
+		List<AlmRun> created = restTool.createAlmEntities(runs, RUN_FIELDS, RUN_FIELDS);
+
+		assertEquals(getNames(runs), getNames(created));
+		assertEquals(250, alm.getEntities("runs").size());
+		Set<String> ids = new HashSet<String>();
+		for (AlmRun run : created) {
+			ids.add(run.getId());
+		}
+		assertEquals(250, ids.size());
+	}
+
+	@Test
+	public void fallbackDoesNotReuseEntitiesOfEarlierRequests() throws Exception {
+		Map<String, String> earlierRun = new HashMap<String, String>();
+		earlierRun.put(AlmRun.RUN_TESTCYCL_UNIQUE_ID, "1");
+		earlierRun.put(AlmCommonProperties.NAME, "run-0");
+		String earlierId = alm.add("runs", earlierRun).get("id");
+		alm.failBulkRequestsAfter(0);
+
+		List<AlmRun> created = restTool.createAlmEntities(createRuns(1), RUN_FIELDS, RUN_FIELDS);
+
+		assertEquals(1, created.size());
+		assertFalse(earlierId.equals(created.get(0).getId()));
+		assertEquals(2, alm.getEntities("runs").size());
+	}
+
+	@Test(expected = ExternalEntityUploadException.class)
+	public void failedChunkFailsWhenTheCreatedEntitiesCannotBeToldApart() throws Exception {
+		alm.failMaxIdQuery(true);
+		alm.failBulkRequestsAfter(0);
+
+		restTool.createAlmEntities(createRuns(10), RUN_FIELDS, RUN_FIELDS);
+	}
+
+	@Test(expected = ExternalEntityUploadException.class)
+	public void failedQueryIsNotTakenForNoEntities() throws Exception {
+		alm.failQueries(true);
+
+		restTool.getAllAlmEntities(new AlmRunImpl(), "query={testcycl-id[1]}");
+	}
+
+	private static List<AlmRun> createRuns(int count) {
+		List<AlmRun> runs = new ArrayList<AlmRun>(count);
+		for (int i = 0; i < count; i++) {
+			AlmRun run = new AlmRunImpl();
+			run.setFieldValue(AlmRun.RUN_TESTCYCL_UNIQUE_ID, "1");
+			run.setFieldValue(AlmCommonProperties.NAME, "run-" + i);
+			runs.add(run);
+		}
+		return runs;
+	}
+
+	private static List<String> getNames(List<AlmRun> runs) {
+		List<String> names = new ArrayList<String>(runs.size());
+		for (AlmRun run : runs) {
+			names.add(run.getName());
+		}
+		return names;
+	}
+}
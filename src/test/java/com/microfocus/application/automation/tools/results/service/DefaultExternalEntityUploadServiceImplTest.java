@@ -0,0 +1,127 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.service;
+
+import hudson.FilePath;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultExternalEntityUploadServiceImplTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private FakeAlmServer alm;
+	private IExternalEntityUploadService service;
+
+	@Before
+	public void setUp() {
+		alm = new FakeAlmServer();
+		AlmRestTool restTool = new AlmRestTool(alm.createClient(), new SystemOutLogger()) {
+			@Override
+			public boolean login() {
+				return true;
+			}
+
+			@Override
+			public String getActualUsername() {
+				return "tester";
+			}
+		};
+		service = new DefaultExternalEntityUploadServiceImpl(restTool, new FilePath(folder.getRoot()), new SystemOutLogger());
+	}
+
+	@Test
+	public void testSetsOfTheSameNameAreImportedIntoOneTestSet() throws Exception {
+		File report = folder.newFile("report.xml");
+		Files.write(report.toPath(), ("<testsuites>"
+				+ suite("Suite A", "ATest", "first", "second")
+				+ suite("Suite A", "ATest", "first", "third")
+				+ suite("Suite B", "BTest", "first")
+				+ suite("Suite C", "CTest", "first")
+				+ "</testsuites>").getBytes(StandardCharsets.UTF_8));
+
+		List<String> testsetIds = service.uploadExternalTestSet(null, report.getPath(), "Import\\Sets", "Import\\Tests",
+				"JUnit", "Jenkins", "1", "job", "http://localhost:8080/job/job/1/");
+
+		assertEquals(4, testsetIds.size());
+		assertEquals(testsetIds.get(0), testsetIds.get(1));
+		assertEquals(3, new HashSet<String>(testsetIds).size());
+		assertEquals(3, alm.getEntities("test-sets").size());
+		assertEquals(5, alm.getEntities("tests").size());
+		assertEquals(5, alm.getEntities("test-instances").size());
+		assertEquals(6, alm.getEntities("runs").size());
+
+		Set<String> instanceIds = new HashSet<String>();
+		for (Map<String, String> instance : alm.getEntities("test-instances")) {
+			instanceIds.add(instance.get("id"));
+		}
+		List<String> runTestsets = new ArrayList<String>();
+		for (Map<String, String> run : alm.getEntities("runs")) {
+			assertTrue(instanceIds.contains(run.get("testcycl-id")));
+			runTestsets.add(run.get("cycle-id"));
+		}
+		assertEquals(4, countOf(runTestsets, testsetIds.get(0)));
+		assertEquals(1, countOf(runTestsets, testsetIds.get(2)));
+		assertEquals(1, countOf(runTestsets, testsetIds.get(3)));
+	}
+
+	private static String suite(String name, String className, String... methods) {
+		StringBuilder builder = new StringBuilder(String.format(
+				"<testsuite name=\"%s\" tests=\"%d\" timestamp=\"2021-01-01T10:00:00\">", name, methods.length));
+		for (String method : methods) {
+			builder.append(String.format("<testcase classname=\"com.example.%s\" name=\"%s\" time=\"1\"/>", className, method));
+		}
+		return builder.append("</testsuite>").toString();
+	}
+
+	private static int countOf(List<String> values, String value) {
+		int count = 0;
+		for (String each : values) {
+			if (each.equals(value)) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.results.service;
+
+import com.microfocus.application.automation.tools.common.SSEException;
+import com.microfocus.application.automation.tools.rest.RestClient;
+import com.microfocus.application.automation.tools.sse.common.EntityIterator;
+import com.microfocus.application.automation.tools.sse.sdk.ResourceAccessLevel;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * In memory ALM server behind a mocked RestClient, it keeps the posted entities by collection
+ * and answers the queries the upload service sends.
+ */
+class FakeAlmServer {
+
+	private final Map<String, List<Map<String, String>>> collections = new HashMap<String, List<Map<String, String>>>();
+	private final List<String> bulkRequests = new ArrayList<String>();
+	private long lastId;
+	private int bulkBudget = -1;
+	private boolean failMaxIdQuery;
+	private boolean failQueries;
+
+	RestClient createClient() {
+		RestClient client = mock(RestClient.class);
+		when(client.buildRestRequest(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(client.httpGet(anyString(), any(), any(), any(ResourceAccessLevel.class)))
+				.thenAnswer(invocation -> get(invocation.getArgument(0), invocation.getArgument(1)));
+		when(client.httpPost(anyString(), any(byte[].class), any(), any(ResourceAccessLevel.class)))
+				.thenAnswer(invocation -> post(invocation.getArgument(0), invocation.getArgument(1)));
+		return client;
+	}
+
+	/**
+	 * Bulk requests fail once they created the given number of entities, the following ones succeed again
+	 */
+	synchronized void failBulkRequestsAfter(int created) {
+		bulkBudget = created;
+	}
+
+	synchronized void failMaxIdQuery(boolean fail) {
+		failMaxIdQuery = fail;
+	}
+
+	synchronized void failQueries(boolean fail) {
+		failQueries = fail;
+	}
+
+	/**
+	 * @return the collection of each bulk request, in the order they were sent
+	 */
+	synchronized List<String> getBulkRequests() {
+		return new ArrayList<String>(bulkRequests);
+	}
+
+	synchronized List<Map<String, String>> getEntities(String collection) {
+		List<Map<String, String>> entities = collections.get(collection);
+		return entities == null ? Collections.<Map<String, String>>emptyList() : new ArrayList<Map<String, String>>(entities);
+	}
+
+	synchronized Map<String, String> add(String collection, Map<String, String> fields) {
+		Map<String, String> entity = new LinkedHashMap<String, String>(fields);
+		entity.put("id", String.valueOf(++lastId));
+		List<Map<String, String>> entities = collections.get(collection);
+		if (entities == null) {
+			entities = new ArrayList<Map<String, String>>();
+			collections.put(collection, entities);
+		}
+		entities.add(entity);
+		if ("tests".equals(collection)) {
+			// ALM creates the main configuration of a new test
+			Map<String, String> config = new HashMap<String, String>();
+			config.put("parent-id", entity.get("id"));
+			config.put("name", entity.get("name"));
+			add("test-configs", config);
+		}
+		return entity;
+	}
+
+	private synchronized Response get(String collection, String queryString) {
+		Map<String, String> parameters = getParameters(queryString);
+		boolean maxIdQuery = parameters.containsKey("order-by");
+		if (failQueries || (maxIdQuery && failMaxIdQuery)) {
+			return new Response(null, null, new SSEException("query failed"), 500);
+		}
+
+		List<Map<String, String>> found = new ArrayList<Map<String, String>>();
+		for (Map<String, String> entity : getEntities(collection)) {
+			if (matches(entity, parameters.get("query"))) {
+				found.add(entity);
+			}
+		}
+		if (maxIdQuery && parameters.get("order-by").contains("DESC")) {
+			Collections.reverse(found);
+		}
+		int pageSize = parameters.containsKey("page-size") ? Integer.parseInt(parameters.get("page-size")) : 100;
+		int startIndex = parameters.containsKey("start-index") ? Integer.parseInt(parameters.get("start-index")) : 1;
+		List<Map<String, String>> page = found.subList(Math.min(found.size(), startIndex - 1), Math.min(found.size(), startIndex - 1 + pageSize));
+		return ok(toXml(page, found.size()));
+	}
+
+	private synchronized Response post(String collection, byte[] data) {
+		String body = new String(data, StandardCharsets.UTF_8);
+		List<Map<String, String>> posted = new EntityIterator(new ByteArrayInputStream(data)).toList();
+		if (!body.startsWith("<Entities>")) {
+			return ok(toXml(Collections.singletonList(add(collection, posted.get(0))), -1));
+		}
+
+		bulkRequests.add(collection);
+		List<Map<String, String>> created = new ArrayList<Map<String, String>>();
+		for (Map<String, String> fields : posted) {
+			if (bulkBudget == 0) {
+				bulkBudget = -1;
+				return new Response(null, null, new SSEException("bulk request failed"), 500);
+			}
+			if (bulkBudget > 0) {
+				bulkBudget--;
+			}
+			created.add(add(collection, fields));
+		}
+		return ok(toXml(created, created.size()));
+	}
+
+	private static Map<String, String> getParameters(String queryString) {
+		Map<String, String> parameters = new HashMap<String, String>();
+		for (String parameter : queryString.split("&")) {
+			int index = parameter.indexOf('=');
+			parameters.put(parameter.substring(0, index), parameter.substring(index + 1));
+		}
+		return parameters;
+	}
+
+	private static boolean matches(Map<String, String> entity, String query) {
+		if (query == null) {
+			return true;
+		}
+		for (String condition : query.substring(1, query.length() - 1).split(";")) {
+			int index = condition.indexOf('[');
+			String field = condition.substring(0, index);
+			String value = decode(condition.substring(index + 1, condition.length() - 1));
+			String actual = entity.get(field) == null ? "" : entity.get(field);
+			if (value.startsWith(">")) {
+				if (Long.parseLong(actual) <= Long.parseLong(value.substring(1))) {
+					return false;
+				}
+				continue;
+			}
+			boolean any = false;
+			for (String option : value.split(" OR ")) {
+				any |= actual.equals(option.replace("\"", ""));
+			}
+			if (!any) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String decode(String value) {
+		try {
+			return URLDecoder.decode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Response ok(String xml) {
+		return new Response(null, xml.getBytes(StandardCharsets.UTF_8), null, 200);
+	}
+
+	private static String toXml(List<Map<String, String>> entities, int totalResults) {
+		StringBuilder builder = new StringBuilder(totalResults < 0 ? "<Entities>" : "<Entities TotalResults=\"" + totalResults + "\">");
+		for (Map<String, String> entity : entities) {
+			builder.append("<Entity><Fields>");
+			for (Map.Entry<String, String> field : entity.entrySet()) {
+				builder.append("<Field Name=\"").append(field.getKey()).append("\"><Value>")
+						.append(escape(field.getValue())).append("</Value></Field>");
+			}
+			builder.append("</Fields></Entity>");
+		}
+		return builder.append("</Entities>").toString();
+	}
+
+	private static String escape(String value) {
+		return value == null ? "" : value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+}
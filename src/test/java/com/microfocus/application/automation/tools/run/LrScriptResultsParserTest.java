@@ -0,0 +1,95 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.run;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class LrScriptResultsParserTest {
+
+    private static final String SCRIPT_NAME = "SampleScript";
+
+    /**
+     * JunitResult.xml is the output of the former DOM based parser for the same Results.xml
+     */
+    @Test
+    public void convertsScriptResultsLikeTheDomParser() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = getResource(LrScriptResultsParser.LR_SCRIPT_RESULT_FILENAME)) {
+            LrScriptResultsParser.writeJunitReport(LrScriptResultsParser.readReport(in), SCRIPT_NAME, out);
+        }
+
+        Document expected;
+        try (InputStream in = getResource(LrScriptResultsParser.LR_SCRIPT_JUNIT_RESULT_FILENAME)) {
+            expected = parse(in);
+        }
+        Document actual = parse(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(describe(expected.getDocumentElement()), describe(actual.getDocumentElement()));
+    }
+
+    private InputStream getResource(String fileName) {
+        return getClass().getResourceAsStream(SCRIPT_NAME + "/" + fileName);
+    }
+
+    private static Document parse(InputStream in) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in);
+    }
+
+    /**
+     * Element names, attributes in name order and child elements, the serialization details are ignored
+     */
+    private static String describe(Element element) {
+        Map<String, String> attributes = new TreeMap<>();
+        NamedNodeMap attributeNodes = element.getAttributes();
+        for (int i = 0; i < attributeNodes.getLength(); i++) {
+            attributes.put(attributeNodes.item(i).getNodeName(), attributeNodes.item(i).getNodeValue());
+        }
+        List<String> children = new ArrayList<>();
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element) {
+                children.add(describe((Element) child));
+            }
+        }
+        return element.getTagName() + attributes + children;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2023 Micro Focus or one of its affiliates.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.sse.common;
+
+import com.microfocus.application.automation.tools.common.SSEException;
+import com.microfocus.application.automation.tools.sse.sdk.Response;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EntityIteratorTest {
+
+    private static final String ENTITIES =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                    + "<Entities TotalResults=\"3\">"
+                    + "<Entity Type=\"test-instance\"><ChildrenCount><Value>0</Value></ChildrenCount><Fields>"
+                    + "<Field Name=\"id\"><Value>11</Value></Field>"
+                    + "<Field Name=\"name\"><Value>testA [1] &amp; &lt;more&gt;</Value></Field>"
+                    + "<Field Name=\"status\"><Value/></Field>"
+                    + "<Field Name=\"exec-date\"/>"
+                    + "<Field Name=\"owner\"><Value></Value></Field>"
+                    + "<Field Name=\"user-template-01\"><Value>first</Value><Value>second</Value></Field>"
+                    + "<Field Name=\"comments\"><Value><![CDATA[<html><b>note</b></html>]]></Value></Field>"
+                    + "<Field Name=\"fail-reason\"><Value><reasons/></Value></Field>"
+                    + "<Field Name=\"description\">\n    <Value>pretty printed</Value>\n</Field>"
+                    + "<Field Label=\"Test Set\" Name=\"cycle-id\" PhysicalName=\"TC_CYCLE_ID\"><Value>5</Value></Field>"
+                    + "</Fields><RelatedEntities><Relation Alias=\"test\"><Entity Type=\"test\"><Fields>"
+                    + "<Field Name=\"id\"><Value>7</Value></Field>"
+                    + "<Field Name=\"subtype-id\"><Value>EXTERNAL-TEST</Value></Field>"
+                    + "</Fields></Entity></Relation></RelatedEntities></Entity>"
+                    + "<Entity Type=\"test-instance\"><Fields>"
+                    + "<Field Name=\"id\"><Value>12</Value></Field>"
+                    + "<Field Name=\"name\"><Value>testB</Value></Field>"
+                    + "<Field Name=\"status\"><Value>Passed</Value></Field>"
+                    + "</Fields><RelatedEntities/></Entity>"
+                    + "</Entities>";
+
+    @Test
+    public void testEntitiesMatchDomParsing() {
+
+        EntityIterator entities = new EntityIterator(new StringReader(ENTITIES));
+        assertEquals(3, entities.getTotalResults());
+        List<Map<String, String>> actual = entities.toList();
+
+        assertEquals(toEntitiesWithDom(ENTITIES), actual);
+        assertEquals(3, actual.size());
+        Map<String, String> first = actual.get(0);
+        assertEquals("testA [1] & <more>", first.get("name"));
+        assertNull(first.get("status"));
+        assertTrue(first.containsKey("exec-date"));
+        assertNull(first.get("exec-date"));
+        assertNull(first.get("owner"));
+        assertEquals("first", first.get("user-template-01"));
+        assertEquals("<html><b>note</b></html>", first.get("comments"));
+        assertNull(first.get("fail-reason"));
+        assertNull(first.get("description"));
+        //named by the first attribute in name order, like a DOM attribute map
+        assertEquals("5", first.get("Test Set"));
+        //the fields of the related entity are fields of the enclosing one too
+        assertEquals("7", first.get("id"));
+        assertEquals("EXTERNAL-TEST", first.get("subtype-id"));
+        assertEquals("7", actual.get(1).get("id"));
+        assertEquals("12", actual.get(2).get("id"));
+    }
+
+    @Test
+    public void testSingleEntityAndEmptyResponses() {
+
+        String entity = ENTITIES.substring(ENTITIES.indexOf("<Entity Type=\"test-instance\"><Fields><Field Name=\"id\"><Value>12"),
+                ENTITIES.indexOf("</Entities>"));
+        assertEquals(toEntitiesWithDom(entity), new EntityIterator(new StringReader(entity)).toList());
+
+        EntityIterator empty = new EntityIterator(new StringReader("<Entities TotalResults=\"0\"/>"));
+        assertEquals(0, empty.getTotalResults());
+        assertFalse(empty.hasNext());
+        assertEquals(-1, new EntityIterator(new StringReader("<Entities/>")).getTotalResults());
+    }
+
+    @Test
+    public void testProjectionKeepsOnlyRequestedFields() {
+
+        List<Map<String, String>> actual = new EntityIterator(new StringReader(ENTITIES), "name", "status").toList();
+
+        List<Map<String, String>> expected = new ArrayList<Map<String, String>>();
+        for (Map<String, String> entity : toEntitiesWithDom(ENTITIES)) {
+            entity.keySet().retainAll(Arrays.asList("name", "status"));
+            expected.add(entity);
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testPagesAreRequestedUntilTotalResults() {
+
+        List<Integer> startIndexes = new ArrayList<Integer>();
+        EntityPages pages = new EntityPages(startIndex -> {
+            startIndexes.add(startIndex);
+            StringBuilder page = new StringBuilder("<Entities TotalResults=\"5\">");
+            for (int id = startIndex; id < startIndex + 2 && id <= 5; id++) {
+                page.append("<Entity Type=\"run\"><Fields><Field Name=\"id\"><Value>").append(id)
+                        .append("</Value></Field></Fields></Entity>");
+            }
+            return ok(page.append("</Entities>").toString());
+        }, 2, "id");
+
+        List<String> ids = new ArrayList<String>();
+        while (pages.hasNext()) {
+            ids.add(pages.next().get("id"));
+        }
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5"), ids);
+        assertEquals(Arrays.asList(1, 3, 5), startIndexes);
+    }
+
+    @Test
+    public void testFailedPageThrows() {
+
+        EntityPages pages = new EntityPages(startIndex -> new Response(null, null, null, 500), 2);
+        try {
+            pages.hasNext();
+            fail("expected SSEException");
+        } catch (SSEException expected) {
+            //the failed page is not taken for the last one
+        }
+    }
+
+    private static Response ok(String xml) {
+
+        return new Response(null, xml.getBytes(StandardCharsets.UTF_8), null, 200);
+    }
+
+    /**
+     * The DOM conversion the streaming reader replaced: the fields of all the Field descendants of an Entity, named by
+     * the first attribute and valued by the text under the first child.
+     */
+    private static List<Map<String, String>> toEntitiesWithDom(String xml) {
+
+        Document document;
+        try {
+            document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                    .parse(new InputSource(new StringReader(xml)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        List<Map<String, String>> ret = new ArrayList<Map<String, String>>();
+        NodeList entities = document.getElementsByTagName("Entity");
+        for (int i = 0; i < entities.getLength(); i++) {
+            Map<String, String> entity = new HashMap<String, String>();
+            NodeList fields = ((Element) entities.item(i)).getElementsByTagName("Field");
+            for (int j = 0; j < fields.getLength(); j++) {
+                Node field = fields.item(j);
+                Node child = field.getFirstChild();
+                Node text = child == null ? null : child.getFirstChild();
+                entity.put(field.getAttributes().item(0).getNodeValue(), text == null ? null : text.getNodeValue());
+            }
+            ret.add(entity);
+        }
+        return ret;
+    }
+}
@@ -29,6 +29,8 @@
 package com.microfocus.application.automation.tools.sse.sdk;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import com.microfocus.application.automation.tools.sse.common.TestCase;
@@ -49,7 +51,8 @@ public class TestEventLogHandler extends TestCase {
                     + PROJECT
                     + "/event-log-reads?query={context[\"*Timeslot:%20"
                     + TIMESLOT_ID
-                    + "%3B*\"]}&fields=id,event-type,creation-time,action,description";
+                    + "%3B*\"]}&fields=id,event-type,creation-time,action,description"
+                    + "&order-by={id[ASC]}&page-size=1000&start-index=1";
     
     @Test
     public void testLog() {
@@ -60,6 +63,45 @@ public class TestEventLogHandler extends TestCase {
         Assert.assertTrue(isOk);
     }
     
+    @Test
+    public void testLogOnlyNewEvents() {
+        
+        final List<String> urls = new ArrayList<String>();
+        Client client = new MockRestClient(URL, DOMAIN, PROJECT, USER) {
+            
+            @Override
+            public Response httpGet(
+                    String url,
+                    String queryString,
+                    Map<String, String> headers,
+                    ResourceAccessLevel resourceAccessLevel) {
+                
+                urls.add(url);
+                return super.httpGet(
+                        url.replace("%20" + TIMESLOT_ID + "%3B*\"];id[%3E1808]}", "%20" + TIMESLOT_ID + "%3B*\"]}"),
+                        queryString,
+                        headers,
+                        resourceAccessLevel);
+            }
+        };
+        final List<String> lines = new ArrayList<String>();
+        Logger logger = new ConsoleLogger() {
+            
+            @Override
+            public void log(String message) {
+                
+                lines.add(message);
+            }
+        };
+        EventLogHandler eventLogHandler = new EventLogHandler(client, TIMESLOT_ID);
+        Assert.assertTrue(eventLogHandler.log(logger));
+        Assert.assertEquals(7, lines.size());
+        Assert.assertTrue(eventLogHandler.log(logger));
+        Assert.assertEquals(7, lines.size());
+        Assert.assertEquals(2, urls.size());
+        Assert.assertTrue(urls.get(1).contains(";id[%3E1808]}"));
+    }
+    
     @Test
     public void testLogBadTimeslot() {
         